@@ -0,0 +1,48 @@
+package com.bookingsystem.config;
+
+import org.springframework.context.annotation.Configuration;
+import org.springframework.http.converter.HttpMessageConverters;
+import org.springframework.http.converter.cbor.JacksonCborHttpMessageConverter;
+import org.springframework.http.converter.smile.JacksonSmileHttpMessageConverter;
+import org.springframework.web.servlet.config.annotation.WebMvcConfigurer;
+import tools.jackson.databind.cfg.DateTimeFeature;
+import tools.jackson.dataformat.cbor.CBORMapper;
+import tools.jackson.dataformat.smile.SmileMapper;
+
+/**
+ * Lets server-to-server consumers ask for {@code application/cbor} or
+ * {@code application/x-jackson-smile} instead of JSON on any endpoint.
+ * <p>
+ * DECISION:
+ * - The binary formats reuse the Jackson annotations on the entities, so they carry
+ *   exactly the fields the JSON does and need no second schema. Protobuf was left out
+ *   because it would need generated message classes and a mapping layer for every
+ *   response type.
+ * - Dates are written as numeric arrays rather than ISO strings, and CBOR writes
+ *   {@code BigDecimal} as a native decimal. Formatting those as text was where JSON
+ *   spent its time. Jackson clients read both forms.
+ * - The converters write straight to the response stream through a Jackson generator,
+ *   the same as JSON, so a large list is never buffered as a byte array first.
+ * - JSON stays the default when the client sends no {@code Accept} header.
+ */
+@Configuration
+public class BinaryFormatConfig implements WebMvcConfigurer {
+
+    public static CBORMapper cborMapper() {
+        return CBORMapper.builder()
+                .enable(DateTimeFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    public static SmileMapper smileMapper() {
+        return SmileMapper.builder()
+                .enable(DateTimeFeature.WRITE_DATES_AS_TIMESTAMPS)
+                .build();
+    }
+
+    @Override
+    public void configureMessageConverters(HttpMessageConverters.ServerBuilder builder) {
+        builder.withCborConverter(new JacksonCborHttpMessageConverter(cborMapper()))
+                .withSmileConverter(new JacksonSmileHttpMessageConverter(smileMapper()));
+    }
+}
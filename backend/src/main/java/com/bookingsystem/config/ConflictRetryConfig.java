@@ -0,0 +1,42 @@
+package com.bookingsystem.config;
+
+import com.bookingsystem.service.conflict.ConflictRetryInterceptor;
+import com.bookingsystem.service.conflict.ContentionMetrics;
+import com.bookingsystem.service.conflict.RetryOnConflict;
+import org.springframework.aop.Advisor;
+import org.springframework.aop.support.ComposablePointcut;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.config.BeanDefinition;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Role;
+import org.springframework.core.Ordered;
+
+/**
+ * Wires {@link RetryOnConflict} into the proxies Spring already creates for
+ * {@code @Transactional} services.
+ * <p>
+ * DECISION:
+ * - A plain advisor on the existing auto-proxy mechanism rather than an extra retry
+ *   library; the only behaviour needed is "retry on optimistic lock conflict".
+ * - Ordered just ahead of the transaction advisor (which uses the lowest precedence), so
+ *   every attempt runs in its own transaction.
+ */
+@Configuration
+public class ConflictRetryConfig {
+
+    @Bean
+    @Role(BeanDefinition.ROLE_INFRASTRUCTURE)
+    public static Advisor conflictRetryAdvisor(ObjectProvider<ContentionMetrics> contentionMetrics) {
+        ComposablePointcut pointcut = new ComposablePointcut(
+                AnnotationMatchingPointcut.forMethodAnnotation(RetryOnConflict.class))
+                .union(AnnotationMatchingPointcut.forClassAnnotation(RetryOnConflict.class));
+
+        DefaultPointcutAdvisor advisor = new DefaultPointcutAdvisor(
+                pointcut, new ConflictRetryInterceptor(contentionMetrics));
+        advisor.setOrder(Ordered.LOWEST_PRECEDENCE - 1);
+        return advisor;
+    }
+}
@@ -5,9 +5,11 @@ import org.flywaydb.core.Flyway;
 import org.slf4j.Logger;
 import org.slf4j.LoggerFactory;
 import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.beans.factory.annotation.Value;
 import org.springframework.context.annotation.Configuration;
 
 import javax.sql.DataSource;
+import java.util.Map;
 
 /**
  * Manual Flyway Configuration
@@ -38,6 +40,10 @@ public class FlywayConfig {
     
     @Autowired
     private DataSource dataSource;
+
+    /** Block size of the pooled id sequences, applied by V9__pooled_id_sequences. */
+    @Value("${booking.ids.allocation-size:50}")
+    private int idAllocationSize;
     
     @PostConstruct
     public void initializeFlyway() {
@@ -46,6 +52,7 @@ public class FlywayConfig {
                     .dataSource(dataSource)
                     .locations("classpath:db/migration")
                     .baselineOnMigrate(true)
+                    .placeholders(Map.of("id_allocation_size", String.valueOf(idAllocationSize)))
                     .load();
             
             manualFlyway.migrate();
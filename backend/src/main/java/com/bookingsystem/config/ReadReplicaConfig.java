@@ -0,0 +1,69 @@
+package com.bookingsystem.config;
+
+import com.bookingsystem.service.routing.ReplicaRoutingDataSource;
+import com.zaxxer.hikari.HikariConfig;
+import com.zaxxer.hikari.HikariDataSource;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.autoconfigure.condition.ConditionalOnProperty;
+import org.springframework.boot.context.properties.ConfigurationProperties;
+import org.springframework.context.annotation.Bean;
+import org.springframework.context.annotation.Configuration;
+import org.springframework.context.annotation.Primary;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Routes read-only transactions to read replicas when
+ * {@code booking.datasource.replica-urls} is set (comma separated JDBC URLs).
+ * <p>
+ * DECISION:
+ * - Without replicas this configuration is skipped and the auto-configured pool is used.
+ * - The primary pool is configured from {@code spring.datasource.*} as before. Replica
+ *   pools copy its settings and only change the URL, so they log in with the same
+ *   credentials.
+ */
+@Configuration
+@ConditionalOnProperty(name = "booking.datasource.replica-urls")
+public class ReadReplicaConfig {
+
+    @Bean
+    @ConfigurationProperties("spring.datasource.hikari")
+    public HikariDataSource primaryDataSource(@Value("${spring.datasource.url}") String url,
+                                              @Value("${spring.datasource.username}") String username,
+                                              @Value("${spring.datasource.password}") String password,
+                                              @Value("${spring.datasource.driver-class-name}") String driverClassName) {
+        HikariDataSource primary = new HikariDataSource();
+        primary.setPoolName("primary");
+        primary.setJdbcUrl(url);
+        primary.setUsername(username);
+        primary.setPassword(password);
+        primary.setDriverClassName(driverClassName);
+        return primary;
+    }
+
+    @Bean
+    @Primary
+    public ReplicaRoutingDataSource dataSource(HikariDataSource primaryDataSource,
+                                               @Value("${booking.datasource.replica-urls}") List<String> replicaUrls) {
+        List<HikariDataSource> replicas = new ArrayList<>();
+        for (String url : replicaUrls) {
+            HikariConfig config = new HikariConfig();
+            primaryDataSource.copyStateTo(config);
+            config.setPoolName("replica-" + (replicas.size() + 1));
+            config.setJdbcUrl(url.trim());
+            config.setReadOnly(true);
+            replicas.add(new HikariDataSource(config));
+        }
+        return new ReplicaRoutingDataSource(primaryDataSource, replicas);
+    }
+
+    @Bean
+    public ReadYourWritesFilter readYourWritesFilter(
+            Clock clock,
+            @Value("${booking.datasource.read-your-writes:PT5S}") Duration window) {
+        return new ReadYourWritesFilter(clock, window);
+    }
+}
@@ -0,0 +1,77 @@
+package com.bookingsystem.config;
+
+import com.bookingsystem.service.routing.ReadYourWrites;
+import jakarta.servlet.FilterChain;
+import jakarta.servlet.ServletException;
+import jakarta.servlet.http.Cookie;
+import jakarta.servlet.http.HttpServletRequest;
+import jakarta.servlet.http.HttpServletResponse;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.ResponseCookie;
+import org.springframework.web.filter.OncePerRequestFilter;
+
+import java.io.IOException;
+import java.time.Clock;
+import java.time.Duration;
+
+/**
+ * Keeps a client's reads on the primary for {@code window} after it wrote.
+ * <p>
+ * DECISION:
+ * - The end of the window is handed to the client in a cookie instead of being kept
+ *   server side, so it holds across instances and needs no cleanup.
+ * - The cookie is set as soon as the request takes a primary connection for writing,
+ *   while the response headers can still be changed.
+ */
+public class ReadYourWritesFilter extends OncePerRequestFilter {
+
+    static final String COOKIE = "booking_primary_until";
+
+    private final Clock clock;
+    private final Duration window;
+
+    public ReadYourWritesFilter(Clock clock, Duration window) {
+        this.clock = clock;
+        this.window = window;
+    }
+
+    @Override
+    protected void doFilterInternal(HttpServletRequest request,
+                                    HttpServletResponse response,
+                                    FilterChain chain) throws ServletException, IOException {
+        boolean pinned = primaryUntil(request) > clock.millis();
+        ReadYourWrites.bind(new ReadYourWrites.Session(pinned, () -> {
+            if (!response.isCommitted()) {
+                response.addHeader(HttpHeaders.SET_COOKIE, ResponseCookie
+                        .from(COOKIE, String.valueOf(clock.millis() + window.toMillis()))
+                        .path("/")
+                        .maxAge(window)
+                        .httpOnly(true)
+                        .sameSite("Lax")
+                        .build()
+                        .toString());
+            }
+        }));
+        try {
+            chain.doFilter(request, response);
+        } finally {
+            ReadYourWrites.unbind();
+        }
+    }
+
+    private static long primaryUntil(HttpServletRequest request) {
+        if (request.getCookies() == null) {
+            return 0;
+        }
+        for (Cookie cookie : request.getCookies()) {
+            if (COOKIE.equals(cookie.getName())) {
+                try {
+                    return Long.parseLong(cookie.getValue());
+                } catch (NumberFormatException ex) {
+                    return 0;
+                }
+            }
+        }
+        return 0;
+    }
+}
@@ -1,22 +1,42 @@
 package com.bookingsystem.controllers;
 
 import com.bookingsystem.model.AdSpace;
+import com.bookingsystem.model.AdSpaceStatus;
 import com.bookingsystem.model.AdSpaceType;
+import com.bookingsystem.repository.AdSpaceBulkRepository;
 import com.bookingsystem.service.AdSpaceService;
+import com.bookingsystem.service.catalog.CatalogResponseCache;
+import com.bookingsystem.service.lookup.MultiGet;
+import com.bookingsystem.service.projection.FieldProjection;
+import com.bookingsystem.service.sync.AdSpaceChangeFeed;
+import jakarta.validation.Valid;
+import jakarta.validation.constraints.Min;
+import jakarta.validation.constraints.NotNull;
 import org.springframework.data.domain.Sort;
+import org.springframework.http.HttpHeaders;
 import org.springframework.http.HttpStatus;
+import org.springframework.http.MediaType;
+import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.annotation.*;
 
+import java.math.BigDecimal;
 import java.util.List;
+import java.util.function.Supplier;
 
 @RestController
 @RequestMapping("/api/v1/ad-spaces")
 public class AdSpaceController {
 
     private final AdSpaceService adSpaceService;
+    private final AdSpaceChangeFeed changeFeed;
+    private final CatalogResponseCache responseCache;
 
-    public AdSpaceController(AdSpaceService adSpaceService) {
+    public AdSpaceController(AdSpaceService adSpaceService,
+                             AdSpaceChangeFeed changeFeed,
+                             CatalogResponseCache responseCache) {
         this.adSpaceService = adSpaceService;
+        this.changeFeed = changeFeed;
+        this.responseCache = responseCache;
     }
 
     /**
@@ -32,31 +52,85 @@ public class AdSpaceController {
      *  - /api/v1/ad-spaces?type=BILLBOARD
      *  - /api/v1/ad-spaces?type=BILLBOARD&city=Bucharest
      *  - /api/v1/ad-spaces?sortBy=pricePerDay&sortOrder=asc
+     *  - /api/v1/ad-spaces?fields=id,name,city,pricePerDay,status
+     *
+     * With fields, only those properties are read from the database and returned.
+     * - 400 Bad Request if a field is unknown
+     *
+     * JSON responses are served from {@link CatalogResponseCache}, gzip-compressed when
+     * the client accepts it. CBOR / Smile requests are encoded per request.
      */
     @GetMapping
-    public List<AdSpace> getAdSpaces(
+    public ResponseEntity<?> listAdSpaces(
             @RequestParam(name = "type", required = false) String typeParam,
             @RequestParam(name = "city", required = false) String city,
             @RequestParam(name = "sortBy", required = false) String sortBy,
-            @RequestParam(name = "sortOrder", required = false, defaultValue = "asc") String sortOrder
+            @RequestParam(name = "sortOrder", required = false, defaultValue = "asc") String sortOrder,
+            @RequestParam(name = "fields", required = false) String fieldsParam,
+            @RequestHeader(name = HttpHeaders.ACCEPT, required = false) String accept,
+            @RequestHeader(name = HttpHeaders.ACCEPT_ENCODING, required = false) String acceptEncoding
     ) {
-        AdSpaceType type = null;
-        if (typeParam != null && !typeParam.isBlank()) {
-            try {
-                type = AdSpaceType.valueOf(typeParam.toUpperCase());
-            } catch (IllegalArgumentException ex) {
-                throw new IllegalArgumentException(
-                        "Invalid 'type' parameter. Allowed values: " +
-                                java.util.Arrays.toString(AdSpaceType.values())
-                );
-            }
+        List<String> fields = fieldsParam != null
+                ? FieldProjection.parse(fieldsParam, FieldProjection.AD_SPACE_FIELDS)
+                : null;
+        Supplier<List<?>> load = fields != null
+                ? () -> adSpaceService.searchAdSpaces(city, parseType(typeParam), buildSort(sortBy, sortOrder), fields)
+                : () -> getAdSpaces(typeParam, city, sortBy, sortOrder);
+
+        if (!CatalogResponseCache.servesJson(accept)) {
+            return ResponseEntity.ok(load.get());
         }
 
+        CatalogResponseCache.Body body = responseCache.get(
+                cacheKey(typeParam, city, sortBy, sortOrder, fields), load);
+
+        ResponseEntity.BodyBuilder response = ResponseEntity.ok()
+                .contentType(MediaType.APPLICATION_JSON)
+                .header(HttpHeaders.VARY, HttpHeaders.ACCEPT, HttpHeaders.ACCEPT_ENCODING);
+        if (body.gzipped() != null && acceptEncoding != null && acceptEncoding.contains("gzip")) {
+            return response.header(HttpHeaders.CONTENT_ENCODING, "gzip").body(body.gzipped());
+        }
+        return response.body(body.json());
+    }
+
+    /**
+     * Validates the list parameters and runs the search behind {@link #listAdSpaces}.
+     */
+    public List<AdSpace> getAdSpaces(String typeParam, String city, String sortBy, String sortOrder) {
+        AdSpaceType type = parseType(typeParam);
+
         Sort sort = buildSort(sortBy, sortOrder);
 
         return adSpaceService.searchAdSpaces(city, type, sort);
     }
 
+    private static AdSpaceType parseType(String typeParam) {
+        if (typeParam == null || typeParam.isBlank()) {
+            return null;
+        }
+        try {
+            return AdSpaceType.valueOf(typeParam.toUpperCase());
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException(
+                    "Invalid 'type' parameter. Allowed values: " +
+                            java.util.Arrays.toString(AdSpaceType.values())
+            );
+        }
+    }
+
+    /**
+     * Same key for requests that return the same list, e.g. {@code city=Bucharest} and
+     * {@code city=bucharest}. Invalid parameters never reach the cache: the load throws.
+     */
+    private static String cacheKey(String type, String city, String sortBy, String sortOrder, List<String> fields) {
+        return String.join("|",
+                type == null ? "" : type.trim().toUpperCase(),
+                city == null ? "" : city.toLowerCase(),
+                sortBy == null ? "" : sortBy.toLowerCase().replace("_", ""),
+                "desc".equalsIgnoreCase(sortOrder) ? "desc" : "asc",
+                fields == null ? "" : String.join(",", fields));
+    }
+
     private Sort buildSort(String sortBy, String sortOrder) {
         if (sortBy == null || sortBy.isBlank()) {
             return Sort.by("name").ascending(); // Default sort
@@ -79,32 +153,69 @@ public class AdSpaceController {
         return Sort.by(direction, normalizedField);
     }
 
+    /**
+     * GET /api/v1/ad-spaces?ids=1,2,3
+     *
+     * Returns several ad spaces, whatever their status, in the order requested.
+     * - 200 OK with the ad spaces found and the ids that don't exist
+     * - 400 Bad Request if no ids or too many ids are given
+     */
+    @GetMapping(params = "ids")
+    public MultiGet<AdSpace> getAdSpacesByIds(@RequestParam(name = "ids") List<Long> ids) {
+        return adSpaceService.getAdSpacesByIds(ids);
+    }
+
+    /**
+     * GET /api/v1/ad-spaces/changes?since={token}&limit=500
+     *
+     * Returns ad spaces created, updated or deleted since the token, in commit order.
+     * Omitting {@code since} starts from the beginning. Keep calling with
+     * {@code nextToken} while {@code hasMore} is true; once caught up, store
+     * {@code nextToken} for the next sync.
+     * - 200 OK with the changed ad spaces and the ids of deleted ones
+     * - 400 Bad Request if the token is malformed
+     */
+    @GetMapping("/changes")
+    public AdSpaceChangeFeed.Changes getChanges(
+            @RequestParam(name = "since", required = false) String since,
+            @RequestParam(name = "limit", required = false, defaultValue = "500") int limit
+    ) {
+        return changeFeed.changesSince(since, limit);
+    }
+
     /**
      * GET /api/v1/ad-spaces/{id}
      *
-     * Returns details for a single ad space.
+     * Returns details for a single ad space. Its {@code version} is also sent as the
+     * ETag, for the If-Match of a later update.
      * - 200 OK with ad space data when found
      * - 404 Not Found when the id does not exist (handled by GlobalExceptionHandler)
      */
     @GetMapping("/{id}")
-    public AdSpace getAdSpaceById(@PathVariable Long id) {
-        return adSpaceService.getAdSpaceById(id);
+    public ResponseEntity<AdSpace> getAdSpaceById(@PathVariable Long id) {
+        AdSpace adSpace = adSpaceService.getAdSpaceById(id);
+        return ResponseEntity.ok().eTag(String.valueOf(adSpace.getVersion())).body(adSpace);
     }
 
     /**
      * PATCH /api/v1/ad-spaces/{id}
      *
-     * Updates an ad space's name.
+     * Updates an ad space's name. With {@code If-Match: "<version>"}, only if nobody
+     * changed the ad space since that version was read.
      * - 200 OK with updated ad space
+     * - 400 Bad Request if If-Match is not a version
      * - 404 Not Found if ad space doesn't exist
+     * - 412 Precondition Failed if the ad space is no longer at the If-Match version
      */
     @PatchMapping("/{id}")
     public AdSpace updateAdSpace(
             @PathVariable Long id,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
             @RequestBody UpdateAdSpaceRequest request
     ) {
         return adSpaceService.updateAdSpace(
                 id,
+                expectedVersion(ifMatch),
                 request.name(),
                 null,  // type not updated from frontend
                 null,  // city not updated from frontend
@@ -135,10 +246,97 @@ public class AdSpaceController {
      */
     @PatchMapping("/{id}/book")
     public AdSpace bookAdSpace(@PathVariable Long id) {
-        AdSpace adSpace = adSpaceService.getAdSpaceById(id);
-        adSpace.markBooked();
-        return adSpaceService.updateAdSpace(id, null, null, null, null, null);
+        return adSpaceService.markAsBooked(id);
+    }
+
+    /**
+     * PATCH /api/v1/ad-spaces/{id}/capacity
+     *
+     * Sets how many advertisers can run on the ad space concurrently. Accepts If-Match
+     * like the update above.
+     * - 200 OK with updated ad space
+     * - 400 Bad Request if capacity is less than 1
+     * - 404 Not Found if ad space doesn't exist
+     * - 412 Precondition Failed if the ad space is no longer at the If-Match version
+     */
+    @PatchMapping("/{id}/capacity")
+    public AdSpace changeCapacity(
+            @PathVariable Long id,
+            @RequestHeader(name = HttpHeaders.IF_MATCH, required = false) String ifMatch,
+            @Valid @RequestBody UpdateCapacityRequest request
+    ) {
+        return adSpaceService.changeCapacity(id, expectedVersion(ifMatch), request.capacity());
+    }
+
+    /**
+     * The version named by an If-Match header, e.g. {@code "3"}; {@code null} for no
+     * header or {@code *}.
+     */
+    static Long expectedVersion(String ifMatch) {
+        if (ifMatch == null || ifMatch.isBlank() || ifMatch.trim().equals("*")) {
+            return null;
+        }
+        String tag = ifMatch.trim();
+        if (tag.startsWith("W/")) {
+            tag = tag.substring(2);
+        }
+        if (tag.length() >= 2 && tag.startsWith("\"") && tag.endsWith("\"")) {
+            tag = tag.substring(1, tag.length() - 1);
+        }
+        try {
+            return Long.parseLong(tag);
+        } catch (NumberFormatException ex) {
+            throw new IllegalArgumentException("If-Match must be the ad space's ETag, e.g. \"3\"");
+        }
+    }
+
+    /**
+     * PATCH /api/v1/ad-spaces/bulk/status
+     *
+     * Sets the status of every ad space matching the filter, e.g. a whole city going
+     * into maintenance. At least one filter criterion is required.
+     * - 200 OK with the ids that changed
+     * - 400 Bad Request if the filter is empty or lists too many ids
+     */
+    @PatchMapping("/bulk/status")
+    public BulkUpdateResponse bulkChangeStatus(@Valid @RequestBody BulkStatusRequest request) {
+        return BulkUpdateResponse.of(adSpaceService.bulkChangeStatus(request.filter(), request.status()));
+    }
+
+    /**
+     * PATCH /api/v1/ad-spaces/bulk/price
+     *
+     * Sets (ABSOLUTE) or scales by a percentage (PERCENTAGE) the price per day of every
+     * ad space matching the filter. At least one filter criterion is required.
+     * - 200 OK with the ids that were repriced
+     * - 400 Bad Request if the filter is empty or lists too many ids, or the value is
+     *   out of range (an ABSOLUTE price must be between 0.01 and 99999999.99)
+     */
+    @PatchMapping("/bulk/price")
+    public BulkUpdateResponse bulkAdjustPrice(@Valid @RequestBody BulkPriceRequest request) {
+        return BulkUpdateResponse.of(
+                adSpaceService.bulkAdjustPrice(request.filter(), request.adjustment(), request.value()));
     }
 
     public record UpdateAdSpaceRequest(String name) {}
+
+    public record BulkStatusRequest(
+            @NotNull AdSpaceBulkRepository.Filter filter,
+            @NotNull AdSpaceStatus status
+    ) {}
+
+    public record BulkPriceRequest(
+            @NotNull AdSpaceBulkRepository.Filter filter,
+            @NotNull AdSpaceBulkRepository.PriceAdjustment adjustment,
+            @NotNull BigDecimal value
+    ) {}
+
+    public record BulkUpdateResponse(int updated, List<Long> ids) {
+
+        static BulkUpdateResponse of(List<Long> ids) {
+            return new BulkUpdateResponse(ids.size(), ids);
+        }
+    }
+
+    public record UpdateCapacityRequest(@NotNull @Min(1) Integer capacity) {}
 }
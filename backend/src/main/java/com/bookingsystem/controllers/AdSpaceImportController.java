@@ -0,0 +1,47 @@
+package com.bookingsystem.controllers;
+
+import com.bookingsystem.service.ingest.AdSpaceImportService;
+import org.springframework.http.HttpHeaders;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.PostMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.io.IOException;
+import java.io.InputStream;
+
+@RestController
+@RequestMapping("/api/v1/ad-spaces/import")
+public class AdSpaceImportController {
+
+    private static final MediaType TEXT_CSV = MediaType.parseMediaType("text/csv");
+
+    private final AdSpaceImportService adSpaceImportService;
+
+    public AdSpaceImportController(AdSpaceImportService adSpaceImportService) {
+        this.adSpaceImportService = adSpaceImportService;
+    }
+
+    /**
+     * POST /api/v1/ad-spaces/import
+     *
+     * Bulk loads ad spaces for onboarding a media owner. The body is streamed, either as
+     * CSV with a header row (name,type,city,address,pricePerDay[,capacity]) or as
+     * NDJSON with one object per line using the same field names. Quoted CSV fields may
+     * contain line breaks.
+     * - 200 OK with the number of imported rows and the rejected rows with reasons
+     * - 400 Bad Request if the CSV header is invalid or a quoted field is never closed
+     * - 415 Unsupported Media Type for other content types
+     */
+    @PostMapping(consumes = {"text/csv", MediaType.APPLICATION_NDJSON_VALUE})
+    public AdSpaceImportService.ImportResult importAdSpaces(
+            @RequestHeader(HttpHeaders.CONTENT_TYPE) MediaType contentType,
+            InputStream body
+    ) throws IOException {
+        AdSpaceImportService.Format format = TEXT_CSV.includes(contentType)
+                ? AdSpaceImportService.Format.CSV
+                : AdSpaceImportService.Format.NDJSON;
+        return adSpaceImportService.importAdSpaces(body, format);
+    }
+}
@@ -0,0 +1,42 @@
+package com.bookingsystem.controllers;
+
+import com.bookingsystem.service.analytics.RevenueAnalyticsService;
+import com.bookingsystem.service.analytics.RevenueQuery;
+import com.bookingsystem.service.analytics.RevenueSlice;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/analytics")
+public class AnalyticsController {
+
+    private final RevenueAnalyticsService revenueAnalyticsService;
+
+    public AnalyticsController(RevenueAnalyticsService revenueAnalyticsService) {
+        this.revenueAnalyticsService = revenueAnalyticsService;
+    }
+
+    /**
+     * GET /api/v1/analytics/revenue?from=2026-01&to=2026-12&city=&type=&groupBy=city,type,month
+     *
+     * Revenue, booked days, utilization and average daily rate of approved bookings for
+     * the months {@code from}..{@code to}, optionally filtered by city and type and
+     * grouped by any of city, type and month.
+     * - 200 OK with one row per group, or a single total row without groupBy
+     * - 400 Bad Request for a missing or invalid month range, type or dimension
+     */
+    @GetMapping("/revenue")
+    public List<RevenueSlice> revenue(
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) String city,
+            @RequestParam(required = false) String type,
+            @RequestParam(required = false) String groupBy
+    ) {
+        return revenueAnalyticsService.report(RevenueQuery.parse(from, to, city, type, groupBy));
+    }
+}
@@ -0,0 +1,57 @@
+package com.bookingsystem.controllers;
+
+import com.bookingsystem.exception.BookingNotFoundException;
+import com.bookingsystem.model.BookingStatus;
+import com.bookingsystem.service.archive.ArchiveQuery;
+import com.bookingsystem.service.archive.ArchivedBooking;
+import com.bookingsystem.service.archive.BookingArchiveService;
+import org.springframework.format.annotation.DateTimeFormat;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.PathVariable;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+@RestController
+@RequestMapping("/api/v1/archive/bookings")
+public class BookingArchiveController {
+
+    private final BookingArchiveService bookingArchiveService;
+
+    public BookingArchiveController(BookingArchiveService bookingArchiveService) {
+        this.bookingArchiveService = bookingArchiveService;
+    }
+
+    /**
+     * GET /api/v1/archive/bookings/{id}
+     *
+     * Returns an archived booking from the columnar archive file.
+     * - 200 OK when the booking has been archived
+     * - 404 Not Found otherwise (handled globally)
+     */
+    @GetMapping("/{id}")
+    public ArchivedBooking getArchivedBooking(@PathVariable Long id) {
+        return bookingArchiveService.findById(id)
+                .orElseThrow(() -> new BookingNotFoundException(id));
+    }
+
+    /**
+     * GET /api/v1/archive/bookings/report
+     *
+     * Totals over archived bookings, optionally filtered by ad space, start date range
+     * (inclusive) and status.
+     * - 200 OK with booking count, approved count, revenue and booked days
+     */
+    @GetMapping("/report")
+    public BookingArchiveService.ArchiveReport report(
+            @RequestParam(required = false) Long adSpaceId,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate from,
+            @RequestParam(required = false) @DateTimeFormat(iso = DateTimeFormat.ISO.DATE) LocalDate to,
+            @RequestParam(required = false) Set<BookingStatus> status
+    ) {
+        return bookingArchiveService.report(new ArchiveQuery(adSpaceId, from, to, status));
+    }
+}
@@ -4,6 +4,8 @@ import com.bookingsystem.dto.BookingRequestDto;
 import com.bookingsystem.model.BookingRequest;
 import com.bookingsystem.model.BookingStatus;
 import com.bookingsystem.service.BookingRequestService;
+import com.bookingsystem.service.lookup.MultiGet;
+import com.bookingsystem.service.projection.FieldProjection;
 import jakarta.validation.Valid;
 import org.springframework.http.HttpStatus;
 import org.springframework.web.bind.annotation.*;
@@ -25,7 +27,7 @@ public class BookingRequestController {
      * POST /api/v1/booking-requests
      *
      * Creates a new booking request.
-     * - 201 Created on success
+     * - 201 Created on success (status WAITLISTED if the period was full and joinWaitlist was set)
      * - 400 / 404 / 409 errors handled globally
      */
     @PostMapping
@@ -36,7 +38,9 @@ public class BookingRequestController {
                 request.advertiserName(),
                 request.advertiserEmail(),
                 request.startDate(),
-                request.endDate()
+                request.endDate(),
+                request.holdId(),
+                request.joinWaitlist()
         );
     }
 
@@ -44,26 +48,51 @@ public class BookingRequestController {
      * GET /api/v1/booking-requests
      *
      * Lists booking requests, optionally filtered by status.
+     * With ?fields=id,advertiserName,startDate,status only those properties are read and
+     * returned; the ad space is only joined when adSpaceName is asked for.
      * - 200 OK with a list of bookings
-     * - 400 Bad Request if the status parameter is invalid
+     * - 400 Bad Request if the status parameter or a field is invalid
      */
     @GetMapping
-    public List<BookingRequest> listBookings(
-            @RequestParam(name = "status", required = false) String statusParam
+    public List<?> listBookings(
+            @RequestParam(name = "status", required = false) String statusParam,
+            @RequestParam(name = "fields", required = false) String fieldsParam
     ) {
-        BookingStatus status = null;
-        if (statusParam != null && !statusParam.isBlank()) {
-            try {
-                status = BookingStatus.valueOf(statusParam.toUpperCase());
-            } catch (IllegalArgumentException ex) {
-                throw new IllegalArgumentException(
-                        "Invalid 'status' parameter. Allowed values: " +
-                                Arrays.toString(BookingStatus.values())
-                );
-            }
+        if (fieldsParam == null) {
+            return listBookings(statusParam);
         }
+        List<String> fields = FieldProjection.parse(fieldsParam, FieldProjection.BOOKING_FIELDS);
+        return bookingRequestService.listBookings(parseStatus(statusParam), fields);
+    }
+
+    public List<BookingRequest> listBookings(String statusParam) {
+        return bookingRequestService.listBookings(parseStatus(statusParam));
+    }
+
+    private static BookingStatus parseStatus(String statusParam) {
+        if (statusParam == null || statusParam.isBlank()) {
+            return null;
+        }
+        try {
+            return BookingStatus.valueOf(statusParam.toUpperCase());
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException(
+                    "Invalid 'status' parameter. Allowed values: " +
+                            Arrays.toString(BookingStatus.values())
+            );
+        }
+    }
 
-        return bookingRequestService.listBookings(status);
+    /**
+     * GET /api/v1/booking-requests?ids=1,2,3
+     *
+     * Returns several booking requests, live or archived, in the order requested.
+     * - 200 OK with the bookings found and the ids that don't exist
+     * - 400 Bad Request if no ids or too many ids are given
+     */
+    @GetMapping(params = "ids")
+    public MultiGet<BookingRequest> getBookingsByIds(@RequestParam(name = "ids") List<Long> ids) {
+        return bookingRequestService.getBookingsByIds(ids);
     }
 
     /**
@@ -103,4 +132,17 @@ public class BookingRequestController {
     public BookingRequest rejectBooking(@PathVariable Long id) {
         return bookingRequestService.rejectBooking(id);
     }
+
+    /**
+     * PATCH /api/v1/booking-requests/{id}/cancel
+     *
+     * Cancels an approved booking and promotes the best fitting waitlisted request.
+     * - 200 OK with the cancelled booking on success
+     * - 400 Bad Request if the booking is not APPROVED
+     * - 404 Not Found if the booking does not exist
+     */
+    @PatchMapping("/{id}/cancel")
+    public BookingRequest cancelBooking(@PathVariable Long id) {
+        return bookingRequestService.cancelBooking(id);
+    }
 }
\ No newline at end of file
@@ -0,0 +1,41 @@
+package com.bookingsystem.controllers;
+
+import com.bookingsystem.service.events.ChangeEventHub;
+import org.springframework.http.MediaType;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestHeader;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RestController;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+@RestController
+@RequestMapping("/api/v1/events")
+public class ChangeEventController {
+
+    private final ChangeEventHub changeEventHub;
+
+    public ChangeEventController(ChangeEventHub changeEventHub) {
+        this.changeEventHub = changeEventHub;
+    }
+
+    /**
+     * GET /api/v1/events
+     *
+     * Server-Sent Events stream of committed changes, so clients can patch their local
+     * state instead of polling:
+     * - booking.created / booking.approved / booking.rejected / booking.cancelled with the booking,
+     *   booking.promoted when a waitlisted booking moves back to PENDING
+     * - ad-space.updated with the ad space, ad-space.deleted with its id,
+     *   ad-spaces.changed with the ids touched by a bulk update
+     * - for changes made through another server: bookings.changed with the ad space id
+     *   and booking ids, ad-spaces.changed with the ad space ids
+     * - resync when events were lost; the client should reload its lists
+     * Reconnecting with Last-Event-ID resumes after that event.
+     */
+    @GetMapping(produces = MediaType.TEXT_EVENT_STREAM_VALUE)
+    public SseEmitter streamChanges(
+            @RequestHeader(name = "Last-Event-ID", required = false) String lastEventId
+    ) {
+        return changeEventHub.subscribe(lastEventId);
+    }
+}
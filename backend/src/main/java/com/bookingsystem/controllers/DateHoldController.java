@@ -0,0 +1,66 @@
+package com.bookingsystem.controllers;
+
+import com.bookingsystem.dto.BookingRequestDto;
+import com.bookingsystem.model.DateHold;
+import com.bookingsystem.service.hold.HoldService;
+import jakarta.validation.Valid;
+import org.springframework.http.HttpStatus;
+import org.springframework.web.bind.annotation.*;
+
+import java.util.UUID;
+
+@RestController
+@RequestMapping("/api/v1/holds")
+public class DateHoldController {
+
+    private final HoldService holdService;
+
+    public DateHoldController(HoldService holdService) {
+        this.holdService = holdService;
+    }
+
+    /**
+     * POST /api/v1/holds
+     *
+     * Temporarily reserves a date range on an ad space while the advertiser checks out.
+     * Pass the returned id as holdId when creating the booking request.
+     * - 201 Created with the hold and its expiry
+     * - 400 Bad Request if the period is invalid or already booked/held
+     * - 404 Not Found if the ad space doesn't exist
+     * - 409 Conflict if the ad space is not AVAILABLE
+     */
+    @PostMapping
+    @ResponseStatus(HttpStatus.CREATED)
+    public DateHold placeHold(@Valid @RequestBody BookingRequestDto.CreateHold request) {
+        return holdService.placeHold(
+                request.adSpaceId(),
+                request.holderEmail(),
+                request.startDate(),
+                request.endDate()
+        );
+    }
+
+    /**
+     * GET /api/v1/holds/{id}
+     *
+     * - 200 OK with the hold while it is active
+     * - 404 Not Found once it expired, was released or was used by a booking
+     */
+    @GetMapping("/{id}")
+    public DateHold getHold(@PathVariable UUID id) {
+        return holdService.getHold(id);
+    }
+
+    /**
+     * DELETE /api/v1/holds/{id}
+     *
+     * Releases a hold before it expires.
+     * - 204 No Content on success
+     * - 404 Not Found if the hold is no longer active
+     */
+    @DeleteMapping("/{id}")
+    @ResponseStatus(HttpStatus.NO_CONTENT)
+    public void releaseHold(@PathVariable UUID id) {
+        holdService.releaseHold(id);
+    }
+}
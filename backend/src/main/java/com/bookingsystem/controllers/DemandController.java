@@ -0,0 +1,42 @@
+package com.bookingsystem.controllers;
+
+import com.bookingsystem.service.demand.DemandSketches;
+import org.springframework.web.bind.annotation.GetMapping;
+import org.springframework.web.bind.annotation.RequestMapping;
+import org.springframework.web.bind.annotation.RequestParam;
+import org.springframework.web.bind.annotation.RestController;
+
+import java.util.List;
+
+@RestController
+@RequestMapping("/api/v1/demand")
+public class DemandController {
+
+    private final DemandSketches demandSketches;
+
+    public DemandController(DemandSketches demandSketches) {
+        this.demandSketches = demandSketches;
+    }
+
+    /**
+     * GET /api/v1/demand?from=2026-W01&to=2026-W12&adSpaceId=&limit=50
+     *
+     * Estimated booking requests and rejections per ad space and ISO week, and the
+     * estimated number of distinct advertisers per ad space, busiest spaces first.
+     * Without from/to it covers the current and the next 11 weeks.
+     * - 200 OK with one entry per ad space that received requests
+     * - 400 Bad Request for a malformed, reversed or too long week range or a bad limit
+     */
+    @GetMapping
+    public List<DemandSketches.SpaceDemand> demand(
+            @RequestParam(required = false) String from,
+            @RequestParam(required = false) String to,
+            @RequestParam(required = false) Long adSpaceId,
+            @RequestParam(defaultValue = "50") int limit
+    ) {
+        return demandSketches.demand(adSpaceId,
+                DemandSketches.parseWeek("from", from),
+                DemandSketches.parseWeek("to", to),
+                limit);
+    }
+}
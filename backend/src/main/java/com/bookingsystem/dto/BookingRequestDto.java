@@ -5,6 +5,7 @@ import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 
 import java.time.LocalDate;
+import java.util.UUID;
 
 /**
  * DTOs for booking request API operations.
@@ -13,11 +14,34 @@ import java.time.LocalDate;
  */
 public class BookingRequestDto {
 
+    /**
+     * @param holdId       optional id of a date hold taken by the same advertiser; when present
+     *                     the booking is admitted against that hold and consumes it
+     * @param joinWaitlist when true, a request for a fully booked period is waitlisted
+     *                     instead of rejected
+     */
     public record Create(
             @NotNull Long adSpaceId,
             @NotBlank String advertiserName,
             @NotBlank @Email String advertiserEmail,
             @NotNull LocalDate startDate,
+            @NotNull LocalDate endDate,
+            UUID holdId,
+            boolean joinWaitlist
+    ) {
+        public Create(Long adSpaceId,
+                      String advertiserName,
+                      String advertiserEmail,
+                      LocalDate startDate,
+                      LocalDate endDate) {
+            this(adSpaceId, advertiserName, advertiserEmail, startDate, endDate, null, false);
+        }
+    }
+
+    public record CreateHold(
+            @NotNull Long adSpaceId,
+            @NotBlank @Email String holderEmail,
+            @NotNull LocalDate startDate,
             @NotNull LocalDate endDate
     ) {}
 }
@@ -0,0 +1,8 @@
+package com.bookingsystem.exception;
+
+public class AdSpaceVersionMismatchException extends RuntimeException {
+    public AdSpaceVersionMismatchException(Long id, long expected, long actual) {
+        super("Ad space " + id + " is at version " + actual + ", not " + expected
+                + "; reload it and apply the change again");
+    }
+}
@@ -1,7 +1,9 @@
 package com.bookingsystem.exception;
 
+import jakarta.persistence.OptimisticLockException;
 import jakarta.servlet.http.HttpServletRequest;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.dao.OptimisticLockingFailureException;
 import org.springframework.http.HttpStatus;
 import org.springframework.http.ResponseEntity;
 import org.springframework.web.bind.MethodArgumentNotValidException;
@@ -51,6 +53,16 @@ public class GlobalExceptionHandler {
                 .body(buildError(HttpStatus.NOT_FOUND, "Booking not found", ex.getMessage(), request));
     }
 
+    @ExceptionHandler(HoldNotFoundException.class)
+    public ResponseEntity<ApiError> handleHoldNotFound(
+            HoldNotFoundException ex,
+            HttpServletRequest request
+    ) {
+        return ResponseEntity
+                .status(HttpStatus.NOT_FOUND)
+                .body(buildError(HttpStatus.NOT_FOUND, "Hold not found", ex.getMessage(), request));
+    }
+
     @ExceptionHandler(AdSpaceNotAvailableException.class)
     public ResponseEntity<ApiError> handleAdSpaceNotAvailable(
             AdSpaceNotAvailableException ex,
@@ -61,6 +73,55 @@ public class GlobalExceptionHandler {
                 .body(buildError(HttpStatus.CONFLICT, "Ad space not available", ex.getMessage(), request));
     }
 
+    @ExceptionHandler(IdempotencyKeyInProgressException.class)
+    public ResponseEntity<ApiError> handleIdempotencyKeyInProgress(
+            IdempotencyKeyInProgressException ex,
+            HttpServletRequest request
+    ) {
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(buildError(HttpStatus.CONFLICT, "Request in progress", ex.getMessage(), request));
+    }
+
+    @ExceptionHandler(IdempotencyKeyReuseException.class)
+    public ResponseEntity<ApiError> handleIdempotencyKeyReuse(
+            IdempotencyKeyReuseException ex,
+            HttpServletRequest request
+    ) {
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(buildError(HttpStatus.CONFLICT, "Idempotency key reused", ex.getMessage(), request));
+    }
+
+    /**
+     * Another transaction updated the same row first (and retries, if any, ran out).
+     * The client should reload and try again.
+     */
+    @ExceptionHandler({OptimisticLockingFailureException.class, OptimisticLockException.class})
+    public ResponseEntity<ApiError> handleOptimisticLock(
+            Exception ex,
+            HttpServletRequest request
+    ) {
+        String message = "The resource was modified by another request. Please reload and try again.";
+
+        return ResponseEntity
+                .status(HttpStatus.CONFLICT)
+                .body(buildError(HttpStatus.CONFLICT, "Concurrent modification", message, request));
+    }
+
+    /**
+     * The client's If-Match names a version that is no longer current.
+     */
+    @ExceptionHandler(AdSpaceVersionMismatchException.class)
+    public ResponseEntity<ApiError> handleVersionMismatch(
+            AdSpaceVersionMismatchException ex,
+            HttpServletRequest request
+    ) {
+        return ResponseEntity
+                .status(HttpStatus.PRECONDITION_FAILED)
+                .body(buildError(HttpStatus.PRECONDITION_FAILED, "Precondition failed", ex.getMessage(), request));
+    }
+
     @ExceptionHandler(BookingValidationException.class)
     public ResponseEntity<ApiError> handleBookingValidation(
             BookingValidationException ex,
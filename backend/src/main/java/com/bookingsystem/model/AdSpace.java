@@ -2,14 +2,18 @@ package com.bookingsystem.model;
 
 import jakarta.persistence.*;
 import jakarta.validation.constraints.DecimalMin;
+import jakarta.validation.constraints.Min;
 import jakarta.validation.constraints.NotBlank;
 import jakarta.validation.constraints.NotNull;
 import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.math.BigDecimal;
+import java.time.LocalDate;
 import java.time.LocalDateTime;
 
 @Entity
@@ -18,8 +22,13 @@ import java.time.LocalDateTime;
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class AdSpace {
 
+    /**
+     * Drawn from {@code ad_space_id_seq} through Hibernate's pooled optimizer, so new rows
+     * get ids without a round trip each and inserts can be batched.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "ad_space_seq")
+    @SequenceGenerator(name = "ad_space_seq", sequenceName = "ad_space_id_seq", allocationSize = 50)
     @Column(name = "id")
     private Long id;
 
@@ -30,7 +39,8 @@ public class AdSpace {
 
     @NotNull(message = "Ad space type is required")
     @Enumerated(EnumType.STRING)
-    @Column(name = "type", nullable = false)
+    @JdbcTypeCode(SqlTypes.NAMED_ENUM)
+    @Column(name = "type", nullable = false, columnDefinition = "ad_space_type")
     private AdSpaceType type;
 
     @Setter
@@ -50,9 +60,43 @@ public class AdSpace {
     private BigDecimal pricePerDay;
 
     @Enumerated(EnumType.STRING)
-    @Column(name = "status", nullable = false)
+    @JdbcTypeCode(SqlTypes.NAMED_ENUM)
+    @Column(name = "status", nullable = false, columnDefinition = "ad_space_status")
     private AdSpaceStatus status;
 
+    /**
+     * Maximum number of approved bookings that may run on this space on the same day.
+     * A capacity of 1 means any overlap is a conflict.
+     */
+    @Min(value = 1, message = "Capacity must be at least 1")
+    @Column(name = "capacity", nullable = false)
+    private int capacity = 1;
+
+    /**
+     * Optimistic lock version, bumped by every update of the row.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
+    /**
+     * Number of approved bookings of this space. Like the booking summary fields below,
+     * it is maintained by the database function {@code refresh_ad_space_booking_summary}
+     * and read-only here.
+     */
+    @Column(name = "approved_booking_count", nullable = false, insertable = false, updatable = false)
+    private int approvedBookingCount;
+
+    @Column(name = "booked_revenue", nullable = false, insertable = false, updatable = false)
+    private BigDecimal bookedRevenue = BigDecimal.ZERO;
+
+    /**
+     * First day from today on with a free slot; {@code null} when no approved booking
+     * ends today or later.
+     */
+    @Column(name = "next_free_date", insertable = false, updatable = false)
+    private LocalDate nextFreeDate;
+
     @Column(name = "created_at", nullable = false, updatable = false)
     private LocalDateTime createdAt;
 
@@ -92,6 +136,13 @@ public class AdSpace {
         this.type = newType;
     }
 
+    public void changeCapacity(int newCapacity) {
+        if (newCapacity < 1) {
+            throw new IllegalArgumentException("Capacity must be at least 1");
+        }
+        this.capacity = newCapacity;
+    }
+
     public void markAvailable() {
         this.status = AdSpaceStatus.AVAILABLE;
     }
@@ -10,6 +10,8 @@ import lombok.AccessLevel;
 import lombok.Getter;
 import lombok.NoArgsConstructor;
 import lombok.Setter;
+import org.hibernate.annotations.JdbcTypeCode;
+import org.hibernate.type.SqlTypes;
 
 import java.math.BigDecimal;
 import java.time.LocalDate;
@@ -21,8 +23,13 @@ import java.time.LocalDateTime;
 @NoArgsConstructor(access = AccessLevel.PROTECTED)
 public class BookingRequest {
 
+    /**
+     * Drawn from {@code booking_request_id_seq} through Hibernate's pooled optimizer, so
+     * new rows get ids without a round trip each and inserts can be batched.
+     */
     @Id
-    @GeneratedValue(strategy = GenerationType.IDENTITY)
+    @GeneratedValue(strategy = GenerationType.SEQUENCE, generator = "booking_request_seq")
+    @SequenceGenerator(name = "booking_request_seq", sequenceName = "booking_request_id_seq", allocationSize = 50)
     private Long id;
 
     @JsonIgnore
@@ -65,10 +72,21 @@ public class BookingRequest {
     @Column(name = "total_cost", nullable = false)
     private BigDecimal totalCost;
 
+    /**
+     * Stored as the PostgreSQL enum {@code booking_status}; the labels are the enum names.
+     */
     @Enumerated(EnumType.STRING)
+    @JdbcTypeCode(SqlTypes.NAMED_ENUM)
     @Column(nullable = false, columnDefinition = "booking_status default 'PENDING'")
     private BookingStatus status = BookingStatus.PENDING;
 
+    /**
+     * Optimistic lock version, bumped by every update of the row.
+     */
+    @Version
+    @Column(name = "version", nullable = false)
+    private long version;
+
     @Column(name = "created_at", nullable = false)
     private LocalDateTime createdAt;
 
@@ -136,6 +154,30 @@ public class BookingRequest {
         this.status = BookingStatus.REJECTED;
     }
 
+    /**
+     * Parks a new request on the ad space's waitlist instead of leaving it PENDING.
+     */
+    public void moveToWaitlist() {
+        if (this.status != BookingStatus.PENDING) {
+            throw new IllegalStateException("Only pending bookings can be waitlisted. Current status: " + this.status);
+        }
+        this.status = BookingStatus.WAITLISTED;
+    }
+
+    public void promoteFromWaitlist() {
+        if (this.status != BookingStatus.WAITLISTED) {
+            throw new IllegalStateException("Only waitlisted bookings can be promoted. Current status: " + this.status);
+        }
+        this.status = BookingStatus.PENDING;
+    }
+
+    public void cancel() {
+        if (this.status != BookingStatus.APPROVED) {
+            throw new IllegalStateException("Only approved bookings can be cancelled. Current status: " + this.status);
+        }
+        this.status = BookingStatus.CANCELLED;
+    }
+
     public boolean isActive() {
         if (this.status != BookingStatus.APPROVED) {
             return false;
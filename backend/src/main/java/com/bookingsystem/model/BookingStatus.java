@@ -3,5 +3,17 @@ package com.bookingsystem.model;
 public enum BookingStatus {
     PENDING,
     APPROVED,
-    REJECTED
+    REJECTED,
+    /**
+     * Lost the overlap check and is queued for the ad space; promoted to PENDING when a slot frees up.
+     */
+    WAITLISTED,
+    /**
+     * Was APPROVED and then cancelled, freeing its slot.
+     */
+    CANCELLED,
+    /**
+     * Was still PENDING or WAITLISTED when its start date passed; set by the lifecycle reconciler.
+     */
+    EXPIRED
 }
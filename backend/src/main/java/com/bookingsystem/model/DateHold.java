@@ -0,0 +1,75 @@
+package com.bookingsystem.model;
+
+import jakarta.persistence.*;
+import lombok.AccessLevel;
+import lombok.Getter;
+import lombok.NoArgsConstructor;
+
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.UUID;
+
+/**
+ * A short-lived reservation of a date range on an ad space, taken while an advertiser
+ * is between quoting and submitting a booking request.
+ * <p>
+ * Holds live in memory (see HoldService); this entity is only persisted when the
+ * restart fallback is enabled.
+ */
+@Entity
+@Table(name = "date_hold")
+@Getter
+@NoArgsConstructor(access = AccessLevel.PROTECTED)
+public class DateHold {
+
+    @Id
+    @Column(name = "id")
+    private UUID id;
+
+    @Column(name = "ad_space_id", nullable = false)
+    private Long adSpaceId;
+
+    @Column(name = "holder_email", nullable = false)
+    private String holderEmail;
+
+    @Column(name = "start_date", nullable = false)
+    private LocalDate startDate;
+
+    @Column(name = "end_date", nullable = false)
+    private LocalDate endDate;
+
+    @Column(name = "expires_at", nullable = false)
+    private Instant expiresAt;
+
+    @Column(name = "created_at", nullable = false, updatable = false)
+    private LocalDateTime createdAt;
+
+    public DateHold(Long adSpaceId,
+                    String holderEmail,
+                    LocalDate startDate,
+                    LocalDate endDate,
+                    Instant expiresAt,
+                    LocalDateTime createdAt) {
+        this.id = UUID.randomUUID();
+        this.adSpaceId = adSpaceId;
+        this.holderEmail = holderEmail;
+        this.startDate = startDate;
+        this.endDate = endDate;
+        this.expiresAt = expiresAt;
+        this.createdAt = createdAt;
+    }
+
+    public boolean isExpired(Instant now) {
+        return !now.isBefore(expiresAt);
+    }
+
+    /**
+     * A hold covers a booking when it is for the same ad space and spans every day of it.
+     */
+    public boolean covers(Long otherAdSpaceId, LocalDate otherStart, LocalDate otherEnd) {
+        return adSpaceId.equals(otherAdSpaceId)
+                && !otherStart.isBefore(startDate)
+                && !otherEnd.isAfter(endDate);
+    }
+}
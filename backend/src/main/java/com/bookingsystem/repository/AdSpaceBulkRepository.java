@@ -0,0 +1,44 @@
+package com.bookingsystem.repository;
+
+import com.bookingsystem.model.AdSpaceStatus;
+import com.bookingsystem.model.AdSpaceType;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Set-based updates over every ad space matching a filter, each a single
+ * {@code UPDATE ... RETURNING id}.
+ */
+public interface AdSpaceBulkRepository {
+
+    /**
+     * Selects ad spaces by any combination of exact city (case-insensitive), type and ids.
+     * Absent criteria don't restrict the selection.
+     */
+    record Filter(String city, AdSpaceType type, List<Long> ids) {
+
+        public boolean isEmpty() {
+            return (city == null || city.isBlank()) && type == null && (ids == null || ids.isEmpty());
+        }
+    }
+
+    enum PriceAdjustment {
+        /** Sets the price per day to the given value. */
+        ABSOLUTE,
+        /** Changes the price per day by the given percentage, e.g. 10 or -5. */
+        PERCENTAGE
+    }
+
+    /**
+     * @return ids of the spaces whose status actually changed
+     */
+    List<Long> bulkChangeStatus(Filter filter, AdSpaceStatus status);
+
+    /**
+     * Percentage results are rounded to cents and never drop below 0.01.
+     *
+     * @return ids of the spaces that were repriced
+     */
+    List<Long> bulkAdjustPrice(Filter filter, PriceAdjustment adjustment, BigDecimal value);
+}
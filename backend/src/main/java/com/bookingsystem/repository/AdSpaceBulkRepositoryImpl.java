@@ -0,0 +1,66 @@
+package com.bookingsystem.repository;
+
+import com.bookingsystem.model.AdSpaceStatus;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.util.List;
+
+/**
+ * Builds the WHERE clause from the filter criteria that are present, so each bulk
+ * operation stays one statement with no per-row work.
+ */
+class AdSpaceBulkRepositoryImpl implements AdSpaceBulkRepository {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    AdSpaceBulkRepositoryImpl(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Override
+    @Transactional
+    public List<Long> bulkChangeStatus(Filter filter, AdSpaceStatus status) {
+        MapSqlParameterSource params = new MapSqlParameterSource("status", status.name());
+        String sql = """
+                UPDATE ad_space SET status = CAST(:status AS ad_space_status), updated_at = NOW(), version = version + 1
+                WHERE status <> CAST(:status AS ad_space_status)
+                """ + where(filter, params) + "RETURNING id";
+        return jdbcTemplate.queryForList(sql, params, Long.class);
+    }
+
+    @Override
+    @Transactional
+    public List<Long> bulkAdjustPrice(Filter filter, PriceAdjustment adjustment, BigDecimal value) {
+        MapSqlParameterSource params = new MapSqlParameterSource("value", value);
+        String newPrice = switch (adjustment) {
+            case ABSOLUTE -> ":value";
+            case PERCENTAGE -> "GREATEST(0.01, ROUND(price_per_day * (100 + :value) / 100, 2))";
+        };
+        String sql = "UPDATE ad_space SET price_per_day = " + newPrice
+                + ", updated_at = NOW(), version = version + 1\n"
+                + "WHERE TRUE\n"
+                + where(filter, params) + "RETURNING id";
+        return jdbcTemplate.queryForList(sql, params, Long.class);
+    }
+
+    private static String where(Filter filter, MapSqlParameterSource params) {
+        StringBuilder where = new StringBuilder();
+        if (filter.city() != null && !filter.city().isBlank()) {
+            // Served by idx_adspace_city_lower (V18).
+            where.append("  AND LOWER(city) = LOWER(:city)\n");
+            params.addValue("city", filter.city().trim());
+        }
+        if (filter.type() != null) {
+            where.append("  AND type = CAST(:type AS ad_space_type)\n");
+            params.addValue("type", filter.type().name());
+        }
+        if (filter.ids() != null && !filter.ids().isEmpty()) {
+            where.append("  AND id IN (:ids)\n");
+            params.addValue("ids", filter.ids());
+        }
+        return where.toString();
+    }
+}
@@ -0,0 +1,22 @@
+package com.bookingsystem.repository;
+
+import com.bookingsystem.model.AdSpace;
+
+/**
+ * Re-reads ad spaces changed behind the persistence context's back.
+ */
+public interface AdSpaceRefreshRepository {
+
+    /**
+     * Whether the persistence context already holds the ad space. Native
+     * {@code UPDATE ... RETURNING *} queries map the returned row onto such an instance
+     * and keep its stale state, so it has to be {@link #refresh refreshed} afterwards.
+     * Checked before the UPDATE: afterwards the returned row itself is managed.
+     */
+    boolean isManaged(Long id);
+
+    /**
+     * Reloads a managed ad space from the database.
+     */
+    AdSpace refresh(AdSpace adSpace);
+}
@@ -0,0 +1,29 @@
+package com.bookingsystem.repository;
+
+import com.bookingsystem.model.AdSpace;
+import jakarta.persistence.EntityManager;
+import org.hibernate.engine.spi.SessionImplementor;
+import org.hibernate.persister.entity.EntityPersister;
+
+class AdSpaceRefreshRepositoryImpl implements AdSpaceRefreshRepository {
+
+    private final EntityManager entityManager;
+
+    AdSpaceRefreshRepositoryImpl(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    @Override
+    public boolean isManaged(Long id) {
+        SessionImplementor session = entityManager.unwrap(SessionImplementor.class);
+        EntityPersister persister = session.getFactory().getMappingMetamodel().getEntityDescriptor(AdSpace.class);
+        // Looks in the persistence context only; unlike find, never queries the database.
+        return session.getPersistenceContextInternal().getEntity(session.generateEntityKey(id, persister)) != null;
+    }
+
+    @Override
+    public AdSpace refresh(AdSpace adSpace) {
+        entityManager.refresh(adSpace);
+        return adSpace;
+    }
+}
@@ -5,12 +5,18 @@ import com.bookingsystem.model.AdSpaceStatus;
 import com.bookingsystem.model.AdSpaceType;
 import org.springframework.data.domain.Sort;
 import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
-public interface AdSpaceRepository extends JpaRepository<AdSpace, Long> {
+public interface AdSpaceRepository extends JpaRepository<AdSpace, Long>, AdSpaceBulkRepository,
+        AdSpaceRefreshRepository {
 
     List<AdSpace> findByStatus(AdSpaceStatus status, Sort sort);
 
@@ -44,4 +50,110 @@ public interface AdSpaceRepository extends JpaRepository<AdSpace, Long> {
     default List<AdSpace> findAllBooked() {
         return findByStatus(AdSpaceStatus.BOOKED, Sort.by("name").ascending());
     }
+
+    /**
+     * Moves up to {@code batchSize} BOOKED spaces back to AVAILABLE when fewer approved
+     * bookings than their capacity are active on {@code today}.
+     *
+     * @return ids of the spaces that were released
+     */
+    @Transactional
+    @Query(nativeQuery = true, value = """
+            UPDATE ad_space SET status = 'AVAILABLE', updated_at = NOW(), version = version + 1
+            WHERE id IN (
+                SELECT a.id FROM ad_space a
+                WHERE a.status = 'BOOKED'
+                  AND (SELECT COUNT(*) FROM booking_request b
+                       WHERE b.ad_space_id = a.id
+                         AND b.status = 'APPROVED'
+                         AND b.start_date <= :today
+                         AND b.end_date >= :today) < a.capacity
+                ORDER BY a.id
+                LIMIT :batchSize
+                FOR UPDATE SKIP LOCKED
+            )
+            RETURNING id
+            """)
+    List<Long> releaseIdleBookedSpaces(@Param("today") LocalDate today, @Param("batchSize") int batchSize);
+
+    /**
+     * Moves up to {@code batchSize} AVAILABLE spaces to BOOKED when the approved bookings
+     * active on {@code today} fill their capacity. Spaces in MAINTENANCE are left alone.
+     *
+     * @return ids of the spaces that were booked
+     */
+    @Transactional
+    @Query(nativeQuery = true, value = """
+            UPDATE ad_space SET status = 'BOOKED', updated_at = NOW(), version = version + 1
+            WHERE id IN (
+                SELECT a.id FROM ad_space a
+                WHERE a.status = 'AVAILABLE'
+                  AND (SELECT COUNT(*) FROM booking_request b
+                       WHERE b.ad_space_id = a.id
+                         AND b.status = 'APPROVED'
+                         AND b.start_date <= :today
+                         AND b.end_date >= :today) >= a.capacity
+                ORDER BY a.id
+                LIMIT :batchSize
+                FOR UPDATE SKIP LOCKED
+            )
+            RETURNING id
+            """)
+    List<Long> occupyFullyBookedSpaces(@Param("today") LocalDate today, @Param("batchSize") int batchSize);
+
+    /**
+     * Locks the space's row until the end of the transaction, so that approvals of its
+     * bookings run one at a time, on every node.
+     */
+    @Query(nativeQuery = true, value = "SELECT id FROM ad_space WHERE id = :id FOR UPDATE")
+    Long lockById(@Param("id") Long id);
+
+    /**
+     * Sets the status in one statement and returns the updated row. Empty if the space
+     * doesn't exist or already has that status. The row is only read again when the
+     * transaction already held a now stale copy of the space.
+     */
+    default Optional<AdSpace> changeStatus(Long id, AdSpaceStatus status) {
+        boolean stale = isManaged(id);
+        Optional<AdSpace> updated = updateStatusIfDifferent(id, status.name());
+        return stale ? updated.map(this::refresh) : updated;
+    }
+
+    @Transactional
+    @Query(nativeQuery = true, value = """
+            UPDATE ad_space SET status = CAST(:status AS ad_space_status), updated_at = NOW(), version = version + 1
+            WHERE id = :id AND status <> CAST(:status AS ad_space_status)
+            RETURNING *
+            """)
+    Optional<AdSpace> updateStatusIfDifferent(@Param("id") Long id, @Param("status") String status);
+
+    /**
+     * Recomputes the booking summary of one space from its approved bookings.
+     *
+     * @return whether the stored summary changed
+     */
+    default boolean refreshBookingSummary(Long id, LocalDate today) {
+        return refreshBookingSummaries(id, id, today) > 0;
+    }
+
+    /**
+     * Recomputes the booking summary of the spaces with ids in {@code [firstId, lastId]},
+     * writing only the rows that drifted, and returns how many did.
+     */
+    @Transactional
+    @Query(nativeQuery = true, value = "SELECT refresh_ad_space_booking_summary(:firstId, :lastId, :today)")
+    int refreshBookingSummaries(@Param("firstId") long firstId,
+                                @Param("lastId") long lastId,
+                                @Param("today") LocalDate today);
+
+    /**
+     * Returns the id of the last space among the {@code batchSize} following {@code afterId},
+     * or {@code null} once there are none left.
+     */
+    @Query(nativeQuery = true, value = """
+            SELECT MAX(id) FROM (
+                SELECT id FROM ad_space WHERE id > :afterId ORDER BY id LIMIT :batchSize
+            ) batch
+            """)
+    Long findBatchEnd(@Param("afterId") long afterId, @Param("batchSize") int batchSize);
 }
@@ -6,8 +6,12 @@ import org.springframework.data.jpa.repository.JpaRepository;
 import org.springframework.data.jpa.repository.Query;
 import org.springframework.data.repository.query.Param;
 import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
 
+import java.time.LocalDate;
+import java.util.Collection;
 import java.util.List;
+import java.util.Optional;
 
 @Repository
 public interface BookingRequestRepository extends JpaRepository<BookingRequest, Long> {
@@ -20,4 +24,115 @@ public interface BookingRequestRepository extends JpaRepository<BookingRequest,
     
     @Query("SELECT b FROM BookingRequest b JOIN FETCH b.adSpace")
     List<BookingRequest> findAll();
+
+    /**
+     * Marks up to {@code batchSize} PENDING or WAITLISTED requests whose start date has passed as EXPIRED.
+     * Rows locked by concurrent transactions are skipped and picked up by a later batch.
+     *
+     * @return the expired requests, as updated
+     */
+    @Transactional
+    @Query(nativeQuery = true, value = """
+            UPDATE booking_request SET status = 'EXPIRED', updated_at = NOW(), version = version + 1
+            WHERE id IN (
+                SELECT id FROM booking_request
+                WHERE status IN ('PENDING', 'WAITLISTED') AND start_date < :today
+                ORDER BY id
+                LIMIT :batchSize
+                FOR UPDATE SKIP LOCKED
+            )
+            RETURNING *
+            """)
+    List<BookingRequest> expireStalePending(@Param("today") LocalDate today, @Param("batchSize") int batchSize);
+
+    /**
+     * Highest number of APPROVED bookings of an ad space on any single day between
+     * {@code start} and {@code end} (both inclusive), leaving out {@code excludedId}.
+     * The peak falls on {@code start} or on the start date of an overlapping booking, so
+     * only those days are counted.
+     */
+    @Query(nativeQuery = true, value = """
+            SELECT CAST(COALESCE(MAX((
+                SELECT COUNT(*) FROM booking_request o
+                WHERE o.ad_space_id = :adSpaceId
+                  AND o.status = 'APPROVED'
+                  AND o.id <> :excludedId
+                  AND o.start_date <= d.day
+                  AND o.end_date >= d.day)), 0) AS INTEGER)
+            FROM (
+                SELECT CAST(:start AS DATE) AS day
+                UNION
+                SELECT b.start_date FROM booking_request b
+                WHERE b.ad_space_id = :adSpaceId
+                  AND b.status = 'APPROVED'
+                  AND b.id <> :excludedId
+                  AND b.start_date > :start
+                  AND b.start_date <= :end
+            ) d
+            """)
+    int peakApprovedOccupancy(@Param("adSpaceId") Long adSpaceId,
+                              @Param("excludedId") Long excludedId,
+                              @Param("start") LocalDate start,
+                              @Param("end") LocalDate end);
+
+    /**
+     * Up to {@code limit} WAITLISTED requests of an ad space that overlap
+     * {@code freedStart}..{@code freedEnd} and don't start before {@code today}: oldest
+     * first or, with {@code byPrice}, most valuable first. Rows locked by a concurrent
+     * promotion are skipped; the returned ones stay locked until the transaction ends.
+     */
+    @Query(nativeQuery = true, value = """
+            SELECT * FROM booking_request
+            WHERE ad_space_id = :adSpaceId
+              AND status = 'WAITLISTED'
+              AND start_date >= :today
+              AND start_date <= :freedEnd
+              AND end_date >= :freedStart
+            ORDER BY CASE WHEN :byPrice THEN total_cost END DESC, id
+            LIMIT :limit
+            FOR UPDATE SKIP LOCKED
+            """)
+    List<BookingRequest> lockWaitlistCandidates(@Param("adSpaceId") Long adSpaceId,
+                                                @Param("freedStart") LocalDate freedStart,
+                                                @Param("freedEnd") LocalDate freedEnd,
+                                                @Param("today") LocalDate today,
+                                                @Param("byPrice") boolean byPrice,
+                                                @Param("limit") int limit);
+
+    /**
+     * Looks a booking up among the archived quarters, which {@link #findById} no longer sees.
+     */
+    @Query(nativeQuery = true, value = "SELECT * FROM archive.booking_request_archive WHERE id = :id")
+    Optional<BookingRequest> findArchivedById(@Param("id") Long id);
+
+    @Query(nativeQuery = true, value = "SELECT * FROM archive.booking_request_archive WHERE id IN (:ids)")
+    List<BookingRequest> findArchivedByIds(@Param("ids") Collection<Long> ids);
+
+    /**
+     * Moves a booking from {@code from} to {@code to} in one statement and returns the
+     * updated row. Empty if the booking doesn't exist or is no longer in {@code from}.
+     */
+    default Optional<BookingRequest> transition(Long id, BookingStatus from, BookingStatus to) {
+        return updateStatusIfCurrent(id, from.name(), to.name());
+    }
+
+    @Transactional
+    @Query(nativeQuery = true, value = """
+            UPDATE booking_request SET status = CAST(:to AS booking_status), updated_at = NOW(), version = version + 1
+            WHERE id = :id AND status = CAST(:from AS booking_status)
+            RETURNING *
+            """)
+    Optional<BookingRequest> updateStatusIfCurrent(@Param("id") Long id,
+                                                   @Param("from") String from,
+                                                   @Param("to") String to);
+
+    /**
+     * Adds ({@code delta} 1) or removes ({@code delta} -1) the nights and revenue of a
+     * booking in the monthly analytics aggregates, and returns how many month rows it
+     * touched. A removal goes to the city and type the booking was added under (see
+     * V16), even if its ad space has moved since.
+     */
+    @Transactional
+    @Query(nativeQuery = true, value = "SELECT apply_booking_stats(:id, :startDate, :delta)")
+    int applyBookingStats(@Param("id") Long id, @Param("startDate") LocalDate startDate, @Param("delta") int delta);
 }
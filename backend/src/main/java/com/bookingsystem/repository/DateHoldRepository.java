@@ -0,0 +1,24 @@
+package com.bookingsystem.repository;
+
+import com.bookingsystem.model.DateHold;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+import java.util.List;
+import java.util.UUID;
+
+@Repository
+public interface DateHoldRepository extends JpaRepository<DateHold, UUID> {
+
+    List<DateHold> findByExpiresAtAfter(Instant now);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM DateHold h WHERE h.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
@@ -0,0 +1,56 @@
+package com.bookingsystem.repository;
+
+import com.bookingsystem.model.IdempotencyRecord;
+import org.springframework.data.jpa.repository.JpaRepository;
+import org.springframework.data.jpa.repository.Modifying;
+import org.springframework.data.jpa.repository.Query;
+import org.springframework.data.repository.query.Param;
+import org.springframework.stereotype.Repository;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Instant;
+
+@Repository
+public interface IdempotencyRecordRepository extends JpaRepository<IdempotencyRecord, String> {
+
+    /**
+     * Claims a key for execution. Returns 0 if another request (on any node) holds it.
+     */
+    @Transactional
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            INSERT INTO idempotency_key (idempotency_key, request_hash, expires_at)
+            VALUES (:key, :requestHash, :expiresAt)
+            ON CONFLICT (idempotency_key) DO NOTHING
+            """)
+    int claim(@Param("key") String key,
+              @Param("requestHash") String requestHash,
+              @Param("expiresAt") Instant expiresAt);
+
+    @Transactional
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            UPDATE idempotency_key
+            SET response_status = :status, response_content_type = :contentType,
+                response_body = :body, expires_at = :expiresAt
+            WHERE idempotency_key = :key
+            """)
+    int complete(@Param("key") String key,
+                 @Param("status") int status,
+                 @Param("contentType") String contentType,
+                 @Param("body") byte[] body,
+                 @Param("expiresAt") Instant expiresAt);
+
+    @Transactional
+    @Modifying
+    @Query(nativeQuery = true, value = """
+            DELETE FROM idempotency_key
+            WHERE idempotency_key = :key AND response_status IS NULL
+            """)
+    int releaseClaim(@Param("key") String key);
+
+    @Transactional
+    @Modifying
+    @Query("DELETE FROM IdempotencyRecord r WHERE r.expiresAt <= :now")
+    int deleteExpired(@Param("now") Instant now);
+}
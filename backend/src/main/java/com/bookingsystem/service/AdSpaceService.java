@@ -1,25 +1,57 @@
 package com.bookingsystem.service;
 
 import com.bookingsystem.exception.AdSpaceNotFoundException;
+import com.bookingsystem.exception.AdSpaceVersionMismatchException;
 import com.bookingsystem.model.AdSpace;
 import com.bookingsystem.model.AdSpaceStatus;
 import com.bookingsystem.model.AdSpaceType;
+import com.bookingsystem.repository.AdSpaceBulkRepository;
 import com.bookingsystem.repository.AdSpaceRepository;
+import com.bookingsystem.service.catalog.CatalogSearchEngine;
+import com.bookingsystem.service.conflict.RetryOnConflict;
+import com.bookingsystem.service.lookup.EntityMultiLoader;
+import com.bookingsystem.service.lookup.MultiGet;
+import com.bookingsystem.service.projection.FieldProjection;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.data.domain.Sort;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.math.RoundingMode;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
 
 @Service
 @Transactional
 public class AdSpaceService {
 
+    /**
+     * Largest value of the {@code NUMERIC(10,2)} price column.
+     */
+    private static final BigDecimal MAX_PRICE = new BigDecimal("99999999.99");
+
     private final AdSpaceRepository adSpaceRepository;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityMultiLoader multiLoader;
+    private final FieldProjection fieldProjection;
+    private final CatalogSearchEngine catalogSearch;
+    private final int maxBulkIds;
 
-    public AdSpaceService(AdSpaceRepository adSpaceRepository) {
+    public AdSpaceService(AdSpaceRepository adSpaceRepository,
+                          ApplicationEventPublisher eventPublisher,
+                          EntityMultiLoader multiLoader,
+                          FieldProjection fieldProjection,
+                          CatalogSearchEngine catalogSearch,
+                          @Value("${booking.bulk.max-ids:1000}") int maxBulkIds) {
         this.adSpaceRepository = adSpaceRepository;
+        this.eventPublisher = eventPublisher;
+        this.multiLoader = multiLoader;
+        this.fieldProjection = fieldProjection;
+        this.catalogSearch = catalogSearch;
+        this.maxBulkIds = maxBulkIds;
     }
 
     public AdSpace createAdSpace(
@@ -38,7 +70,7 @@ public class AdSpaceService {
                 AdSpaceStatus.AVAILABLE
         );
 
-        return adSpaceRepository.save(adSpace);
+        return published(adSpaceRepository.save(adSpace));
     }
 
     @Transactional(readOnly = true)
@@ -47,6 +79,19 @@ public class AdSpaceService {
                 .orElseThrow(() -> new AdSpaceNotFoundException(id));
     }
 
+    private AdSpace getAdSpaceById(Long id, Long expectedVersion) {
+        AdSpace adSpace = getAdSpaceById(id);
+        if (expectedVersion != null && expectedVersion != adSpace.getVersion()) {
+            throw new AdSpaceVersionMismatchException(id, expectedVersion, adSpace.getVersion());
+        }
+        return adSpace;
+    }
+
+    @Transactional(readOnly = true)
+    public MultiGet<AdSpace> getAdSpacesByIds(List<Long> ids) {
+        return multiLoader.load(AdSpace.class, ids, null);
+    }
+
     @Transactional(readOnly = true)
     public List<AdSpace> getAllAvailableAdSpaces() {
         return adSpaceRepository.findByStatus(AdSpaceStatus.AVAILABLE, Sort.by("name").ascending());
@@ -58,6 +103,11 @@ public class AdSpaceService {
             sort = Sort.by("name").ascending();
         }
 
+        Optional<List<AdSpace>> inMemory = catalogSearch.search(city, type, sort);
+        if (inMemory.isPresent()) {
+            return inMemory.get();
+        }
+
         if (city != null && type != null) {
             return adSpaceRepository.findByStatusAndTypeAndCityContainingIgnoreCase(
                     AdSpaceStatus.AVAILABLE,
@@ -86,27 +136,47 @@ public class AdSpaceService {
         return adSpaceRepository.findByStatus(AdSpaceStatus.AVAILABLE, sort);
     }
 
+    /**
+     * {@link #searchAdSpaces} reading only {@code fields}, for list screens that show a
+     * few columns.
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> searchAdSpaces(String city, AdSpaceType type, Sort sort, List<String> fields) {
+        return fieldProjection.availableAdSpaces(fields, city, type, sort != null ? sort : Sort.by("name").ascending());
+    }
+
     public AdSpace markForMaintenance(Long id) {
-        AdSpace adSpace = getAdSpaceById(id);
-        adSpace.markMaintenance();
-        return adSpaceRepository.save(adSpace);
+        return changeStatus(id, AdSpaceStatus.MAINTENANCE);
     }
 
     public AdSpace markAsAvailable(Long id) {
-        AdSpace adSpace = getAdSpaceById(id);
-        adSpace.markAvailable();
-        return adSpaceRepository.save(adSpace);
+        return changeStatus(id, AdSpaceStatus.AVAILABLE);
     }
 
+    public AdSpace markAsBooked(Long id) {
+        return changeStatus(id, AdSpaceStatus.BOOKED);
+    }
+
+    /**
+     * Applies the given fields to the ad space.
+     * <p>
+     * With {@code expectedVersion} (the client's If-Match), the edit only applies to the
+     * version the client last read; otherwise {@link AdSpaceVersionMismatchException}.
+     * Retrying on conflict is safe: each attempt re-reads the row and re-checks the
+     * version, so an edit that lost the race is refused rather than applied over the
+     * winner's. Without {@code expectedVersion} the last writer wins, as requested.
+     */
+    @RetryOnConflict
     public AdSpace updateAdSpace(
             Long id,
+            Long expectedVersion,
             String name,
             AdSpaceType type,
             String city,
             String address,
             BigDecimal pricePerDay
     ) {
-        AdSpace adSpace = getAdSpaceById(id);
+        AdSpace adSpace = getAdSpaceById(id, expectedVersion);
 
         if (name != null) adSpace.setName(name);
         if (type != null) adSpace.changeType(type);
@@ -114,11 +184,90 @@ public class AdSpaceService {
         if (address != null) adSpace.setAddress(address);
         if (pricePerDay != null) adSpace.setPricePerDay(pricePerDay);
 
-        return adSpaceRepository.save(adSpace);
+        return published(adSpaceRepository.save(adSpace));
+    }
+
+    /**
+     * Sets the capacity, checking {@code expectedVersion} like {@link #updateAdSpace}.
+     */
+    @RetryOnConflict
+    public AdSpace changeCapacity(Long id, Long expectedVersion, int capacity) {
+        AdSpace adSpace = getAdSpaceById(id, expectedVersion);
+        adSpace.changeCapacity(capacity);
+        return published(adSpaceRepository.save(adSpace));
+    }
+
+    /**
+     * Sets the status of every ad space matching the filter in one UPDATE.
+     *
+     * @return ids of the spaces whose status changed
+     */
+    public List<Long> bulkChangeStatus(AdSpaceBulkRepository.Filter filter, AdSpaceStatus status) {
+        requireFilter(filter);
+        return published(adSpaceRepository.bulkChangeStatus(filter, status));
+    }
+
+    /**
+     * Sets or scales the price per day of every ad space matching the filter in one UPDATE.
+     *
+     * @return ids of the repriced spaces
+     */
+    public List<Long> bulkAdjustPrice(AdSpaceBulkRepository.Filter filter,
+                                      AdSpaceBulkRepository.PriceAdjustment adjustment,
+                                      BigDecimal value) {
+        requireFilter(filter);
+        if (adjustment == AdSpaceBulkRepository.PriceAdjustment.ABSOLUTE
+                && (value.setScale(2, RoundingMode.HALF_UP).signum() <= 0 || value.compareTo(MAX_PRICE) > 0)) {
+            throw new IllegalArgumentException("Price must be between 0.01 and " + MAX_PRICE);
+        }
+        if (adjustment == AdSpaceBulkRepository.PriceAdjustment.PERCENTAGE
+                && value.compareTo(BigDecimal.valueOf(-100)) <= 0) {
+            throw new IllegalArgumentException("Percentage decrease must be less than 100");
+        }
+        return published(adSpaceRepository.bulkAdjustPrice(filter, adjustment, value));
+    }
+
+    /**
+     * An empty filter would touch every ad space; that has to be asked for by type or ids.
+     * The ids go into one IN list, hence the cap.
+     */
+    private void requireFilter(AdSpaceBulkRepository.Filter filter) {
+        if (filter == null || filter.isEmpty()) {
+            throw new IllegalArgumentException("At least one of city, type or ids is required");
+        }
+        if (filter.ids() != null && filter.ids().size() > maxBulkIds) {
+            throw new IllegalArgumentException("At most " + maxBulkIds + " ids can be updated at once");
+        }
+    }
+
+    private AdSpace published(AdSpace changed) {
+        if (changed.getId() != null) {
+            AfterCommit.run(() -> eventPublisher.publishEvent(AdSpacesChangedEvent.saved(changed)));
+        }
+        return changed;
+    }
+
+    private List<Long> published(List<Long> changedIds) {
+        if (!changedIds.isEmpty()) {
+            AfterCommit.run(() -> eventPublisher.publishEvent(new AdSpacesChangedEvent(changedIds)));
+        }
+        return changedIds;
+    }
+
+    /**
+     * Status changes are a single conditional UPDATE ... RETURNING. Only when no row
+     * changed is the space looked up: it either doesn't exist (404) or already has the
+     * requested status, which is returned as is.
+     */
+    private AdSpace changeStatus(Long id, AdSpaceStatus status) {
+        return adSpaceRepository.changeStatus(id, status)
+                .map(this::published)
+                .orElseGet(() -> getAdSpaceById(id));
     }
 
     public void deleteAdSpace(Long id) {
         AdSpace adSpace = getAdSpaceById(id);
         adSpaceRepository.delete(adSpace);
+        AfterCommit.run(() -> eventPublisher.publishEvent(AdSpacesChangedEvent.deleted(id)));
     }
 }
@@ -0,0 +1,28 @@
+package com.bookingsystem.service;
+
+import com.bookingsystem.model.AdSpace;
+
+import java.util.List;
+
+/**
+ * Published once after a transaction that created, changed or deleted ad spaces
+ * commits, listing every affected id, so anything caching ad spaces invalidates them
+ * in one go.
+ * <p>
+ * {@code adSpaces} holds the committed state when a single space was saved; bulk
+ * changes only carry the ids.
+ */
+public record AdSpacesChangedEvent(List<Long> adSpaceIds, List<AdSpace> adSpaces, boolean deleted) {
+
+    public AdSpacesChangedEvent(List<Long> adSpaceIds) {
+        this(adSpaceIds, List.of(), false);
+    }
+
+    public static AdSpacesChangedEvent saved(AdSpace adSpace) {
+        return new AdSpacesChangedEvent(List.of(adSpace.getId()), List.of(adSpace), false);
+    }
+
+    public static AdSpacesChangedEvent deleted(Long adSpaceId) {
+        return new AdSpacesChangedEvent(List.of(adSpaceId), List.of(), true);
+    }
+}
@@ -0,0 +1,32 @@
+package com.bookingsystem.service;
+
+import com.bookingsystem.model.BookingRequest;
+
+/**
+ * Published after a transaction that created a booking or changed its status commits,
+ * with the booking as committed.
+ * <p>
+ * {@code created} tells a new request apart from a status change that lands on the
+ * same status, e.g. a waitlisted request promoted back to PENDING.
+ */
+public record BookingChangedEvent(BookingRequest booking, boolean created) {
+
+    public BookingChangedEvent(BookingRequest booking) {
+        this(booking, false);
+    }
+
+    public static BookingChangedEvent created(BookingRequest booking) {
+        return new BookingChangedEvent(booking, true);
+    }
+
+    /**
+     * Occupancy is cached per ad space, so invalidation goes by the space.
+     */
+    public Long adSpaceId() {
+        return booking.getAdSpaceId();
+    }
+
+    public Long bookingId() {
+        return booking.getId();
+    }
+}
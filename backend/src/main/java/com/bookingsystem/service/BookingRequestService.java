@@ -8,27 +8,66 @@ import com.bookingsystem.model.AdSpace;
 import com.bookingsystem.model.AdSpaceStatus;
 import com.bookingsystem.model.BookingRequest;
 import com.bookingsystem.model.BookingStatus;
+import com.bookingsystem.model.DateHold;
 import com.bookingsystem.repository.AdSpaceRepository;
 import com.bookingsystem.repository.BookingRequestRepository;
+import com.bookingsystem.service.hold.HoldService;
+import com.bookingsystem.service.lookup.EntityMultiLoader;
+import com.bookingsystem.service.lookup.MultiGet;
+import com.bookingsystem.service.occupancy.OccupancyIndex;
+import com.bookingsystem.service.projection.FieldProjection;
+import com.bookingsystem.service.waitlist.WaitlistService;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.stereotype.Service;
 import org.springframework.transaction.annotation.Transactional;
 
 import java.math.BigDecimal;
+import java.time.Clock;
 import java.time.LocalDate;
 import java.time.temporal.ChronoUnit;
 import java.util.List;
+import java.util.Map;
+import java.util.Optional;
+import java.util.UUID;
+import java.util.function.Function;
+import java.util.stream.Collectors;
 
 @Service
 @Transactional
 public class BookingRequestService {
 
+    private static final Logger log = LoggerFactory.getLogger(BookingRequestService.class);
+
     private final BookingRequestRepository bookingRequestRepository;
     private final AdSpaceRepository adSpaceRepository;
+    private final OccupancyIndex occupancyIndex;
+    private final HoldService holdService;
+    private final WaitlistService waitlistService;
+    private final Clock clock;
+    private final ApplicationEventPublisher eventPublisher;
+    private final EntityMultiLoader multiLoader;
+    private final FieldProjection fieldProjection;
 
     public BookingRequestService(BookingRequestRepository bookingRequestRepository,
-                                  AdSpaceRepository adSpaceRepository) {
+                                  AdSpaceRepository adSpaceRepository,
+                                  OccupancyIndex occupancyIndex,
+                                  HoldService holdService,
+                                  WaitlistService waitlistService,
+                                  Clock clock,
+                                  ApplicationEventPublisher eventPublisher,
+                                  EntityMultiLoader multiLoader,
+                                  FieldProjection fieldProjection) {
         this.bookingRequestRepository = bookingRequestRepository;
         this.adSpaceRepository = adSpaceRepository;
+        this.occupancyIndex = occupancyIndex;
+        this.holdService = holdService;
+        this.waitlistService = waitlistService;
+        this.clock = clock;
+        this.eventPublisher = eventPublisher;
+        this.multiLoader = multiLoader;
+        this.fieldProjection = fieldProjection;
     }
 
     public BookingRequest createBooking(Long adSpaceId,
@@ -36,7 +75,27 @@ public class BookingRequestService {
                                         String advertiserEmail,
                                         LocalDate startDate,
                                         LocalDate endDate) {
+        return createBooking(adSpaceId, advertiserName, advertiserEmail, startDate, endDate, null, false);
+    }
+
+    /**
+     * Creates a booking request. When {@code holdId} refers to an active hold of the same
+     * advertiser covering the period, that hold's slot is used and the hold is released
+     * once the booking is committed. When the period is fully booked and
+     * {@code joinWaitlist} is set, the request is saved as WAITLISTED instead of rejected.
+     */
+    public BookingRequest createBooking(Long adSpaceId,
+                                        String advertiserName,
+                                        String advertiserEmail,
+                                        LocalDate startDate,
+                                        LocalDate endDate,
+                                        UUID holdId,
+                                        boolean joinWaitlist) {
         
+        DateHold hold = holdId != null
+                ? holdService.requireHoldFor(holdId, adSpaceId, advertiserEmail, startDate, endDate)
+                : null;
+
         AdSpace adSpace = adSpaceRepository.findById(adSpaceId)
                 .orElseThrow(() -> new AdSpaceNotFoundException(adSpaceId));
 
@@ -45,13 +104,15 @@ public class BookingRequestService {
                     "Ad space is not available. Current status: " + adSpace.getStatus());
         }
 
-        List<BookingRequest> approvedBookings = bookingRequestRepository
-                .findByAdSpaceIdAndStatus(adSpaceId, BookingStatus.APPROVED);
-
-        boolean hasOverlap = approvedBookings.stream()
-                .anyMatch(existing -> existing.overlapsWith(startDate, endDate));
+        int peak = occupancyIndex.peakOccupancy(adSpaceId, startDate, endDate);
+        if (hold != null && occupancyIndex.countsHold(hold)) {
+            // The hold spans every day of the booking, so it accounts for exactly one slot everywhere.
+            // A hold placed on another node isn't counted here, so there is nothing to take off.
+            peak--;
+        }
 
-        if (hasOverlap) {
+        boolean fullyBooked = peak >= adSpace.getCapacity();
+        if (fullyBooked && !joinWaitlist) {
             throw new BookingValidationException(
                     "There are already approved bookings for this period");
         }
@@ -69,55 +130,152 @@ public class BookingRequestService {
                 totalCost
         );
 
-        return bookingRequestRepository.save(booking);
+        if (fullyBooked) {
+            booking.moveToWaitlist();
+        }
+
+        BookingRequest saved = bookingRequestRepository.save(booking);
+        if (hold != null) {
+            AfterCommit.run(() -> holdService.consumeHold(hold.getId()));
+        }
+        AfterCommit.run(() -> eventPublisher.publishEvent(BookingChangedEvent.created(saved)));
+        return saved;
     }
 
+    /**
+     * Finds a booking in the live table or, failing that, among the archived quarters.
+     */
     @Transactional(readOnly = true)
     public BookingRequest getBookingById(Long id) {
         return bookingRequestRepository.findById(id)
+                .or(() -> bookingRequestRepository.findArchivedById(id))
                 .orElseThrow(() -> new BookingNotFoundException(id));
     }
 
-    public BookingRequest approveBooking(Long bookingId) {
-        BookingRequest booking = bookingRequestRepository.findById(bookingId)
-                .orElseThrow(() -> new BookingNotFoundException(bookingId));
+    /**
+     * Finds several bookings at once, in the order requested. Ids missing from the live
+     * table are looked up among the archived quarters in one more query.
+     */
+    @Transactional(readOnly = true)
+    public MultiGet<BookingRequest> getBookingsByIds(List<Long> ids) {
+        return multiLoader.load(BookingRequest.class, ids, notFound ->
+                bookingRequestRepository.findArchivedByIds(notFound).stream()
+                        .collect(Collectors.toMap(BookingRequest::getId, Function.identity())));
+    }
 
-        if (booking.getStatus() != BookingStatus.PENDING) {
-            throw new BookingValidationException(
-                    "Only pending bookings can be approved. Current status: " + booking.getStatus());
-        }
+    /**
+     * Approves a pending booking. The status change is a single conditional UPDATE, so
+     * concurrent approve/reject calls on the same booking can't both succeed. Capacity is
+     * then checked against the committed approvals in the database while holding the ad
+     * space's row lock, so concurrent approvals of different bookings of the same space,
+     * on any node, are checked one after the other; if the period turns out to be full,
+     * throwing rolls the approval back.
+     */
+    public BookingRequest approveBooking(Long bookingId) {
+        BookingRequest booking = bookingRequestRepository
+                .transition(bookingId, BookingStatus.PENDING, BookingStatus.APPROVED)
+                .orElseThrow(() -> transitionRefused(bookingId, BookingStatus.PENDING, "approved"));
 
-        List<BookingRequest> approvedBookings = bookingRequestRepository
-                .findByAdSpaceIdAndStatus(booking.getAdSpace().getId(), BookingStatus.APPROVED);
+        AdSpace adSpace = booking.getAdSpace();
+        adSpaceRepository.lockById(adSpace.getId());
 
-        boolean hasOverlap = approvedBookings.stream()
-                .anyMatch(existing -> existing.overlapsWith(booking.getStartDate(), booking.getEndDate()));
+        // Holds only live on the node that placed them; those on this node are counted as
+        // if they overlapped each other, which errs on the side of refusing.
+        int peak = bookingRequestRepository.peakApprovedOccupancy(
+                adSpace.getId(), booking.getId(), booking.getStartDate(), booking.getEndDate())
+                + occupancyIndex.overlappingHolds(adSpace.getId(), booking.getStartDate(), booking.getEndDate());
 
-        if (hasOverlap) {
+        if (peak >= adSpace.getCapacity()) {
             throw new BookingValidationException(
                     "Cannot approve booking: there are already approved bookings for this period");
         }
 
-        booking.approve();
+        bookingRequestRepository.applyBookingStats(booking.getId(), booking.getStartDate(), 1);
+        boolean summaryChanged = adSpaceRepository.refreshBookingSummary(adSpace.getId(), LocalDate.now(clock));
 
-        AdSpace adSpace = booking.getAdSpace();
-        adSpace.markBooked();
-        adSpaceRepository.save(adSpace);
+        // A space only counts as booked once this approval uses up its last slot;
+        // with capacity 1 that is every approval. The returned row already carries the
+        // refreshed summary.
+        Optional<AdSpace> booked = peak + 1 >= adSpace.getCapacity()
+                ? adSpaceRepository.changeStatus(adSpace.getId(), AdSpaceStatus.BOOKED)
+                : Optional.empty();
+        if (booked.isPresent()) {
+            AdSpace saved = booked.get();
+            AfterCommit.run(() -> eventPublisher.publishEvent(AdSpacesChangedEvent.saved(saved)));
+        } else if (summaryChanged) {
+            publishSummaryChanged(adSpace.getId());
+        }
 
-        return bookingRequestRepository.save(booking);
+        AfterCommit.run(() -> occupancyIndex.reserve(
+                adSpace.getId(), booking.getStartDate(), booking.getEndDate()));
+        return published(booking);
     }
 
     public BookingRequest rejectBooking(Long bookingId) {
-        BookingRequest booking = bookingRequestRepository.findById(bookingId)
-                .orElseThrow(() -> new BookingNotFoundException(bookingId));
+        return published(bookingRequestRepository
+                .transition(bookingId, BookingStatus.PENDING, BookingStatus.REJECTED)
+                .orElseThrow(() -> transitionRefused(bookingId, BookingStatus.PENDING, "rejected")));
+    }
 
-        if (booking.getStatus() != BookingStatus.PENDING) {
+    /**
+     * Cancels an approved booking, freeing its slot. Once committed, the best waitlisted
+     * request that now fits the freed period is promoted to PENDING.
+     * <p>
+     * A booking that has already ended can't be cancelled: it may already be in the
+     * append-only booking archive, which would keep counting it as approved.
+     */
+    public BookingRequest cancelBooking(Long bookingId) {
+        BookingRequest booking = bookingRequestRepository
+                .transition(bookingId, BookingStatus.APPROVED, BookingStatus.CANCELLED)
+                .orElseThrow(() -> transitionRefused(bookingId, BookingStatus.APPROVED, "cancelled"));
+
+        if (booking.getEndDate().isBefore(LocalDate.now(clock))) {
+            // Throwing rolls the transition back.
             throw new BookingValidationException(
-                    "Only pending bookings can be rejected. Current status: " + booking.getStatus());
+                    "Cannot cancel booking: it already ended on " + booking.getEndDate());
+        }
+
+        bookingRequestRepository.applyBookingStats(booking.getId(), booking.getStartDate(), -1);
+
+        AdSpace adSpace = booking.getAdSpace();
+        if (adSpaceRepository.refreshBookingSummary(adSpace.getId(), LocalDate.now(clock))) {
+            publishSummaryChanged(adSpace.getId());
         }
 
-        booking.reject();
-        return bookingRequestRepository.save(booking);
+        LocalDate start = booking.getStartDate();
+        LocalDate end = booking.getEndDate();
+        AfterCommit.run(() -> {
+            occupancyIndex.release(adSpace.getId(), start, end);
+            try {
+                waitlistService.promoteNext(adSpace, start, end);
+            } catch (RuntimeException ex) {
+                // The cancellation has committed; a failed promotion mustn't turn it into an error.
+                log.warn("Could not promote a waitlisted booking on ad space {} after cancelling booking {}",
+                        adSpace.getId(), bookingId, ex);
+            }
+        });
+        return published(booking);
+    }
+
+    private void publishSummaryChanged(Long adSpaceId) {
+        AfterCommit.run(() -> eventPublisher.publishEvent(new AdSpacesChangedEvent(List.of(adSpaceId))));
+    }
+
+    private BookingRequest published(BookingRequest changed) {
+        AfterCommit.run(() -> eventPublisher.publishEvent(new BookingChangedEvent(changed)));
+        return changed;
+    }
+
+    /**
+     * Builds the error for a transition whose conditional UPDATE matched no row. Only
+     * this failure path pays for looking the booking up.
+     */
+    private BookingValidationException transitionRefused(Long bookingId, BookingStatus required, String action) {
+        BookingRequest current = bookingRequestRepository.findById(bookingId)
+                .orElseThrow(() -> new BookingNotFoundException(bookingId));
+        return new BookingValidationException(
+                "Only " + required.name().toLowerCase() + " bookings can be " + action
+                        + ". Current status: " + current.getStatus());
     }
 
     @Transactional(readOnly = true)
@@ -127,4 +285,12 @@ public class BookingRequestService {
         }
         return bookingRequestRepository.findAll();
     }
+
+    /**
+     * {@link #listBookings} reading only {@code fields}.
+     */
+    @Transactional(readOnly = true)
+    public List<Map<String, Object>> listBookings(BookingStatus status, List<String> fields) {
+        return fieldProjection.bookings(fields, status);
+    }
 }
@@ -0,0 +1,110 @@
+package com.bookingsystem.service.analytics;
+
+import com.bookingsystem.service.partition.BookingPartitionMaintainer;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * Rebuilds the monthly analytics aggregates from the bookings themselves.
+ * <p>
+ * The aggregates are maintained incrementally, so this is only needed to pick up
+ * changes made outside the application. It runs weekly by default. Bookings stay under
+ * the city and type they were approved under (see V16), so ad spaces that moved to
+ * another city or type don't shift past bookings between buckets.
+ * <p>
+ * DECISION:
+ * - Aggregate rows are keyed by the quarter the booking starts in, which is the
+ *   {@code booking_request} partition it lives in. Every quarter, live or archived, is
+ *   rebuilt by its own call of {@code rebuild_booking_stats_quarter} (see V14) in its
+ *   own transaction, reading only its partition. Quarters are rebuilt
+ *   {@code booking.analytics.rebuild.parallelism} at a time.
+ * - A failed quarter keeps its previous rows and is logged; the other quarters still
+ *   complete.
+ * - Each quarter's duration is published as the {@code booking.analytics.rebuild} timer.
+ */
+@Component
+public class BookingStatsRebuilder {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingStatsRebuilder.class);
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Timer quarterTimer;
+    private final int parallelism;
+
+    public BookingStatsRebuilder(JdbcTemplate jdbcTemplate,
+                                 MeterRegistry meterRegistry,
+                                 @Value("${booking.analytics.rebuild.parallelism:4}") int parallelism) {
+        if (parallelism <= 0) {
+            throw new IllegalArgumentException("booking.analytics.rebuild.parallelism must be positive");
+        }
+        this.jdbcTemplate = jdbcTemplate;
+        this.quarterTimer = Timer.builder("booking.analytics.rebuild")
+                .description("Duration of rebuilding the analytics aggregates of one quarter")
+                .register(meterRegistry);
+        this.parallelism = parallelism;
+    }
+
+    /**
+     * @return the number of quarters rebuilt
+     */
+    @Scheduled(cron = "${booking.analytics.rebuild.cron:0 0 3 * * SUN}")
+    public int rebuildAll() {
+        List<LocalDate> quarters = quarters();
+        List<CompletableFuture<Boolean>> rebuilds = new ArrayList<>();
+        try (ExecutorService executor = Executors.newFixedThreadPool(parallelism)) {
+            for (LocalDate quarter : quarters) {
+                rebuilds.add(CompletableFuture.supplyAsync(() -> rebuild(quarter), executor));
+            }
+        }
+        int rebuilt = (int) rebuilds.stream().filter(CompletableFuture::join).count();
+        log.info("Rebuilt analytics aggregates for {} of {} quarters", rebuilt, quarters.size());
+        return rebuilt;
+    }
+
+    /**
+     * Rebuilds the aggregate rows of the bookings starting in the quarter beginning on
+     * {@code quarterStart}.
+     *
+     * @return whether the rebuild succeeded
+     */
+    public boolean rebuild(LocalDate quarterStart) {
+        try {
+            Integer rows = quarterTimer.recordCallable(() -> jdbcTemplate.queryForObject(
+                    "SELECT rebuild_booking_stats_quarter(?)", Integer.class, quarterStart));
+            log.debug("Rebuilt {} analytics rows for the quarter starting {}", rows, quarterStart);
+            return true;
+        } catch (Exception ex) {
+            log.error("Rebuilding analytics aggregates for the quarter starting {} failed", quarterStart, ex);
+            return false;
+        }
+    }
+
+    /**
+     * First days of the quarters that have a partition, live or archived.
+     */
+    List<LocalDate> quarters() {
+        return jdbcTemplate.queryForList("""
+                        SELECT c.relname FROM pg_inherits i
+                        JOIN pg_class c ON c.oid = i.inhrelid
+                        WHERE i.inhparent IN ('booking_request'::regclass, 'archive.booking_request_archive'::regclass)
+                        ORDER BY c.relname
+                        """, String.class).stream()
+                .map(BookingPartitionMaintainer::quarterStart)
+                .flatMap(Optional::stream)
+                .toList();
+    }
+}
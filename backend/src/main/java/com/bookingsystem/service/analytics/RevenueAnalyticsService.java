@@ -0,0 +1,126 @@
+package com.bookingsystem.service.analytics;
+
+import com.bookingsystem.model.AdSpaceType;
+import org.springframework.jdbc.core.namedparam.MapSqlParameterSource;
+import org.springframework.jdbc.core.namedparam.NamedParameterJdbcTemplate;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.math.BigDecimal;
+import java.math.RoundingMode;
+import java.sql.ResultSet;
+import java.sql.SQLException;
+import java.time.LocalDate;
+import java.time.YearMonth;
+import java.util.List;
+import java.util.stream.Collectors;
+
+/**
+ * Revenue, utilization and average daily rate by city, ad space type and month.
+ * <p>
+ * DECISION:
+ * - Answers come from {@code booking_stats_monthly} (see V14), which holds approved
+ *   booking totals per city, type and month. Approvals and cancellations update it in
+ *   their own transaction, so it is always current, and a query never reads
+ *   {@code booking_request}. Capacity comes from {@code ad_space}, which is small.
+ * - The aggregate attributes a booking to the city and type its space had when it was
+ *   approved. Moving a space changes the attribution only once
+ *   {@link BookingStatsRebuilder} has rebuilt the affected quarters.
+ * - Runs in a read-only transaction, so it is served by a replica when one is set up.
+ */
+@Service
+public class RevenueAnalyticsService {
+
+    private final NamedParameterJdbcTemplate jdbcTemplate;
+
+    public RevenueAnalyticsService(NamedParameterJdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    @Transactional(readOnly = true)
+    public List<RevenueSlice> report(RevenueQuery query) {
+        MapSqlParameterSource params = new MapSqlParameterSource()
+                .addValue("from", query.from().atDay(1))
+                .addValue("to", query.to().atDay(1));
+
+        StringBuilder filter = new StringBuilder();
+        if (query.city() != null) {
+            filter.append(" AND city = :city");
+            params.addValue("city", query.city());
+        }
+        if (query.type() != null) {
+            filter.append(" AND type = CAST(:type AS ad_space_type)");
+            params.addValue("type", query.type().name());
+        }
+
+        // Dimension columns come from the enum, never from the request.
+        String dimensions = query.groupBy().stream()
+                .map(dimension -> dimension.column)
+                .collect(Collectors.joining(", "));
+        String grouping = dimensions.isEmpty() ? "" : "GROUP BY " + dimensions + " ORDER BY " + dimensions;
+        String selected = dimensions.isEmpty() ? "" : dimensions + ", ";
+
+        String sql = """
+                WITH months AS (
+                    SELECT m::DATE AS month, (m + INTERVAL '1 month')::DATE - m::DATE AS days
+                    FROM generate_series(CAST(:from AS TIMESTAMP), CAST(:to AS TIMESTAMP), INTERVAL '1 month') m
+                ),
+                supply AS (
+                    SELECT city, type, SUM(capacity) AS capacity
+                    FROM ad_space
+                    WHERE TRUE%1$s
+                    GROUP BY city, type
+                ),
+                demand AS (
+                    SELECT city, type, month,
+                           SUM(bookings) AS bookings, SUM(booked_days) AS booked_days, SUM(revenue) AS revenue
+                    FROM booking_stats_monthly
+                    WHERE month BETWEEN :from AND :to%1$s
+                    GROUP BY city, type, month
+                ),
+                cells AS (
+                    SELECT COALESCE(s.city, d.city) AS city,
+                           COALESCE(s.type, d.type) AS type,
+                           COALESCE(s.month, d.month) AS month,
+                           COALESCE(s.capacity_days, 0) AS capacity_days,
+                           COALESCE(d.bookings, 0) AS bookings,
+                           COALESCE(d.booked_days, 0) AS booked_days,
+                           COALESCE(d.revenue, 0) AS revenue
+                    FROM (
+                        SELECT supply.city, supply.type, months.month, supply.capacity * months.days AS capacity_days
+                        FROM supply CROSS JOIN months
+                    ) s
+                    FULL JOIN demand d ON d.city = s.city AND d.type = s.type AND d.month = s.month
+                )
+                SELECT %2$sCOALESCE(SUM(bookings), 0) AS bookings,
+                       COALESCE(SUM(booked_days), 0) AS booked_days,
+                       COALESCE(SUM(revenue), 0) AS revenue,
+                       COALESCE(SUM(capacity_days), 0) AS capacity_days
+                FROM cells
+                %3$s
+                """.formatted(filter, selected, grouping);
+
+        return jdbcTemplate.query(sql, params, (rs, rowNum) -> slice(rs, query));
+    }
+
+    private static RevenueSlice slice(ResultSet rs, RevenueQuery query) throws SQLException {
+        long bookedDays = rs.getLong("booked_days");
+        long capacityDays = rs.getLong("capacity_days");
+        BigDecimal revenue = rs.getBigDecimal("revenue");
+        return new RevenueSlice(
+                query.groupBy().contains(RevenueQuery.Dimension.CITY) ? rs.getString("city") : null,
+                query.groupBy().contains(RevenueQuery.Dimension.TYPE) ? AdSpaceType.valueOf(rs.getString("type")) : null,
+                query.groupBy().contains(RevenueQuery.Dimension.MONTH)
+                        ? YearMonth.from(rs.getObject("month", LocalDate.class)) : null,
+                rs.getLong("bookings"),
+                bookedDays,
+                revenue,
+                capacityDays,
+                ratio(BigDecimal.valueOf(bookedDays), capacityDays, 4),
+                ratio(revenue, bookedDays, 2));
+    }
+
+    private static BigDecimal ratio(BigDecimal numerator, long denominator, int scale) {
+        return denominator == 0 ? null : numerator.divide(BigDecimal.valueOf(denominator), scale, RoundingMode.HALF_UP);
+    }
+}
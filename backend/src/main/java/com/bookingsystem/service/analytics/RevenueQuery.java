@@ -0,0 +1,110 @@
+package com.bookingsystem.service.analytics;
+
+import com.bookingsystem.model.AdSpaceType;
+
+import java.time.YearMonth;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.util.Arrays;
+import java.util.EnumSet;
+import java.util.Locale;
+import java.util.Set;
+
+/**
+ * Slice of the revenue analytics: the months {@code from} to {@code to} (both
+ * inclusive), optionally narrowed to one city and/or ad space type, broken down by the
+ * {@code groupBy} dimensions. An empty {@code groupBy} gives a single total.
+ */
+public record RevenueQuery(
+        YearMonth from,
+        YearMonth to,
+        String city,
+        AdSpaceType type,
+        Set<Dimension> groupBy
+) {
+
+    /**
+     * Longest range one query may cover.
+     */
+    static final int MAX_MONTHS = 120;
+
+    public enum Dimension {
+        CITY("city"),
+        TYPE("type"),
+        MONTH("month");
+
+        final String column;
+
+        Dimension(String column) {
+            this.column = column;
+        }
+    }
+
+    public RevenueQuery {
+        if (from == null || to == null) {
+            throw new IllegalArgumentException("Both 'from' and 'to' months are required");
+        }
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        if (ChronoUnit.MONTHS.between(from, to) >= MAX_MONTHS) {
+            throw new IllegalArgumentException("A query may cover at most " + MAX_MONTHS + " months");
+        }
+        groupBy = groupBy == null || groupBy.isEmpty() ? EnumSet.noneOf(Dimension.class) : EnumSet.copyOf(groupBy);
+    }
+
+    /**
+     * Builds a query from request parameters: months as {@code yyyy-MM}, the type by
+     * name and {@code groupBy} as a comma separated list of dimensions, all case
+     * insensitive.
+     *
+     * @throws IllegalArgumentException if a parameter can't be parsed
+     */
+    public static RevenueQuery parse(String from, String to, String city, String type, String groupBy) {
+        return new RevenueQuery(
+                parseMonth("from", from),
+                parseMonth("to", to),
+                city == null || city.isBlank() ? null : city.trim(),
+                parseType(type),
+                parseGroupBy(groupBy));
+    }
+
+    private static YearMonth parseMonth(String name, String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return YearMonth.parse(value.trim());
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("Invalid '" + name + "' parameter. Expected a month as yyyy-MM");
+        }
+    }
+
+    private static AdSpaceType parseType(String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return AdSpaceType.valueOf(value.trim().toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new IllegalArgumentException(
+                    "Invalid 'type' parameter. Allowed values: " + Arrays.toString(AdSpaceType.values()));
+        }
+    }
+
+    private static Set<Dimension> parseGroupBy(String value) {
+        Set<Dimension> dimensions = EnumSet.noneOf(Dimension.class);
+        if (value == null || value.isBlank()) {
+            return dimensions;
+        }
+        for (String name : value.split(",")) {
+            try {
+                dimensions.add(Dimension.valueOf(name.trim().toUpperCase(Locale.ROOT)));
+            } catch (IllegalArgumentException ex) {
+                throw new IllegalArgumentException(
+                        "Invalid 'groupBy' parameter. Allowed values: " + Arrays.toString(Dimension.values()));
+            }
+        }
+        return dimensions;
+    }
+}
@@ -0,0 +1,31 @@
+package com.bookingsystem.service.analytics;
+
+import com.bookingsystem.model.AdSpaceType;
+
+import java.math.BigDecimal;
+import java.time.YearMonth;
+
+/**
+ * Totals for one group of a {@link RevenueQuery}. Dimensions the query doesn't group
+ * by are {@code null}.
+ *
+ * @param bookings         approved bookings starting in the slice
+ * @param bookedDays       booked nights falling in the slice
+ * @param revenue          booking revenue, prorated by nights
+ * @param capacityDays     nights the ad spaces of the slice could have been booked,
+ *                         i.e. their capacity times the days of each month
+ * @param utilization      {@code bookedDays / capacityDays}, {@code null} without capacity
+ * @param averageDailyRate {@code revenue / bookedDays}, {@code null} without bookings
+ */
+public record RevenueSlice(
+        String city,
+        AdSpaceType type,
+        YearMonth month,
+        long bookings,
+        long bookedDays,
+        BigDecimal revenue,
+        long capacityDays,
+        BigDecimal utilization,
+        BigDecimal averageDailyRate
+) {
+}
@@ -0,0 +1,112 @@
+package com.bookingsystem.service.archive;
+
+import com.bookingsystem.model.BookingStatus;
+
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+
+/**
+ * Column accessors over one decompressed block. Values are read straight from the
+ * buffer by row index; only the dictionary is decoded, and only when a string column
+ * is first asked for.
+ */
+final class ArchiveBlock {
+
+    private final ByteBuffer raw;
+    private final BookingStatus[] statuses;
+    private final int rows;
+    private final int adSpaceIdsAt;
+    private final int startDaysAt;
+    private final int endDaysAt;
+    private final int statusesAt;
+    private final int costsAt;
+    private final int nameCodesAt;
+    private final int emailCodesAt;
+    private final int dictionaryAt;
+    private String[] dictionary;
+
+    ArchiveBlock(ByteBuffer raw, int rows, BookingStatus[] statuses) {
+        this.raw = raw;
+        this.rows = rows;
+        this.statuses = statuses;
+        this.adSpaceIdsAt = rows * Long.BYTES;
+        this.startDaysAt = adSpaceIdsAt + rows * Long.BYTES;
+        this.endDaysAt = startDaysAt + rows * Integer.BYTES;
+        this.statusesAt = endDaysAt + rows * Integer.BYTES;
+        this.costsAt = statusesAt + rows;
+        this.nameCodesAt = costsAt + rows * Long.BYTES;
+        this.emailCodesAt = nameCodesAt + rows * Integer.BYTES;
+        this.dictionaryAt = emailCodesAt + rows * Integer.BYTES;
+    }
+
+    int rows() {
+        return rows;
+    }
+
+    long id(int row) {
+        return raw.getLong(row * Long.BYTES);
+    }
+
+    long adSpaceId(int row) {
+        return raw.getLong(adSpaceIdsAt + row * Long.BYTES);
+    }
+
+    int startDay(int row) {
+        return raw.getInt(startDaysAt + row * Integer.BYTES);
+    }
+
+    int endDay(int row) {
+        return raw.getInt(endDaysAt + row * Integer.BYTES);
+    }
+
+    /**
+     * @return the status, or {@code null} if the file holds a status this version
+     * doesn't know
+     */
+    BookingStatus status(int row) {
+        int code = raw.get(statusesAt + row);
+        return code >= 0 && code < statuses.length ? statuses[code] : null;
+    }
+
+    long costCents(int row) {
+        return raw.getLong(costsAt + row * Long.BYTES);
+    }
+
+    String advertiserName(int row) {
+        return dictionary()[raw.getInt(nameCodesAt + row * Integer.BYTES)];
+    }
+
+    String advertiserEmail(int row) {
+        return dictionary()[raw.getInt(emailCodesAt + row * Integer.BYTES)];
+    }
+
+    ArchivedBooking booking(int row) {
+        return new ArchivedBooking(
+                id(row),
+                adSpaceId(row),
+                advertiserName(row),
+                advertiserEmail(row),
+                LocalDate.ofEpochDay(startDay(row)),
+                LocalDate.ofEpochDay(endDay(row)),
+                status(row),
+                costCents(row)
+        );
+    }
+
+    private String[] dictionary() {
+        if (dictionary == null) {
+            int position = dictionaryAt;
+            String[] entries = new String[raw.getInt(position)];
+            position += Integer.BYTES;
+            for (int i = 0; i < entries.length; i++) {
+                int length = raw.getInt(position);
+                entries[i] = new String(raw.array(), raw.arrayOffset() + position + Integer.BYTES,
+                        length, StandardCharsets.UTF_8);
+                position += Integer.BYTES + length;
+            }
+            dictionary = entries;
+        }
+        return dictionary;
+    }
+}
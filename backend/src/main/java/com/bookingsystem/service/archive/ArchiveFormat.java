@@ -0,0 +1,180 @@
+package com.bookingsystem.service.archive;
+
+import com.bookingsystem.model.BookingStatus;
+
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+
+/**
+ * On-disk layout of the columnar booking archive.
+ * <pre>
+ * file    := fileHeader block*
+ * fileHeader := MAGIC:int VERSION:int statusCount:int (nameLength:short nameUtf8)*
+ * block   := blockHeader payload
+ * blockHeader := BLOCK_MAGIC:int rows:int minStartDay:int maxStartDay:int
+ *                minEndDay:int maxEndDay:int minId:long maxId:long
+ *                rawLength:int compressedLength:int
+ * payload := deflate(ids:long[rows] adSpaceIds:long[rows] startDays:int[rows]
+ *                    endDays:int[rows] statuses:byte[rows] costCents:long[rows]
+ *                    nameCodes:int[rows] emailCodes:int[rows]
+ *                    dictSize:int (length:int utf8)*)
+ * </pre>
+ * All numbers are little endian. Dates are epoch days, statuses are ordinals into the
+ * status names of the file header (so reordering the enum can't corrupt old files),
+ * advertiser names and e-mails share one dictionary per block.
+ * <p>
+ * Blocks are self-contained and only ever appended; a block cut short by a crash is
+ * detected by its lengths and ignored (and truncated by the next writer).
+ */
+final class ArchiveFormat {
+
+    static final ByteOrder ORDER = ByteOrder.LITTLE_ENDIAN;
+    static final int MAGIC = 0x52414B42;       // "BKAR"
+    static final int VERSION = 1;
+    static final int BLOCK_MAGIC = 0x314B4C42; // "BLK1"
+    static final int BLOCK_HEADER_BYTES = 6 * Integer.BYTES + 2 * Long.BYTES + 2 * Integer.BYTES;
+
+    private ArchiveFormat() {
+    }
+
+    record BlockHeader(long offset,
+                       int rows,
+                       int minStartDay,
+                       int maxStartDay,
+                       int minEndDay,
+                       int maxEndDay,
+                       long minId,
+                       long maxId,
+                       int rawLength,
+                       int compressedLength) {
+
+        long payloadOffset() {
+            return offset + BLOCK_HEADER_BYTES;
+        }
+
+        long end() {
+            return payloadOffset() + compressedLength;
+        }
+
+        void writeTo(ByteBuffer buffer) {
+            buffer.putInt(BLOCK_MAGIC)
+                    .putInt(rows)
+                    .putInt(minStartDay)
+                    .putInt(maxStartDay)
+                    .putInt(minEndDay)
+                    .putInt(maxEndDay)
+                    .putLong(minId)
+                    .putLong(maxId)
+                    .putInt(rawLength)
+                    .putInt(compressedLength);
+        }
+    }
+
+    static ByteBuffer fileHeader() {
+        BookingStatus[] statuses = BookingStatus.values();
+        int size = 3 * Integer.BYTES;
+        for (BookingStatus status : statuses) {
+            size += Short.BYTES + status.name().getBytes(StandardCharsets.UTF_8).length;
+        }
+
+        ByteBuffer header = ByteBuffer.allocate(size).order(ORDER);
+        header.putInt(MAGIC).putInt(VERSION).putInt(statuses.length);
+        for (BookingStatus status : statuses) {
+            byte[] name = status.name().getBytes(StandardCharsets.UTF_8);
+            header.putShort((short) name.length).put(name);
+        }
+        return header.flip();
+    }
+
+    /**
+     * Reads the file header and returns the statuses in the order of the file's
+     * ordinals; names this version doesn't know map to {@code null}.
+     */
+    static BookingStatus[] readStatuses(FileChannel channel) throws IOException {
+        ByteBuffer fixed = readFully(channel, 0, 3 * Integer.BYTES);
+        if (fixed == null || fixed.getInt() != MAGIC) {
+            throw new IOException("Not a booking archive file");
+        }
+        int version = fixed.getInt();
+        if (version != VERSION) {
+            throw new IOException("Unsupported booking archive version " + version);
+        }
+
+        int count = fixed.getInt();
+        BookingStatus[] statuses = new BookingStatus[count];
+        long position = 3 * Integer.BYTES;
+        for (int i = 0; i < count; i++) {
+            ByteBuffer length = readFully(channel, position, Short.BYTES);
+            if (length == null) {
+                throw new IOException("Truncated booking archive header");
+            }
+            int nameLength = length.getShort();
+            ByteBuffer name = readFully(channel, position + Short.BYTES, nameLength);
+            if (name == null) {
+                throw new IOException("Truncated booking archive header");
+            }
+            statuses[i] = statusNamed(StandardCharsets.UTF_8.decode(name).toString());
+            position += Short.BYTES + nameLength;
+        }
+        return statuses;
+    }
+
+    static long fileHeaderLength(FileChannel channel) throws IOException {
+        long position = 3 * Integer.BYTES;
+        ByteBuffer fixed = readFully(channel, 0, 3 * Integer.BYTES);
+        int count = fixed.getInt(2 * Integer.BYTES);
+        for (int i = 0; i < count; i++) {
+            position += Short.BYTES + readFully(channel, position, Short.BYTES).getShort();
+        }
+        return position;
+    }
+
+    /**
+     * @return the header of the block at {@code offset}, or {@code null} if there is no
+     * complete block there (end of file, or a block cut short by a crash)
+     */
+    static BlockHeader readBlockHeader(FileChannel channel, long offset) throws IOException {
+        ByteBuffer buffer = readFully(channel, offset, BLOCK_HEADER_BYTES);
+        if (buffer == null || buffer.getInt() != BLOCK_MAGIC) {
+            return null;
+        }
+        BlockHeader header = new BlockHeader(
+                offset,
+                buffer.getInt(),
+                buffer.getInt(),
+                buffer.getInt(),
+                buffer.getInt(),
+                buffer.getInt(),
+                buffer.getLong(),
+                buffer.getLong(),
+                buffer.getInt(),
+                buffer.getInt()
+        );
+        return header.end() <= channel.size() ? header : null;
+    }
+
+    private static ByteBuffer readFully(FileChannel channel, long position, int length) throws IOException {
+        if (position + length > channel.size()) {
+            return null;
+        }
+        ByteBuffer buffer = ByteBuffer.allocate(length).order(ORDER);
+        while (buffer.hasRemaining()) {
+            if (channel.read(buffer, position + buffer.position()) < 0) {
+                return null;
+            }
+        }
+        return buffer.flip();
+    }
+
+    private static BookingStatus statusNamed(String name) {
+        for (BookingStatus status : BookingStatus.values()) {
+            if (status.name().equals(name)) {
+                return status;
+            }
+        }
+        return null;
+    }
+}
@@ -0,0 +1,30 @@
+package com.bookingsystem.service.archive;
+
+import com.bookingsystem.model.BookingStatus;
+
+import java.time.LocalDate;
+import java.util.Set;
+
+/**
+ * Filter for a scan of the booking archive. {@code null} fields match everything;
+ * {@code startFrom} and {@code startTo} are both inclusive.
+ */
+public record ArchiveQuery(
+        Long adSpaceId,
+        LocalDate startFrom,
+        LocalDate startTo,
+        Set<BookingStatus> statuses
+) {
+
+    public static ArchiveQuery all() {
+        return new ArchiveQuery(null, null, null, null);
+    }
+
+    int fromDay() {
+        return startFrom != null ? Math.toIntExact(startFrom.toEpochDay()) : Integer.MIN_VALUE;
+    }
+
+    int toDay() {
+        return startTo != null ? Math.toIntExact(startTo.toEpochDay()) : Integer.MAX_VALUE;
+    }
+}
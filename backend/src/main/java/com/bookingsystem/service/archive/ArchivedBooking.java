@@ -0,0 +1,25 @@
+package com.bookingsystem.service.archive;
+
+import com.bookingsystem.model.BookingStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * A finished booking as stored in the columnar archive file.
+ */
+public record ArchivedBooking(
+        long id,
+        long adSpaceId,
+        String advertiserName,
+        String advertiserEmail,
+        LocalDate startDate,
+        LocalDate endDate,
+        BookingStatus status,
+        long totalCostCents
+) {
+
+    public BigDecimal totalCost() {
+        return BigDecimal.valueOf(totalCostCents, 2);
+    }
+}
@@ -0,0 +1,210 @@
+package com.bookingsystem.service.archive;
+
+import com.bookingsystem.model.BookingStatus;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import javax.sql.DataSource;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.math.BigDecimal;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.Optional;
+import java.util.Set;
+
+/**
+ * Copies finished bookings into the columnar archive file and answers historical
+ * lookups and reports from it.
+ * <p>
+ * DECISION:
+ * - A booking is archived once it ended more than {@code booking.archive.after-days}
+ *   ago (at least one) and is no longer PENDING or WAITLISTED; by then nothing changes
+ *   it any more, since bookings that have ended can't be cancelled.
+ *   Rows are read from both the live table and the archived partitions, in end date
+ *   order, so the latest end date in the file is the watermark for the next run.
+ * - The file is only appended to. The rows stay in PostgreSQL; the file exists so
+ *   reports over years of bookings don't have to scan the database.
+ * - Readers see the file as it was when opened; the reader is swapped after each run.
+ */
+@Service
+public class BookingArchiveService {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingArchiveService.class);
+
+    private static final Set<BookingStatus> REVENUE_STATUSES = Set.of(BookingStatus.APPROVED);
+
+    private final JdbcTemplate streamingJdbcTemplate;
+    private final Clock clock;
+    private final Path file;
+    private final int blockRows;
+    private final int afterDays;
+
+    private volatile ColumnarArchiveReader reader;
+
+    public BookingArchiveService(DataSource dataSource,
+                                 Clock clock,
+                                 @Value("${booking.archive.path:./data/booking-archive.bka}") Path file,
+                                 @Value("${booking.archive.block-rows:65536}") int blockRows,
+                                 @Value("${booking.archive.after-days:30}") int afterDays) {
+        if (afterDays < 1) {
+            // A booking ending today can still be cancelled today.
+            throw new IllegalArgumentException("booking.archive.after-days must be at least 1");
+        }
+        this.streamingJdbcTemplate = new JdbcTemplate(dataSource);
+        this.streamingJdbcTemplate.setFetchSize(Math.min(blockRows, 10_000));
+        this.clock = clock;
+        this.file = file;
+        this.blockRows = blockRows;
+        this.afterDays = afterDays;
+    }
+
+    /**
+     * @return the number of bookings appended to the archive
+     */
+    @Scheduled(cron = "${booking.archive.cron:0 0 1 * * *}")
+    @Transactional(readOnly = true)
+    public synchronized long archive() throws IOException {
+        if (file.getParent() != null) {
+            Files.createDirectories(file.getParent());
+        }
+        LocalDate cutoff = LocalDate.now(clock).minusDays(afterDays);
+
+        ColumnarArchiveReader current = reader();
+        Optional<LocalDate> watermark = current.latestEndDate();
+        if (watermark.isPresent() && !watermark.get().isBefore(cutoff)) {
+            return 0;
+        }
+        // A run that stopped part way may have written only some bookings of its last day.
+        Set<Long> alreadyArchived = watermark
+                .map(day -> current.idsEndingOn(Math.toIntExact(day.toEpochDay())))
+                .orElse(Set.of());
+        LocalDate from = watermark.orElse(LocalDate.EPOCH);
+
+        long[] appended = {0};
+        try (ColumnarArchiveWriter writer = ColumnarArchiveWriter.open(file, blockRows)) {
+            streamingJdbcTemplate.query("""
+                    SELECT id, ad_space_id, advertiser_name, advertiser_email,
+                           start_date, end_date, status, total_cost
+                    FROM (
+                        SELECT id, ad_space_id, advertiser_name, advertiser_email,
+                               start_date, end_date, status, total_cost
+                        FROM booking_request
+                        UNION ALL
+                        SELECT id, ad_space_id, advertiser_name, advertiser_email,
+                               start_date, end_date, status, total_cost
+                        FROM archive.booking_request_archive
+                    ) b
+                    WHERE end_date >= ? AND end_date <= ?
+                      AND status NOT IN ('PENDING', 'WAITLISTED')
+                    ORDER BY end_date, id
+                    """, rs -> {
+                long id = rs.getLong("id");
+                if (alreadyArchived.contains(id)) {
+                    return;
+                }
+                try {
+                    writer.append(new ArchivedBooking(
+                            id,
+                            rs.getLong("ad_space_id"),
+                            rs.getString("advertiser_name"),
+                            rs.getString("advertiser_email"),
+                            rs.getObject("start_date", LocalDate.class),
+                            rs.getObject("end_date", LocalDate.class),
+                            BookingStatus.valueOf(rs.getString("status")),
+                            rs.getBigDecimal("total_cost").movePointRight(2).longValueExact()
+                    ));
+                } catch (IOException ex) {
+                    throw new UncheckedIOException(ex);
+                }
+                appended[0]++;
+            }, from, cutoff);
+        } catch (UncheckedIOException ex) {
+            throw ex.getCause();
+        } finally {
+            reopen();
+        }
+
+        if (appended[0] > 0) {
+            log.info("Archived {} bookings that ended up to {}", appended[0], cutoff);
+        }
+        return appended[0];
+    }
+
+    public Optional<ArchivedBooking> findById(long id) {
+        return reader().findById(id);
+    }
+
+    /**
+     * Totals over the archived bookings matching {@code query}. Revenue and booked days
+     * only count APPROVED bookings.
+     */
+    public ArchiveReport report(ArchiveQuery query) {
+        long[] totals = new long[4];
+        reader().visit(query, (block, row) -> {
+            totals[0]++;
+            if (REVENUE_STATUSES.contains(block.status(row))) {
+                totals[1]++;
+                totals[2] += block.costCents(row);
+                totals[3] += block.endDay(row) - block.startDay(row);
+            }
+        });
+        return new ArchiveReport(totals[0], totals[1], BigDecimal.valueOf(totals[2], 2), totals[3]);
+    }
+
+    public record ArchiveReport(
+            long bookings,
+            long approvedBookings,
+            BigDecimal revenue,
+            long bookedDays
+    ) {
+    }
+
+    @PreDestroy
+    public void close() throws IOException {
+        if (reader != null) {
+            reader.close();
+        }
+    }
+
+    private ColumnarArchiveReader reader() {
+        ColumnarArchiveReader current = reader;
+        if (current == null) {
+            synchronized (this) {
+                if (reader == null) {
+                    reopen();
+                }
+                current = reader;
+            }
+        }
+        return current;
+    }
+
+    private synchronized void reopen() {
+        try {
+            if (Files.notExists(file)) {
+                if (file.getParent() != null) {
+                    Files.createDirectories(file.getParent());
+                }
+                // Creates the file with just its header.
+                ColumnarArchiveWriter.open(file, blockRows).close();
+            }
+            ColumnarArchiveReader previous = reader;
+            reader = ColumnarArchiveReader.open(file);
+            if (previous != null) {
+                // Mapped blocks stay readable for scans still using the old reader.
+                previous.close();
+            }
+        } catch (IOException ex) {
+            throw new UncheckedIOException("Could not open booking archive " + file, ex);
+        }
+    }
+}
@@ -0,0 +1,221 @@
+package com.bookingsystem.service.archive;
+
+import com.bookingsystem.model.BookingStatus;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.function.Consumer;
+import java.util.zip.DataFormatException;
+import java.util.zip.Inflater;
+
+/**
+ * Read-only view of a columnar archive file as it was when opened.
+ * <p>
+ * DECISION:
+ * - Each block's compressed payload is memory-mapped, so scans read straight from the
+ *   page cache without copying through the heap.
+ * - The min/max start day and id of every block are kept in memory; scans and id
+ *   lookups skip blocks whose ranges can't match without inflating them.
+ * - Safe for concurrent use: each scan inflates into its own buffer.
+ */
+public final class ColumnarArchiveReader implements Closeable {
+
+    @FunctionalInterface
+    interface RowVisitor {
+        void visit(ArchiveBlock block, int row);
+    }
+
+    private record MappedBlock(ArchiveFormat.BlockHeader header, MappedByteBuffer payload) {
+    }
+
+    private final FileChannel channel;
+    private final BookingStatus[] statuses;
+    private final List<MappedBlock> blocks;
+    private final long rowCount;
+    private final int maxEndDay;
+
+    private ColumnarArchiveReader(FileChannel channel, BookingStatus[] statuses, List<MappedBlock> blocks) {
+        this.channel = channel;
+        this.statuses = statuses;
+        this.blocks = blocks;
+        this.rowCount = blocks.stream().mapToLong(block -> block.header().rows()).sum();
+        this.maxEndDay = blocks.stream().mapToInt(block -> block.header().maxEndDay()).max().orElse(Integer.MIN_VALUE);
+    }
+
+    public static ColumnarArchiveReader open(Path file) throws IOException {
+        FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+        try {
+            BookingStatus[] statuses = ArchiveFormat.readStatuses(channel);
+            List<MappedBlock> blocks = new ArrayList<>();
+            long offset = ArchiveFormat.fileHeaderLength(channel);
+            ArchiveFormat.BlockHeader header;
+            while ((header = ArchiveFormat.readBlockHeader(channel, offset)) != null) {
+                MappedByteBuffer payload = channel.map(FileChannel.MapMode.READ_ONLY,
+                        header.payloadOffset(), header.compressedLength());
+                blocks.add(new MappedBlock(header, payload));
+                offset = header.end();
+            }
+            return new ColumnarArchiveReader(channel, statuses, List.copyOf(blocks));
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    public long rowCount() {
+        return rowCount;
+    }
+
+    /**
+     * @return the latest end date in the archive; everything ending on or before it has
+     * already been written
+     */
+    public Optional<LocalDate> latestEndDate() {
+        return blocks.isEmpty() ? Optional.empty() : Optional.of(LocalDate.ofEpochDay(maxEndDay));
+    }
+
+    public void scan(ArchiveQuery query, Consumer<ArchivedBooking> consumer) {
+        visit(query, (block, row) -> consumer.accept(block.booking(row)));
+    }
+
+    public Optional<ArchivedBooking> findById(long id) {
+        try (Decoder decoder = new Decoder()) {
+            for (MappedBlock mapped : blocks) {
+                if (id < mapped.header().minId() || id > mapped.header().maxId()) {
+                    continue;
+                }
+                ArchiveBlock block = decoder.decode(mapped);
+                for (int row = 0; row < block.rows(); row++) {
+                    if (block.id(row) == id) {
+                        return Optional.of(block.booking(row));
+                    }
+                }
+            }
+        }
+        return Optional.empty();
+    }
+
+    void visit(ArchiveQuery query, RowVisitor visitor) {
+        int fromDay = query.fromDay();
+        int toDay = query.toDay();
+        boolean[] statusMatches = statusMask(query);
+        long adSpaceId = query.adSpaceId() != null ? query.adSpaceId() : -1;
+
+        try (Decoder decoder = new Decoder()) {
+            for (MappedBlock mapped : blocks) {
+                if (mapped.header().maxStartDay() < fromDay || mapped.header().minStartDay() > toDay) {
+                    continue;
+                }
+                ArchiveBlock block = decoder.decode(mapped);
+                for (int row = 0; row < block.rows(); row++) {
+                    int startDay = block.startDay(row);
+                    if (startDay < fromDay || startDay > toDay) {
+                        continue;
+                    }
+                    if (adSpaceId >= 0 && block.adSpaceId(row) != adSpaceId) {
+                        continue;
+                    }
+                    if (statusMatches != null) {
+                        BookingStatus status = block.status(row);
+                        if (status == null || !statusMatches[status.ordinal()]) {
+                            continue;
+                        }
+                    }
+                    visitor.visit(block, row);
+                }
+            }
+        }
+    }
+
+    /**
+     * Ids of the archived bookings ending on {@code endDay}. Used to resume a run that
+     * stopped part way through a day.
+     */
+    Set<Long> idsEndingOn(int endDay) {
+        Set<Long> ids = new HashSet<>();
+        try (Decoder decoder = new Decoder()) {
+            for (MappedBlock mapped : blocks) {
+                if (endDay < mapped.header().minEndDay() || endDay > mapped.header().maxEndDay()) {
+                    continue;
+                }
+                ArchiveBlock block = decoder.decode(mapped);
+                for (int row = 0; row < block.rows(); row++) {
+                    if (block.endDay(row) == endDay) {
+                        ids.add(block.id(row));
+                    }
+                }
+            }
+        }
+        return ids;
+    }
+
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    private static boolean[] statusMask(ArchiveQuery query) {
+        if (query.statuses() == null || query.statuses().isEmpty()) {
+            return null;
+        }
+        boolean[] mask = new boolean[BookingStatus.values().length];
+        for (BookingStatus status : query.statuses()) {
+            mask[status.ordinal()] = true;
+        }
+        return mask;
+    }
+
+    /**
+     * Inflates blocks into a buffer reused across the blocks of one scan.
+     */
+    private final class Decoder implements AutoCloseable {
+
+        private final Inflater inflater = new Inflater();
+        private byte[] buffer = new byte[0];
+
+        ArchiveBlock decode(MappedBlock mapped) {
+            ArchiveFormat.BlockHeader header = mapped.header();
+            if (buffer.length < header.rawLength()) {
+                buffer = new byte[header.rawLength()];
+            }
+            inflater.reset();
+            inflater.setInput(mapped.payload().duplicate());
+            try {
+                int length = 0;
+                while (length < header.rawLength() && !inflater.finished()) {
+                    int n = inflater.inflate(buffer, length, header.rawLength() - length);
+                    if (n == 0 && (inflater.needsInput() || inflater.needsDictionary())) {
+                        break;
+                    }
+                    length += n;
+                }
+                if (length != header.rawLength()) {
+                    throw new UncheckedIOException(new IOException(
+                            "Corrupt archive block at offset " + header.offset()));
+                }
+            } catch (DataFormatException ex) {
+                throw new UncheckedIOException(new IOException(
+                        "Corrupt archive block at offset " + header.offset(), ex));
+            }
+            ByteBuffer raw = ByteBuffer.wrap(buffer, 0, header.rawLength()).order(ArchiveFormat.ORDER);
+            return new ArchiveBlock(raw, header.rows(), statuses);
+        }
+
+        @Override
+        public void close() {
+            inflater.end();
+        }
+    }
+}
@@ -0,0 +1,201 @@
+package com.bookingsystem.service.archive;
+
+import com.bookingsystem.model.BookingStatus;
+
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.EnumMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.zip.Deflater;
+
+/**
+ * Appends bookings to a columnar archive file, {@code blockRows} at a time.
+ * See {@link ArchiveFormat} for the layout. Not thread-safe.
+ */
+final class ColumnarArchiveWriter implements Closeable {
+
+    private final FileChannel channel;
+    private final int blockRows;
+    private final Map<BookingStatus, Byte> statusCodes = new EnumMap<>(BookingStatus.class);
+    private final List<ArchivedBooking> pending = new ArrayList<>();
+    private final Deflater deflater = new Deflater(Deflater.BEST_SPEED);
+
+    private ColumnarArchiveWriter(FileChannel channel, int blockRows) {
+        this.channel = channel;
+        this.blockRows = blockRows;
+    }
+
+    /**
+     * Opens {@code file} for appending, creating it if needed. A trailing block left
+     * incomplete by an earlier crash is cut off first.
+     */
+    static ColumnarArchiveWriter open(Path file, int blockRows) throws IOException {
+        if (blockRows <= 0) {
+            throw new IllegalArgumentException("Block size must be positive");
+        }
+        FileChannel channel = FileChannel.open(file,
+                StandardOpenOption.CREATE, StandardOpenOption.READ, StandardOpenOption.WRITE);
+        try {
+            ColumnarArchiveWriter writer = new ColumnarArchiveWriter(channel, blockRows);
+            if (channel.size() == 0) {
+                channel.write(ArchiveFormat.fileHeader(), 0);
+            }
+
+            BookingStatus[] fileStatuses = ArchiveFormat.readStatuses(channel);
+            for (int i = 0; i < fileStatuses.length; i++) {
+                if (fileStatuses[i] != null) {
+                    writer.statusCodes.put(fileStatuses[i], (byte) i);
+                }
+            }
+
+            long end = ArchiveFormat.fileHeaderLength(channel);
+            ArchiveFormat.BlockHeader block;
+            while ((block = ArchiveFormat.readBlockHeader(channel, end)) != null) {
+                end = block.end();
+            }
+            channel.truncate(end);
+            channel.position(end);
+            return writer;
+        } catch (IOException | RuntimeException ex) {
+            channel.close();
+            throw ex;
+        }
+    }
+
+    void append(ArchivedBooking booking) throws IOException {
+        pending.add(booking);
+        if (pending.size() >= blockRows) {
+            flush();
+        }
+    }
+
+    /**
+     * Writes the buffered bookings as one block and forces it to disk.
+     */
+    void flush() throws IOException {
+        if (pending.isEmpty()) {
+            return;
+        }
+        ByteBuffer block = encode(pending);
+        while (block.hasRemaining()) {
+            channel.write(block);
+        }
+        channel.force(false);
+        pending.clear();
+    }
+
+    @Override
+    public void close() throws IOException {
+        try {
+            flush();
+        } finally {
+            deflater.end();
+            channel.close();
+        }
+    }
+
+    private ByteBuffer encode(List<ArchivedBooking> rows) throws IOException {
+        int n = rows.size();
+        Map<String, Integer> dictionary = new LinkedHashMap<>();
+        int dictionaryBytes = Integer.BYTES;
+        int[] nameCodes = new int[n];
+        int[] emailCodes = new int[n];
+        for (int i = 0; i < n; i++) {
+            ArchivedBooking row = rows.get(i);
+            nameCodes[i] = code(dictionary, row.advertiserName());
+            emailCodes[i] = code(dictionary, row.advertiserEmail());
+        }
+        List<byte[]> entries = new ArrayList<>(dictionary.size());
+        for (String value : dictionary.keySet()) {
+            byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+            entries.add(bytes);
+            dictionaryBytes += Integer.BYTES + bytes.length;
+        }
+
+        int rawLength = n * (Long.BYTES * 3 + Integer.BYTES * 4 + 1) + dictionaryBytes;
+        ByteBuffer raw = ByteBuffer.allocate(rawLength).order(ArchiveFormat.ORDER);
+
+        int minStart = Integer.MAX_VALUE, maxStart = Integer.MIN_VALUE;
+        int minEnd = Integer.MAX_VALUE, maxEnd = Integer.MIN_VALUE;
+        long minId = Long.MAX_VALUE, maxId = Long.MIN_VALUE;
+
+        for (ArchivedBooking row : rows) {
+            raw.putLong(row.id());
+            minId = Math.min(minId, row.id());
+            maxId = Math.max(maxId, row.id());
+        }
+        for (ArchivedBooking row : rows) {
+            raw.putLong(row.adSpaceId());
+        }
+        for (ArchivedBooking row : rows) {
+            int day = Math.toIntExact(row.startDate().toEpochDay());
+            raw.putInt(day);
+            minStart = Math.min(minStart, day);
+            maxStart = Math.max(maxStart, day);
+        }
+        for (ArchivedBooking row : rows) {
+            int day = Math.toIntExact(row.endDate().toEpochDay());
+            raw.putInt(day);
+            minEnd = Math.min(minEnd, day);
+            maxEnd = Math.max(maxEnd, day);
+        }
+        for (ArchivedBooking row : rows) {
+            Byte status = statusCodes.get(row.status());
+            if (status == null) {
+                throw new IOException("Archive file has no code for status " + row.status()
+                        + "; it was created by an older version, start a new file");
+            }
+            raw.put(status);
+        }
+        for (ArchivedBooking row : rows) {
+            raw.putLong(row.totalCostCents());
+        }
+        for (int code : nameCodes) {
+            raw.putInt(code);
+        }
+        for (int code : emailCodes) {
+            raw.putInt(code);
+        }
+        raw.putInt(entries.size());
+        for (byte[] entry : entries) {
+            raw.putInt(entry.length).put(entry);
+        }
+
+        byte[] compressed = deflate(raw.array());
+
+        ArchiveFormat.BlockHeader header = new ArchiveFormat.BlockHeader(
+                channel.position(), n, minStart, maxStart, minEnd, maxEnd, minId, maxId,
+                rawLength, compressed.length);
+        ByteBuffer block = ByteBuffer.allocate(ArchiveFormat.BLOCK_HEADER_BYTES + compressed.length)
+                .order(ArchiveFormat.ORDER);
+        header.writeTo(block);
+        block.put(compressed);
+        return block.flip();
+    }
+
+    private byte[] deflate(byte[] raw) {
+        deflater.reset();
+        deflater.setInput(raw);
+        deflater.finish();
+        ByteArrayOutputStream out = new ByteArrayOutputStream(raw.length / 4 + 64);
+        byte[] chunk = new byte[64 * 1024];
+        while (!deflater.finished()) {
+            int length = deflater.deflate(chunk);
+            out.write(chunk, 0, length);
+        }
+        return out.toByteArray();
+    }
+
+    private static int code(Map<String, Integer> dictionary, String value) {
+        return dictionary.computeIfAbsent(value == null ? "" : value, key -> dictionary.size());
+    }
+}
@@ -0,0 +1,147 @@
+package com.bookingsystem.service.catalog;
+
+import com.bookingsystem.service.AdSpacesChangedEvent;
+import com.bookingsystem.service.invalidation.LocalCache;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.InvalidMediaTypeException;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import tools.jackson.databind.ObjectMapper;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.function.Supplier;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Encoded JSON (and gzip) bodies of catalog list responses, keyed by canonical query.
+ * <p>
+ * DECISION:
+ * - Entries are tagged with the catalog version current when their query started. Any
+ *   ad space change bumps the version, so an entry is never served after a change it
+ *   may not include, even if its load raced with that change.
+ * - A hit is a byte copy to the response; no query, no Jackson.
+ * - {@code max-age} bounds staleness from writes that don't go through
+ *   {@code AdSpaceService} (the lifecycle reconciler, CSV import) and from replica lag.
+ * - Free-text city filters make the key space open-ended, so once full the cache stops
+ *   taking new keys until the next change clears it.
+ */
+@Component
+public class CatalogResponseCache implements LocalCache {
+
+    private static final List<MediaType> BINARY_TYPES = List.of(
+            MediaType.APPLICATION_CBOR, new MediaType("application", "x-jackson-smile"));
+
+    public record Body(byte[] json, byte[] gzipped) {}
+
+    private record Entry(long version, long storedAt, Body body) {}
+
+    private final ObjectMapper objectMapper;
+    private final Clock clock;
+    private final long maxAgeMillis;
+    private final int maxEntries;
+    private final boolean gzip;
+
+    private final AtomicLong version = new AtomicLong();
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+
+    public CatalogResponseCache(ObjectMapper objectMapper,
+                                Clock clock,
+                                @Value("${booking.catalog.response-cache.max-age:PT60S}") Duration maxAge,
+                                @Value("${booking.catalog.response-cache.max-entries:1000}") int maxEntries,
+                                @Value("${booking.catalog.response-cache.gzip:true}") boolean gzip) {
+        this.objectMapper = objectMapper;
+        this.clock = clock;
+        this.maxAgeMillis = maxAge.toMillis();
+        this.maxEntries = maxEntries;
+        this.gzip = gzip;
+    }
+
+    /**
+     * Returns the cached body for {@code key}, or encodes what {@code loader} returns and
+     * caches that.
+     */
+    public Body get(String key, Supplier<?> loader) {
+        long current = version.get();
+        long now = clock.millis();
+
+        Entry entry = entries.get(key);
+        if (entry != null && entry.version() == current && now - entry.storedAt() < maxAgeMillis) {
+            return entry.body();
+        }
+
+        Body body = encode(loader.get());
+        if (entries.size() < maxEntries || entries.containsKey(key)) {
+            entries.put(key, new Entry(current, now, body));
+        }
+        return body;
+    }
+
+    /**
+     * Whether a client sending this {@code Accept} header should get the cached JSON.
+     * Clients asking for a binary format go through the regular converters instead.
+     */
+    public static boolean servesJson(String accept) {
+        if (accept == null || accept.isBlank()) {
+            return true;
+        }
+        try {
+            boolean json = false;
+            for (MediaType type : MediaType.parseMediaTypes(accept)) {
+                if (type.getQualityValue() == 0) {
+                    continue;
+                }
+                if (BINARY_TYPES.stream().anyMatch(type::equalsTypeAndSubtype)) {
+                    return false;
+                }
+                json |= type.includes(MediaType.APPLICATION_JSON);
+            }
+            return json;
+        } catch (InvalidMediaTypeException ex) {
+            return false;
+        }
+    }
+
+    @EventListener
+    public void onAdSpacesChanged(AdSpacesChangedEvent event) {
+        invalidate();
+    }
+
+    @Override
+    public void evictAdSpaces(Collection<Long> adSpaceIds) {
+        invalidate();
+    }
+
+    @Override
+    public void evictAll() {
+        invalidate();
+    }
+
+    private void invalidate() {
+        version.incrementAndGet();
+        entries.clear();
+    }
+
+    private Body encode(Object value) {
+        byte[] json = objectMapper.writeValueAsBytes(value);
+        if (!gzip) {
+            return new Body(json, null);
+        }
+        ByteArrayOutputStream out = new ByteArrayOutputStream(json.length / 4 + 64);
+        try (GZIPOutputStream gzipOut = new GZIPOutputStream(out)) {
+            gzipOut.write(json);
+        } catch (IOException ex) {
+            throw new UncheckedIOException(ex);
+        }
+        return new Body(json, out.toByteArray());
+    }
+}
@@ -0,0 +1,118 @@
+package com.bookingsystem.service.catalog;
+
+import com.bookingsystem.model.AdSpace;
+import com.bookingsystem.model.AdSpaceStatus;
+import com.bookingsystem.model.AdSpaceType;
+import com.bookingsystem.repository.AdSpaceRepository;
+import com.bookingsystem.service.AdSpacesChangedEvent;
+import com.bookingsystem.service.invalidation.LocalCache;
+import com.bookingsystem.service.routing.ReadYourWrites;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.data.domain.Sort;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.util.Collection;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Optional;
+import java.util.Set;
+import java.util.concurrent.atomic.AtomicReference;
+
+/**
+ * Optional in-memory search for {@code AdSpaceService.searchAdSpaces}, enabled with
+ * {@code booking.catalog.snapshot.enabled=true}.
+ * <p>
+ * DECISION:
+ * - Searches read the current {@link CatalogSnapshot} through an atomic reference and
+ *   never lock. Writers build a new snapshot next to it and swap it in, one at a time.
+ * - Changes made through {@code AdSpaceService} are applied from
+ *   {@link AdSpacesChangedEvent} on the writing thread, so the writer's next search
+ *   already sees them. Bulk changes carry only ids; those rows are re-read.
+ * - A periodic full reload picks up writes that don't publish events. Loads read from
+ *   the primary: a row from a lagging replica would stay in the snapshot until the
+ *   next reload.
+ * - Until the first load, and for sorts it doesn't keep, {@link #search} returns empty
+ *   and the caller queries the database.
+ */
+@Component
+public class CatalogSearchEngine implements LocalCache {
+
+    private static final Logger log = LoggerFactory.getLogger(CatalogSearchEngine.class);
+
+    private final AdSpaceRepository adSpaceRepository;
+    private final boolean enabled;
+    private final AtomicReference<CatalogSnapshot> snapshot = new AtomicReference<>();
+
+    public CatalogSearchEngine(AdSpaceRepository adSpaceRepository,
+                               @Value("${booking.catalog.snapshot.enabled:false}") boolean enabled) {
+        this.adSpaceRepository = adSpaceRepository;
+        this.enabled = enabled;
+    }
+
+    public Optional<List<AdSpace>> search(String city, AdSpaceType type, Sort sort) {
+        CatalogSnapshot current = snapshot.get();
+        if (current == null || sort.stream().count() != 1) {
+            return Optional.empty();
+        }
+        Sort.Order order = sort.iterator().next();
+        if (!CatalogSnapshot.SORTABLE.contains(order.getProperty())) {
+            return Optional.empty();
+        }
+        return Optional.of(current.search(AdSpaceStatus.AVAILABLE, city, type, order.getProperty(), order.isAscending()));
+    }
+
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${booking.catalog.snapshot.refresh:PT5M}",
+            initialDelayString = "${booking.catalog.snapshot.refresh:PT5M}")
+    public synchronized void reload() {
+        if (!enabled) {
+            return;
+        }
+        CatalogSnapshot loaded = CatalogSnapshot.of(ReadYourWrites.onPrimary(adSpaceRepository::findAll));
+        snapshot.set(loaded);
+        log.debug("Loaded catalog snapshot with {} ad spaces", loaded.size());
+    }
+
+    @EventListener
+    public void onAdSpacesChanged(AdSpacesChangedEvent event) {
+        if (event.deleted()) {
+            apply(List.of(), event.adSpaceIds());
+        } else if (!event.adSpaces().isEmpty()) {
+            apply(event.adSpaces(), List.of());
+        } else {
+            reread(event.adSpaceIds());
+        }
+    }
+
+    @Override
+    public void evictAdSpaces(Collection<Long> adSpaceIds) {
+        reread(adSpaceIds);
+    }
+
+    @Override
+    public void evictAll() {
+        reload();
+    }
+
+    private void reread(Collection<Long> adSpaceIds) {
+        if (snapshot.get() == null) {
+            return;
+        }
+        List<AdSpace> current = ReadYourWrites.onPrimary(() -> adSpaceRepository.findAllById(adSpaceIds));
+        Set<Long> gone = new HashSet<>(adSpaceIds);
+        current.forEach(adSpace -> gone.remove(adSpace.getId()));
+        apply(current, gone);
+    }
+
+    private synchronized void apply(Collection<AdSpace> upserts, Collection<Long> removedIds) {
+        CatalogSnapshot current = snapshot.get();
+        if (current != null) {
+            snapshot.set(current.with(upserts, removedIds));
+        }
+    }
+}
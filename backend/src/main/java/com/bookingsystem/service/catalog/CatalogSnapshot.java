@@ -0,0 +1,360 @@
+package com.bookingsystem.service.catalog;
+
+import com.bookingsystem.model.AdSpace;
+import com.bookingsystem.model.AdSpaceStatus;
+import com.bookingsystem.model.AdSpaceType;
+
+import java.math.RoundingMode;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collection;
+import java.util.HashMap;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.IntStream;
+
+/**
+ * Immutable column-per-attribute copy of the ad space catalog, answering
+ * {@code searchAdSpaces} without the database.
+ * <p>
+ * Rows are addressed by position. Type and status are stored as byte ordinals, city as
+ * a code into an interned dictionary and price as cents. Every type, status and city
+ * has a bitmap of its rows, and every sortable property has its rows pre-sorted, so a
+ * search ANDs a few bitmaps and walks one permutation.
+ * <p>
+ * A snapshot is never modified. {@link #with} copies the columns, clones only the
+ * bitmaps it touches and merges the changed rows into each permutation, so a change
+ * costs a few linear passes rather than a re-sort. Removed rows leave an empty slot
+ * until enough have piled up to rebuild from scratch.
+ */
+final class CatalogSnapshot {
+
+    private static final List<String> SORT_KEYS = List.of("name", "city", "pricePerDay", "type");
+
+    static final Set<String> SORTABLE = Set.copyOf(SORT_KEYS);
+
+    private final AdSpace[] rows;
+    private final int live;
+    private final byte[] types;
+    private final byte[] statuses;
+    private final int[] cityCodes;
+    private final long[] priceCents;
+
+    private final Map<String, Integer> cityCode;
+    private final String[] cityDictionary;
+    private final String[] cityDictionaryLower;
+
+    private final long[][] typeBitmaps;
+    private final long[][] statusBitmaps;
+    private final long[][] cityBitmaps;
+
+    /** One permutation of the live rows per entry of {@link #SORT_KEYS}. */
+    private final int[][] sorted;
+
+    private CatalogSnapshot(AdSpace[] rows, int live, byte[] types, byte[] statuses, int[] cityCodes,
+                            long[] priceCents, Map<String, Integer> cityCode, String[] cityDictionary,
+                            String[] cityDictionaryLower, long[][] typeBitmaps, long[][] statusBitmaps,
+                            long[][] cityBitmaps, int[][] sorted) {
+        this.rows = rows;
+        this.live = live;
+        this.types = types;
+        this.statuses = statuses;
+        this.cityCodes = cityCodes;
+        this.priceCents = priceCents;
+        this.cityCode = cityCode;
+        this.cityDictionary = cityDictionary;
+        this.cityDictionaryLower = cityDictionaryLower;
+        this.typeBitmaps = typeBitmaps;
+        this.statusBitmaps = statusBitmaps;
+        this.cityBitmaps = cityBitmaps;
+        this.sorted = sorted;
+    }
+
+    static CatalogSnapshot of(Collection<AdSpace> adSpaces) {
+        int n = adSpaces.size();
+        Builder builder = new Builder(new AdSpace[n], new byte[n], new byte[n], new int[n], new long[n],
+                new HashMap<>(), new ArrayList<>(),
+                new long[AdSpaceType.values().length][words(n)],
+                new long[AdSpaceStatus.values().length][words(n)],
+                new long[0][]);
+        int row = 0;
+        for (AdSpace adSpace : adSpaces) {
+            builder.put(row++, adSpace);
+        }
+
+        int[][] sorted = new int[SORT_KEYS.size()][];
+        for (int key = 0; key < sorted.length; key++) {
+            int k = key;
+            sorted[key] = IntStream.range(0, n).boxed()
+                    .sorted((a, b) -> builder.compare(k, a, b))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+        }
+        return builder.build(n, sorted);
+    }
+
+    /**
+     * Returns a new snapshot with {@code upserts} added or replacing the rows with the same
+     * id, and the rows of {@code removedIds} dropped.
+     */
+    CatalogSnapshot with(Collection<AdSpace> upserts, Collection<Long> removedIds) {
+        Map<Long, AdSpace> changes = new LinkedHashMap<>();
+        removedIds.forEach(id -> changes.put(id, null));
+        upserts.forEach(adSpace -> changes.put(adSpace.getId(), adSpace));
+        if (changes.isEmpty()) {
+            return this;
+        }
+
+        // Find the current slot of every changed id in one pass.
+        Map<Long, Integer> slots = new HashMap<>();
+        for (int row = 0; row < rows.length; row++) {
+            if (rows[row] != null && changes.containsKey(rows[row].getId())) {
+                slots.put(rows[row].getId(), row);
+            }
+        }
+        int added = (int) changes.entrySet().stream()
+                .filter(change -> change.getValue() != null && !slots.containsKey(change.getKey()))
+                .count();
+        int removed = (int) changes.entrySet().stream()
+                .filter(change -> change.getValue() == null && slots.containsKey(change.getKey()))
+                .count();
+
+        int n = rows.length + added;
+        int newLive = live + added - removed;
+        if (n - newLive > Math.max(64, n / 4)) {
+            return rebuilt(changes);
+        }
+
+        Builder builder = new Builder(
+                Arrays.copyOf(rows, n), Arrays.copyOf(types, n), Arrays.copyOf(statuses, n),
+                Arrays.copyOf(cityCodes, n), Arrays.copyOf(priceCents, n),
+                new HashMap<>(cityCode), new ArrayList<>(Arrays.asList(cityDictionary)),
+                typeBitmaps.clone(), statusBitmaps.clone(), cityBitmaps.clone());
+
+        boolean[] touched = new boolean[n];
+        List<Integer> placed = new ArrayList<>();
+        int next = rows.length;
+        for (Map.Entry<Long, AdSpace> change : changes.entrySet()) {
+            Integer slot = slots.get(change.getKey());
+            if (slot != null) {
+                builder.clear(slot);
+                touched[slot] = true;
+            }
+            if (change.getValue() != null) {
+                int row = slot != null ? slot : next++;
+                builder.put(row, change.getValue());
+                touched[row] = true;
+                placed.add(row);
+            }
+        }
+
+        int[][] newSorted = new int[SORT_KEYS.size()][];
+        for (int key = 0; key < newSorted.length; key++) {
+            int k = key;
+            int[] insert = placed.stream()
+                    .sorted((a, b) -> builder.compare(k, a, b))
+                    .mapToInt(Integer::intValue)
+                    .toArray();
+            newSorted[key] = merge(sorted[key], touched, insert, newLive, (a, b) -> builder.compare(k, a, b));
+        }
+        return builder.build(newLive, newSorted);
+    }
+
+    int size() {
+        return live;
+    }
+
+    /**
+     * Same semantics as the database search: rows with {@code status}, city containing
+     * {@code cityFragment} ignoring case, exact {@code type}; absent criteria match all.
+     *
+     * @param sortProperty one of {@link #SORTABLE}
+     */
+    List<AdSpace> search(AdSpaceStatus status, String cityFragment, AdSpaceType type,
+                         String sortProperty, boolean ascending) {
+        long[] matches = Arrays.copyOf(statusBitmaps[status.ordinal()], words(rows.length));
+        if (type != null) {
+            and(matches, typeBitmaps[type.ordinal()]);
+        }
+        if (cityFragment != null) {
+            and(matches, citiesContaining(cityFragment.toLowerCase()));
+        }
+
+        int[] order = sorted[SORT_KEYS.indexOf(sortProperty)];
+        List<AdSpace> result = new ArrayList<>();
+        for (int i = 0; i < order.length; i++) {
+            int row = order[ascending ? i : order.length - 1 - i];
+            if ((matches[row >>> 6] & (1L << row)) != 0) {
+                result.add(rows[row]);
+            }
+        }
+        return result;
+    }
+
+    private CatalogSnapshot rebuilt(Map<Long, AdSpace> changes) {
+        Map<Long, AdSpace> byId = new LinkedHashMap<>();
+        for (AdSpace row : rows) {
+            if (row != null) {
+                byId.put(row.getId(), row);
+            }
+        }
+        changes.forEach((id, adSpace) -> {
+            if (adSpace == null) {
+                byId.remove(id);
+            } else {
+                byId.put(id, adSpace);
+            }
+        });
+        return of(byId.values());
+    }
+
+    private long[] citiesContaining(String fragment) {
+        long[] union = new long[words(rows.length)];
+        for (int code = 0; code < cityDictionaryLower.length; code++) {
+            if (cityDictionaryLower[code].contains(fragment)) {
+                long[] bitmap = cityBitmaps[code];
+                for (int w = 0; w < bitmap.length; w++) {
+                    union[w] |= bitmap[w];
+                }
+            }
+        }
+        return union;
+    }
+
+    /** Bitmaps may be shorter than {@code target}; missing words are zero. */
+    private static void and(long[] target, long[] other) {
+        for (int w = 0; w < target.length; w++) {
+            target[w] &= w < other.length ? other[w] : 0;
+        }
+    }
+
+    private interface RowComparator {
+        int compare(int a, int b);
+    }
+
+    /**
+     * Merges the untouched rows of {@code previous} (already in order) with
+     * {@code insert} (sorted with the same comparator).
+     */
+    private static int[] merge(int[] previous, boolean[] touched, int[] insert, int size, RowComparator comparator) {
+        int[] merged = new int[size];
+        int out = 0;
+        int j = 0;
+        for (int row : previous) {
+            if (touched[row]) {
+                continue;
+            }
+            while (j < insert.length && comparator.compare(insert[j], row) < 0) {
+                merged[out++] = insert[j++];
+            }
+            merged[out++] = row;
+        }
+        while (j < insert.length) {
+            merged[out++] = insert[j++];
+        }
+        return merged;
+    }
+
+    private static int words(int n) {
+        return (n + 63) >>> 6;
+    }
+
+    /**
+     * Fills the columns of a snapshot under construction. Bitmap arrays handed in may be
+     * shared with the previous snapshot; each one is cloned the first time it changes.
+     */
+    private static final class Builder {
+
+        private final AdSpace[] rows;
+        private final byte[] types;
+        private final byte[] statuses;
+        private final int[] cityCodes;
+        private final long[] priceCents;
+        private final Map<String, Integer> cityCode;
+        private final List<String> cityDictionary;
+        private final long[][] typeBitmaps;
+        private final long[][] statusBitmaps;
+        private long[][] cityBitmaps;
+        private boolean[] ownedTypes = new boolean[0];
+        private boolean[] ownedStatuses = new boolean[0];
+        private boolean[] ownedCities = new boolean[0];
+
+        Builder(AdSpace[] rows, byte[] types, byte[] statuses, int[] cityCodes, long[] priceCents,
+                Map<String, Integer> cityCode, List<String> cityDictionary,
+                long[][] typeBitmaps, long[][] statusBitmaps, long[][] cityBitmaps) {
+            this.rows = rows;
+            this.types = types;
+            this.statuses = statuses;
+            this.cityCodes = cityCodes;
+            this.priceCents = priceCents;
+            this.cityCode = cityCode;
+            this.cityDictionary = cityDictionary;
+            this.typeBitmaps = typeBitmaps;
+            this.statusBitmaps = statusBitmaps;
+            this.cityBitmaps = cityBitmaps;
+        }
+
+        void put(int row, AdSpace adSpace) {
+            rows[row] = adSpace;
+            types[row] = (byte) adSpace.getType().ordinal();
+            statuses[row] = (byte) adSpace.getStatus().ordinal();
+            priceCents[row] = adSpace.getPricePerDay().setScale(2, RoundingMode.HALF_UP).unscaledValue().longValueExact();
+            cityCodes[row] = cityCode.computeIfAbsent(adSpace.getCity(), city -> {
+                cityDictionary.add(city.intern());
+                cityBitmaps = Arrays.copyOf(cityBitmaps, cityDictionary.size());
+                cityBitmaps[cityDictionary.size() - 1] = new long[0];
+                return cityDictionary.size() - 1;
+            });
+
+            ownedTypes = set(typeBitmaps, ownedTypes, types[row], row, true);
+            ownedStatuses = set(statusBitmaps, ownedStatuses, statuses[row], row, true);
+            ownedCities = set(cityBitmaps, ownedCities, cityCodes[row], row, true);
+        }
+
+        void clear(int row) {
+            ownedTypes = set(typeBitmaps, ownedTypes, types[row], row, false);
+            ownedStatuses = set(statusBitmaps, ownedStatuses, statuses[row], row, false);
+            ownedCities = set(cityBitmaps, ownedCities, cityCodes[row], row, false);
+            rows[row] = null;
+        }
+
+        int compare(int key, int a, int b) {
+            int result = switch (key) {
+                case 0 -> rows[a].getName().compareTo(rows[b].getName());
+                case 1 -> cityDictionary.get(cityCodes[a]).compareTo(cityDictionary.get(cityCodes[b]));
+                case 2 -> Long.compare(priceCents[a], priceCents[b]);
+                default -> Integer.compare(types[a], types[b]);
+            };
+            return result != 0 ? result : rows[a].getId().compareTo(rows[b].getId());
+        }
+
+        CatalogSnapshot build(int live, int[][] sorted) {
+            String[] dictionary = cityDictionary.toArray(String[]::new);
+            String[] lower = Arrays.stream(dictionary).map(String::toLowerCase).toArray(String[]::new);
+            return new CatalogSnapshot(rows, live, types, statuses, cityCodes, priceCents, cityCode,
+                    dictionary, lower, typeBitmaps, statusBitmaps, cityBitmaps, sorted);
+        }
+
+        /**
+         * Sets or clears one bit, first copying the bitmap if this builder doesn't own it
+         * yet. Returns {@code owned}, grown if needed.
+         */
+        private boolean[] set(long[][] bitmaps, boolean[] owned, int key, int row, boolean value) {
+            if (key >= owned.length) {
+                owned = Arrays.copyOf(owned, Math.max(key + 1, owned.length * 2));
+            }
+            if (!owned[key]) {
+                bitmaps[key] = Arrays.copyOf(bitmaps[key], Math.max(bitmaps[key].length, words(rows.length)));
+                owned[key] = true;
+            }
+            if (value) {
+                bitmaps[key][row >>> 6] |= 1L << row;
+            } else {
+                bitmaps[key][row >>> 6] &= ~(1L << row);
+            }
+            return owned;
+        }
+    }
+}
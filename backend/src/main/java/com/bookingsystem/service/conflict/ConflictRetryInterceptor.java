@@ -0,0 +1,74 @@
+package com.bookingsystem.service.conflict;
+
+import jakarta.persistence.OptimisticLockException;
+import org.aopalliance.intercept.MethodInterceptor;
+import org.aopalliance.intercept.MethodInvocation;
+import org.springframework.aop.ProxyMethodInvocation;
+import org.springframework.aop.support.AopUtils;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.core.annotation.AnnotatedElementUtils;
+import org.springframework.dao.OptimisticLockingFailureException;
+
+import java.lang.reflect.Method;
+import java.util.concurrent.ThreadLocalRandom;
+
+/**
+ * Runs {@link RetryOnConflict} methods again when they fail with an optimistic lock
+ * conflict.
+ * <p>
+ * Must be ordered outside the transaction interceptor: the conflict usually surfaces at
+ * commit, and a retry needs a fresh transaction and persistence context.
+ */
+public class ConflictRetryInterceptor implements MethodInterceptor {
+
+    private final ObjectProvider<ContentionMetrics> contentionMetrics;
+
+    public ConflictRetryInterceptor(ObjectProvider<ContentionMetrics> contentionMetrics) {
+        this.contentionMetrics = contentionMetrics;
+    }
+
+    @Override
+    public Object invoke(MethodInvocation invocation) throws Throwable {
+        Class<?> targetClass = invocation.getThis() != null
+                ? AopUtils.getTargetClass(invocation.getThis())
+                : invocation.getMethod().getDeclaringClass();
+        Method method = AopUtils.getMostSpecificMethod(invocation.getMethod(), targetClass);
+
+        RetryOnConflict retry = AnnotatedElementUtils.findMergedAnnotation(method, RetryOnConflict.class);
+        if (retry == null) {
+            retry = AnnotatedElementUtils.findMergedAnnotation(targetClass, RetryOnConflict.class);
+        }
+        if (retry == null) {
+            return invocation.proceed();
+        }
+
+        String operation = targetClass.getSimpleName() + "." + method.getName();
+        int maxAttempts = Math.max(1, retry.maxAttempts());
+
+        for (int attempt = 1; ; attempt++) {
+            try {
+                return invocation instanceof ProxyMethodInvocation pmi
+                        ? pmi.invocableClone().proceed()
+                        : invocation.proceed();
+            } catch (OptimisticLockingFailureException | OptimisticLockException ex) {
+                boolean retrying = attempt < maxAttempts;
+                contentionMetrics.ifAvailable(metrics -> metrics.recordConflict(operation, ex, retrying));
+                if (!retrying) {
+                    throw ex;
+                }
+                backoff(retry.backoffMillis(), attempt);
+            }
+        }
+    }
+
+    /**
+     * Waits a random time up to {@code attempt * backoffMillis}, so the retries of
+     * transactions that collided don't collide again in lockstep.
+     */
+    private static void backoff(long backoffMillis, int attempt) throws InterruptedException {
+        long bound = backoffMillis * attempt;
+        if (bound > 0) {
+            Thread.sleep(ThreadLocalRandom.current().nextLong(bound + 1));
+        }
+    }
+}
@@ -0,0 +1,35 @@
+package com.bookingsystem.service.conflict;
+
+import org.springframework.boot.actuate.endpoint.annotation.DeleteOperation;
+import org.springframework.boot.actuate.endpoint.annotation.Endpoint;
+import org.springframework.boot.actuate.endpoint.annotation.ReadOperation;
+import org.springframework.stereotype.Component;
+
+import java.util.List;
+
+/**
+ * {@code /actuator/contention}: the rows that lost the most optimistic lock races
+ * since startup (or since the last reset).
+ */
+@Component
+@Endpoint(id = "contention")
+public class ContentionEndpoint {
+
+    private static final int TOP = 20;
+
+    private final ContentionMetrics contentionMetrics;
+
+    public ContentionEndpoint(ContentionMetrics contentionMetrics) {
+        this.contentionMetrics = contentionMetrics;
+    }
+
+    @ReadOperation
+    public List<ContentionMetrics.HotRow> hotRows() {
+        return contentionMetrics.hottestRows(TOP);
+    }
+
+    @DeleteOperation
+    public void reset() {
+        contentionMetrics.reset();
+    }
+}
@@ -0,0 +1,99 @@
+package com.bookingsystem.service.conflict;
+
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.persistence.OptimisticLockException;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+import org.springframework.stereotype.Component;
+
+import java.util.Comparator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Records optimistic lock conflicts.
+ * <p>
+ * DECISION:
+ * - Micrometer counters ({@code booking.optimistic_lock.conflicts}) are tagged by
+ *   entity, operation and outcome only; row ids would explode the tag cardinality.
+ * - Per-row counts are kept in a bounded map instead and exposed through the
+ *   {@code contention} actuator endpoint, which is how hot rows are found.
+ */
+@Component
+public class ContentionMetrics {
+
+    private static final Logger log = LoggerFactory.getLogger(ContentionMetrics.class);
+
+    static final String CONFLICTS = "booking.optimistic_lock.conflicts";
+    static final int MAX_TRACKED_ROWS = 1_000;
+
+    public record HotRow(String entity, String id, long conflicts) {}
+
+    private record RowKey(String entity, String id) {}
+
+    private final MeterRegistry meterRegistry;
+    private final Map<RowKey, LongAdder> rows = new ConcurrentHashMap<>();
+
+    public ContentionMetrics(MeterRegistry meterRegistry) {
+        this.meterRegistry = meterRegistry;
+    }
+
+    /**
+     * @param retried {@code true} if the operation will be attempted again,
+     *                {@code false} if the conflict is handed back to the caller
+     */
+    public void recordConflict(String operation, Exception conflict, boolean retried) {
+        RowKey row = rowOf(conflict);
+
+        Counter.builder(CONFLICTS)
+                .tag("entity", row.entity())
+                .tag("operation", operation)
+                .tag("outcome", retried ? "retried" : "exhausted")
+                .register(meterRegistry)
+                .increment();
+
+        // Once full, only rows already tracked keep counting; hot rows get there first.
+        LongAdder count = rows.size() < MAX_TRACKED_ROWS
+                ? rows.computeIfAbsent(row, key -> new LongAdder())
+                : rows.get(row);
+        if (count != null) {
+            count.increment();
+        }
+
+        log.debug("Optimistic lock conflict on {}#{} in {} ({})",
+                row.entity(), row.id(), operation, retried ? "retrying" : "giving up");
+    }
+
+    public List<HotRow> hottestRows(int limit) {
+        return rows.entrySet().stream()
+                .map(e -> new HotRow(e.getKey().entity(), e.getKey().id(), e.getValue().sum()))
+                .sorted(Comparator.comparingLong(HotRow::conflicts).reversed())
+                .limit(limit)
+                .toList();
+    }
+
+    public void reset() {
+        rows.clear();
+    }
+
+    private static RowKey rowOf(Exception conflict) {
+        if (conflict instanceof ObjectOptimisticLockingFailureException ex) {
+            return new RowKey(simpleName(ex.getPersistentClassName()), String.valueOf(ex.getIdentifier()));
+        }
+        if (conflict instanceof OptimisticLockException ex && ex.getEntity() != null) {
+            return new RowKey(ex.getEntity().getClass().getSimpleName(), "unknown");
+        }
+        return new RowKey("unknown", "unknown");
+    }
+
+    private static String simpleName(String className) {
+        if (className == null) {
+            return "unknown";
+        }
+        return className.substring(className.lastIndexOf('.') + 1);
+    }
+}
@@ -0,0 +1,28 @@
+package com.bookingsystem.service.conflict;
+
+import java.lang.annotation.Documented;
+import java.lang.annotation.ElementType;
+import java.lang.annotation.Retention;
+import java.lang.annotation.RetentionPolicy;
+import java.lang.annotation.Target;
+
+/**
+ * Retries a service method when its transaction loses an optimistic lock race.
+ * <p>
+ * Only put this on operations that are safe to run again from scratch: each attempt
+ * gets a fresh transaction and re-reads the rows, so it sees the winner's changes and
+ * re-validates against them. The retry runs outside the method's transaction.
+ * User edits qualify once they check the version the client read (If-Match): the retry
+ * then refuses an edit that lost the race instead of applying it over the winner's.
+ */
+@Documented
+@Target({ElementType.METHOD, ElementType.TYPE})
+@Retention(RetentionPolicy.RUNTIME)
+public @interface RetryOnConflict {
+
+    /** Total number of attempts, including the first one. */
+    int maxAttempts() default 3;
+
+    /** Base backoff before a retry; attempt {@code n} waits up to {@code n * backoffMillis}. */
+    long backoffMillis() default 20;
+}
@@ -0,0 +1,92 @@
+package com.bookingsystem.service.demand;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Count-min sketch over {@code long} keys: {@code depth} rows of {@code width}
+ * counters, one counter per row bumped per key. Estimates never undercount; with N
+ * counts in total they overcount by at most {@code e * N / width} with probability
+ * {@code 1 - e^-depth}.
+ * <p>
+ * Sketches of the same dimensions add up by adding their counters, so per-node deltas
+ * can be merged into one shared sketch. Not thread-safe.
+ */
+final class CountMinSketch {
+
+    private final int width;
+    private final int depth;
+    private final long[] counters;
+
+    CountMinSketch(int width, int depth) {
+        if (width <= 0 || depth <= 0) {
+            throw new IllegalArgumentException("Count-min sketch width and depth must be positive");
+        }
+        this.width = width;
+        this.depth = depth;
+        this.counters = new long[width * depth];
+    }
+
+    int width() {
+        return width;
+    }
+
+    int depth() {
+        return depth;
+    }
+
+    void add(long key, long count) {
+        long hash = Hashing.mix(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        for (int row = 0; row < depth; row++) {
+            counters[row * width + bucket(h1, h2, row)] += count;
+        }
+    }
+
+    long estimate(long key) {
+        long hash = Hashing.mix(key);
+        int h1 = (int) hash;
+        int h2 = (int) (hash >>> 32);
+        long min = Long.MAX_VALUE;
+        for (int row = 0; row < depth; row++) {
+            min = Math.min(min, counters[row * width + bucket(h1, h2, row)]);
+        }
+        return min;
+    }
+
+    void merge(CountMinSketch other) {
+        if (other.width != width || other.depth != depth) {
+            throw new IllegalArgumentException("Cannot merge count-min sketches of different dimensions");
+        }
+        for (int i = 0; i < counters.length; i++) {
+            counters[i] += other.counters[i];
+        }
+    }
+
+    CountMinSketch copy() {
+        CountMinSketch copy = new CountMinSketch(width, depth);
+        System.arraycopy(counters, 0, copy.counters, 0, counters.length);
+        return copy;
+    }
+
+    byte[] toBytes() {
+        ByteBuffer buffer = ByteBuffer.allocate(8 + counters.length * Long.BYTES);
+        buffer.putInt(width).putInt(depth);
+        buffer.asLongBuffer().put(counters);
+        return buffer.array();
+    }
+
+    static CountMinSketch fromBytes(byte[] bytes) {
+        ByteBuffer buffer = ByteBuffer.wrap(bytes);
+        CountMinSketch sketch = new CountMinSketch(buffer.getInt(), buffer.getInt());
+        buffer.asLongBuffer().get(sketch.counters);
+        return sketch;
+    }
+
+    /**
+     * Row hashes derived from one 64-bit hash (Kirsch-Mitzenmacher).
+     */
+    private int bucket(int h1, int h2, int row) {
+        return Math.floorMod(h1 + row * h2, width);
+    }
+}
@@ -0,0 +1,116 @@
+package com.bookingsystem.service.demand;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.stereotype.Component;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.nio.BufferUnderflowException;
+import java.nio.ByteBuffer;
+import java.util.HashMap;
+import java.util.Map;
+
+/**
+ * Keeps the cluster-wide demand sketches in {@code demand_sketch} (see V15), one row per
+ * sketch.
+ */
+@Component
+public class DemandSketchStore {
+
+    private static final Logger log = LoggerFactory.getLogger(DemandSketchStore.class);
+
+    static final String REQUESTS = "requests";
+    static final String REJECTIONS = "rejections";
+    static final String ADVERTISERS = "advertisers";
+
+    private final JdbcTemplate jdbcTemplate;
+
+    public DemandSketchStore(JdbcTemplate jdbcTemplate) {
+        this.jdbcTemplate = jdbcTemplate;
+    }
+
+    /**
+     * Adds {@code pending} to the stored sketches and returns the result. The rows are
+     * locked while merging, so concurrent merges from several nodes all count.
+     * <p>
+     * Stored sketches with other dimensions than {@code pending} (the configuration
+     * changed) can't be merged and are started over.
+     */
+    @Transactional
+    public Sketches merge(Sketches pending) {
+        Map<String, byte[]> rows = new HashMap<>();
+        jdbcTemplate.query("SELECT name, data FROM demand_sketch FOR UPDATE", rs -> {
+            rows.put(rs.getString("name"), rs.getBytes("data"));
+        });
+
+        Sketches stored = decode(rows, pending);
+        if (pending.isEmpty()) {
+            return stored;
+        }
+        stored.merge(pending);
+        write(REQUESTS, stored.requests.toBytes());
+        write(REJECTIONS, stored.rejections.toBytes());
+        write(ADVERTISERS, encodeAdvertisers(stored));
+        return stored;
+    }
+
+    private void write(String name, byte[] data) {
+        jdbcTemplate.update("""
+                INSERT INTO demand_sketch (name, data, updated_at) VALUES (?, ?, NOW())
+                ON CONFLICT (name) DO UPDATE SET data = EXCLUDED.data, updated_at = EXCLUDED.updated_at
+                """, name, data);
+    }
+
+    private static Sketches decode(Map<String, byte[]> rows, Sketches like) {
+        int width = like.requests.width();
+        int depth = like.requests.depth();
+        try {
+            byte[] requestBytes = rows.get(REQUESTS);
+            byte[] rejectionBytes = rows.get(REJECTIONS);
+            byte[] advertiserBytes = rows.get(ADVERTISERS);
+            if (isBlank(requestBytes) && isBlank(rejectionBytes) && isBlank(advertiserBytes)) {
+                return new Sketches(width, depth, like.precision());
+            }
+            if (isBlank(requestBytes) || isBlank(rejectionBytes) || isBlank(advertiserBytes)) {
+                throw new IllegalArgumentException("Some demand sketches are missing");
+            }
+
+            CountMinSketch requests = CountMinSketch.fromBytes(requestBytes);
+            CountMinSketch rejections = CountMinSketch.fromBytes(rejectionBytes);
+            ByteBuffer buffer = ByteBuffer.wrap(advertiserBytes);
+            int precision = buffer.getInt();
+            if (requests.width() != width || requests.depth() != depth
+                    || rejections.width() != width || rejections.depth() != depth
+                    || precision != like.precision()) {
+                log.warn("Stored demand sketches have other dimensions than configured; starting over");
+                return new Sketches(width, depth, like.precision());
+            }
+
+            Map<Long, HyperLogLog> advertisers = new HashMap<>();
+            int spaces = buffer.getInt();
+            byte[] registers = new byte[1 << precision];
+            for (int i = 0; i < spaces; i++) {
+                long adSpaceId = buffer.getLong();
+                buffer.get(registers);
+                advertisers.put(adSpaceId, HyperLogLog.of(precision, registers));
+            }
+            return new Sketches(requests, rejections, advertisers, precision);
+        } catch (BufferUnderflowException | IllegalArgumentException ex) {
+            log.warn("Stored demand sketches are unreadable; starting over", ex);
+            return new Sketches(width, depth, like.precision());
+        }
+    }
+
+    static byte[] encodeAdvertisers(Sketches sketches) {
+        int registers = 1 << sketches.precision();
+        ByteBuffer buffer = ByteBuffer.allocate(8 + sketches.advertisers.size() * (Long.BYTES + registers));
+        buffer.putInt(sketches.precision()).putInt(sketches.advertisers.size());
+        sketches.advertisers.forEach((adSpaceId, hll) -> buffer.putLong(adSpaceId).put(hll.registers()));
+        return buffer.array();
+    }
+
+    private static boolean isBlank(byte[] data) {
+        return data == null || data.length == 0;
+    }
+}
@@ -0,0 +1,233 @@
+package com.bookingsystem.service.demand;
+
+import com.bookingsystem.model.BookingRequest;
+import com.bookingsystem.model.BookingStatus;
+import com.bookingsystem.service.BookingChangedEvent;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.boot.context.event.ApplicationReadyEvent;
+import org.springframework.context.event.EventListener;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.DayOfWeek;
+import java.time.LocalDate;
+import java.time.format.DateTimeFormatter;
+import java.time.format.DateTimeParseException;
+import java.time.temporal.ChronoUnit;
+import java.time.temporal.IsoFields;
+import java.time.temporal.TemporalAdjusters;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Demand per ad space: booking requests and rejections per ISO week, and how many
+ * distinct advertisers asked for the space, including requests that were never
+ * approved.
+ * <p>
+ * DECISION:
+ * - Counted in sketches (see {@link Sketches}), so memory stays constant however many
+ *   requests come in: a count-min sketch per counter and one small HyperLogLog per ad
+ *   space. Counts may overestimate slightly, never underestimate.
+ * - A request counts in every ISO week its booked period touches, so a heatmap shows
+ *   which weeks are asked for.
+ * - Fed by the after-commit booking events, so only committed requests count. A request
+ *   is counted from its creation event only, so a later promotion off the waitlist
+ *   doesn't count it again. Each node
+ *   records what it sees locally and merges that into the shared sketches in
+ *   {@code demand_sketch} every {@code booking.demand.persist-interval}, reading back
+ *   what the other nodes merged. Estimates combine the last shared state with what is
+ *   not merged yet. A failed merge is retried with the next one.
+ */
+@Component
+public class DemandSketches {
+
+    private static final Logger log = LoggerFactory.getLogger(DemandSketches.class);
+
+    static final int MAX_WEEKS = 53;
+    static final int MAX_LIMIT = 500;
+    static final int DEFAULT_WEEKS = 12;
+
+    public record WeekDemand(String week, long requests, long rejections) {}
+
+    public record SpaceDemand(
+            Long adSpaceId,
+            long distinctAdvertisers,
+            long requests,
+            long rejections,
+            List<WeekDemand> weeks
+    ) {}
+
+    private final DemandSketchStore store;
+    private final Clock clock;
+    private final int width;
+    private final int depth;
+    private final int precision;
+
+    private Sketches shared;
+    private Sketches merging;
+    private Sketches local;
+
+    public DemandSketches(DemandSketchStore store,
+                          Clock clock,
+                          @Value("${booking.demand.cms-width:8192}") int width,
+                          @Value("${booking.demand.cms-depth:4}") int depth,
+                          @Value("${booking.demand.hll-precision:10}") int precision) {
+        this.store = store;
+        this.clock = clock;
+        this.width = width;
+        this.depth = depth;
+        this.precision = precision;
+        this.shared = new Sketches(width, depth, precision);
+        this.local = new Sketches(width, depth, precision);
+    }
+
+    @EventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        BookingRequest booking = event.booking();
+        if (event.created()) {
+            record(booking, false);
+        } else if (booking.getStatus() == BookingStatus.REJECTED) {
+            record(booking, true);
+        }
+        // Promotions, approvals, cancellations and expiries don't change demand.
+    }
+
+    private synchronized void record(BookingRequest booking, boolean rejected) {
+        if (rejected) {
+            local.recordRejection(booking.getAdSpaceId(), booking.getStartDate(), booking.getEndDate());
+        } else {
+            local.recordRequest(booking.getAdSpaceId(), booking.getAdvertiserEmail(),
+                    booking.getStartDate(), booking.getEndDate());
+        }
+    }
+
+    /**
+     * Merges what this node recorded since the last merge into the shared sketches and
+     * picks up what other nodes merged.
+     */
+    @EventListener(ApplicationReadyEvent.class)
+    @Scheduled(fixedDelayString = "${booking.demand.persist-interval:PT5M}",
+            initialDelayString = "${booking.demand.persist-interval:PT5M}")
+    public void persist() {
+        Sketches pending;
+        synchronized (this) {
+            if (merging != null) {
+                return;
+            }
+            pending = local;
+            merging = pending;
+            local = new Sketches(width, depth, precision);
+        }
+
+        Sketches merged = null;
+        try {
+            merged = store.merge(pending);
+        } catch (RuntimeException ex) {
+            log.warn("Merging demand sketches failed, keeping them for the next attempt", ex);
+        } finally {
+            synchronized (this) {
+                if (merged != null) {
+                    shared = merged;
+                } else {
+                    pending.merge(local);
+                    local = pending;
+                }
+                merging = null;
+            }
+        }
+    }
+
+    /**
+     * Demand for the ISO weeks {@code fromWeek}..{@code toWeek} (Mondays, both
+     * inclusive; by default the current and the next 11 weeks), busiest ad spaces
+     * first. {@code adSpaceId} restricts the result to one space.
+     *
+     * @throws IllegalArgumentException for a reversed or too long range or a bad limit
+     */
+    public List<SpaceDemand> demand(Long adSpaceId, LocalDate fromWeek, LocalDate toWeek, int limit) {
+        LocalDate from = fromWeek != null ? weekOf(fromWeek) : weekOf(LocalDate.now(clock));
+        LocalDate to = toWeek != null ? weekOf(toWeek) : from.plusWeeks(DEFAULT_WEEKS - 1);
+        if (from.isAfter(to)) {
+            throw new IllegalArgumentException("'from' must not be after 'to'");
+        }
+        if (ChronoUnit.WEEKS.between(from, to) >= MAX_WEEKS) {
+            throw new IllegalArgumentException("A query may cover at most " + MAX_WEEKS + " weeks");
+        }
+        if (limit < 1 || limit > MAX_LIMIT) {
+            throw new IllegalArgumentException("'limit' must be between 1 and " + MAX_LIMIT);
+        }
+
+        Sketches view = snapshot();
+        Set<Long> spaces = new HashSet<>(view.advertisers.keySet());
+        if (adSpaceId != null) {
+            spaces.retainAll(Set.of(adSpaceId));
+        }
+
+        List<SpaceDemand> result = new ArrayList<>(spaces.size());
+        for (Long space : spaces) {
+            List<WeekDemand> weeks = new ArrayList<>();
+            long requests = 0;
+            long rejections = 0;
+            for (LocalDate week = from; !week.isAfter(to); week = week.plusWeeks(1)) {
+                long cell = Sketches.cell(space, week);
+                WeekDemand demand = new WeekDemand(format(week),
+                        view.requests.estimate(cell), view.rejections.estimate(cell));
+                requests += demand.requests();
+                rejections += demand.rejections();
+                weeks.add(demand);
+            }
+            result.add(new SpaceDemand(space, view.advertisers.get(space).estimate(), requests, rejections, weeks));
+        }
+        return result.stream()
+                .sorted(Comparator.comparingLong(SpaceDemand::requests).reversed()
+                        .thenComparing(SpaceDemand::adSpaceId))
+                .limit(limit)
+                .toList();
+    }
+
+    /**
+     * Shared state plus everything not merged yet, as one sketch set.
+     */
+    private synchronized Sketches snapshot() {
+        Sketches view = shared.copy();
+        if (merging != null) {
+            view.merge(merging);
+        }
+        view.merge(local);
+        return view;
+    }
+
+    /**
+     * Monday of the ISO week {@code day} falls in.
+     */
+    static LocalDate weekOf(LocalDate day) {
+        return day.with(TemporalAdjusters.previousOrSame(DayOfWeek.MONDAY));
+    }
+
+    /**
+     * Parses an ISO week such as {@code 2026-W05} to its Monday.
+     *
+     * @throws IllegalArgumentException if the value is not an ISO week
+     */
+    public static LocalDate parseWeek(String name, String value) {
+        if (value == null || value.isBlank()) {
+            return null;
+        }
+        try {
+            return LocalDate.parse(value.trim() + "-1", DateTimeFormatter.ISO_WEEK_DATE);
+        } catch (DateTimeParseException ex) {
+            throw new IllegalArgumentException("Invalid '" + name + "' parameter. Expected an ISO week like 2026-W05");
+        }
+    }
+
+    static String format(LocalDate monday) {
+        return String.format("%d-W%02d",
+                monday.get(IsoFields.WEEK_BASED_YEAR), monday.get(IsoFields.WEEK_OF_WEEK_BASED_YEAR));
+    }
+}
@@ -0,0 +1,40 @@
+package com.bookingsystem.service.demand;
+
+import java.nio.charset.StandardCharsets;
+
+/**
+ * 64-bit hashes for the sketches. They must be stable across nodes and restarts
+ * because persisted sketches are merged, which rules out {@link Object#hashCode}.
+ */
+final class Hashing {
+
+    private static final long FNV_OFFSET = 0xcbf29ce484222325L;
+    private static final long FNV_PRIME = 0x100000001b3L;
+
+    private Hashing() {
+    }
+
+    /**
+     * FNV-1a over the UTF-8 bytes, finished with {@link #mix} to spread the bits.
+     */
+    static long hash(String value) {
+        long hash = FNV_OFFSET;
+        for (byte b : value.getBytes(StandardCharsets.UTF_8)) {
+            hash ^= b & 0xff;
+            hash *= FNV_PRIME;
+        }
+        return mix(hash);
+    }
+
+    /**
+     * The MurmurHash3 64-bit finalizer.
+     */
+    static long mix(long key) {
+        key ^= key >>> 33;
+        key *= 0xff51afd7ed558ccdL;
+        key ^= key >>> 33;
+        key *= 0xc4ceb9fe1a85ec53L;
+        key ^= key >>> 33;
+        return key;
+    }
+}
@@ -0,0 +1,94 @@
+package com.bookingsystem.service.demand;
+
+/**
+ * HyperLogLog distinct counter with {@code 2^precision} one-byte registers. The
+ * standard error is about {@code 1.04 / sqrt(2^precision)}, e.g. 3.3% at precision 10
+ * for 1 KiB.
+ * <p>
+ * Two sketches of the same precision are united by taking the larger register, so
+ * merging is idempotent. Not thread-safe.
+ */
+final class HyperLogLog {
+
+    static final int MIN_PRECISION = 4;
+    static final int MAX_PRECISION = 16;
+
+    private final int precision;
+    private final byte[] registers;
+
+    HyperLogLog(int precision) {
+        this(precision, new byte[1 << checked(precision)]);
+    }
+
+    private HyperLogLog(int precision, byte[] registers) {
+        this.precision = precision;
+        this.registers = registers;
+    }
+
+    int precision() {
+        return precision;
+    }
+
+    byte[] registers() {
+        return registers;
+    }
+
+    static HyperLogLog of(int precision, byte[] registers) {
+        if (registers.length != 1 << checked(precision)) {
+            throw new IllegalArgumentException("Expected " + (1 << precision) + " registers");
+        }
+        return new HyperLogLog(precision, registers.clone());
+    }
+
+    void add(String value) {
+        long hash = Hashing.hash(value);
+        int index = (int) (hash >>> (64 - precision));
+        // Leading zeros of the remaining bits, plus one; the sentinel bit caps the rank.
+        int rank = Long.numberOfLeadingZeros((hash << precision) | (1L << (precision - 1))) + 1;
+        if (rank > registers[index]) {
+            registers[index] = (byte) rank;
+        }
+    }
+
+    void merge(HyperLogLog other) {
+        if (other.precision != precision) {
+            throw new IllegalArgumentException("Cannot merge HyperLogLogs of different precision");
+        }
+        for (int i = 0; i < registers.length; i++) {
+            if (other.registers[i] > registers[i]) {
+                registers[i] = other.registers[i];
+            }
+        }
+    }
+
+    HyperLogLog copy() {
+        return new HyperLogLog(precision, registers.clone());
+    }
+
+    long estimate() {
+        int m = registers.length;
+        double sum = 0;
+        int zeros = 0;
+        for (byte register : registers) {
+            sum += Math.scalb(1.0, -register);
+            if (register == 0) {
+                zeros++;
+            }
+        }
+        double alpha = 0.7213 / (1 + 1.079 / m);
+        double estimate = alpha * m * m / sum;
+        // Small cardinalities: linear counting over the empty registers is more accurate.
+        if (estimate <= 2.5 * m && zeros > 0) {
+            estimate = m * Math.log((double) m / zeros);
+        }
+        return Math.round(estimate);
+    }
+
+    private static int checked(int precision) {
+        if (precision < MIN_PRECISION || precision > MAX_PRECISION) {
+            throw new IllegalArgumentException(
+                    "HyperLogLog precision must be between " + MIN_PRECISION + " and " + MAX_PRECISION);
+        }
+        return precision;
+    }
+}
@@ -0,0 +1,79 @@
+package com.bookingsystem.service.demand;
+
+import java.time.LocalDate;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+
+/**
+ * The demand sketches of one node or of the whole cluster: requests and rejections
+ * per (ad space, ISO week) in count-min sketches, and the distinct advertisers of each
+ * ad space in a HyperLogLog. Not thread-safe.
+ */
+final class Sketches {
+
+    final CountMinSketch requests;
+    final CountMinSketch rejections;
+    final Map<Long, HyperLogLog> advertisers;
+    private final int precision;
+    private long recorded;
+
+    Sketches(int width, int depth, int precision) {
+        this(new CountMinSketch(width, depth), new CountMinSketch(width, depth), new HashMap<>(), precision);
+    }
+
+    Sketches(CountMinSketch requests, CountMinSketch rejections, Map<Long, HyperLogLog> advertisers, int precision) {
+        this.requests = requests;
+        this.rejections = rejections;
+        this.advertisers = advertisers;
+        this.precision = precision;
+    }
+
+    int precision() {
+        return precision;
+    }
+
+    void recordRequest(long adSpaceId, String advertiserEmail, LocalDate start, LocalDate end) {
+        for (LocalDate week = DemandSketches.weekOf(start); !week.isAfter(end); week = week.plusWeeks(1)) {
+            requests.add(cell(adSpaceId, week), 1);
+        }
+        advertisers.computeIfAbsent(adSpaceId, id -> new HyperLogLog(precision))
+                .add(advertiserEmail.trim().toLowerCase(Locale.ROOT));
+        recorded++;
+    }
+
+    void recordRejection(long adSpaceId, LocalDate start, LocalDate end) {
+        for (LocalDate week = DemandSketches.weekOf(start); !week.isAfter(end); week = week.plusWeeks(1)) {
+            rejections.add(cell(adSpaceId, week), 1);
+        }
+        recorded++;
+    }
+
+    boolean isEmpty() {
+        return recorded == 0;
+    }
+
+    void merge(Sketches other) {
+        requests.merge(other.requests);
+        rejections.merge(other.rejections);
+        other.advertisers.forEach((adSpaceId, hll) -> advertisers.merge(adSpaceId, hll.copy(), (mine, theirs) -> {
+            mine.merge(theirs);
+            return mine;
+        }));
+        recorded += other.recorded;
+    }
+
+    Sketches copy() {
+        Sketches copy = new Sketches(requests.copy(), rejections.copy(), new HashMap<>(), precision);
+        advertisers.forEach((adSpaceId, hll) -> copy.advertisers.put(adSpaceId, hll.copy()));
+        copy.recorded = recorded;
+        return copy;
+    }
+
+    /**
+     * Count-min key of one ad space in the ISO week starting on {@code monday}.
+     */
+    static long cell(long adSpaceId, LocalDate monday) {
+        return (adSpaceId << 24) ^ Math.floorDiv(monday.toEpochDay(), 7);
+    }
+}
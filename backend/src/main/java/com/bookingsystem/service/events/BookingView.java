@@ -0,0 +1,36 @@
+package com.bookingsystem.service.events;
+
+import com.bookingsystem.model.BookingRequest;
+import com.bookingsystem.model.BookingStatus;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+/**
+ * The columns of a booking as sent on the event stream. Unlike the entity it never
+ * touches the lazy ad space association, which is gone once the transaction ended.
+ */
+public record BookingView(
+        Long id,
+        Long adSpaceId,
+        String advertiserName,
+        String advertiserEmail,
+        LocalDate startDate,
+        LocalDate endDate,
+        BookingStatus status,
+        BigDecimal totalCost
+) {
+
+    static BookingView of(BookingRequest booking) {
+        return new BookingView(
+                booking.getId(),
+                booking.getAdSpaceId(),
+                booking.getAdvertiserName(),
+                booking.getAdvertiserEmail(),
+                booking.getStartDate(),
+                booking.getEndDate(),
+                booking.getStatus(),
+                booking.getTotalCost()
+        );
+    }
+}
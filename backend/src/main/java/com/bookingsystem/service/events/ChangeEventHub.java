@@ -0,0 +1,273 @@
+package com.bookingsystem.service.events;
+
+import com.bookingsystem.model.AdSpace;
+import com.bookingsystem.model.BookingStatus;
+import com.bookingsystem.service.AdSpacesChangedEvent;
+import com.bookingsystem.service.BookingChangedEvent;
+import com.bookingsystem.service.invalidation.LocalCache;
+import jakarta.annotation.PreDestroy;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.http.MediaType;
+import org.springframework.stereotype.Component;
+import org.springframework.web.servlet.mvc.method.annotation.SseEmitter;
+
+import java.io.IOException;
+import java.time.Duration;
+import java.util.ArrayDeque;
+import java.util.Collection;
+import java.util.Deque;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Fans committed booking and ad space changes out to Server-Sent Events clients.
+ * <p>
+ * DECISION:
+ * - Fed by the after-commit change events, so clients never see a change that was
+ *   rolled back. Changes committed on other nodes arrive through the cache invalidation
+ *   bus, as a {@link LocalCache}. Those messages only carry ids, so they are sent as
+ *   {@code bookings.changed} / {@code ad-spaces.changed} and clients fetch what they
+ *   display. When the bus may have missed messages, every client gets {@code resync}.
+ * - Event ids are {@code <epoch>-<seq>}, where the epoch changes on every start. The
+ *   last {@code booking.events.replay-size} events are kept, so a client reconnecting
+ *   with {@code Last-Event-ID} gets what it missed. If that is no longer possible
+ *   (unknown epoch, or too far behind) it gets a {@code resync} event and should
+ *   reload its lists.
+ * - Each client has a bounded queue drained by its own virtual thread, so a slow
+ *   client only blocks itself. When its queue overflows the backlog is dropped and it
+ *   is sent {@code resync} as well.
+ */
+@Component
+public class ChangeEventHub implements LocalCache {
+
+    private static final Logger log = LoggerFactory.getLogger(ChangeEventHub.class);
+
+    static final String RESYNC = "resync";
+
+    record ChangeEvent(long seq, String name, Object data) {}
+
+    private final String epoch = Long.toString(System.currentTimeMillis(), 36);
+    private final int replaySize;
+    private final int clientBuffer;
+    private final Duration timeout;
+    private final Duration keepAlive;
+
+    private final Deque<ChangeEvent> replay = new ArrayDeque<>();
+    private final Set<Subscriber> subscribers = ConcurrentHashMap.newKeySet();
+    private final ExecutorService writers = Executors.newVirtualThreadPerTaskExecutor();
+    private long seq;
+    // Messages from other nodes were lost after this event; later ones can't be replayed.
+    private long lostAfter = -1;
+
+    public ChangeEventHub(@Value("${booking.events.replay-size:1000}") int replaySize,
+                          @Value("${booking.events.client-buffer:256}") int clientBuffer,
+                          @Value("${booking.events.timeout:PT30M}") Duration timeout,
+                          @Value("${booking.events.keep-alive:PT15S}") Duration keepAlive) {
+        this.replaySize = replaySize;
+        this.clientBuffer = clientBuffer;
+        this.timeout = timeout;
+        this.keepAlive = keepAlive;
+    }
+
+    /**
+     * Opens a stream for one client, first replaying what it missed since
+     * {@code lastEventId} if given.
+     */
+    public SseEmitter subscribe(String lastEventId) {
+        SseEmitter emitter = new SseEmitter(timeout.toMillis());
+        Subscriber subscriber = new Subscriber(emitter);
+
+        synchronized (this) {
+            if (lastEventId != null && !lastEventId.isBlank()) {
+                List<ChangeEvent> missed = missedSince(lastEventId);
+                if (missed == null) {
+                    subscriber.requestResync();
+                } else {
+                    missed.forEach(subscriber::offer);
+                }
+            }
+            subscribers.add(subscriber);
+        }
+
+        emitter.onCompletion(subscriber::close);
+        emitter.onTimeout(subscriber::close);
+        emitter.onError(error -> subscriber.close());
+        writers.execute(subscriber::drain);
+        return emitter;
+    }
+
+    public int subscriberCount() {
+        return subscribers.size();
+    }
+
+    @EventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        BookingStatus status = event.booking().getStatus();
+        String name;
+        if (event.created()) {
+            name = "booking.created";
+        } else if (status == BookingStatus.PENDING) {
+            // Only a waitlisted request moves back to PENDING.
+            name = "booking.promoted";
+        } else {
+            name = "booking." + status.name().toLowerCase();
+        }
+        publish(name, BookingView.of(event.booking()));
+    }
+
+    @EventListener
+    public void onAdSpacesChanged(AdSpacesChangedEvent event) {
+        if (event.deleted()) {
+            event.adSpaceIds().forEach(id -> publish("ad-space.deleted", Map.of("id", id)));
+        } else if (!event.adSpaces().isEmpty()) {
+            for (AdSpace adSpace : event.adSpaces()) {
+                publish("ad-space.updated", adSpace);
+            }
+        } else {
+            // Bulk change: only the ids are known, clients fetch what they display.
+            publish("ad-spaces.changed", Map.of("ids", event.adSpaceIds()));
+        }
+    }
+
+    /**
+     * Ad spaces changed on another node.
+     */
+    @Override
+    public void evictAdSpaces(Collection<Long> adSpaceIds) {
+        publish("ad-spaces.changed", Map.of("ids", List.copyOf(adSpaceIds)));
+    }
+
+    /**
+     * Bookings changed on another node; {@code bookingIds} may be empty.
+     */
+    @Override
+    public void evictBookings(Long adSpaceId, Collection<Long> bookingIds) {
+        Map<String, Object> data = new LinkedHashMap<>();
+        data.put("adSpaceId", adSpaceId);
+        data.put("ids", List.copyOf(bookingIds));
+        publish("bookings.changed", data);
+    }
+
+    /**
+     * Changes made on other nodes may have been missed.
+     */
+    @Override
+    public synchronized void evictAll() {
+        lostAfter = seq;
+        subscribers.forEach(Subscriber::requestResync);
+    }
+
+    @PreDestroy
+    public void shutdown() {
+        subscribers.forEach(subscriber -> subscriber.emitter.complete());
+        writers.shutdownNow();
+    }
+
+    private synchronized void publish(String name, Object data) {
+        ChangeEvent event = new ChangeEvent(++seq, name, data);
+        replay.addLast(event);
+        if (replay.size() > replaySize) {
+            replay.removeFirst();
+        }
+        for (Subscriber subscriber : subscribers) {
+            subscriber.offer(event);
+        }
+    }
+
+    /**
+     * @return the events after {@code lastEventId}, or {@code null} if they are no
+     * longer all available
+     */
+    synchronized List<ChangeEvent> missedSince(String lastEventId) {
+        int dash = lastEventId.lastIndexOf('-');
+        if (dash < 0 || !lastEventId.substring(0, dash).equals(epoch)) {
+            return null;
+        }
+        long lastSeq;
+        try {
+            lastSeq = Long.parseLong(lastEventId.substring(dash + 1));
+        } catch (NumberFormatException ex) {
+            return null;
+        }
+        if (lastSeq > seq || lastSeq <= lostAfter) {
+            return null;
+        }
+        long oldestKept = replay.isEmpty() ? seq + 1 : replay.peekFirst().seq();
+        if (lastSeq + 1 < oldestKept) {
+            return null;
+        }
+        return replay.stream().filter(event -> event.seq() > lastSeq).toList();
+    }
+
+    String eventId(long eventSeq) {
+        return epoch + "-" + eventSeq;
+    }
+
+    private final class Subscriber {
+
+        private final SseEmitter emitter;
+        private final BlockingQueue<ChangeEvent> queue = new ArrayBlockingQueue<>(clientBuffer);
+        private volatile boolean resync;
+        private volatile boolean closed;
+
+        Subscriber(SseEmitter emitter) {
+            this.emitter = emitter;
+        }
+
+        void offer(ChangeEvent event) {
+            if (!queue.offer(event)) {
+                requestResync();
+            }
+        }
+
+        void requestResync() {
+            queue.clear();
+            resync = true;
+        }
+
+        void close() {
+            closed = true;
+            subscribers.remove(this);
+        }
+
+        void drain() {
+            try {
+                while (!closed) {
+                    if (resync) {
+                        resync = false;
+                        queue.clear();
+                        emitter.send(SseEmitter.event().name(RESYNC).data(""));
+                        continue;
+                    }
+                    ChangeEvent event = queue.poll(keepAlive.toMillis(), TimeUnit.MILLISECONDS);
+                    if (event == null) {
+                        emitter.send(SseEmitter.event().comment("keep-alive"));
+                    } else {
+                        emitter.send(SseEmitter.event()
+                                .id(eventId(event.seq()))
+                                .name(event.name())
+                                .data(event.data(), MediaType.APPLICATION_JSON));
+                    }
+                }
+            } catch (IOException | IllegalStateException ex) {
+                log.debug("Event stream client went away: {}", ex.getMessage());
+                emitter.completeWithError(ex);
+            } catch (InterruptedException ex) {
+                Thread.currentThread().interrupt();
+            } finally {
+                close();
+            }
+        }
+    }
+}
@@ -0,0 +1,125 @@
+package com.bookingsystem.service.hold;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Set;
+
+/**
+ * Hashed timing wheel for expiring many short-lived items with O(1) schedule and cancel.
+ * <p>
+ * Time is cut into ticks of {@code tickMillis}; an item due at tick {@code t} lives in
+ * bucket {@code t mod wheelSize}. Advancing the wheel only visits the buckets of the
+ * ticks that elapsed, and within a bucket only items whose deadline tick has passed
+ * are expired (items a full rotation or more away stay put).
+ * <p>
+ * The wheel has no thread of its own: the owner calls {@link #advance(long)} periodically.
+ */
+final class HashedTimingWheel<T> {
+
+    static final class Timeout<T> {
+        private final T item;
+        private final long deadlineTick;
+        private boolean done;
+
+        private Timeout(T item, long deadlineTick) {
+            this.item = item;
+            this.deadlineTick = deadlineTick;
+        }
+
+        T item() {
+            return item;
+        }
+    }
+
+    private final long tickMillis;
+    private final long startMillis;
+    private final int mask;
+    private final List<Set<Timeout<T>>> buckets;
+    private long currentTick;
+    private int size;
+
+    HashedTimingWheel(long tickMillis, int wheelSize, long startMillis) {
+        if (tickMillis <= 0) {
+            throw new IllegalArgumentException("Tick duration must be positive");
+        }
+        if (wheelSize <= 0 || Integer.bitCount(wheelSize) != 1) {
+            throw new IllegalArgumentException("Wheel size must be a power of two");
+        }
+        this.tickMillis = tickMillis;
+        this.startMillis = startMillis;
+        this.mask = wheelSize - 1;
+        this.buckets = new ArrayList<>(wheelSize);
+        for (int i = 0; i < wheelSize; i++) {
+            buckets.add(new LinkedHashSet<>());
+        }
+    }
+
+    /**
+     * Schedules {@code item} to expire at {@code deadlineMillis}. Deadlines that already
+     * passed expire on the next tick.
+     */
+    synchronized Timeout<T> schedule(T item, long deadlineMillis) {
+        long deadlineTick = Math.floorDiv(deadlineMillis - startMillis + tickMillis - 1, tickMillis);
+        deadlineTick = Math.max(deadlineTick, currentTick + 1);
+
+        Timeout<T> timeout = new Timeout<>(item, deadlineTick);
+        buckets.get((int) (deadlineTick & mask)).add(timeout);
+        size++;
+        return timeout;
+    }
+
+    synchronized boolean cancel(Timeout<T> timeout) {
+        if (timeout.done) {
+            return false;
+        }
+        timeout.done = true;
+        buckets.get((int) (timeout.deadlineTick & mask)).remove(timeout);
+        size--;
+        return true;
+    }
+
+    /**
+     * Moves the wheel forward to {@code nowMillis} and returns the items that expired.
+     */
+    synchronized List<T> advance(long nowMillis) {
+        long targetTick = Math.floorDiv(nowMillis - startMillis, tickMillis);
+        List<T> expired = new ArrayList<>();
+        if (targetTick <= currentTick) {
+            return expired;
+        }
+
+        // After a long pause every bucket is due anyway; sweep each once instead of
+        // spinning through many full rotations.
+        if (targetTick - currentTick >= buckets.size()) {
+            for (Set<Timeout<T>> bucket : buckets) {
+                expire(bucket, targetTick, expired);
+            }
+        } else {
+            for (long tick = currentTick + 1; tick <= targetTick; tick++) {
+                expire(buckets.get((int) (tick & mask)), tick, expired);
+            }
+        }
+
+        currentTick = targetTick;
+        return expired;
+    }
+
+    synchronized int size() {
+        return size;
+    }
+
+    private void expire(Set<Timeout<T>> bucket, long uptoTick, List<T> expired) {
+        Iterator<Timeout<T>> it = bucket.iterator();
+        while (it.hasNext()) {
+            Timeout<T> timeout = it.next();
+            if (timeout.deadlineTick <= uptoTick) {
+                it.remove();
+                timeout.done = true;
+                size--;
+                expired.add(timeout.item);
+            }
+        }
+    }
+}
@@ -0,0 +1,225 @@
+package com.bookingsystem.service.hold;
+
+import com.bookingsystem.exception.AdSpaceNotAvailableException;
+import com.bookingsystem.exception.AdSpaceNotFoundException;
+import com.bookingsystem.exception.BookingValidationException;
+import com.bookingsystem.exception.HoldNotFoundException;
+import com.bookingsystem.model.AdSpace;
+import com.bookingsystem.model.AdSpaceStatus;
+import com.bookingsystem.model.DateHold;
+import com.bookingsystem.repository.AdSpaceRepository;
+import com.bookingsystem.repository.DateHoldRepository;
+import com.bookingsystem.service.AfterCommit;
+import com.bookingsystem.service.occupancy.OccupancyIndex;
+import com.bookingsystem.service.routing.ReadYourWrites;
+import jakarta.annotation.PostConstruct;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Short-lived holds on (ad space, date range) that overlap checks treat as occupancy.
+ * <p>
+ * DECISION:
+ * - Holds are kept in memory and expired by a {@link HashedTimingWheel} ticked from a
+ *   scheduler, instead of a job polling the database for expired rows.
+ * - With {@code booking.holds.persistence.enabled=true} every hold is also written to
+ *   {@code date_hold} and reinstated on startup, so a restart doesn't drop them.
+ *   The database copy is otherwise only read for holds placed on another node: a
+ *   booking may be submitted to a different node than the one that placed its hold.
+ *   Without persistence such a hold is unknown there and the booking is rejected.
+ * - A new hold claims its slot in the {@link OccupancyIndex} right away, so concurrent
+ *   holds can't both take the last one, but only becomes active once its transaction
+ *   committed. If saving it fails, the slot is given back.
+ */
+@Service
+public class HoldService {
+
+    private static final Logger log = LoggerFactory.getLogger(HoldService.class);
+
+    private final AdSpaceRepository adSpaceRepository;
+    private final DateHoldRepository dateHoldRepository;
+    private final OccupancyIndex occupancyIndex;
+    private final Clock clock;
+    private final Duration ttl;
+    private final boolean persistent;
+
+    private final Map<UUID, HashedTimingWheel.Timeout<DateHold>> active = new ConcurrentHashMap<>();
+    private final HashedTimingWheel<DateHold> wheel;
+
+    public HoldService(AdSpaceRepository adSpaceRepository,
+                       DateHoldRepository dateHoldRepository,
+                       OccupancyIndex occupancyIndex,
+                       Clock clock,
+                       @Value("${booking.holds.ttl:PT10M}") Duration ttl,
+                       @Value("${booking.holds.tick:PT1S}") Duration tick,
+                       @Value("${booking.holds.wheel-size:1024}") int wheelSize,
+                       @Value("${booking.holds.persistence.enabled:false}") boolean persistent) {
+        this.adSpaceRepository = adSpaceRepository;
+        this.dateHoldRepository = dateHoldRepository;
+        this.occupancyIndex = occupancyIndex;
+        this.clock = clock;
+        this.ttl = ttl;
+        this.persistent = persistent;
+        this.wheel = new HashedTimingWheel<>(tick.toMillis(), wheelSize, clock.millis());
+    }
+
+    @PostConstruct
+    public void restorePersistedHolds() {
+        if (!persistent) {
+            return;
+        }
+
+        Instant now = clock.instant();
+        dateHoldRepository.deleteExpired(now);
+
+        int restored = 0;
+        for (DateHold hold : dateHoldRepository.findByExpiresAtAfter(now)) {
+            // Already admitted before the restart, so it must not be rejected now.
+            occupancyIndex.tryHold(hold, Integer.MAX_VALUE);
+            track(hold);
+            restored++;
+        }
+        log.info("Restored {} date holds", restored);
+    }
+
+    @Transactional
+    public DateHold placeHold(Long adSpaceId, String holderEmail, LocalDate startDate, LocalDate endDate) {
+        if (!endDate.isAfter(startDate)) {
+            throw new BookingValidationException("End date must be after start date");
+        }
+        if (startDate.isBefore(LocalDate.now(clock))) {
+            throw new BookingValidationException("Start date must be in the future");
+        }
+
+        AdSpace adSpace = adSpaceRepository.findById(adSpaceId)
+                .orElseThrow(() -> new AdSpaceNotFoundException(adSpaceId));
+
+        if (adSpace.getStatus() != AdSpaceStatus.AVAILABLE) {
+            throw new AdSpaceNotAvailableException(
+                    "Ad space is not available. Current status: " + adSpace.getStatus());
+        }
+
+        DateHold hold = new DateHold(adSpaceId, holderEmail, startDate, endDate,
+                clock.instant().plus(ttl), LocalDateTime.now(clock));
+
+        if (!occupancyIndex.tryHold(hold, adSpace.getCapacity())) {
+            throw new BookingValidationException(
+                    "The requested period is already booked or held by another advertiser");
+        }
+
+        AfterCommit.run(() -> track(hold), () -> occupancyIndex.releaseHold(hold));
+        if (persistent) {
+            dateHoldRepository.save(hold);
+        }
+        return hold;
+    }
+
+    public DateHold getHold(UUID holdId) {
+        HashedTimingWheel.Timeout<DateHold> timeout = active.get(holdId);
+        if (timeout == null || timeout.item().isExpired(clock.instant())) {
+            throw new HoldNotFoundException(holdId);
+        }
+        return timeout.item();
+    }
+
+    /**
+     * Returns the hold if it is still active and covers the given booking, so the
+     * booking can be admitted against it.
+     */
+    public DateHold requireHoldFor(UUID holdId,
+                                   Long adSpaceId,
+                                   String advertiserEmail,
+                                   LocalDate startDate,
+                                   LocalDate endDate) {
+        DateHold hold = active.containsKey(holdId) || !persistent
+                ? getHold(holdId)
+                : placedElsewhere(holdId);
+
+        if (!hold.covers(adSpaceId, startDate, endDate)) {
+            throw new BookingValidationException("Hold does not cover the requested ad space and period");
+        }
+        if (!hold.getHolderEmail().equalsIgnoreCase(advertiserEmail)) {
+            throw new BookingValidationException("Hold belongs to a different advertiser");
+        }
+        return hold;
+    }
+
+    public void releaseHold(UUID holdId) {
+        if (!remove(holdId)) {
+            throw new HoldNotFoundException(holdId);
+        }
+    }
+
+    /**
+     * Releases a hold that was used by a booking. Unlike {@link #releaseHold} this is a
+     * no-op if the hold expired in the meantime.
+     */
+    public void consumeHold(UUID holdId) {
+        if (!remove(holdId) && persistent) {
+            // Placed on another node, which keeps counting it in memory until it expires;
+            // at least it won't be restored after a restart.
+            dateHoldRepository.deleteById(holdId);
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${booking.holds.tick:PT1S}")
+    public void expireHolds() {
+        List<DateHold> expired = wheel.advance(clock.millis());
+        for (DateHold hold : expired) {
+            active.remove(hold.getId());
+            drop(hold);
+        }
+        if (!expired.isEmpty()) {
+            log.debug("Expired {} date holds", expired.size());
+        }
+    }
+
+    public int activeHoldCount() {
+        return wheel.size();
+    }
+
+    /**
+     * Looks up the persisted copy of a hold placed on another node. Read from the primary,
+     * since it was typically written moments ago.
+     */
+    private DateHold placedElsewhere(UUID holdId) {
+        return ReadYourWrites.onPrimary(() -> dateHoldRepository.findById(holdId))
+                .filter(hold -> !hold.isExpired(clock.instant()))
+                .orElseThrow(() -> new HoldNotFoundException(holdId));
+    }
+
+    private void track(DateHold hold) {
+        active.put(hold.getId(), wheel.schedule(hold, hold.getExpiresAt().toEpochMilli()));
+    }
+
+    private boolean remove(UUID holdId) {
+        HashedTimingWheel.Timeout<DateHold> timeout = active.remove(holdId);
+        if (timeout == null) {
+            return false;
+        }
+        wheel.cancel(timeout);
+        drop(timeout.item());
+        return true;
+    }
+
+    private void drop(DateHold hold) {
+        occupancyIndex.releaseHold(hold);
+        if (persistent) {
+            dateHoldRepository.deleteById(hold.getId());
+        }
+    }
+}
@@ -0,0 +1,211 @@
+package com.bookingsystem.service.idempotency;
+
+import com.bookingsystem.exception.IdempotencyKeyInProgressException;
+import com.bookingsystem.exception.IdempotencyKeyReuseException;
+import com.bookingsystem.model.IdempotencyRecord;
+import com.bookingsystem.repository.IdempotencyRecordRepository;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Service;
+
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.util.LinkedHashMap;
+import java.util.Map;
+import java.util.Optional;
+import java.util.concurrent.Callable;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+/**
+ * Executes a request at most once per Idempotency-Key and replays its response on retries.
+ * <p>
+ * DECISION:
+ * - Completed responses are cached in a bounded LRU map in front of the
+ *   {@code idempotency_key} table, so most retries never reach the database.
+ * - Concurrent duplicates on this node wait for the in-flight execution's future
+ *   instead of racing it. Across nodes, a claim row (INSERT ... ON CONFLICT DO NOTHING)
+ *   decides the owner and the loser gets a 409 to retry.
+ * - Only successful responses are stored. A failed attempt releases its claim, so
+ *   a retry after e.g. a validation error runs again.
+ * - Expired rows are deleted by a periodic cleanup, not on the request path.
+ */
+@Service
+public class IdempotencyService {
+
+    private static final Logger log = LoggerFactory.getLogger(IdempotencyService.class);
+
+    public record Execution(StoredResponse response, boolean replayed) {}
+
+    private record CachedResponse(String requestHash, StoredResponse response, Instant expiresAt) {}
+
+    private final IdempotencyRecordRepository repository;
+    private final Clock clock;
+    private final Duration ttl;
+    private final Duration waitTimeout;
+
+    private final Map<String, CachedResponse> cache;
+    private final Map<String, CompletableFuture<CachedResponse>> inFlight = new ConcurrentHashMap<>();
+
+    public IdempotencyService(IdempotencyRecordRepository repository,
+                              Clock clock,
+                              @Value("${booking.idempotency.ttl:PT24H}") Duration ttl,
+                              @Value("${booking.idempotency.wait-timeout:PT30S}") Duration waitTimeout,
+                              @Value("${booking.idempotency.cache-size:10000}") int cacheSize) {
+        this.repository = repository;
+        this.clock = clock;
+        this.ttl = ttl;
+        this.waitTimeout = waitTimeout;
+        this.cache = new LinkedHashMap<>(16, 0.75f, true) {
+            @Override
+            protected boolean removeEldestEntry(Map.Entry<String, CachedResponse> eldest) {
+                return size() > cacheSize;
+            }
+        };
+    }
+
+    /**
+     * Runs {@code action} unless a response for {@code key} is already known, in which
+     * case that response is returned with {@code replayed = true}.
+     *
+     * @throws IdempotencyKeyReuseException      if the key was used for a different request body
+     * @throws IdempotencyKeyInProgressException if another node is executing the key, or a
+     *                                           local execution did not finish in time
+     */
+    public Execution execute(String key, String requestHash, Callable<StoredResponse> action) throws Exception {
+        while (true) {
+            Optional<CachedResponse> known = lookup(key);
+            if (known.isPresent()) {
+                return replay(key, requestHash, known.get());
+            }
+
+            CompletableFuture<CachedResponse> mine = new CompletableFuture<>();
+            CompletableFuture<CachedResponse> running = inFlight.putIfAbsent(key, mine);
+            if (running == null) {
+                try {
+                    return executeAsOwner(key, requestHash, action, mine);
+                } finally {
+                    inFlight.remove(key, mine);
+                }
+            }
+
+            CachedResponse outcome = await(key, running);
+            if (outcome != null) {
+                return replay(key, requestHash, outcome);
+            }
+            // The in-flight attempt failed and stored nothing; try to run it ourselves.
+        }
+    }
+
+    @Scheduled(fixedDelayString = "${booking.idempotency.cleanup-interval:PT1H}")
+    public void deleteExpired() {
+        int deleted = repository.deleteExpired(clock.instant());
+        if (deleted > 0) {
+            log.debug("Deleted {} expired idempotency keys", deleted);
+        }
+    }
+
+    private Execution executeAsOwner(String key,
+                                     String requestHash,
+                                     Callable<StoredResponse> action,
+                                     CompletableFuture<CachedResponse> mine) throws Exception {
+        CachedResponse outcome = null;
+        try {
+            Optional<IdempotencyRecord> stored = repository.findById(key);
+            if (stored.isPresent() && stored.get().isExpired(clock.instant())) {
+                repository.deleteById(key);
+                stored = Optional.empty();
+            }
+            if (stored.isPresent()) {
+                if (!stored.get().isCompleted()) {
+                    throw new IdempotencyKeyInProgressException(key);
+                }
+                outcome = toCached(stored.get());
+                remember(key, outcome);
+                return replay(key, requestHash, outcome);
+            }
+
+            // A claim only lives as long as a waiter would wait for it, so a node that dies
+            // mid-request doesn't block the key for the full TTL.
+            if (repository.claim(key, requestHash, clock.instant().plus(waitTimeout)) == 0) {
+                throw new IdempotencyKeyInProgressException(key);
+            }
+
+            StoredResponse response;
+            try {
+                response = action.call();
+            } catch (Exception ex) {
+                repository.releaseClaim(key);
+                throw ex;
+            }
+
+            if (!response.isSuccessful()) {
+                repository.releaseClaim(key);
+                return new Execution(response, false);
+            }
+
+            Instant expiresAt = clock.instant().plus(ttl);
+            repository.complete(key, response.status(), response.contentType(), response.body(), expiresAt);
+            outcome = new CachedResponse(requestHash, response, expiresAt);
+            remember(key, outcome);
+            return new Execution(response, false);
+        } finally {
+            mine.complete(outcome);
+        }
+    }
+
+    private CachedResponse await(String key, CompletableFuture<CachedResponse> running) throws InterruptedException {
+        try {
+            return running.get(waitTimeout.toMillis(), TimeUnit.MILLISECONDS);
+        } catch (TimeoutException ex) {
+            throw new IdempotencyKeyInProgressException(key);
+        } catch (ExecutionException ex) {
+            return null;
+        }
+    }
+
+    private Execution replay(String key, String requestHash, CachedResponse cached) {
+        if (!cached.requestHash().equals(requestHash)) {
+            throw new IdempotencyKeyReuseException(key);
+        }
+        return new Execution(cached.response(), true);
+    }
+
+    private Optional<CachedResponse> lookup(String key) {
+        synchronized (cache) {
+            CachedResponse cached = cache.get(key);
+            if (cached == null) {
+                return Optional.empty();
+            }
+            if (!clock.instant().isBefore(cached.expiresAt())) {
+                cache.remove(key);
+                return Optional.empty();
+            }
+            return Optional.of(cached);
+        }
+    }
+
+    private void remember(String key, CachedResponse response) {
+        synchronized (cache) {
+            cache.put(key, response);
+        }
+    }
+
+    private static CachedResponse toCached(IdempotencyRecord record) {
+        return new CachedResponse(
+                record.getRequestHash(),
+                new StoredResponse(
+                        record.getResponseStatus(),
+                        record.getResponseContentType(),
+                        record.getResponseBody()
+                ),
+                record.getExpiresAt()
+        );
+    }
+}
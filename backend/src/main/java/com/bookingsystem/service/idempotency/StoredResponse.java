@@ -0,0 +1,14 @@
+package com.bookingsystem.service.idempotency;
+
+/**
+ * Captured HTTP response of a request executed under an Idempotency-Key.
+ */
+public record StoredResponse(
+        int status,
+        String contentType,
+        byte[] body
+) {
+    public boolean isSuccessful() {
+        return status >= 200 && status < 300;
+    }
+}
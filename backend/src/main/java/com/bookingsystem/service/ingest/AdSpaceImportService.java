@@ -0,0 +1,255 @@
+package com.bookingsystem.service.ingest;
+
+import com.bookingsystem.model.AdSpace;
+import com.bookingsystem.service.AdSpacesChangedEvent;
+import com.bookingsystem.service.AfterCommit;
+import jakarta.validation.Validator;
+import org.postgresql.PGConnection;
+import org.postgresql.copy.CopyIn;
+import org.postgresql.copy.PGCopyOutputStream;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.jdbc.datasource.DataSourceUtils;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Transactional;
+import tools.jackson.core.JacksonException;
+import tools.jackson.databind.ObjectMapper;
+
+import javax.sql.DataSource;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.nio.charset.StandardCharsets;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Bulk loads ad spaces from a CSV or NDJSON upload.
+ * <p>
+ * DECISION:
+ * - Valid rows are streamed straight into {@code COPY ... FROM STDIN} through PgJDBC's
+ *   CopyManager while the upload is still being read, so neither the file nor the
+ *   entities are ever held in memory and there is no per-row INSERT.
+ * - COPY goes into a temporary staging table without ids, moved into {@code ad_space}
+ *   by one INSERT ... SELECT. Letting each row draw {@code nextval} would burn a whole
+ *   block of ids per row, since the sequence steps by Hibernate's allocation size (see
+ *   V9). The INSERT instead reserves just enough blocks and numbers the rows from them,
+ *   and returns the new ids.
+ * - Each row is validated against the {@link AdSpace} constraints first; bad rows are
+ *   skipped and reported with their line number instead of failing the whole upload.
+ * - The import runs in one transaction: either every valid row is loaded or none is.
+ * - Table statistics are refreshed once after commit ({@code ANALYZE ad_space}), so the
+ *   planner sees the new rows without any per-row work.
+ * - The new ids are published as one {@link AdSpacesChangedEvent} after commit.
+ * - CSV fields may span lines when quoted. A quote left open is refused as a whole
+ *   (400) rather than per row, since where the following rows start is unknown.
+ */
+@Service
+public class AdSpaceImportService {
+
+    private static final Logger log = LoggerFactory.getLogger(AdSpaceImportService.class);
+
+    private static final String CREATE_STAGING_SQL = """
+            CREATE TEMP TABLE ad_space_import ON COMMIT DROP AS
+            SELECT name, type, city, address, price_per_day, status, capacity FROM ad_space WITH NO DATA
+            """;
+    private static final String NUMBER_STAGING_SQL =
+            "ALTER TABLE ad_space_import ADD COLUMN line BIGINT GENERATED ALWAYS AS IDENTITY";
+    private static final String COPY_SQL = """
+            COPY ad_space_import (name, type, city, address, price_per_day, status, capacity)
+            FROM STDIN WITH (FORMAT csv)
+            """;
+    /**
+     * One {@code nextval} hands out the block of ids ending at its value, as for
+     * Hibernate's pooled optimizer. Before its first call the sequence returns its start
+     * value, whose block is cut short at 1, hence the extra block then.
+     */
+    private static final String INSERT_STAGED_SQL = """
+            WITH staged AS (
+                SELECT s.*, row_number() OVER (ORDER BY s.line) AS n FROM ad_space_import s
+            ),
+            seq_info AS (
+                SELECT p.seqincrement AS size, (SELECT is_called FROM ad_space_id_seq) AS called
+                FROM pg_sequence p
+                WHERE p.seqrelid = 'ad_space_id_seq'::regclass
+            ),
+            blocks AS (
+                SELECT nextval('ad_space_id_seq') AS hi
+                FROM seq_info,
+                     generate_series(1, CEIL((SELECT COUNT(*) FROM staged) / seq_info.size::NUMERIC)::INT
+                                        + CASE WHEN seq_info.called THEN 0 ELSE 1 END)
+            ),
+            ids AS (
+                SELECT id, row_number() OVER (ORDER BY id) AS n
+                FROM blocks, seq_info,
+                     generate_series(GREATEST(blocks.hi - seq_info.size + 1, 1), blocks.hi) AS id
+            )
+            INSERT INTO ad_space (id, name, type, city, address, price_per_day, status, capacity)
+            SELECT ids.id, s.name, s.type, s.city, s.address, s.price_per_day, s.status, s.capacity
+            FROM staged s
+            JOIN ids ON ids.n = s.n
+            ORDER BY s.n
+            RETURNING id
+            """;
+    private static final int COPY_BUFFER_BYTES = 64 * 1024;
+    /**
+     * Far beyond any valid row; a longer record means a quote was never closed.
+     */
+    private static final int MAX_CSV_RECORD_CHARS = 16 * 1024;
+    private static final int MAX_REPORTED_REJECTIONS = 1_000;
+
+    public enum Format { CSV, NDJSON }
+
+    public record RejectedRow(long line, String reason) {}
+
+    /**
+     * @param rejectedRows the first {@value #MAX_REPORTED_REJECTIONS} rejections; {@code rejected}
+     *                     is the full count
+     */
+    public record ImportResult(long imported, long rejected, List<RejectedRow> rejectedRows) {}
+
+    private final DataSource dataSource;
+    private final JdbcTemplate jdbcTemplate;
+    private final ObjectMapper objectMapper;
+    private final ApplicationEventPublisher eventPublisher;
+    private final AdSpaceRowParser parser;
+
+    public AdSpaceImportService(DataSource dataSource,
+                                JdbcTemplate jdbcTemplate,
+                                ObjectMapper objectMapper,
+                                ApplicationEventPublisher eventPublisher,
+                                Validator validator) {
+        this.dataSource = dataSource;
+        this.jdbcTemplate = jdbcTemplate;
+        this.objectMapper = objectMapper;
+        this.eventPublisher = eventPublisher;
+        this.parser = new AdSpaceRowParser(validator);
+    }
+
+    @Transactional(rollbackFor = Exception.class)
+    public ImportResult importAdSpaces(InputStream upload, Format format) throws IOException {
+        Connection connection = DataSourceUtils.getConnection(dataSource);
+        CopyIn copyIn = null;
+        try {
+            jdbcTemplate.execute(CREATE_STAGING_SQL);
+            jdbcTemplate.execute(NUMBER_STAGING_SQL);
+            copyIn = connection.unwrap(PGConnection.class).getCopyAPI().copyIn(COPY_SQL);
+            ImportResult result;
+            try (OutputStream copy = new PGCopyOutputStream(copyIn, COPY_BUFFER_BYTES)) {
+                result = stream(upload, format, copy);
+            }
+
+            if (result.imported() > 0) {
+                List<Long> importedIds = jdbcTemplate.queryForList(INSERT_STAGED_SQL, Long.class);
+                AfterCommit.run(() -> {
+                    jdbcTemplate.execute("ANALYZE ad_space");
+                    eventPublisher.publishEvent(new AdSpacesChangedEvent(importedIds));
+                });
+            }
+            log.info("Imported {} ad spaces, rejected {}", result.imported(), result.rejected());
+            return result;
+        } catch (SQLException ex) {
+            throw new IllegalStateException("COPY into ad_space failed: " + ex.getMessage(), ex);
+        } finally {
+            cancelIfActive(copyIn);
+            DataSourceUtils.releaseConnection(connection, dataSource);
+        }
+    }
+
+    private ImportResult stream(InputStream upload, Format format, OutputStream copy) throws IOException {
+        BufferedReader reader = new BufferedReader(new InputStreamReader(upload, StandardCharsets.UTF_8));
+        List<RejectedRow> rejections = new ArrayList<>();
+        long rejected = 0;
+        long imported = 0;
+        long lineNumber = 0;
+        Map<String, Integer> csvHeader = null;
+
+        String line;
+        while ((line = reader.readLine()) != null) {
+            lineNumber++;
+            if (line.isBlank()) {
+                continue;
+            }
+            long firstLine = lineNumber;
+
+            try {
+                AdSpaceRow row;
+                if (format == Format.CSV) {
+                    String record = line;
+                    while (AdSpaceRowParser.continuesOnNextLine(record)) {
+                        String next = reader.readLine();
+                        if (next == null || record.length() > MAX_CSV_RECORD_CHARS) {
+                            throw new IllegalArgumentException(
+                                    "Unterminated quoted field in the CSV record starting on line " + firstLine);
+                        }
+                        lineNumber++;
+                        record = record + "\n" + next;
+                    }
+
+                    if (csvHeader == null) {
+                        csvHeader = AdSpaceRowParser.csvHeader(AdSpaceRowParser.splitCsv(record));
+                        continue;
+                    }
+                    row = AdSpaceRowParser.csvRow(csvHeader, AdSpaceRowParser.splitCsv(record));
+                } else {
+                    row = readJson(line);
+                }
+
+                copy.write(toCopyLine(parser.toAdSpace(row)));
+                imported++;
+            } catch (AdSpaceRowParser.RowRejectedException ex) {
+                if (format == Format.CSV && csvHeader == null) {
+                    // Without a usable header no row can be read.
+                    throw new IllegalArgumentException("Invalid CSV header: " + ex.getMessage());
+                }
+                rejected++;
+                if (rejections.size() < MAX_REPORTED_REJECTIONS) {
+                    rejections.add(new RejectedRow(firstLine, ex.getMessage()));
+                }
+            }
+        }
+        return new ImportResult(imported, rejected, rejections);
+    }
+
+    private AdSpaceRow readJson(String line) throws AdSpaceRowParser.RowRejectedException {
+        try {
+            return objectMapper.readValue(line, AdSpaceRow.class);
+        } catch (JacksonException ex) {
+            throw new AdSpaceRowParser.RowRejectedException("Malformed JSON: " + ex.getOriginalMessage());
+        }
+    }
+
+    private static byte[] toCopyLine(AdSpace adSpace) {
+        String line = String.join(",",
+                quote(adSpace.getName()),
+                adSpace.getType().name(),
+                quote(adSpace.getCity()),
+                quote(adSpace.getAddress()),
+                adSpace.getPricePerDay().toPlainString(),
+                adSpace.getStatus().name(),
+                String.valueOf(adSpace.getCapacity())
+        ) + "\n";
+        return line.getBytes(StandardCharsets.UTF_8);
+    }
+
+    private static String quote(String value) {
+        return '"' + value.replace("\"", "\"\"") + '"';
+    }
+
+    private static void cancelIfActive(CopyIn copyIn) {
+        if (copyIn != null && copyIn.isActive()) {
+            try {
+                copyIn.cancelCopy();
+            } catch (SQLException ex) {
+                log.warn("Could not cancel COPY into ad_space", ex);
+            }
+        }
+    }
+}
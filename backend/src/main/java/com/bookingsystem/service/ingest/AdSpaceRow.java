@@ -0,0 +1,14 @@
+package com.bookingsystem.service.ingest;
+
+/**
+ * One uploaded ad space, exactly as it appeared in the file. Every field is kept as
+ * text so CSV and NDJSON rows go through the same parsing and validation.
+ */
+public record AdSpaceRow(
+        String name,
+        String type,
+        String city,
+        String address,
+        String pricePerDay,
+        String capacity
+) {}
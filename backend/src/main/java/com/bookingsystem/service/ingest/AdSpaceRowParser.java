@@ -0,0 +1,218 @@
+package com.bookingsystem.service.ingest;
+
+import com.bookingsystem.model.AdSpace;
+import com.bookingsystem.model.AdSpaceStatus;
+import com.bookingsystem.model.AdSpaceType;
+import jakarta.validation.ConstraintViolation;
+import jakarta.validation.Validator;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Comparator;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Locale;
+import java.util.Map;
+import java.util.Set;
+import java.util.stream.Collectors;
+
+/**
+ * Turns uploaded rows into {@link AdSpace} instances, or explains why it can't.
+ * <p>
+ * Rows are checked with the same Bean Validation constraints as the entity, by
+ * building the entity and validating it, so the import can never accept something the
+ * regular create endpoint would refuse.
+ */
+final class AdSpaceRowParser {
+
+    static final List<String> CSV_COLUMNS = List.of("name", "type", "city", "address", "pricePerDay", "capacity");
+
+    private final Validator validator;
+
+    AdSpaceRowParser(Validator validator) {
+        this.validator = validator;
+    }
+
+    /**
+     * Thrown for a row that can't be imported; the message is reported back to the caller.
+     */
+    static final class RowRejectedException extends Exception {
+        RowRejectedException(String message) {
+            super(message);
+        }
+    }
+
+    AdSpace toAdSpace(AdSpaceRow row) throws RowRejectedException {
+        AdSpaceType type = parseType(row.type());
+        BigDecimal price = parseDecimal("pricePerDay", row.pricePerDay());
+
+        AdSpace adSpace = new AdSpace(
+                trimToNull(row.name()),
+                type,
+                trimToNull(row.city()),
+                trimToNull(row.address()),
+                price,
+                AdSpaceStatus.AVAILABLE
+        );
+
+        String capacity = trimToNull(row.capacity());
+        if (capacity != null) {
+            try {
+                adSpace.changeCapacity(Integer.parseInt(capacity));
+            } catch (NumberFormatException ex) {
+                throw new RowRejectedException("capacity must be a whole number");
+            } catch (IllegalArgumentException ex) {
+                throw new RowRejectedException(ex.getMessage());
+            }
+        }
+
+        Set<ConstraintViolation<AdSpace>> violations = validator.validate(adSpace);
+        if (!violations.isEmpty()) {
+            throw new RowRejectedException(violations.stream()
+                    .sorted(Comparator.comparing(v -> v.getPropertyPath().toString()))
+                    .map(ConstraintViolation::getMessage)
+                    .collect(Collectors.joining("; ")));
+        }
+
+        // Column limits the entity doesn't declare; one oversized value would otherwise
+        // fail the whole COPY instead of just this row.
+        checkLength("name", adSpace.getName(), 255);
+        checkLength("city", adSpace.getCity(), 100);
+        checkLength("address", adSpace.getAddress(), 255);
+        if (adSpace.getPricePerDay().precision() - adSpace.getPricePerDay().scale() > 8) {
+            throw new RowRejectedException("pricePerDay is too large");
+        }
+        return adSpace;
+    }
+
+    private static void checkLength(String field, String value, int max) throws RowRejectedException {
+        if (value.length() > max) {
+            throw new RowRejectedException(field + " must be at most " + max + " characters");
+        }
+    }
+
+    /**
+     * Maps CSV header names to column positions. Unknown columns are an error so typos
+     * don't silently drop data; {@code capacity} is optional.
+     */
+    static Map<String, Integer> csvHeader(List<String> header) throws RowRejectedException {
+        Map<String, Integer> positions = new HashMap<>();
+        for (int i = 0; i < header.size(); i++) {
+            String column = header.get(i).trim();
+            if (!CSV_COLUMNS.contains(column)) {
+                throw new RowRejectedException("Unknown column '" + column + "'. Expected: " + CSV_COLUMNS);
+            }
+            positions.put(column, i);
+        }
+        for (String required : CSV_COLUMNS.subList(0, 5)) {
+            if (!positions.containsKey(required)) {
+                throw new RowRejectedException("Missing column '" + required + "'");
+            }
+        }
+        return positions;
+    }
+
+    static AdSpaceRow csvRow(Map<String, Integer> header, List<String> fields) throws RowRejectedException {
+        if (fields.size() != header.size()) {
+            throw new RowRejectedException("Expected " + header.size() + " fields but found " + fields.size());
+        }
+        return new AdSpaceRow(
+                fields.get(header.get("name")),
+                fields.get(header.get("type")),
+                fields.get(header.get("city")),
+                fields.get(header.get("address")),
+                fields.get(header.get("pricePerDay")),
+                header.containsKey("capacity") ? fields.get(header.get("capacity")) : null
+        );
+    }
+
+    /**
+     * Splits one CSV record (RFC 4180 quoting, comma separated). Quoted fields may contain
+     * commas, doubled quotes and line breaks; see {@link #continuesOnNextLine}.
+     */
+    static List<String> splitCsv(String record) throws RowRejectedException {
+        List<String> fields = new ArrayList<>();
+        if (scan(record, fields)) {
+            throw new RowRejectedException("Unterminated quoted field");
+        }
+        return fields;
+    }
+
+    /**
+     * Whether {@code record} ends inside a quoted field, so the line break that followed
+     * it belongs to the field and the record continues on the next line.
+     */
+    static boolean continuesOnNextLine(String record) {
+        return scan(record, new ArrayList<>());
+    }
+
+    /**
+     * Adds the fields of {@code record} to {@code fields}.
+     *
+     * @return whether the record ended inside a quoted field
+     */
+    private static boolean scan(String record, List<String> fields) {
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+
+        for (int i = 0; i < record.length(); i++) {
+            char c = record.charAt(i);
+            if (quoted) {
+                if (c == '"') {
+                    if (i + 1 < record.length() && record.charAt(i + 1) == '"') {
+                        field.append('"');
+                        i++;
+                    } else {
+                        quoted = false;
+                    }
+                } else {
+                    field.append(c);
+                }
+            } else if (c == '"' && field.isEmpty()) {
+                quoted = true;
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else {
+                field.append(c);
+            }
+        }
+
+        fields.add(field.toString());
+        return quoted;
+    }
+
+    private static AdSpaceType parseType(String value) throws RowRejectedException {
+        String type = trimToNull(value);
+        if (type == null) {
+            return null; // reported by the @NotNull constraint
+        }
+        try {
+            return AdSpaceType.valueOf(type.toUpperCase(Locale.ROOT));
+        } catch (IllegalArgumentException ex) {
+            throw new RowRejectedException(
+                    "type must be one of " + Arrays.toString(AdSpaceType.values()));
+        }
+    }
+
+    private static BigDecimal parseDecimal(String field, String value) throws RowRejectedException {
+        String number = trimToNull(value);
+        if (number == null) {
+            return null; // reported by the @NotNull constraint
+        }
+        try {
+            return new BigDecimal(number);
+        } catch (NumberFormatException ex) {
+            throw new RowRejectedException(field + " must be a number");
+        }
+    }
+
+    private static String trimToNull(String value) {
+        if (value == null) {
+            return null;
+        }
+        String trimmed = value.trim();
+        return trimmed.isEmpty() ? null : trimmed;
+    }
+}
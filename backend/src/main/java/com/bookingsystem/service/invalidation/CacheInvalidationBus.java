@@ -0,0 +1,213 @@
+package com.bookingsystem.service.invalidation;
+
+import com.bookingsystem.service.AdSpacesChangedEvent;
+import com.bookingsystem.service.BookingChangedEvent;
+import io.micrometer.core.instrument.MeterRegistry;
+import jakarta.annotation.PostConstruct;
+import jakarta.annotation.PreDestroy;
+import org.postgresql.PGConnection;
+import org.postgresql.PGNotification;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.ObjectProvider;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.event.EventListener;
+import org.springframework.stereotype.Component;
+
+import java.sql.Connection;
+import java.sql.DriverManager;
+import java.sql.PreparedStatement;
+import java.sql.SQLException;
+import java.sql.Statement;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.List;
+import java.util.Objects;
+import java.util.UUID;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Tells the other nodes which ad spaces and bookings changed, through PostgreSQL
+ * {@code LISTEN/NOTIFY}, so their {@link LocalCache}s drop stale entries.
+ * <p>
+ * DECISION:
+ * - Notifications are sent for the after-commit change events, so a rolled back
+ *   transaction never invalidates anything.
+ * - One sender thread with its own connection sends them in order and numbers them per
+ *   node. A receiver that sees a number skipped (a failed send, a dropped message) or a
+ *   heartbeat ahead of what it got flushes all local caches instead of guessing what
+ *   it missed.
+ * - Every node keeps one dedicated listener connection, outside the pool, since it is
+ *   held for the life of the node. When it is lost, local caches are flushed once
+ *   listening again, because messages sent in between are gone.
+ */
+@Component
+public class CacheInvalidationBus {
+
+    private static final Logger log = LoggerFactory.getLogger(CacheInvalidationBus.class);
+
+    static final String CHANNEL = "booking_cache_invalidation";
+    private static final int POLL_MILLIS = 1_000;
+    private static final long RECONNECT_MILLIS = 2_000;
+
+    private final String node = UUID.randomUUID().toString();
+    private final String url;
+    private final String username;
+    private final String password;
+    private final boolean enabled;
+    private final Duration heartbeat;
+    private final InvalidationReceiver receiver;
+
+    private final ScheduledExecutorService sender = new ScheduledThreadPoolExecutor(1, runnable -> {
+        Thread thread = new Thread(runnable, "cache-invalidation-sender");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private Thread listener;
+    private volatile boolean running;
+
+    // Used by the sender thread only.
+    private long seq;
+    private Connection sendConnection;
+
+    public CacheInvalidationBus(@Value("${spring.datasource.url}") String url,
+                                @Value("${spring.datasource.username}") String username,
+                                @Value("${spring.datasource.password}") String password,
+                                @Value("${booking.cache.invalidation.enabled:true}") boolean enabled,
+                                @Value("${booking.cache.invalidation.heartbeat:PT10S}") Duration heartbeat,
+                                ObjectProvider<LocalCache> caches,
+                                MeterRegistry meterRegistry,
+                                Clock clock) {
+        this.url = url;
+        this.username = username;
+        this.password = password;
+        this.enabled = enabled;
+        this.heartbeat = heartbeat;
+        this.receiver = new InvalidationReceiver(node, caches, meterRegistry, clock::millis,
+                heartbeat.multipliedBy(30).toMillis());
+    }
+
+    @PostConstruct
+    public void start() {
+        if (!enabled) {
+            return;
+        }
+        running = true;
+        listener = new Thread(this::listen, "cache-invalidation-listener");
+        listener.setDaemon(true);
+        listener.start();
+        sender.scheduleWithFixedDelay(this::sendHeartbeat,
+                heartbeat.toMillis(), heartbeat.toMillis(), TimeUnit.MILLISECONDS);
+    }
+
+    @PreDestroy
+    public void stop() {
+        running = false;
+        sender.execute(() -> closeQuietly(sendConnection));
+        sender.shutdown();
+        if (listener != null) {
+            listener.interrupt();
+        }
+    }
+
+    @EventListener
+    public void onAdSpacesChanged(AdSpacesChangedEvent event) {
+        publish(InvalidationMessage.Kind.AD_SPACES, null, event.adSpaceIds());
+    }
+
+    @EventListener
+    public void onBookingChanged(BookingChangedEvent event) {
+        publish(InvalidationMessage.Kind.BOOKINGS, event.adSpaceId(),
+                event.bookingId() == null ? List.of() : List.of(event.bookingId()));
+    }
+
+    private void publish(InvalidationMessage.Kind kind, Long adSpaceId, List<Long> ids) {
+        if (!running) {
+            return;
+        }
+        List<Long> copy = ids.stream().filter(Objects::nonNull).toList();
+        sender.execute(() -> {
+            for (List<Long> chunk : InvalidationMessage.chunk(copy)) {
+                send(new InvalidationMessage(node, ++seq, kind, adSpaceId, chunk));
+            }
+            if (copy.isEmpty()) {
+                send(new InvalidationMessage(node, ++seq, kind, adSpaceId, List.of()));
+            }
+        });
+    }
+
+    private void sendHeartbeat() {
+        send(new InvalidationMessage(node, seq, InvalidationMessage.Kind.HEARTBEAT, null, List.of()));
+    }
+
+    /**
+     * A failed send is not retried: its sequence number is spent, so receivers notice
+     * the gap with the next message or heartbeat and flush.
+     */
+    private void send(InvalidationMessage message) {
+        try {
+            if (sendConnection == null || sendConnection.isClosed()) {
+                sendConnection = DriverManager.getConnection(url, username, password);
+            }
+            try (PreparedStatement statement = sendConnection.prepareStatement("SELECT pg_notify(?, ?)")) {
+                statement.setString(1, CHANNEL);
+                statement.setString(2, message.encode());
+                statement.execute();
+            }
+        } catch (SQLException ex) {
+            log.warn("Could not send cache invalidation {}: {}", message.seq(), ex.getMessage());
+            closeQuietly(sendConnection);
+            sendConnection = null;
+        }
+    }
+
+    private void listen() {
+        while (running) {
+            try (Connection connection = DriverManager.getConnection(url, username, password);
+                 Statement statement = connection.createStatement()) {
+                statement.execute("LISTEN " + CHANNEL);
+                // Whatever was sent while not listening is lost.
+                receiver.resync("reconnect");
+
+                PGConnection pgConnection = connection.unwrap(PGConnection.class);
+                while (running) {
+                    PGNotification[] notifications = pgConnection.getNotifications(POLL_MILLIS);
+                    if (notifications != null) {
+                        for (PGNotification notification : notifications) {
+                            receiver.accept(notification.getParameter());
+                        }
+                    }
+                }
+            } catch (SQLException ex) {
+                if (running) {
+                    log.warn("Cache invalidation listener lost its connection: {}", ex.getMessage());
+                    sleep(RECONNECT_MILLIS);
+                }
+            } catch (RuntimeException ex) {
+                log.error("Cache invalidation listener failed", ex);
+                sleep(RECONNECT_MILLIS);
+            }
+        }
+    }
+
+    private static void sleep(long millis) {
+        try {
+            Thread.sleep(millis);
+        } catch (InterruptedException ex) {
+            Thread.currentThread().interrupt();
+        }
+    }
+
+    private static void closeQuietly(Connection connection) {
+        if (connection == null) {
+            return;
+        }
+        try {
+            connection.close();
+        } catch (SQLException ignored) {
+            // Already broken.
+        }
+    }
+}
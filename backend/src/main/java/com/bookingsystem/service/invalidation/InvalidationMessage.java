@@ -0,0 +1,87 @@
+package com.bookingsystem.service.invalidation;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Payload of one {@code NOTIFY} on the invalidation channel:
+ * {@code node|seq|kind|adSpaceId|id,id,...}.
+ * <p>
+ * {@code kind} is {@code A} (ad spaces), {@code B} (bookings of {@code adSpaceId}) or
+ * {@code H} (heartbeat carrying the sender's latest sequence number, no ids).
+ */
+record InvalidationMessage(String node, long seq, Kind kind, Long adSpaceId, List<Long> ids) {
+
+    /**
+     * PostgreSQL rejects payloads of 8000 bytes or more; stay well below.
+     */
+    static final int MAX_PAYLOAD = 7_000;
+
+    enum Kind {
+        AD_SPACES('A'), BOOKINGS('B'), HEARTBEAT('H');
+
+        private final char code;
+
+        Kind(char code) {
+            this.code = code;
+        }
+
+        static Kind of(String code) {
+            for (Kind kind : values()) {
+                if (code.length() == 1 && kind.code == code.charAt(0)) {
+                    return kind;
+                }
+            }
+            throw new IllegalArgumentException("Unknown invalidation kind " + code);
+        }
+    }
+
+    String encode() {
+        StringBuilder payload = new StringBuilder()
+                .append(node).append('|')
+                .append(seq).append('|')
+                .append(kind.code).append('|')
+                .append(adSpaceId == null ? "" : adSpaceId).append('|');
+        for (int i = 0; i < ids.size(); i++) {
+            if (i > 0) {
+                payload.append(',');
+            }
+            payload.append(ids.get(i));
+        }
+        return payload.toString();
+    }
+
+    static InvalidationMessage decode(String payload) {
+        String[] parts = payload.split("\\|", -1);
+        if (parts.length != 5) {
+            throw new IllegalArgumentException("Malformed invalidation payload: " + payload);
+        }
+        List<Long> ids = new ArrayList<>();
+        if (!parts[4].isEmpty()) {
+            for (String id : parts[4].split(",")) {
+                ids.add(Long.parseLong(id));
+            }
+        }
+        return new InvalidationMessage(
+                parts[0],
+                Long.parseLong(parts[1]),
+                Kind.of(parts[2]),
+                parts[3].isEmpty() ? null : Long.parseLong(parts[3]),
+                ids
+        );
+    }
+
+    /**
+     * Splits {@code ids} into chunks whose encoded payload stays under
+     * {@link #MAX_PAYLOAD}, so one bulk change doesn't exceed the NOTIFY limit.
+     */
+    static List<List<Long>> chunk(List<Long> ids) {
+        // Worst case per id: 19 digits and a comma; the header is well under 100 bytes.
+        int perChunk = (MAX_PAYLOAD - 100) / 20;
+        List<List<Long>> chunks = new ArrayList<>();
+        for (int from = 0; from < ids.size(); from += perChunk) {
+            chunks.add(ids.subList(from, Math.min(ids.size(), from + perChunk)));
+        }
+        return chunks;
+    }
+}
@@ -0,0 +1,98 @@
+package com.bookingsystem.service.invalidation;
+
+import io.micrometer.core.instrument.MeterRegistry;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.function.LongSupplier;
+
+/**
+ * Applies invalidation messages from other nodes to the local caches, watching each
+ * sender's sequence numbers for gaps. Used from the listener thread only.
+ */
+final class InvalidationReceiver {
+
+    private static final Logger log = LoggerFactory.getLogger(InvalidationReceiver.class);
+
+    static final String RECEIVED = "booking.cache.invalidations";
+    static final String RESYNCS = "booking.cache.invalidation.resyncs";
+
+    private record Sender(long seq, long lastSeenMillis) {}
+
+    private final String self;
+    private final Iterable<LocalCache> caches;
+    private final MeterRegistry meterRegistry;
+    private final LongSupplier clockMillis;
+    private final long forgetAfterMillis;
+    private final Map<String, Sender> senders = new HashMap<>();
+
+    /**
+     * @param forgetAfterMillis how long a silent sender is remembered; it should span
+     *                          many heartbeats
+     */
+    InvalidationReceiver(String self,
+                         Iterable<LocalCache> caches,
+                         MeterRegistry meterRegistry,
+                         LongSupplier clockMillis,
+                         long forgetAfterMillis) {
+        this.self = self;
+        this.caches = caches;
+        this.meterRegistry = meterRegistry;
+        this.clockMillis = clockMillis;
+        this.forgetAfterMillis = forgetAfterMillis;
+    }
+
+    void accept(String payload) {
+        InvalidationMessage message;
+        try {
+            message = InvalidationMessage.decode(payload);
+        } catch (IllegalArgumentException ex) {
+            log.warn("Ignoring malformed cache invalidation {}", payload);
+            resync("malformed");
+            return;
+        }
+        if (message.node().equals(self)) {
+            return;
+        }
+
+        long now = clockMillis.getAsLong();
+        Sender previous = senders.get(message.node());
+        // A sender seen for the first time is trusted; anything it sent before that was
+        // sent before this node's caches existed or started listening.
+        boolean gap = previous != null && (message.kind() == InvalidationMessage.Kind.HEARTBEAT
+                ? message.seq() > previous.seq()
+                : message.seq() > previous.seq() + 1);
+        long seq = previous == null ? message.seq() : Math.max(previous.seq(), message.seq());
+        senders.put(message.node(), new Sender(seq, now));
+
+        if (message.kind() == InvalidationMessage.Kind.HEARTBEAT) {
+            senders.values().removeIf(sender -> now - sender.lastSeenMillis() > forgetAfterMillis);
+        } else {
+            meterRegistry.counter(RECEIVED, "kind", message.kind().name().toLowerCase()).increment();
+        }
+
+        if (gap) {
+            log.warn("Missed cache invalidations from node {} (expected after {}, got {}); flushing local caches",
+                    message.node(), previous.seq(), message.seq());
+            resync("gap");
+            return;
+        }
+
+        switch (message.kind()) {
+            case AD_SPACES -> caches.forEach(cache -> cache.evictAdSpaces(message.ids()));
+            case BOOKINGS -> caches.forEach(cache -> cache.evictBookings(message.adSpaceId(), message.ids()));
+            case HEARTBEAT -> {
+            }
+        }
+    }
+
+    /**
+     * Drops everything from the local caches, for when invalidations may have been missed.
+     */
+    void resync(String reason) {
+        meterRegistry.counter(RESYNCS, "reason", reason).increment();
+        caches.forEach(LocalCache::evictAll);
+    }
+}
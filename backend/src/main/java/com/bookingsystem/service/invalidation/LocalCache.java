@@ -0,0 +1,25 @@
+package com.bookingsystem.service.invalidation;
+
+import java.util.Collection;
+
+/**
+ * A node-local cache that must drop entries when another node changes the data behind
+ * them. Implementations are found as beans by {@link CacheInvalidationBus}.
+ * <p>
+ * Changes made on this node are not delivered here; caches keep themselves up to date
+ * for those, e.g. from {@code AdSpacesChangedEvent}.
+ */
+public interface LocalCache {
+
+    default void evictAdSpaces(Collection<Long> adSpaceIds) {
+    }
+
+    default void evictBookings(Long adSpaceId, Collection<Long> bookingIds) {
+    }
+
+    /**
+     * Called when invalidations may have been missed, e.g. after a dropped message or a
+     * lost listener connection.
+     */
+    void evictAll();
+}
@@ -0,0 +1,128 @@
+package com.bookingsystem.service.lifecycle;
+
+import com.bookingsystem.model.BookingRequest;
+import com.bookingsystem.repository.AdSpaceRepository;
+import com.bookingsystem.repository.BookingRequestRepository;
+import com.bookingsystem.service.AdSpacesChangedEvent;
+import com.bookingsystem.service.BookingChangedEvent;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.function.IntUnaryOperator;
+
+/**
+ * Background job that brings statuses in line with the calendar.
+ * <p>
+ * On every run (by default just after midnight) it:
+ * - expires PENDING requests whose start date has passed,
+ * - moves BOOKED ad spaces back to AVAILABLE once their active approved bookings
+ *   (see {@code BookingRequest.isActive}) no longer fill their capacity,
+ * - moves AVAILABLE ad spaces to BOOKED when the active approved bookings fill them.
+ * <p>
+ * DECISION:
+ * - Each step is a set-based UPDATE limited to {@code booking.lifecycle.batch-size} rows
+ *   and repeated until a batch comes back short. Every batch commits on its own, so
+ *   row locks are held briefly and a crash loses at most one batch of work.
+ * - Batches use SKIP LOCKED, so several nodes can run the job at the same time.
+ * - Batch durations are published as the {@code booking.lifecycle.batch} timer and
+ *   changed rows as the {@code booking.lifecycle.rows} counter, tagged by step.
+ * - Every step returns what it changed, and each committed batch is published: expired
+ *   requests as one {@link BookingChangedEvent} each, ad spaces as one
+ *   {@link AdSpacesChangedEvent}. So event stream clients, caches and other nodes see
+ *   the new status.
+ */
+@Component
+public class LifecycleReconciler {
+
+    private static final Logger log = LoggerFactory.getLogger(LifecycleReconciler.class);
+
+    private final BookingRequestRepository bookingRequestRepository;
+    private final AdSpaceRepository adSpaceRepository;
+    private final MeterRegistry meterRegistry;
+    private final ApplicationEventPublisher eventPublisher;
+    private final Clock clock;
+    private final int batchSize;
+
+    public LifecycleReconciler(BookingRequestRepository bookingRequestRepository,
+                               AdSpaceRepository adSpaceRepository,
+                               MeterRegistry meterRegistry,
+                               ApplicationEventPublisher eventPublisher,
+                               Clock clock,
+                               @Value("${booking.lifecycle.batch-size:500}") int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("booking.lifecycle.batch-size must be positive");
+        }
+        this.bookingRequestRepository = bookingRequestRepository;
+        this.adSpaceRepository = adSpaceRepository;
+        this.meterRegistry = meterRegistry;
+        this.eventPublisher = eventPublisher;
+        this.clock = clock;
+        this.batchSize = batchSize;
+    }
+
+    @Scheduled(cron = "${booking.lifecycle.cron:0 5 0 * * *}")
+    public void reconcile() {
+        LocalDate today = LocalDate.now(clock);
+
+        int expired = runInBatches("expire-pending",
+                size -> publishedExpiries(bookingRequestRepository.expireStalePending(today, size)));
+        int released = runInBatches("release-ad-spaces",
+                size -> published(adSpaceRepository.releaseIdleBookedSpaces(today, size)));
+        int occupied = runInBatches("occupy-ad-spaces",
+                size -> published(adSpaceRepository.occupyFullyBookedSpaces(today, size)));
+
+        log.info("Lifecycle reconciliation for {}: {} pending requests expired, {} ad spaces released, {} ad spaces booked",
+                today, expired, released, occupied);
+    }
+
+    /**
+     * Publishes the ad spaces a batch changed. The batch has committed by now, since each
+     * runs in its own transaction.
+     */
+    private int published(List<Long> adSpaceIds) {
+        if (!adSpaceIds.isEmpty()) {
+            eventPublisher.publishEvent(new AdSpacesChangedEvent(adSpaceIds));
+        }
+        return adSpaceIds.size();
+    }
+
+    /**
+     * Publishes the requests a batch expired, which has committed as well.
+     */
+    private int publishedExpiries(List<BookingRequest> expired) {
+        expired.forEach(booking -> eventPublisher.publishEvent(new BookingChangedEvent(booking)));
+        return expired.size();
+    }
+
+    private int runInBatches(String step, IntUnaryOperator batch) {
+        Timer timer = Timer.builder("booking.lifecycle.batch")
+                .description("Duration of one lifecycle reconciliation batch")
+                .tag("step", step)
+                .register(meterRegistry);
+        Counter rows = Counter.builder("booking.lifecycle.rows")
+                .description("Rows changed by lifecycle reconciliation")
+                .tag("step", step)
+                .register(meterRegistry);
+
+        int total = 0;
+        int changed;
+        do {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            changed = batch.applyAsInt(batchSize);
+            sample.stop(timer);
+            rows.increment(changed);
+            total += changed;
+        } while (changed == batchSize);
+        return total;
+    }
+}
@@ -0,0 +1,77 @@
+package com.bookingsystem.service.lookup;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.Session;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.function.Function;
+
+/**
+ * Loads many entities by id in one round trip.
+ * <p>
+ * DECISION:
+ * - Uses Hibernate's multi-load rather than {@code findAllById}: ids already in the
+ *   persistence context (or a second-level cache region, if one is ever configured)
+ *   are served from there, the rest are fetched with a single array-bound query, and
+ *   the result comes back in request order with {@code null} for missing ids.
+ * - The id list is capped so one request can't ask for the whole table.
+ */
+@Component
+public class EntityMultiLoader {
+
+    private final EntityManager entityManager;
+    private final int maxIds;
+
+    public EntityMultiLoader(EntityManager entityManager,
+                             @Value("${booking.multi-get.max-ids:100}") int maxIds) {
+        this.entityManager = entityManager;
+        this.maxIds = maxIds;
+    }
+
+    /**
+     * Loads {@code ids} of {@code type}. Duplicate ids are answered once, at their first
+     * position. {@code fallback} is asked for the ids the table doesn't have, e.g. to
+     * look them up in an archive; pass {@code null} if there is none.
+     */
+    public <T> MultiGet<T> load(Class<T> type,
+                                Collection<Long> ids,
+                                Function<List<Long>, Map<Long, T>> fallback) {
+        List<Long> distinct = new ArrayList<>(new LinkedHashSet<>(ids));
+        if (distinct.isEmpty()) {
+            throw new IllegalArgumentException("'ids' must contain at least one id");
+        }
+        if (distinct.size() > maxIds) {
+            throw new IllegalArgumentException("At most " + maxIds + " ids can be requested at once");
+        }
+
+        List<T> loaded = new ArrayList<>(entityManager.unwrap(Session.class)
+                .byMultipleIds(type)
+                .enableSessionCheck(true)
+                .enableOrderedReturn(true)
+                .multiLoad(distinct));
+
+        if (fallback != null) {
+            List<Long> notFound = new ArrayList<>();
+            for (int i = 0; i < distinct.size(); i++) {
+                if (loaded.get(i) == null) {
+                    notFound.add(distinct.get(i));
+                }
+            }
+            if (!notFound.isEmpty()) {
+                Map<Long, T> found = fallback.apply(notFound);
+                for (int i = 0; i < distinct.size(); i++) {
+                    if (loaded.get(i) == null) {
+                        loaded.set(i, found.get(distinct.get(i)));
+                    }
+                }
+            }
+        }
+        return MultiGet.of(distinct, loaded);
+    }
+}
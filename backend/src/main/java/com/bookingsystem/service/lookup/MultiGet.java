@@ -0,0 +1,28 @@
+package com.bookingsystem.service.lookup;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Result of looking up a list of ids: what was found, in request order, and the ids
+ * that don't exist.
+ */
+public record MultiGet<T>(List<T> items, List<Long> missing) {
+
+    /**
+     * @param loaded one entry per id, {@code null} where the id was not found
+     */
+    static <T> MultiGet<T> of(List<Long> ids, List<T> loaded) {
+        List<T> items = new ArrayList<>(ids.size());
+        List<Long> missing = new ArrayList<>();
+        for (int i = 0; i < ids.size(); i++) {
+            T item = loaded.get(i);
+            if (item != null) {
+                items.add(item);
+            } else {
+                missing.add(ids.get(i));
+            }
+        }
+        return new MultiGet<>(items, missing);
+    }
+}
@@ -0,0 +1,180 @@
+package com.bookingsystem.service.occupancy;
+
+import com.bookingsystem.model.BookingRequest;
+import com.bookingsystem.model.BookingStatus;
+import com.bookingsystem.model.DateHold;
+import com.bookingsystem.repository.BookingRequestRepository;
+import com.bookingsystem.service.invalidation.LocalCache;
+import com.bookingsystem.service.routing.ReadYourWrites;
+import org.springframework.stereotype.Component;
+
+import java.time.LocalDate;
+import java.util.Collection;
+import java.util.List;
+import java.util.Map;
+import java.util.UUID;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * In-memory index of approved booking occupancy, one {@link OccupancyTree} per ad space.
+ * <p>
+ * DECISION:
+ * - A tree is built from the APPROVED bookings of a space the first time it is needed,
+ *   then kept up to date through {@link #reserve} / {@link #release}, so admission
+ *   checks stay O(log D) instead of scanning every approved booking.
+ * - It is a fast pre-filter for new requests, not the capacity guard: it is per node and
+ *   only learns of approvals after they commit. Approval re-checks capacity in the
+ *   database under a lock on the ad space row.
+ * - Callers apply changes only after their transaction commits, so a rolled back
+ *   approval never leaves a phantom reservation behind. Changes only touch trees that
+ *   are loaded; a tree loaded later reads the committed change from the database.
+ * - Active date holds count as occupancy too. They are tracked here as well so a tree
+ *   rebuilt after eviction still includes them; hold changes go through
+ *   {@link Map#compute} on the tree map, which serializes them with tree loading.
+ * - Approvals made on other nodes arrive as invalidations and evict the affected trees,
+ *   which are then rebuilt from the database. Holds are per node and stay as they are.
+ */
+@Component
+public class OccupancyIndex implements LocalCache {
+
+    private final BookingRequestRepository bookingRequestRepository;
+    private final Map<Long, OccupancyTree> trees = new ConcurrentHashMap<>();
+    private final Map<Long, Map<UUID, DateHold>> holds = new ConcurrentHashMap<>();
+
+    public OccupancyIndex(BookingRequestRepository bookingRequestRepository) {
+        this.bookingRequestRepository = bookingRequestRepository;
+    }
+
+    /**
+     * Returns the highest number of approved bookings and active holds on any single day
+     * between {@code start} and {@code end} (both inclusive).
+     */
+    public int peakOccupancy(Long adSpaceId, LocalDate start, LocalDate end) {
+        OccupancyTree tree = trees.computeIfAbsent(adSpaceId, this::load);
+        synchronized (tree) {
+            return tree.max(start, end);
+        }
+    }
+
+    /**
+     * Number of active holds on this node overlapping {@code start}..{@code end} (both
+     * inclusive).
+     */
+    public int overlappingHolds(Long adSpaceId, LocalDate start, LocalDate end) {
+        int count = 0;
+        for (DateHold hold : holds.getOrDefault(adSpaceId, Map.of()).values()) {
+            if (!hold.getStartDate().isAfter(end) && !hold.getEndDate().isBefore(start)) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Counts a committed approval. A tree that isn't loaded is left alone: loading it
+     * later reads the committed approval anyway, so adding it too would count it twice.
+     */
+    public void reserve(Long adSpaceId, LocalDate start, LocalDate end) {
+        addIfLoaded(adSpaceId, start, end, 1);
+    }
+
+    /**
+     * Uncounts a committed cancellation, again only in a tree that is already loaded.
+     */
+    public void release(Long adSpaceId, LocalDate start, LocalDate end) {
+        addIfLoaded(adSpaceId, start, end, -1);
+    }
+
+    /**
+     * Atomically checks that the held range still has a free slot and, if so, counts the
+     * hold against it.
+     *
+     * @return {@code false} if the range is already at {@code capacity}
+     */
+    public boolean tryHold(DateHold hold, int capacity) {
+        boolean[] placed = {false};
+        trees.compute(hold.getAdSpaceId(), (adSpaceId, existing) -> {
+            OccupancyTree tree = existing != null ? existing : load(adSpaceId);
+            synchronized (tree) {
+                if (tree.max(hold.getStartDate(), hold.getEndDate()) < capacity) {
+                    holds.computeIfAbsent(adSpaceId, id -> new ConcurrentHashMap<>()).put(hold.getId(), hold);
+                    tree.add(hold.getStartDate(), hold.getEndDate(), 1);
+                    placed[0] = true;
+                }
+            }
+            return tree;
+        });
+        return placed[0];
+    }
+
+    /**
+     * Whether the hold is counted in this node's occupancy, i.e. was placed here and is
+     * still active. Holds placed on other nodes are not.
+     */
+    public boolean countsHold(DateHold hold) {
+        return holds.getOrDefault(hold.getAdSpaceId(), Map.of()).containsKey(hold.getId());
+    }
+
+    public void releaseHold(DateHold hold) {
+        trees.compute(hold.getAdSpaceId(), (adSpaceId, tree) -> {
+            Map<UUID, DateHold> spaceHolds = holds.get(adSpaceId);
+            if (spaceHolds == null || spaceHolds.remove(hold.getId()) == null) {
+                return tree;
+            }
+            if (tree != null) {
+                synchronized (tree) {
+                    tree.add(hold.getStartDate(), hold.getEndDate(), -1);
+                }
+            }
+            return tree;
+        });
+    }
+
+    /**
+     * Drops the cached tree so it is rebuilt from the database on next access.
+     */
+    public void evict(Long adSpaceId) {
+        trees.remove(adSpaceId);
+    }
+
+    @Override
+    public void evictBookings(Long adSpaceId, Collection<Long> bookingIds) {
+        if (adSpaceId != null) {
+            evict(adSpaceId);
+        }
+    }
+
+    @Override
+    public void evictAdSpaces(Collection<Long> adSpaceIds) {
+        adSpaceIds.forEach(this::evict);
+    }
+
+    @Override
+    public void evictAll() {
+        trees.clear();
+    }
+
+    private void addIfLoaded(Long adSpaceId, LocalDate start, LocalDate end, int delta) {
+        trees.computeIfPresent(adSpaceId, (id, tree) -> {
+            synchronized (tree) {
+                tree.add(start, end, delta);
+            }
+            return tree;
+        });
+    }
+
+    private OccupancyTree load(Long adSpaceId) {
+        // The tree admits bookings until it is evicted, so it must not come from a lagging replica.
+        List<BookingRequest> approved = ReadYourWrites.onPrimary(() -> bookingRequestRepository
+                .findByAdSpaceIdAndStatus(adSpaceId, BookingStatus.APPROVED));
+
+        OccupancyTree tree = new OccupancyTree();
+        for (BookingRequest booking : approved) {
+            tree.add(booking.getStartDate(), booking.getEndDate(), 1);
+        }
+        for (DateHold hold : holds.getOrDefault(adSpaceId, Map.of()).values()) {
+            tree.add(hold.getStartDate(), hold.getEndDate(), 1);
+        }
+        return tree;
+    }
+}
@@ -0,0 +1,112 @@
+package com.bookingsystem.service.occupancy;
+
+import java.time.LocalDate;
+import java.util.Arrays;
+
+/**
+ * Dynamic segment tree over epoch days supporting range add and range max.
+ * <p>
+ * Each approved booking adds 1 to every day in its (inclusive) date range, so the
+ * range max is the peak number of concurrent bookings in a period.
+ * <p>
+ * DECISION:
+ * - Nodes are allocated lazily in flat int arrays, so a space with a handful of
+ *   bookings only costs a few hundred nodes instead of a full array over the domain.
+ * - Lazy tags are never pushed down: a node's max already includes its own tag,
+ *   which keeps both operations at O(log D) without extra writes on reads.
+ * - Not thread-safe on its own; callers synchronize on the tree.
+ */
+final class OccupancyTree {
+
+    /** 2^17 days from 1970-01-01, i.e. dates up to the year 2328. */
+    static final int DAY_DOMAIN = 1 << 17;
+
+    private static final int NO_CHILD = 0;
+
+    private int[] left = new int[64];
+    private int[] right = new int[64];
+    private int[] max = new int[64];
+    private int[] tag = new int[64];
+    private int size = 1; // node 0 is the root and never anybody's child
+
+    void add(LocalDate start, LocalDate end, int delta) {
+        add(0, 0, DAY_DOMAIN - 1, toDay(start), toDay(end), delta);
+    }
+
+    int max(LocalDate start, LocalDate end) {
+        return max(0, 0, DAY_DOMAIN - 1, toDay(start), toDay(end));
+    }
+
+    int nodeCount() {
+        return size;
+    }
+
+    private void add(int node, int lo, int hi, int from, int to, int delta) {
+        if (to < lo || hi < from) {
+            return;
+        }
+        if (from <= lo && hi <= to) {
+            max[node] += delta;
+            tag[node] += delta;
+            return;
+        }
+
+        int mid = (lo + hi) >>> 1;
+        if (from <= mid) {
+            if (left[node] == NO_CHILD) {
+                int child = newNode(); // may reallocate the arrays, so read left only afterwards
+                left[node] = child;
+            }
+            add(left[node], lo, mid, from, to, delta);
+        }
+        if (to > mid) {
+            if (right[node] == NO_CHILD) {
+                int child = newNode();
+                right[node] = child;
+            }
+            add(right[node], mid + 1, hi, from, to, delta);
+        }
+
+        max[node] = tag[node] + Math.max(maxOf(left[node]), maxOf(right[node]));
+    }
+
+    private int max(int node, int lo, int hi, int from, int to) {
+        if (from <= lo && hi <= to) {
+            return max[node];
+        }
+
+        // A missing child covers days that were never touched below this node.
+        int mid = (lo + hi) >>> 1;
+        int best = Integer.MIN_VALUE;
+        if (from <= mid) {
+            best = left[node] == NO_CHILD ? 0 : max(left[node], lo, mid, from, to);
+        }
+        if (to > mid) {
+            best = Math.max(best, right[node] == NO_CHILD ? 0 : max(right[node], mid + 1, hi, from, to));
+        }
+        return tag[node] + best;
+    }
+
+    private int maxOf(int node) {
+        return node == NO_CHILD ? 0 : max[node];
+    }
+
+    private int newNode() {
+        if (size == max.length) {
+            int grown = size * 2;
+            left = Arrays.copyOf(left, grown);
+            right = Arrays.copyOf(right, grown);
+            max = Arrays.copyOf(max, grown);
+            tag = Arrays.copyOf(tag, grown);
+        }
+        return size++;
+    }
+
+    private static int toDay(LocalDate date) {
+        long day = date.toEpochDay();
+        if (day < 0 || day >= DAY_DOMAIN) {
+            throw new IllegalArgumentException("Date out of supported booking range: " + date);
+        }
+        return (int) day;
+    }
+}
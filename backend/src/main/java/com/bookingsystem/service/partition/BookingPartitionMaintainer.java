@@ -0,0 +1,129 @@
+package com.bookingsystem.service.partition;
+
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Optional;
+import java.util.regex.Matcher;
+import java.util.regex.Pattern;
+
+/**
+ * Keeps the quarterly partitions of {@code booking_request} in shape.
+ * <p>
+ * DECISION:
+ * - Partitions are created {@code booking.partitions.months-ahead} ahead of time, so new
+ *   bookings normally never fall into the DEFAULT partition. Bookings beyond that
+ *   horizon still do; each run also creates the quarters of whatever sits in DEFAULT and
+ *   moves those rows there (see V17), so they get archived and aggregated like the rest.
+ * - Quarters that ended more than {@code booking.partitions.archive-after-months} ago
+ *   and hold no booking that can still change are moved to
+ *   {@code archive.booking_request_archive}. Live queries, including the overlap
+ *   checks, no longer scan them. Lookups by id fall back to the archive.
+ * - The DDL lives in SQL functions (see V10); this job only decides when to call them.
+ */
+@Component
+public class BookingPartitionMaintainer {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingPartitionMaintainer.class);
+
+    private static final Pattern QUARTER_PARTITION = Pattern.compile("booking_request_(\\d{4})_q([1-4])");
+
+    private final JdbcTemplate jdbcTemplate;
+    private final Clock clock;
+    private final int monthsAhead;
+    private final int archiveAfterMonths;
+
+    public BookingPartitionMaintainer(JdbcTemplate jdbcTemplate,
+                                      Clock clock,
+                                      @Value("${booking.partitions.months-ahead:12}") int monthsAhead,
+                                      @Value("${booking.partitions.archive-after-months:24}") int archiveAfterMonths) {
+        this.jdbcTemplate = jdbcTemplate;
+        this.clock = clock;
+        this.monthsAhead = monthsAhead;
+        this.archiveAfterMonths = archiveAfterMonths;
+    }
+
+    @Scheduled(cron = "${booking.partitions.cron:0 30 0 * * *}")
+    public void maintain() {
+        createFuturePartitions();
+        archiveClosedPartitions();
+    }
+
+    public int createFuturePartitions() {
+        LocalDate today = LocalDate.now(clock);
+        // LEAST and GREATEST ignore the NULLs of an empty DEFAULT partition.
+        Integer created = jdbcTemplate.queryForObject("""
+                SELECT ensure_booking_request_partitions(LEAST(?, MIN(start_date)), GREATEST(?, MAX(start_date)))
+                FROM booking_request_default
+                """, Integer.class, today, today.plusMonths(monthsAhead));
+        if (created != null && created > 0) {
+            log.info("Created {} booking_request partitions", created);
+        }
+        return created == null ? 0 : created;
+    }
+
+    /**
+     * @return names of the partitions that were archived
+     */
+    public List<String> archiveClosedPartitions() {
+        LocalDate today = LocalDate.now(clock);
+        LocalDate cutoff = today.minusMonths(archiveAfterMonths);
+
+        List<String> partitions = jdbcTemplate.queryForList("""
+                SELECT c.relname FROM pg_inherits i
+                JOIN pg_class c ON c.oid = i.inhrelid
+                WHERE i.inhparent = 'booking_request'::regclass
+                ORDER BY c.relname
+                """, String.class);
+
+        List<String> archived = new ArrayList<>();
+        for (String partition : partitions) {
+            Optional<LocalDate> quarterStart = quarterStart(partition);
+            if (quarterStart.isEmpty()) {
+                continue; // the DEFAULT partition
+            }
+            LocalDate quarterEnd = quarterStart.get().plusMonths(3);
+            if (quarterEnd.isAfter(cutoff)) {
+                continue;
+            }
+
+            Boolean moved = jdbcTemplate.queryForObject(
+                    "SELECT archive_booking_request_partition(?, ?, ?, ?)",
+                    Boolean.class, partition, quarterStart.get(), quarterEnd, today);
+            if (Boolean.TRUE.equals(moved)) {
+                archived.add(partition);
+                // Bookings are updated several times in their life; rewrite the archived
+                // table without the dead row versions. Needs autocommit, hence no transaction here.
+                jdbcTemplate.execute("VACUUM (FULL, ANALYZE) archive." + partition);
+            } else {
+                log.warn("Partition {} is past the archive cutoff but still has open bookings", partition);
+            }
+        }
+
+        if (!archived.isEmpty()) {
+            log.info("Archived booking_request partitions {}", archived);
+        }
+        return archived;
+    }
+
+    /**
+     * First day of the quarter a {@code booking_request_YYYY_qN} partition covers.
+     */
+    public static Optional<LocalDate> quarterStart(String partition) {
+        Matcher matcher = QUARTER_PARTITION.matcher(partition);
+        if (!matcher.matches()) {
+            return Optional.empty();
+        }
+        int year = Integer.parseInt(matcher.group(1));
+        int quarter = Integer.parseInt(matcher.group(2));
+        return Optional.of(LocalDate.of(year, (quarter - 1) * 3 + 1, 1));
+    }
+}
@@ -0,0 +1,156 @@
+package com.bookingsystem.service.projection;
+
+import com.bookingsystem.model.AdSpace;
+import com.bookingsystem.model.AdSpaceStatus;
+import com.bookingsystem.model.AdSpaceType;
+import com.bookingsystem.model.BookingRequest;
+import com.bookingsystem.model.BookingStatus;
+import jakarta.persistence.EntityManager;
+import jakarta.persistence.Tuple;
+import jakarta.persistence.criteria.CriteriaBuilder;
+import jakarta.persistence.criteria.CriteriaQuery;
+import jakarta.persistence.criteria.Join;
+import jakarta.persistence.criteria.Order;
+import jakarta.persistence.criteria.Predicate;
+import jakarta.persistence.criteria.Root;
+import jakarta.persistence.criteria.Selection;
+import org.springframework.data.domain.Sort;
+import org.springframework.stereotype.Component;
+
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.LinkedHashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Set;
+
+/**
+ * Runs the list queries with only the requested fields in the SELECT list, for
+ * {@code ?fields=} on the list endpoints.
+ * <p>
+ * DECISION:
+ * - Tuple queries over the entities rather than hand-written SQL: filters and sort use
+ *   the same property names as the entity queries, and values come back as the same
+ *   Java types, so a projected field serializes exactly like the full entity's.
+ * - Field names are the JSON property names. Anything else is rejected, so a request
+ *   can't reach a column the API doesn't expose.
+ * - The ad space join for {@code adSpaceName} is only added when that field is asked
+ *   for; {@code adSpaceId} reads the foreign key column.
+ * - Rows are returned as ordered maps and never enter the persistence context.
+ */
+@Component
+public class FieldProjection {
+
+    public static final Set<String> AD_SPACE_FIELDS = Set.of(
+            "id", "name", "type", "city", "address", "pricePerDay", "status",
+            "capacity", "approvedBookingCount", "bookedRevenue", "nextFreeDate",
+            "version", "createdAt", "updatedAt");
+
+    public static final Set<String> BOOKING_FIELDS = Set.of(
+            "id", "adSpaceId", "adSpaceName", "advertiserName", "advertiserEmail", "startDate",
+            "endDate", "totalCost", "status", "version", "createdAt", "updatedAt");
+
+    private final EntityManager entityManager;
+
+    public FieldProjection(EntityManager entityManager) {
+        this.entityManager = entityManager;
+    }
+
+    /**
+     * Parses a comma-separated {@code fields} parameter, keeping the order given and
+     * dropping duplicates.
+     */
+    public static List<String> parse(String fields, Set<String> allowed) {
+        Set<String> parsed = new LinkedHashSet<>();
+        for (String field : fields.split(",")) {
+            String name = field.trim();
+            if (name.isEmpty()) {
+                continue;
+            }
+            if (!allowed.contains(name)) {
+                throw new IllegalArgumentException(
+                        "Unknown field '" + name + "'. Allowed values: " + allowed.stream().sorted().toList());
+            }
+            parsed.add(name);
+        }
+        if (parsed.isEmpty()) {
+            throw new IllegalArgumentException("'fields' must name at least one field");
+        }
+        return List.copyOf(parsed);
+    }
+
+    /**
+     * Same selection as {@code AdSpaceService.searchAdSpaces}: AVAILABLE spaces, city as a
+     * case-insensitive fragment, exact type.
+     */
+    public List<Map<String, Object>> availableAdSpaces(List<String> fields, String city, AdSpaceType type, Sort sort) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<AdSpace> root = query.from(AdSpace.class);
+
+        List<Selection<?>> selections = new ArrayList<>(fields.size());
+        for (String field : fields) {
+            selections.add(root.get(field).alias(field));
+        }
+
+        List<Predicate> where = new ArrayList<>();
+        where.add(cb.equal(root.get("status"), AdSpaceStatus.AVAILABLE));
+        if (city != null) {
+            String fragment = city.toLowerCase().replace("\\", "\\\\").replace("%", "\\%").replace("_", "\\_");
+            where.add(cb.like(cb.lower(root.<String>get("city")), "%" + fragment + "%", '\\'));
+        }
+        if (type != null) {
+            where.add(cb.equal(root.get("type"), type));
+        }
+
+        List<Order> orders = new ArrayList<>();
+        for (Sort.Order order : sort) {
+            orders.add(order.isAscending()
+                    ? cb.asc(root.get(order.getProperty()))
+                    : cb.desc(root.get(order.getProperty())));
+        }
+
+        query.multiselect(selections).where(where.toArray(Predicate[]::new)).orderBy(orders);
+        return toMaps(fields, entityManager.createQuery(query).getResultList());
+    }
+
+    /**
+     * Same selection as {@code BookingRequestService.listBookings}: live bookings,
+     * optionally of one status.
+     */
+    public List<Map<String, Object>> bookings(List<String> fields, BookingStatus status) {
+        CriteriaBuilder cb = entityManager.getCriteriaBuilder();
+        CriteriaQuery<Tuple> query = cb.createTupleQuery();
+        Root<BookingRequest> root = query.from(BookingRequest.class);
+
+        Join<BookingRequest, AdSpace> adSpace = fields.contains("adSpaceName") ? root.join("adSpace") : null;
+
+        List<Selection<?>> selections = new ArrayList<>(fields.size());
+        for (String field : fields) {
+            Selection<?> selection = switch (field) {
+                case "adSpaceId" -> root.get("adSpace").get("id");
+                case "adSpaceName" -> adSpace.get("name");
+                default -> root.get(field);
+            };
+            selections.add(selection.alias(field));
+        }
+
+        query.multiselect(selections);
+        if (status != null) {
+            query.where(cb.equal(root.get("status"), status));
+        }
+        return toMaps(fields, entityManager.createQuery(query).getResultList());
+    }
+
+    private static List<Map<String, Object>> toMaps(List<String> fields, List<Tuple> tuples) {
+        List<Map<String, Object>> rows = new ArrayList<>(tuples.size());
+        for (Tuple tuple : tuples) {
+            Map<String, Object> row = LinkedHashMap.newLinkedHashMap(fields.size());
+            for (String field : fields) {
+                row.put(field, tuple.get(field));
+            }
+            rows.add(row);
+        }
+        return rows;
+    }
+}
@@ -0,0 +1,80 @@
+package com.bookingsystem.service.routing;
+
+import java.util.function.Supplier;
+
+/**
+ * Tracks, per request thread, whether reads must stay on the primary because the
+ * client wrote recently (or writes in this request).
+ * <p>
+ * Threads without a bound session (scheduled jobs, startup) read from the
+ * replicas in read-only transactions, except inside {@link #onPrimary}.
+ */
+public final class ReadYourWrites {
+
+    private static final ThreadLocal<Session> CURRENT = new ThreadLocal<>();
+    private static final ThreadLocal<Boolean> FORCED = new ThreadLocal<>();
+
+    private ReadYourWrites() {
+    }
+
+    public static final class Session {
+
+        private final Runnable onFirstWrite;
+        private boolean pinned;
+        private boolean wrote;
+
+        /**
+         * @param pinned       whether the client wrote within the staleness window
+         * @param onFirstWrite called once when this request first uses the primary for
+         *                     a write, e.g. to extend the window for the client
+         */
+        public Session(boolean pinned, Runnable onFirstWrite) {
+            this.pinned = pinned;
+            this.onFirstWrite = onFirstWrite;
+        }
+    }
+
+    public static void bind(Session session) {
+        CURRENT.set(session);
+    }
+
+    public static void unbind() {
+        CURRENT.remove();
+    }
+
+    /**
+     * Runs {@code action} with every read-only connection it opens taken from the
+     * primary, whatever the session. For loads whose result is kept as authoritative
+     * in-memory state, e.g. the occupancy trees that admit bookings, where a lagging
+     * replica would do lasting damage. Connections already open are not affected.
+     */
+    public static <T> T onPrimary(Supplier<T> action) {
+        if (Boolean.TRUE.equals(FORCED.get())) {
+            return action.get();
+        }
+        FORCED.set(true);
+        try {
+            return action.get();
+        } finally {
+            FORCED.remove();
+        }
+    }
+
+    static boolean pinnedToPrimary() {
+        if (Boolean.TRUE.equals(FORCED.get())) {
+            return true;
+        }
+        Session session = CURRENT.get();
+        return session != null && session.pinned;
+    }
+
+    static void recordWrite() {
+        Session session = CURRENT.get();
+        if (session == null || session.wrote) {
+            return;
+        }
+        session.wrote = true;
+        session.pinned = true;
+        session.onFirstWrite.run();
+    }
+}
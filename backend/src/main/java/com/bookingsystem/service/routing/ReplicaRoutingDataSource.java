@@ -0,0 +1,104 @@
+package com.bookingsystem.service.routing;
+
+import org.springframework.jdbc.datasource.AbstractDataSource;
+import org.springframework.jdbc.datasource.DelegatingDataSource;
+import org.springframework.jdbc.datasource.LazyConnectionDataSourceProxy;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hands out primary connections for writes and replica connections for read-only
+ * transactions.
+ * <p>
+ * DECISION:
+ * - Built on {@link LazyConnectionDataSourceProxy}: the transaction manager marks the
+ *   connection read-only before the first statement, and only then is a physical
+ *   connection taken, from the replicas if it is read-only and from the primary
+ *   otherwise.
+ * - Replicas are used round-robin.
+ * - Read-only connections still go to the primary while the current
+ *   {@link ReadYourWrites} session is pinned, so a client reading right after its own
+ *   write never sees a replica that hasn't caught up yet.
+ * - Every primary connection taken for read-write use counts as a write for the
+ *   session. That is conservative: a read-write transaction that only read also pins.
+ */
+public class ReplicaRoutingDataSource extends LazyConnectionDataSourceProxy implements AutoCloseable {
+
+    private final List<? extends DataSource> replicas;
+
+    public ReplicaRoutingDataSource(DataSource primary, List<? extends DataSource> replicas) {
+        super(new WriteTrackingDataSource(primary));
+        if (replicas.isEmpty()) {
+            throw new IllegalArgumentException("At least one replica is required");
+        }
+        this.replicas = List.copyOf(replicas);
+        setReadOnlyDataSource(new ReplicaSelector(primary, this.replicas));
+        // Known up front, so the proxy never opens a primary connection just to find out.
+        setDefaultAutoCommit(true);
+        setDefaultTransactionIsolation(Connection.TRANSACTION_READ_COMMITTED);
+    }
+
+    /**
+     * Closes the replica pools; the primary pool is a bean of its own.
+     */
+    @Override
+    public void close() throws Exception {
+        for (DataSource replica : replicas) {
+            if (replica instanceof AutoCloseable closeable) {
+                closeable.close();
+            }
+        }
+    }
+
+    private static final class WriteTrackingDataSource extends DelegatingDataSource {
+
+        WriteTrackingDataSource(DataSource primary) {
+            super(primary);
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            ReadYourWrites.recordWrite();
+            return super.getConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            ReadYourWrites.recordWrite();
+            return super.getConnection(username, password);
+        }
+    }
+
+    private static final class ReplicaSelector extends AbstractDataSource {
+
+        private final DataSource primary;
+        private final List<? extends DataSource> replicas;
+        private final AtomicInteger next = new AtomicInteger();
+
+        ReplicaSelector(DataSource primary, List<? extends DataSource> replicas) {
+            this.primary = primary;
+            this.replicas = replicas;
+        }
+
+        @Override
+        public Connection getConnection() throws SQLException {
+            return select().getConnection();
+        }
+
+        @Override
+        public Connection getConnection(String username, String password) throws SQLException {
+            return select().getConnection(username, password);
+        }
+
+        private DataSource select() {
+            if (ReadYourWrites.pinnedToPrimary()) {
+                return primary;
+            }
+            return replicas.get(Math.floorMod(next.getAndIncrement(), replicas.size()));
+        }
+    }
+}
@@ -0,0 +1,89 @@
+package com.bookingsystem.service.summary;
+
+import com.bookingsystem.repository.AdSpaceRepository;
+import io.micrometer.core.instrument.Counter;
+import io.micrometer.core.instrument.MeterRegistry;
+import io.micrometer.core.instrument.Timer;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.scheduling.annotation.Scheduled;
+import org.springframework.stereotype.Component;
+
+import java.time.Clock;
+import java.time.LocalDate;
+
+/**
+ * Background job that recomputes the booking summary columns of every ad space
+ * (approved booking count, booked revenue, next free date) and fixes the rows that
+ * drifted.
+ * <p>
+ * Approvals and cancellations refresh the summary of their space in the same
+ * transaction, so drift only comes from changes made outside the application (archiving
+ * a quarter of bookings, manual fixes) and from days passing, which moves the next free
+ * date. By default it runs after the nightly partition maintenance, which archives
+ * old bookings.
+ * <p>
+ * DECISION:
+ * - Spaces are walked in id order, {@code booking.summary.repair.batch-size} at a time,
+ *   each batch in its own transaction, so locks are held briefly and a crash loses at
+ *   most one batch of work.
+ * - Only rows whose stored summary differs are written, so a run on a healthy table
+ *   only reads.
+ * - Batch durations are published as the {@code booking.summary.repair.batch} timer and
+ *   repaired rows as the {@code booking.summary.repaired} counter.
+ */
+@Component
+public class BookingSummaryRepair {
+
+    private static final Logger log = LoggerFactory.getLogger(BookingSummaryRepair.class);
+
+    private final AdSpaceRepository adSpaceRepository;
+    private final MeterRegistry meterRegistry;
+    private final Clock clock;
+    private final int batchSize;
+    private final Timer batchTimer;
+    private final Counter repaired;
+
+    public BookingSummaryRepair(AdSpaceRepository adSpaceRepository,
+                                MeterRegistry meterRegistry,
+                                Clock clock,
+                                @Value("${booking.summary.repair.batch-size:500}") int batchSize) {
+        if (batchSize <= 0) {
+            throw new IllegalArgumentException("booking.summary.repair.batch-size must be positive");
+        }
+        this.adSpaceRepository = adSpaceRepository;
+        this.meterRegistry = meterRegistry;
+        this.clock = clock;
+        this.batchSize = batchSize;
+        this.batchTimer = Timer.builder("booking.summary.repair.batch")
+                .description("Duration of one booking summary repair batch")
+                .register(meterRegistry);
+        this.repaired = Counter.builder("booking.summary.repaired")
+                .description("Ad space booking summaries found drifted and rewritten")
+                .register(meterRegistry);
+    }
+
+    /**
+     * @return the number of ad spaces whose summary was rewritten
+     */
+    @Scheduled(cron = "${booking.summary.repair.cron:0 45 0 * * *}")
+    public int repair() {
+        LocalDate today = LocalDate.now(clock);
+
+        int total = 0;
+        long afterId = 0;
+        Long lastId;
+        while ((lastId = adSpaceRepository.findBatchEnd(afterId, batchSize)) != null) {
+            Timer.Sample sample = Timer.start(meterRegistry);
+            int changed = adSpaceRepository.refreshBookingSummaries(afterId + 1, lastId, today);
+            sample.stop(batchTimer);
+            repaired.increment(changed);
+            total += changed;
+            afterId = lastId;
+        }
+
+        log.info("Booking summary repair for {}: {} ad spaces rewritten", today, total);
+        return total;
+    }
+}
@@ -0,0 +1,13 @@
+package com.bookingsystem.service.waitlist;
+
+/**
+ * Decides which waiting request is promoted first when several fit a freed window.
+ */
+public enum WaitlistPolicy {
+
+    /** Oldest request first (ids are assigned in creation order). */
+    FIFO,
+
+    /** Highest booking value first; ties go to the oldest request. */
+    PRICE
+}
@@ -0,0 +1,87 @@
+package com.bookingsystem.service.waitlist;
+
+import com.bookingsystem.model.AdSpace;
+import com.bookingsystem.model.BookingRequest;
+import com.bookingsystem.repository.BookingRequestRepository;
+import com.bookingsystem.service.AfterCommit;
+import com.bookingsystem.service.BookingChangedEvent;
+import com.bookingsystem.service.occupancy.OccupancyIndex;
+import org.slf4j.Logger;
+import org.slf4j.LoggerFactory;
+import org.springframework.beans.factory.annotation.Value;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.stereotype.Service;
+import org.springframework.transaction.annotation.Propagation;
+import org.springframework.transaction.annotation.Transactional;
+
+import java.time.Clock;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Optional;
+
+/**
+ * Promotes requests that lost the overlap check once a slot frees up.
+ * <p>
+ * DECISION:
+ * - The waitlist is the WAITLISTED status in booking_request; nothing is kept in memory,
+ *   so every node sees the same waiters.
+ * - A promotion only reads the waiters that overlap the freed window and haven't
+ *   started yet, already ranked by the {@link WaitlistPolicy} and capped at
+ *   {@code booking.waitlist.promotion-batch}. They are locked with SKIP LOCKED, so
+ *   concurrent promotions on any node never pick the same request.
+ * - Promotion runs in its own transaction after the freeing change committed, so the
+ *   occupancy index already reflects the freed slot. Like any other status change, a
+ *   promotion is published as a {@link BookingChangedEvent} once it commits.
+ */
+@Service
+public class WaitlistService {
+
+    private static final Logger log = LoggerFactory.getLogger(WaitlistService.class);
+
+    private final BookingRequestRepository bookingRequestRepository;
+    private final OccupancyIndex occupancyIndex;
+    private final Clock clock;
+    private final WaitlistPolicy policy;
+    private final int promotionBatch;
+    private final ApplicationEventPublisher eventPublisher;
+
+    public WaitlistService(BookingRequestRepository bookingRequestRepository,
+                           OccupancyIndex occupancyIndex,
+                           Clock clock,
+                           @Value("${booking.waitlist.policy:FIFO}") WaitlistPolicy policy,
+                           @Value("${booking.waitlist.promotion-batch:50}") int promotionBatch,
+                           ApplicationEventPublisher eventPublisher) {
+        if (promotionBatch <= 0) {
+            throw new IllegalArgumentException("booking.waitlist.promotion-batch must be positive");
+        }
+        this.bookingRequestRepository = bookingRequestRepository;
+        this.occupancyIndex = occupancyIndex;
+        this.clock = clock;
+        this.policy = policy;
+        this.promotionBatch = promotionBatch;
+        this.eventPublisher = eventPublisher;
+    }
+
+    /**
+     * Promotes the best waiting request that overlaps the freed window and now fits the
+     * ad space's capacity back to PENDING.
+     */
+    @Transactional(propagation = Propagation.REQUIRES_NEW)
+    public Optional<BookingRequest> promoteNext(AdSpace adSpace, LocalDate freedStart, LocalDate freedEnd) {
+        List<BookingRequest> candidates = bookingRequestRepository.lockWaitlistCandidates(
+                adSpace.getId(), freedStart, freedEnd, LocalDate.now(clock),
+                policy == WaitlistPolicy.PRICE, promotionBatch);
+
+        for (BookingRequest booking : candidates) {
+            if (occupancyIndex.peakOccupancy(adSpace.getId(), booking.getStartDate(), booking.getEndDate())
+                    < adSpace.getCapacity()) {
+                booking.promoteFromWaitlist();
+                BookingRequest promoted = bookingRequestRepository.save(booking);
+                log.info("Promoted waitlisted booking {} on ad space {}", promoted.getId(), adSpace.getId());
+                AfterCommit.run(() -> eventPublisher.publishEvent(new BookingChangedEvent(promoted)));
+                return Optional.of(promoted);
+            }
+        }
+        return Optional.empty();
+    }
+}
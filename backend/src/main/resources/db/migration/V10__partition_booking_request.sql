@@ -0,0 +1,146 @@
+-- Range-partitions booking_request by start_date, one partition per quarter.
+--
+-- PostgreSQL can't convert a table in place, so the data is copied into a new
+-- partitioned table. The primary key must include the partition key, so it becomes
+-- (id, start_date). Ids stay unique because they all come from booking_request_id_seq.
+--
+-- A DEFAULT partition catches dates outside the created ranges. The scheduled
+-- partition maintainer keeps creating quarters ahead of time, so normally nothing
+-- lands there.
+
+ALTER TABLE booking_request RENAME TO booking_request_legacy;
+ALTER INDEX booking_request_pkey RENAME TO booking_request_legacy_pkey;
+ALTER SEQUENCE booking_request_id_seq OWNED BY NONE;
+
+CREATE TABLE booking_request (
+                                 id BIGINT NOT NULL DEFAULT nextval('booking_request_id_seq'),
+                                 ad_space_id BIGINT NOT NULL REFERENCES ad_space(id),
+                                 advertiser_name VARCHAR(255) NOT NULL,
+                                 advertiser_email VARCHAR(255) NOT NULL,
+                                 start_date DATE NOT NULL,
+                                 end_date DATE NOT NULL,
+                                 status VARCHAR(50) NOT NULL DEFAULT 'PENDING',
+                                 total_cost NUMERIC(10, 2) NOT NULL CHECK (total_cost > 0),
+                                 created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+                                 updated_at TIMESTAMP NOT NULL DEFAULT NOW(),
+                                 version BIGINT NOT NULL DEFAULT 0,
+
+                                 PRIMARY KEY (id, start_date),
+
+                                 CONSTRAINT chk_booking_dates
+                                     CHECK (end_date > start_date),
+
+                                 CONSTRAINT chk_minimum_duration
+                                     CHECK (end_date >= start_date + INTERVAL '7 days')
+) PARTITION BY RANGE (start_date);
+
+ALTER SEQUENCE booking_request_id_seq OWNED BY booking_request.id;
+
+CREATE TABLE booking_request_default PARTITION OF booking_request DEFAULT;
+
+-- Creates the quarterly partitions booking_request_YYYY_qN covering from_date..to_date
+-- that don't exist yet. Returns how many were created.
+CREATE OR REPLACE FUNCTION ensure_booking_request_partitions(from_date DATE, to_date DATE)
+    RETURNS INTEGER AS $$
+DECLARE
+    quarter_start DATE := date_trunc('quarter', from_date)::DATE;
+    quarter_end   DATE;
+    part_name     TEXT;
+    created       INTEGER := 0;
+BEGIN
+    WHILE quarter_start <= to_date LOOP
+        quarter_end := (quarter_start + INTERVAL '3 months')::DATE;
+        part_name := format('booking_request_%s_q%s',
+                            to_char(quarter_start, 'YYYY'), extract(QUARTER FROM quarter_start));
+
+        IF to_regclass(part_name) IS NULL
+           AND to_regclass('archive.' || part_name) IS NULL THEN
+            BEGIN
+                EXECUTE format('CREATE TABLE %I PARTITION OF booking_request FOR VALUES FROM (%L) TO (%L)',
+                               part_name, quarter_start, quarter_end);
+                created := created + 1;
+            EXCEPTION WHEN check_violation THEN
+                -- Rows for this quarter already sit in the DEFAULT partition.
+                RAISE WARNING 'Cannot create %: the default partition holds rows for that range', part_name;
+            END;
+        END IF;
+
+        quarter_start := quarter_end;
+    END LOOP;
+    RETURN created;
+END;
+$$ LANGUAGE plpgsql;
+
+SELECT ensure_booking_request_partitions(
+    COALESCE((SELECT MIN(start_date) FROM booking_request_legacy), CURRENT_DATE),
+    GREATEST((SELECT MAX(start_date) FROM booking_request_legacy), CURRENT_DATE + 365)
+);
+
+INSERT INTO booking_request (id, ad_space_id, advertiser_name, advertiser_email, start_date, end_date,
+                             status, total_cost, created_at, updated_at, version)
+SELECT id, ad_space_id, advertiser_name, advertiser_email, start_date, end_date,
+       status, total_cost, created_at, updated_at, version
+FROM booking_request_legacy;
+
+DROP TABLE booking_request_legacy;
+
+-- Indexes on the partitioned table are created on every partition, current and future.
+CREATE INDEX idx_booking_status ON booking_request(status);
+CREATE INDEX idx_booking_adspace ON booking_request(ad_space_id);
+
+CREATE INDEX idx_booking_date_range
+    ON booking_request(ad_space_id, start_date, end_date, status)
+    WHERE status IN ('PENDING', 'APPROVED');
+
+CREATE INDEX idx_booking_pending_start
+    ON booking_request(start_date)
+    WHERE status IN ('PENDING', 'WAITLISTED');
+
+CREATE INDEX idx_booking_waitlist
+    ON booking_request(ad_space_id, start_date)
+    WHERE status = 'WAITLISTED';
+
+-- Archive: closed quarters are detached from booking_request and re-attached here,
+-- keeping only their primary key index. Lookups by id still work through this parent.
+CREATE SCHEMA IF NOT EXISTS archive;
+
+CREATE TABLE archive.booking_request_archive (
+    LIKE booking_request INCLUDING DEFAULTS INCLUDING CONSTRAINTS,
+    PRIMARY KEY (id, start_date)
+) PARTITION BY RANGE (start_date);
+
+-- Moves one quarter partition to the archive if none of its bookings can still change,
+-- i.e. nothing is PENDING or WAITLISTED and no APPROVED booking ends on or after today.
+-- Returns whether it was archived.
+CREATE OR REPLACE FUNCTION archive_booking_request_partition(part_name TEXT,
+                                                             from_date DATE,
+                                                             to_date DATE,
+                                                             today DATE)
+    RETURNS BOOLEAN AS $$
+DECLARE
+    still_open BOOLEAN;
+    secondary  RECORD;
+BEGIN
+    EXECUTE format('SELECT EXISTS (SELECT 1 FROM %I WHERE status IN (''PENDING'', ''WAITLISTED'') '
+                       || 'OR (status = ''APPROVED'' AND end_date >= %L))', part_name, today)
+        INTO still_open;
+    IF still_open THEN
+        RETURN FALSE;
+    END IF;
+
+    EXECUTE format('ALTER TABLE booking_request DETACH PARTITION %I', part_name);
+
+    -- Archived rows are only ever looked up by id; the secondary indexes are dead weight.
+    FOR secondary IN
+        SELECT indexrelid::regclass AS name FROM pg_index
+        WHERE indrelid = part_name::regclass AND NOT indisprimary
+    LOOP
+        EXECUTE format('DROP INDEX %s', secondary.name);
+    END LOOP;
+
+    EXECUTE format('ALTER TABLE %I SET SCHEMA archive', part_name);
+    EXECUTE format('ALTER TABLE archive.booking_request_archive ATTACH PARTITION archive.%I '
+                       || 'FOR VALUES FROM (%L) TO (%L)', part_name, from_date, to_date);
+    RETURN TRUE;
+END;
+$$ LANGUAGE plpgsql;
@@ -0,0 +1,53 @@
+-- Stores status and type as native enums (4 bytes) instead of VARCHAR(50) (8-13 bytes
+-- plus a length header per value), in the tables and in every index on them.
+--
+-- Enum labels match the Java enum names, so string literals in SQL keep working.
+-- New values go at the end with ALTER TYPE ... ADD VALUE.
+
+CREATE TYPE ad_space_type AS ENUM ('BILLBOARD', 'BUS_STOP', 'MALL_DISPLAY', 'TRANSIT_AD');
+CREATE TYPE ad_space_status AS ENUM ('AVAILABLE', 'BOOKED', 'MAINTENANCE');
+CREATE TYPE booking_status AS ENUM ('PENDING', 'APPROVED', 'REJECTED', 'WAITLISTED', 'CANCELLED', 'EXPIRED');
+
+ALTER TABLE ad_space
+    ALTER COLUMN type TYPE ad_space_type USING type::ad_space_type,
+    ALTER COLUMN status TYPE ad_space_status USING status::ad_space_status;
+
+-- The partial indexes would be carried over with their predicates still comparing
+-- status as text, which queries against the enum column no longer match.
+DROP INDEX idx_booking_date_range;
+DROP INDEX idx_booking_pending_start;
+DROP INDEX idx_booking_waitlist;
+
+-- Recurses into every quarter partition.
+ALTER TABLE booking_request
+    ALTER COLUMN status DROP DEFAULT,
+    ALTER COLUMN status TYPE booking_status USING status::booking_status,
+    ALTER COLUMN status SET DEFAULT 'PENDING';
+
+-- Archived partitions are attached here, so the column types have to stay identical.
+ALTER TABLE archive.booking_request_archive
+    ALTER COLUMN status DROP DEFAULT,
+    ALTER COLUMN status TYPE booking_status USING status::booking_status,
+    ALTER COLUMN status SET DEFAULT 'PENDING';
+
+CREATE INDEX idx_booking_date_range
+    ON booking_request(ad_space_id, start_date, end_date, status)
+    WHERE status IN ('PENDING', 'APPROVED');
+
+CREATE INDEX idx_booking_pending_start
+    ON booking_request(start_date)
+    WHERE status IN ('PENDING', 'WAITLISTED');
+
+CREATE INDEX idx_booking_waitlist
+    ON booking_request(ad_space_id, start_date)
+    WHERE status = 'WAITLISTED';
+
+-- Rows are appended roughly in creation order, and bookings are mostly made for the
+-- weeks ahead, so both columns follow the physical order closely. A BRIN index keeps
+-- one min/max summary per 128 pages: a few pages in total versus a B-tree entry per row.
+CREATE INDEX idx_booking_created_at_brin ON booking_request USING brin (created_at);
+CREATE INDEX idx_booking_start_date_brin ON booking_request USING brin (start_date);
+CREATE INDEX idx_adspace_created_at_brin ON ad_space USING brin (created_at);
+
+ANALYZE ad_space;
+ANALYZE booking_request;
@@ -0,0 +1,48 @@
+-- Change feed for the ad space catalog: every insert and update stamps the row with
+-- the id of the writing transaction, every delete leaves a tombstone stamped the same
+-- way. Stamped in triggers so ORM writes, native and bulk updates and COPY imports
+-- are all covered.
+--
+-- The transaction id (xid8, 64-bit, never wraps) is used as the change sequence
+-- rather than a plain sequence because readers can tell which part of it is final:
+-- every transaction below pg_snapshot_xmin(pg_current_snapshot()) has finished, so
+-- nothing can still appear there. A sequence value can be taken by a transaction that
+-- commits after a reader has already moved past it.
+
+ALTER TABLE ad_space ADD COLUMN change_xid BIGINT;
+UPDATE ad_space SET change_xid = pg_current_xact_id()::TEXT::BIGINT;
+ALTER TABLE ad_space ALTER COLUMN change_xid SET NOT NULL;
+
+CREATE INDEX idx_adspace_change ON ad_space(change_xid, id);
+
+CREATE TABLE ad_space_tombstone (
+    id         BIGINT PRIMARY KEY,
+    change_xid BIGINT NOT NULL,
+    deleted_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+CREATE INDEX idx_adspace_tombstone_change ON ad_space_tombstone(change_xid, id);
+
+CREATE OR REPLACE FUNCTION stamp_ad_space_change() RETURNS TRIGGER AS $$
+BEGIN
+    NEW.change_xid := pg_current_xact_id()::TEXT::BIGINT;
+    RETURN NEW;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE OR REPLACE FUNCTION record_ad_space_tombstone() RETURNS TRIGGER AS $$
+BEGIN
+    INSERT INTO ad_space_tombstone (id, change_xid)
+    VALUES (OLD.id, pg_current_xact_id()::TEXT::BIGINT)
+    ON CONFLICT (id) DO UPDATE SET change_xid = EXCLUDED.change_xid, deleted_at = NOW();
+    RETURN OLD;
+END;
+$$ LANGUAGE plpgsql;
+
+CREATE TRIGGER trg_ad_space_change
+    BEFORE INSERT OR UPDATE ON ad_space
+    FOR EACH ROW EXECUTE FUNCTION stamp_ad_space_change();
+
+CREATE TRIGGER trg_ad_space_tombstone
+    AFTER DELETE ON ad_space
+    FOR EACH ROW EXECUTE FUNCTION record_ad_space_tombstone();
@@ -0,0 +1,62 @@
+-- Per ad space booking summary kept on the ad_space row, so list screens get it without
+-- scanning booking_request:
+--   approved_booking_count / booked_revenue: APPROVED bookings in the live table,
+--   next_free_date: first day from "today" on with a free slot, NULL when no approved
+--                   booking ends today or later (the space is free from today on).
+-- The application refreshes a space in the same transaction as every change to its
+-- approved bookings; a nightly job repairs drift (archived quarters, days passing).
+ALTER TABLE ad_space
+    ADD COLUMN approved_booking_count INTEGER NOT NULL DEFAULT 0,
+    ADD COLUMN booked_revenue NUMERIC(14, 2) NOT NULL DEFAULT 0,
+    ADD COLUMN next_free_date DATE;
+
+-- Recomputes the summary of the spaces with ids in [first_id, last_id] and returns how
+-- many rows actually changed. The rows are locked first so the recomputation below
+-- runs on a snapshot taken after any concurrent approval of the same space committed.
+CREATE OR REPLACE FUNCTION refresh_ad_space_booking_summary(first_id BIGINT, last_id BIGINT, today DATE)
+RETURNS INTEGER AS $$
+DECLARE
+    changed INTEGER;
+BEGIN
+    PERFORM 1 FROM ad_space WHERE id BETWEEN first_id AND last_id ORDER BY id FOR UPDATE;
+
+    UPDATE ad_space a
+    SET approved_booking_count = s.approved_count,
+        booked_revenue = s.booked_revenue,
+        next_free_date = s.next_free_date
+    FROM (
+        SELECT sp.id,
+               agg.approved_count,
+               COALESCE(agg.booked_revenue, 0) AS booked_revenue,
+               -- Candidates are today and the day after each approved booking ends; the
+               -- day after the last one always has a free slot.
+               CASE WHEN agg.last_end >= today THEN (
+                   SELECT MIN(c.day)
+                   FROM (SELECT today AS day
+                         UNION
+                         SELECT b.end_date + 1 FROM booking_request b
+                         WHERE b.ad_space_id = sp.id AND b.status = 'APPROVED' AND b.end_date >= today) c
+                   WHERE (SELECT COUNT(*) FROM booking_request b
+                          WHERE b.ad_space_id = sp.id
+                            AND b.status = 'APPROVED'
+                            AND b.start_date <= c.day
+                            AND b.end_date >= c.day) < sp.capacity
+               ) END AS next_free_date
+        FROM ad_space sp
+        CROSS JOIN LATERAL (
+            SELECT COUNT(*) AS approved_count, SUM(b.total_cost) AS booked_revenue, MAX(b.end_date) AS last_end
+            FROM booking_request b
+            WHERE b.ad_space_id = sp.id AND b.status = 'APPROVED'
+        ) agg
+        WHERE sp.id BETWEEN first_id AND last_id
+    ) s
+    WHERE a.id = s.id
+      AND (a.approved_booking_count, a.booked_revenue, a.next_free_date)
+          IS DISTINCT FROM (s.approved_count, s.booked_revenue, s.next_free_date);
+
+    GET DIAGNOSTICS changed = ROW_COUNT;
+    RETURN changed;
+END;
+$$ LANGUAGE plpgsql;
+
+SELECT refresh_ad_space_booking_summary(0, 9223372036854775807, CURRENT_DATE);
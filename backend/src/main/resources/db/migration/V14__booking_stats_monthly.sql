@@ -0,0 +1,111 @@
+-- Approved booking totals per city, ad space type and calendar month, so analytics
+-- never has to aggregate booking_request.
+--
+-- A booking is billed per night from start_date to end_date (end exclusive). Each
+-- booking contributes to every month one of its nights falls in:
+--   booked_days: its nights in that month,
+--   revenue:     its total cost prorated by those nights,
+--   bookings:    1 in the month it starts, so bookings add up over months.
+--
+-- Rows are also keyed by source_quarter, the quarter of the booking start date, which
+-- is the booking_request partition the booking lives in. A quarter's rows can then be
+-- rebuilt from that one partition, independently of and in parallel with the others.
+CREATE TABLE booking_stats_monthly (
+    city VARCHAR(255) NOT NULL,
+    type ad_space_type NOT NULL,
+    month DATE NOT NULL,
+    source_quarter DATE NOT NULL,
+    bookings INTEGER NOT NULL,
+    booked_days INTEGER NOT NULL,
+    revenue NUMERIC(14, 2) NOT NULL,
+
+    PRIMARY KEY (city, type, month, source_quarter)
+);
+
+CREATE INDEX idx_booking_stats_month ON booking_stats_monthly(month);
+
+-- One row per booking and month it has nights in, whatever the booking status. Reads
+-- both the live table and the archived partitions.
+CREATE VIEW booking_stats_contribution AS
+SELECT b.id AS booking_id,
+       b.start_date,
+       b.status,
+       date_trunc('quarter', b.start_date)::DATE AS source_quarter,
+       a.city,
+       a.type,
+       m.month,
+       CASE WHEN m.month = date_trunc('month', b.start_date)::DATE THEN 1 ELSE 0 END AS bookings,
+       m.nights AS booked_days,
+       ROUND(b.total_cost * m.nights / (b.end_date - b.start_date), 2) AS revenue
+FROM (
+    SELECT id, ad_space_id, start_date, end_date, status, total_cost FROM booking_request
+    UNION ALL
+    SELECT id, ad_space_id, start_date, end_date, status, total_cost FROM archive.booking_request_archive
+) b
+JOIN ad_space a ON a.id = b.ad_space_id
+CROSS JOIN LATERAL (
+    SELECT month_start::DATE AS month,
+           LEAST(b.end_date, (month_start + INTERVAL '1 month')::DATE) - GREATEST(b.start_date, month_start::DATE) AS nights
+    FROM generate_series(date_trunc('month', b.start_date)::TIMESTAMP, (b.end_date - 1)::TIMESTAMP,
+                         INTERVAL '1 month') month_start
+) m;
+
+-- Adds (delta = 1) or removes (delta = -1) one booking's contribution. Called in the
+-- transaction that approves or cancels it. Returns the number of month rows touched.
+CREATE OR REPLACE FUNCTION apply_booking_stats(target_id BIGINT, target_start DATE, delta INTEGER)
+RETURNS INTEGER AS $$
+DECLARE
+    touched INTEGER;
+BEGIN
+    INSERT INTO booking_stats_monthly AS s (city, type, month, source_quarter, bookings, booked_days, revenue)
+    SELECT c.city, c.type, c.month, c.source_quarter,
+           c.bookings * delta, c.booked_days * delta, c.revenue * delta
+    FROM booking_stats_contribution c
+    WHERE c.booking_id = target_id AND c.start_date = target_start
+    ON CONFLICT (city, type, month, source_quarter) DO UPDATE
+        SET bookings = s.bookings + EXCLUDED.bookings,
+            booked_days = s.booked_days + EXCLUDED.booked_days,
+            revenue = s.revenue + EXCLUDED.revenue;
+
+    GET DIAGNOSTICS touched = ROW_COUNT;
+    RETURN touched;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Recomputes the rows of one source quarter from the APPROVED bookings starting in it.
+-- Only reads that quarter's partition. Approvals committing meanwhile either wait for
+-- this transaction or are already visible to the insert, whose upsert then overwrites
+-- their increments. Returns the number of month rows written.
+CREATE OR REPLACE FUNCTION rebuild_booking_stats_quarter(quarter_start DATE)
+RETURNS INTEGER AS $$
+DECLARE
+    written INTEGER;
+BEGIN
+    DELETE FROM booking_stats_monthly WHERE source_quarter = quarter_start;
+
+    INSERT INTO booking_stats_monthly AS s (city, type, month, source_quarter, bookings, booked_days, revenue)
+    SELECT c.city, c.type, c.month, quarter_start, SUM(c.bookings), SUM(c.booked_days), SUM(c.revenue)
+    FROM booking_stats_contribution c
+    WHERE c.start_date >= quarter_start
+      AND c.start_date < (quarter_start + INTERVAL '3 months')::DATE
+      AND c.status = 'APPROVED'
+    GROUP BY c.city, c.type, c.month
+    ON CONFLICT (city, type, month, source_quarter) DO UPDATE
+        SET bookings = EXCLUDED.bookings,
+            booked_days = EXCLUDED.booked_days,
+            revenue = EXCLUDED.revenue;
+
+    GET DIAGNOSTICS written = ROW_COUNT;
+    RETURN written;
+END;
+$$ LANGUAGE plpgsql;
+
+SELECT rebuild_booking_stats_quarter(q::DATE)
+FROM generate_series(
+         date_trunc('quarter', COALESCE(LEAST((SELECT MIN(start_date) FROM booking_request),
+                                              (SELECT MIN(start_date) FROM archive.booking_request_archive)),
+                                        CURRENT_DATE))::TIMESTAMP,
+         date_trunc('quarter', COALESCE(GREATEST((SELECT MAX(start_date) FROM booking_request),
+                                                 (SELECT MAX(start_date) FROM archive.booking_request_archive)),
+                                        CURRENT_DATE))::TIMESTAMP,
+         INTERVAL '3 months') q;
@@ -0,0 +1,14 @@
+-- Cluster-wide demand sketches (count-min sketches of requests and rejections per ad
+-- space and ISO week, HyperLogLogs of distinct advertisers per ad space). Every node
+-- periodically merges what it recorded since its last merge into these rows.
+CREATE TABLE demand_sketch (
+    name VARCHAR(50) PRIMARY KEY,
+    data BYTEA NOT NULL,
+    updated_at TIMESTAMP NOT NULL DEFAULT NOW()
+);
+
+-- Empty until the first merge; the rows exist so merges can lock them.
+INSERT INTO demand_sketch (name, data) VALUES
+    ('requests', ''::BYTEA),
+    ('rejections', ''::BYTEA),
+    ('advertisers', ''::BYTEA);
@@ -0,0 +1,93 @@
+-- The city and type an approved booking was counted under in booking_stats_monthly,
+-- recorded when it is approved. Contributions used to be computed from the ad space's
+-- current city and type, so a booking cancelled after its space moved was subtracted
+-- from a bucket it had never been added to. Its contribution is now taken from this
+-- row while it exists, and the row is dropped when the booking is cancelled.
+CREATE TABLE booking_stats_attribution (
+    booking_id BIGINT NOT NULL,
+    start_date DATE NOT NULL,
+    city VARCHAR(255) NOT NULL,
+    type ad_space_type NOT NULL,
+
+    PRIMARY KEY (booking_id, start_date)
+);
+
+-- The aggregates were last rebuilt from the current city and type, so that is what the
+-- approved bookings are counted under now.
+INSERT INTO booking_stats_attribution (booking_id, start_date, city, type)
+SELECT b.id, b.start_date, a.city, a.type
+FROM (
+    SELECT id, ad_space_id, start_date, status FROM booking_request
+    UNION ALL
+    SELECT id, ad_space_id, start_date, status FROM archive.booking_request_archive
+) b
+JOIN ad_space a ON a.id = b.ad_space_id
+WHERE b.status = 'APPROVED';
+
+-- Same as in V14, except that the city and type come from the attribution when there is
+-- one. The rebuild reads this view too, so it keeps every booking where it was counted.
+DROP VIEW booking_stats_contribution;
+
+CREATE VIEW booking_stats_contribution AS
+SELECT b.id AS booking_id,
+       b.start_date,
+       b.status,
+       date_trunc('quarter', b.start_date)::DATE AS source_quarter,
+       COALESCE(t.city, a.city) AS city,
+       COALESCE(t.type, a.type) AS type,
+       m.month,
+       CASE WHEN m.month = date_trunc('month', b.start_date)::DATE THEN 1 ELSE 0 END AS bookings,
+       m.nights AS booked_days,
+       ROUND(b.total_cost * m.nights / (b.end_date - b.start_date), 2) AS revenue
+FROM (
+    SELECT id, ad_space_id, start_date, end_date, status, total_cost FROM booking_request
+    UNION ALL
+    SELECT id, ad_space_id, start_date, end_date, status, total_cost FROM archive.booking_request_archive
+) b
+JOIN ad_space a ON a.id = b.ad_space_id
+LEFT JOIN booking_stats_attribution t ON t.booking_id = b.id AND t.start_date = b.start_date
+CROSS JOIN LATERAL (
+    SELECT month_start::DATE AS month,
+           LEAST(b.end_date, (month_start + INTERVAL '1 month')::DATE) - GREATEST(b.start_date, month_start::DATE) AS nights
+    FROM generate_series(date_trunc('month', b.start_date)::TIMESTAMP, (b.end_date - 1)::TIMESTAMP,
+                         INTERVAL '1 month') month_start
+) m;
+
+-- Adding a contribution first records the current city and type as its attribution;
+-- removing one subtracts it from the attributed bucket and then drops the attribution.
+CREATE OR REPLACE FUNCTION apply_booking_stats(target_id BIGINT, target_start DATE, delta INTEGER)
+RETURNS INTEGER AS $$
+DECLARE
+    touched INTEGER;
+BEGIN
+    IF delta > 0 THEN
+        INSERT INTO booking_stats_attribution (booking_id, start_date, city, type)
+        SELECT b.id, b.start_date, a.city, a.type
+        FROM booking_request b
+        JOIN ad_space a ON a.id = b.ad_space_id
+        WHERE b.id = target_id AND b.start_date = target_start
+        ON CONFLICT (booking_id, start_date) DO UPDATE
+            SET city = EXCLUDED.city,
+                type = EXCLUDED.type;
+    END IF;
+
+    INSERT INTO booking_stats_monthly AS s (city, type, month, source_quarter, bookings, booked_days, revenue)
+    SELECT c.city, c.type, c.month, c.source_quarter,
+           c.bookings * delta, c.booked_days * delta, c.revenue * delta
+    FROM booking_stats_contribution c
+    WHERE c.booking_id = target_id AND c.start_date = target_start
+    ON CONFLICT (city, type, month, source_quarter) DO UPDATE
+        SET bookings = s.bookings + EXCLUDED.bookings,
+            booked_days = s.booked_days + EXCLUDED.booked_days,
+            revenue = s.revenue + EXCLUDED.revenue;
+
+    GET DIAGNOSTICS touched = ROW_COUNT;
+
+    IF delta < 0 THEN
+        DELETE FROM booking_stats_attribution
+        WHERE booking_id = target_id AND start_date = target_start;
+    END IF;
+
+    RETURN touched;
+END;
+$$ LANGUAGE plpgsql;
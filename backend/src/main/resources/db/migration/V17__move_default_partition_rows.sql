@@ -0,0 +1,55 @@
+-- Bookings starting beyond the partition horizon land in the DEFAULT partition. Creating
+-- their quarter later failed with check_violation for as long as they sat there, so the
+-- quarter was never created, and DEFAULT rows are neither archived nor rebuilt into the
+-- analytics aggregates.
+--
+-- A quarter with rows in DEFAULT is now created as a standalone table, the rows are
+-- moved into it, and it is then attached. DEFAULT is locked for the move, so no row for
+-- that range can land there before the attach, which checks it holds none.
+CREATE OR REPLACE FUNCTION ensure_booking_request_partitions(from_date DATE, to_date DATE)
+    RETURNS INTEGER AS $$
+DECLARE
+    quarter_start DATE := date_trunc('quarter', from_date)::DATE;
+    quarter_end   DATE;
+    part_name     TEXT;
+    stranded      BOOLEAN;
+    created       INTEGER := 0;
+BEGIN
+    WHILE quarter_start <= to_date LOOP
+        quarter_end := (quarter_start + INTERVAL '3 months')::DATE;
+        part_name := format('booking_request_%s_q%s',
+                            to_char(quarter_start, 'YYYY'), extract(QUARTER FROM quarter_start));
+
+        IF to_regclass(part_name) IS NULL
+           AND to_regclass('archive.' || part_name) IS NULL THEN
+            SELECT EXISTS (SELECT 1 FROM booking_request_default
+                           WHERE start_date >= quarter_start AND start_date < quarter_end)
+            INTO stranded;
+
+            IF stranded THEN
+                LOCK TABLE booking_request_default IN ACCESS EXCLUSIVE MODE;
+
+                EXECUTE format('CREATE TABLE %I (LIKE booking_request INCLUDING ALL)', part_name);
+                EXECUTE format('WITH moved AS (DELETE FROM booking_request_default '
+                                   || 'WHERE start_date >= %L AND start_date < %L RETURNING *) '
+                                   || 'INSERT INTO %I SELECT * FROM moved',
+                               quarter_start, quarter_end, part_name);
+                EXECUTE format('ALTER TABLE booking_request ATTACH PARTITION %I FOR VALUES FROM (%L) TO (%L)',
+                               part_name, quarter_start, quarter_end);
+            ELSE
+                EXECUTE format('CREATE TABLE %I PARTITION OF booking_request FOR VALUES FROM (%L) TO (%L)',
+                               part_name, quarter_start, quarter_end);
+            END IF;
+            created := created + 1;
+        END IF;
+
+        quarter_start := quarter_end;
+    END LOOP;
+    RETURN created;
+END;
+$$ LANGUAGE plpgsql;
+
+-- Give the rows already stranded in DEFAULT their quarters.
+SELECT ensure_booking_request_partitions(MIN(start_date), MAX(start_date))
+FROM booking_request_default
+HAVING COUNT(*) > 0;
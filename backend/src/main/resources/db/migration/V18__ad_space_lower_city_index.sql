@@ -0,0 +1,6 @@
+-- Bulk updates select ad spaces by city case-insensitively, LOWER(city) = LOWER(:city),
+-- which the plain index on city can't serve. Nothing matches city exactly, so the
+-- expression index replaces it.
+CREATE INDEX idx_adspace_city_lower ON ad_space (LOWER(city));
+
+DROP INDEX idx_adspace_city;
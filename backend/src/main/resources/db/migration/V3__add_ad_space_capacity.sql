@@ -0,0 +1,8 @@
+-- Number of advertisers an ad space can run concurrently on the same day.
+-- Static billboards keep the default of 1 (any overlap is a conflict);
+-- rotating digital screens can be configured with a higher value.
+ALTER TABLE ad_space
+    ADD COLUMN capacity INTEGER NOT NULL DEFAULT 1;
+
+ALTER TABLE ad_space
+    ADD CONSTRAINT chk_adspace_capacity CHECK (capacity > 0);
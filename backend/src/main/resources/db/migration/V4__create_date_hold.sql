@@ -0,0 +1,16 @@
+-- Optional persisted copy of the in-memory date holds, used to restore them after a restart.
+-- Rows are written only when booking.holds.persistence.enabled=true.
+CREATE TABLE date_hold (
+                           id UUID PRIMARY KEY,
+                           ad_space_id BIGINT NOT NULL REFERENCES ad_space(id) ON DELETE CASCADE,
+                           holder_email VARCHAR(255) NOT NULL,
+                           start_date DATE NOT NULL,
+                           end_date DATE NOT NULL,
+                           expires_at TIMESTAMP WITH TIME ZONE NOT NULL,
+                           created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+
+                           CONSTRAINT chk_hold_dates
+                               CHECK (end_date > start_date)
+);
+
+CREATE INDEX idx_hold_expires_at ON date_hold(expires_at);
@@ -0,0 +1,5 @@
+-- Lets the lifecycle reconciler find PENDING requests whose start date has passed
+-- without scanning every PENDING row in idx_booking_status.
+CREATE INDEX idx_booking_pending_start
+    ON booking_request(start_date)
+    WHERE status = 'PENDING';
@@ -0,0 +1,11 @@
+-- Waitlisted requests are loaded per ad space when its waitlist is first needed,
+-- and expired by the lifecycle reconciler once their start date passes.
+CREATE INDEX idx_booking_waitlist
+    ON booking_request(ad_space_id, start_date)
+    WHERE status = 'WAITLISTED';
+
+DROP INDEX idx_booking_pending_start;
+
+CREATE INDEX idx_booking_pending_start
+    ON booking_request(start_date)
+    WHERE status IN ('PENDING', 'WAITLISTED');
@@ -0,0 +1,14 @@
+-- Responses of POST requests sent with an Idempotency-Key header, so client retries can be
+-- answered without running the request again. A row without response_status is a claim
+-- held by the node currently executing the request.
+CREATE TABLE idempotency_key (
+                                 idempotency_key VARCHAR(255) PRIMARY KEY,
+                                 request_hash CHAR(64) NOT NULL,
+                                 response_status INTEGER,
+                                 response_content_type VARCHAR(255),
+                                 response_body BYTEA,
+                                 created_at TIMESTAMP NOT NULL DEFAULT NOW(),
+                                 expires_at TIMESTAMP WITH TIME ZONE NOT NULL
+);
+
+CREATE INDEX idx_idempotency_expires_at ON idempotency_key(expires_at);
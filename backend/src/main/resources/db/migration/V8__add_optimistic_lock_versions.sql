@@ -0,0 +1,8 @@
+-- Row versions for optimistic locking. Every JPA update checks and bumps the version,
+-- so two concurrent read-modify-save cycles on the same row can no longer silently
+-- overwrite each other: the second commit fails and is retried or answered with 409.
+ALTER TABLE ad_space
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
+
+ALTER TABLE booking_request
+    ADD COLUMN version BIGINT NOT NULL DEFAULT 0;
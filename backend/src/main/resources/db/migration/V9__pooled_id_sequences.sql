@@ -0,0 +1,13 @@
+-- Hibernate now allocates ids from these sequences with the pooled optimizer: one
+-- nextval() reserves a block of ${id_allocation_size} ids, handed out in memory, so
+-- inserts no longer need a round trip per row and JDBC batching can apply.
+--
+-- The sequence increment is the block size. The entity mappings follow whatever the
+-- database says (hibernate.id.sequence.increment_size_mismatch_strategy=fix), so
+-- changing it later only takes another ALTER SEQUENCE migration.
+--
+-- The BIGSERIAL column defaults stay in place: plain SQL inserts still draw their own
+-- nextval(), which can never fall inside a block handed to Hibernate.
+ALTER SEQUENCE ad_space_id_seq INCREMENT BY ${id_allocation_size};
+
+ALTER SEQUENCE booking_request_id_seq INCREMENT BY ${id_allocation_size};
@@ -0,0 +1,131 @@
+package com.bookingsystem.benchmark;
+
+import com.bookingsystem.model.AdSpace;
+import com.bookingsystem.model.AdSpaceStatus;
+import com.bookingsystem.model.AdSpaceType;
+import com.bookingsystem.model.BookingRequest;
+import jakarta.persistence.EntityManager;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+import org.springframework.transaction.support.TransactionTemplate;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * Inserts 100k bookings twice and prints the throughput of each approach:
+ * <ul>
+ *   <li>before: one {@code INSERT ... RETURNING id} round trip per row, which is what
+ *       {@code GenerationType.IDENTITY} forces Hibernate to do;</li>
+ *   <li>after: {@code persist} with pooled sequence ids, flushed as ordered JDBC batches.</li>
+ * </ul>
+ * Needs a real database, so it only runs through {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+class BookingInsertBenchmark {
+
+    private static final int ROWS = 100_000;
+    private static final int CHUNK = 1_000;
+    private static final String EMAIL = "insert-benchmark@example.com";
+
+    @Autowired
+    private EntityManager entityManager;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @Autowired
+    private TransactionTemplate transactionTemplate;
+
+    private Long adSpaceId;
+
+    @BeforeEach
+    void setUp() {
+        adSpaceId = transactionTemplate.execute(status -> {
+            AdSpace adSpace = new AdSpace("Insert Benchmark", AdSpaceType.BILLBOARD,
+                    "Benchmark", "Benchmark Street 1", new BigDecimal("10.00"), AdSpaceStatus.AVAILABLE);
+            entityManager.persist(adSpace);
+            return adSpace.getId();
+        });
+    }
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.update("DELETE FROM booking_request WHERE advertiser_email = ?", EMAIL);
+        jdbcTemplate.update("DELETE FROM ad_space WHERE id = ?", adSpaceId);
+    }
+
+    @Test
+    @DisplayName("Row-by-row identity inserts vs batched pooled-sequence inserts, 100k bookings")
+    void insertBookings() {
+        long before = time(this::insertRowByRow);
+        assertEquals(ROWS, countInserted());
+        jdbcTemplate.update("DELETE FROM booking_request WHERE advertiser_email = ?", EMAIL);
+
+        long after = time(this::insertBatched);
+        assertEquals(ROWS, countInserted());
+
+        System.out.printf("%nInserted %,d bookings%n", ROWS);
+        System.out.printf("  row by row (IDENTITY):     %,6d ms  (%,d rows/s)%n", before, ROWS * 1000L / Math.max(before, 1));
+        System.out.printf("  batched (pooled sequence): %,6d ms  (%,d rows/s)%n", after, ROWS * 1000L / Math.max(after, 1));
+    }
+
+    private void insertRowByRow() {
+        for (int offset = 0; offset < ROWS; offset += CHUNK) {
+            int from = offset;
+            transactionTemplate.executeWithoutResult(status -> {
+                for (int i = from; i < from + CHUNK; i++) {
+                    LocalDate start = startDate(i);
+                    jdbcTemplate.queryForObject("""
+                            INSERT INTO booking_request
+                                (ad_space_id, advertiser_name, advertiser_email, start_date, end_date, status, total_cost)
+                            VALUES (?, ?, ?, ?, ?, 'PENDING', ?)
+                            RETURNING id
+                            """, Long.class,
+                            adSpaceId, "Advertiser " + i, EMAIL, start, start.plusDays(7), new BigDecimal("70.00"));
+                }
+            });
+        }
+    }
+
+    private void insertBatched() {
+        for (int offset = 0; offset < ROWS; offset += CHUNK) {
+            int from = offset;
+            transactionTemplate.executeWithoutResult(status -> {
+                AdSpace adSpace = entityManager.getReference(AdSpace.class, adSpaceId);
+                for (int i = from; i < from + CHUNK; i++) {
+                    LocalDate start = startDate(i);
+                    entityManager.persist(new BookingRequest(adSpace, "Advertiser " + i, EMAIL,
+                            start, start.plusDays(7), new BigDecimal("70.00")));
+                }
+                entityManager.flush();
+                entityManager.clear();
+            });
+        }
+    }
+
+    private static LocalDate startDate(int i) {
+        return LocalDate.now().plusDays(1 + i % 365);
+    }
+
+    private long countInserted() {
+        Long count = jdbcTemplate.queryForObject(
+                "SELECT COUNT(*) FROM booking_request WHERE advertiser_email = ?", Long.class, EMAIL);
+        return count == null ? 0 : count;
+    }
+
+    private static long time(Runnable run) {
+        long start = System.nanoTime();
+        run.run();
+        return (System.nanoTime() - start) / 1_000_000;
+    }
+}
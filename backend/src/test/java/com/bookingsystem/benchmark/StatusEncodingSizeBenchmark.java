@@ -0,0 +1,98 @@
+package com.bookingsystem.benchmark;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.beans.factory.annotation.Autowired;
+import org.springframework.boot.test.context.SpringBootTest;
+import org.springframework.jdbc.core.JdbcTemplate;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Loads the same 1M synthetic bookings into two scratch tables and prints their sizes:
+ * <ul>
+ *   <li>before: {@code status VARCHAR(50)} with a B-tree on it and B-trees on
+ *       {@code created_at} / {@code start_date};</li>
+ *   <li>after: {@code status booking_status} (the enum from V11) with a B-tree on it and
+ *       BRIN indexes on {@code created_at} / {@code start_date}.</li>
+ * </ul>
+ * Needs a real database, so it only runs through {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+@SpringBootTest
+class StatusEncodingSizeBenchmark {
+
+    private static final int ROWS = 1_000_000;
+
+    @Autowired
+    private JdbcTemplate jdbcTemplate;
+
+    @AfterEach
+    void tearDown() {
+        jdbcTemplate.execute("DROP TABLE IF EXISTS size_bench_varchar, size_bench_enum");
+    }
+
+    @Test
+    @DisplayName("VARCHAR status + B-tree time indexes vs enum status + BRIN time indexes, 1M bookings")
+    void compareSizes() {
+        load("size_bench_varchar", "VARCHAR(50)", "btree");
+        load("size_bench_enum", "booking_status", "brin");
+
+        long[] before = sizes("size_bench_varchar");
+        long[] after = sizes("size_bench_enum");
+
+        System.out.printf("%n%,d bookings            table      status idx   time idxs%n", ROWS);
+        System.out.printf("  VARCHAR + B-tree:  %,10d kB %,10d kB %,10d kB%n", before[0] / 1024, before[1] / 1024, before[2] / 1024);
+        System.out.printf("  enum + BRIN:       %,10d kB %,10d kB %,10d kB%n", after[0] / 1024, after[1] / 1024, after[2] / 1024);
+
+        assertTrue(after[0] < before[0]);
+        assertTrue(after[2] < before[2]);
+    }
+
+    private void load(String table, String statusType, String timeIndexMethod) {
+        jdbcTemplate.execute("""
+                CREATE TABLE %1$s (
+                    id BIGINT NOT NULL,
+                    ad_space_id BIGINT NOT NULL,
+                    start_date DATE NOT NULL,
+                    end_date DATE NOT NULL,
+                    status %2$s NOT NULL,
+                    total_cost NUMERIC(10, 2) NOT NULL,
+                    created_at TIMESTAMP NOT NULL
+                )
+                """.formatted(table, statusType));
+        jdbcTemplate.execute("""
+                INSERT INTO %1$s
+                SELECT g,
+                       1 + g %% 5000,
+                       DATE '2020-01-01' + (g / 1000) + g %% 60,
+                       DATE '2020-01-01' + (g / 1000) + g %% 60 + 7,
+                       (ARRAY['PENDING','APPROVED','REJECTED','WAITLISTED','CANCELLED','EXPIRED'])[1 + g %% 6]::%2$s,
+                       100.00 + g %% 900,
+                       TIMESTAMP '2020-01-01' + g * INTERVAL '2 minutes'
+                FROM generate_series(1, %3$d) g
+                """.formatted(table, statusType, ROWS));
+        jdbcTemplate.execute("CREATE INDEX ON %s (status)".formatted(table));
+        jdbcTemplate.execute("CREATE INDEX ON %s USING %s (created_at)".formatted(table, timeIndexMethod));
+        jdbcTemplate.execute("CREATE INDEX ON %s USING %s (start_date)".formatted(table, timeIndexMethod));
+        jdbcTemplate.execute("VACUUM ANALYZE " + table);
+    }
+
+    /**
+     * @return heap size, status index size, and combined size of the two time indexes
+     */
+    private long[] sizes(String table) {
+        return jdbcTemplate.queryForObject("""
+                SELECT pg_relation_size(t.oid),
+                       SUM(pg_relation_size(i.indexrelid)) FILTER (WHERE a.attname = 'status'),
+                       SUM(pg_relation_size(i.indexrelid)) FILTER (WHERE a.attname <> 'status')
+                FROM pg_class t
+                JOIN pg_index i ON i.indrelid = t.oid
+                JOIN pg_attribute a ON a.attrelid = t.oid AND a.attnum = i.indkey[0]
+                WHERE t.relname = ?
+                GROUP BY t.oid
+                """, (rs, rowNum) -> new long[]{rs.getLong(1), rs.getLong(2), rs.getLong(3)}, table);
+    }
+}
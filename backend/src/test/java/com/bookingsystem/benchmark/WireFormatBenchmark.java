@@ -0,0 +1,112 @@
+package com.bookingsystem.benchmark;
+
+import com.bookingsystem.config.BinaryFormatConfig;
+import com.bookingsystem.model.AdSpace;
+import com.bookingsystem.model.AdSpaceStatus;
+import com.bookingsystem.model.AdSpaceType;
+import com.bookingsystem.model.BookingRequest;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Tag;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+import tools.jackson.databind.ObjectMapper;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.OutputStream;
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * Serializes the same ad space and booking lists as JSON, CBOR and Smile and prints the
+ * payload size and encoding throughput of each. Uses the mappers the HTTP converters use.
+ * Runs only through {@code ./gradlew benchmark}.
+ */
+@Tag("benchmark")
+class WireFormatBenchmark {
+
+    private static final int ITEMS = 20_000;
+    private static final int WARMUP_ROUNDS = 20;
+    private static final int ROUNDS = 50;
+
+    @Test
+    @DisplayName("JSON vs CBOR vs Smile: payload size and serialization throughput for 20k ad spaces / bookings")
+    void compareFormats() {
+        List<AdSpace> adSpaces = adSpaces();
+        List<BookingRequest> bookings = bookings(adSpaces);
+
+        System.out.printf("%n%,d items        format      bytes     items/s%n", ITEMS);
+        compare("ad spaces", adSpaces);
+        compare("bookings", bookings);
+    }
+
+    private void compare(String label, List<?> items) {
+        long json = measure(label, "JSON", JsonMapper.builder().build(), items);
+        long cbor = measure(label, "CBOR", BinaryFormatConfig.cborMapper(), items);
+        long smile = measure(label, "Smile", BinaryFormatConfig.smileMapper(), items);
+
+        assertTrue(cbor < json);
+        assertTrue(smile < json);
+    }
+
+    private long measure(String label, String format, ObjectMapper mapper, List<?> items) {
+        long size = mapper.writeValueAsBytes(items).length;
+
+        for (int i = 0; i < WARMUP_ROUNDS; i++) {
+            mapper.writeValue(OutputStream.nullOutputStream(), items);
+        }
+        long start = System.nanoTime();
+        for (int i = 0; i < ROUNDS; i++) {
+            mapper.writeValue(OutputStream.nullOutputStream(), items);
+        }
+        double seconds = (System.nanoTime() - start) / 1e9;
+
+        System.out.printf("  %-12s %-6s %,12d %,11.0f%n", label, format, size, ITEMS * ROUNDS / seconds);
+        return size;
+    }
+
+    private static List<AdSpace> adSpaces() {
+        AdSpaceType[] types = AdSpaceType.values();
+        List<AdSpace> adSpaces = new ArrayList<>(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            AdSpace adSpace = new AdSpace(
+                    "Space " + i,
+                    types[i % types.length],
+                    "City " + i % 40,
+                    "Street " + i,
+                    new BigDecimal(100 + i % 900 + ".50"),
+                    AdSpaceStatus.AVAILABLE
+            );
+            ReflectionTestUtils.setField(adSpace, "id", (long) i + 1);
+            ReflectionTestUtils.setField(adSpace, "createdAt", LocalDateTime.of(2025, 1, 1, 9, 0).plusMinutes(i));
+            ReflectionTestUtils.setField(adSpace, "updatedAt", LocalDateTime.of(2025, 6, 1, 9, 0).plusMinutes(i));
+            adSpaces.add(adSpace);
+        }
+        return adSpaces;
+    }
+
+    private static List<BookingRequest> bookings(List<AdSpace> adSpaces) {
+        LocalDate firstStart = LocalDate.now().plusDays(1);
+        List<BookingRequest> bookings = new ArrayList<>(ITEMS);
+        for (int i = 0; i < ITEMS; i++) {
+            LocalDate start = firstStart.plusDays(i % 365);
+            BookingRequest booking = new BookingRequest(
+                    adSpaces.get(i),
+                    "Advertiser " + i % 500,
+                    "advertiser" + i % 500 + "@example.com",
+                    start,
+                    start.plusDays(7 + i % 21),
+                    new BigDecimal(1_000 + i % 9_000 + ".00")
+            );
+            ReflectionTestUtils.setField(booking, "id", (long) i + 1);
+            ReflectionTestUtils.setField(booking, "createdAt", LocalDateTime.of(2025, 1, 1, 9, 0).plusMinutes(i));
+            ReflectionTestUtils.setField(booking, "updatedAt", LocalDateTime.of(2025, 6, 1, 9, 0).plusMinutes(i));
+            bookings.add(booking);
+        }
+        return bookings;
+    }
+}
@@ -12,6 +12,7 @@ import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
 import org.springframework.dao.DataIntegrityViolationException;
+import org.springframework.http.ResponseEntity;
 
 import java.math.BigDecimal;
 import java.util.List;
@@ -133,10 +134,11 @@ class AdSpaceControllerTest {
         when(adSpaceService.getAdSpaceById(1L)).thenReturn(adSpace);
 
         // WHEN
-        AdSpace result = adSpaceController.getAdSpaceById(1L);
+        ResponseEntity<AdSpace> result = adSpaceController.getAdSpaceById(1L);
 
         // THEN
-        assertSame(adSpace, result);
+        assertSame(adSpace, result.getBody());
+        assertEquals("\"0\"", result.getHeaders().getETag());
         verify(adSpaceService).getAdSpaceById(1L);
     }
 
@@ -169,15 +171,15 @@ class AdSpaceControllerTest {
         
         UpdateAdSpaceRequest request = new UpdateAdSpaceRequest(newName);
         
-        when(adSpaceService.updateAdSpace(eq(adSpaceId), eq(newName), isNull(), isNull(), isNull(), isNull()))
+        when(adSpaceService.updateAdSpace(eq(adSpaceId), isNull(), eq(newName), isNull(), isNull(), isNull(), isNull()))
                 .thenReturn(updatedAdSpace);
 
         // WHEN
-        AdSpace result = adSpaceController.updateAdSpace(adSpaceId, request);
+        AdSpace result = adSpaceController.updateAdSpace(adSpaceId, null, request);
 
         // THEN
         assertEquals(newName, result.getName());
-        verify(adSpaceService).updateAdSpace(eq(adSpaceId), eq(newName), isNull(), isNull(), isNull(), isNull());
+        verify(adSpaceService).updateAdSpace(eq(adSpaceId), isNull(), eq(newName), isNull(), isNull(), isNull(), isNull());
     }
 
     @Test
@@ -191,38 +193,70 @@ class AdSpaceControllerTest {
         Long adSpaceId = 99L;
         UpdateAdSpaceRequest request = new UpdateAdSpaceRequest("New Name");
         
-        when(adSpaceService.updateAdSpace(eq(adSpaceId), anyString(), any(), any(), any(), any()))
+        when(adSpaceService.updateAdSpace(eq(adSpaceId), any(), anyString(), any(), any(), any(), any()))
                 .thenThrow(new AdSpaceNotFoundException(adSpaceId));
 
         // WHEN / THEN
         assertThrows(AdSpaceNotFoundException.class, 
-                () -> adSpaceController.updateAdSpace(adSpaceId, request));
+                () -> adSpaceController.updateAdSpace(adSpaceId, null, request));
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN an update request with an If-Match header
+        WHEN updateAdSpace is called
+        THEN the version named by the header is passed to the service
+    """)
+    void updateAdSpace_withIfMatch_passesExpectedVersion() {
+        // GIVEN
+        UpdateAdSpaceRequest request = new UpdateAdSpaceRequest("New Name");
+        AdSpace updatedAdSpace = sampleAdSpace();
+        when(adSpaceService.updateAdSpace(eq(1L), eq(3L), eq("New Name"), isNull(), isNull(), isNull(), isNull()))
+                .thenReturn(updatedAdSpace);
+
+        // WHEN
+        AdSpace result = adSpaceController.updateAdSpace(1L, "W/\"3\"", request);
+
+        // THEN
+        assertSame(updatedAdSpace, result);
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN an If-Match header that is not a version
+        WHEN updateAdSpace is called
+        THEN IllegalArgumentException is thrown and the service is not called
+    """)
+    void updateAdSpace_malformedIfMatch_throwsException() {
+        // GIVEN
+        UpdateAdSpaceRequest request = new UpdateAdSpaceRequest("New Name");
+
+        // WHEN / THEN
+        assertThrows(IllegalArgumentException.class,
+                () -> adSpaceController.updateAdSpace(1L, "\"abc\"", request));
+        verifyNoInteractions(adSpaceService);
     }
 
     @Test
     @DisplayName("""
         GIVEN a valid available ad space id
         WHEN bookAdSpace is called
-        THEN the service retrieves it, marks as booked, and updates
+        THEN the service marks it as booked
     """)
     void bookAdSpace_available_marksAsBooked() {
         // GIVEN
         Long adSpaceId = 1L;
-        AdSpace adSpace = sampleAdSpace();
         AdSpace updatedAdSpace = sampleAdSpace();
         updatedAdSpace.markBooked();
         
-        when(adSpaceService.getAdSpaceById(adSpaceId)).thenReturn(adSpace);
-        when(adSpaceService.updateAdSpace(eq(adSpaceId), isNull(), isNull(), isNull(), isNull(), isNull()))
-                .thenReturn(updatedAdSpace);
+        when(adSpaceService.markAsBooked(adSpaceId)).thenReturn(updatedAdSpace);
 
         // WHEN
         AdSpace result = adSpaceController.bookAdSpace(adSpaceId);
 
         // THEN
         assertEquals(AdSpaceStatus.BOOKED, result.getStatus());
-        verify(adSpaceService).getAdSpaceById(adSpaceId);
-        verify(adSpaceService).updateAdSpace(eq(adSpaceId), isNull(), isNull(), isNull(), isNull(), isNull());
+        verify(adSpaceService).markAsBooked(adSpaceId);
     }
 
     @Test
@@ -234,7 +268,7 @@ class AdSpaceControllerTest {
     void bookAdSpace_notFound_throwsException() {
         // GIVEN
         Long adSpaceId = 99L;
-        when(adSpaceService.getAdSpaceById(adSpaceId))
+        when(adSpaceService.markAsBooked(adSpaceId))
                 .thenThrow(new AdSpaceNotFoundException(adSpaceId));
 
         // WHEN / THEN
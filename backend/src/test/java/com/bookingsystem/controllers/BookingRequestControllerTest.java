@@ -73,7 +73,7 @@ class BookingRequestControllerTest {
 
         BookingRequest booking = sampleBooking();
         when(bookingRequestService.createBooking(
-                1L, "John Doe", "john@example.com", start, end))
+                1L, "John Doe", "john@example.com", start, end, null, false))
                 .thenReturn(booking);
 
         // WHEN
@@ -82,7 +82,7 @@ class BookingRequestControllerTest {
         // THEN
         assertSame(booking, result);
         verify(bookingRequestService).createBooking(
-                1L, "John Doe", "john@example.com", start, end);
+                1L, "John Doe", "john@example.com", start, end, null, false);
     }
 
     @Test
@@ -104,7 +104,7 @@ class BookingRequestControllerTest {
         );
 
         when(bookingRequestService.createBooking(
-                99L, "John Doe", "john@example.com", start, end))
+                99L, "John Doe", "john@example.com", start, end, null, false))
                 .thenThrow(new AdSpaceNotFoundException(99L));
 
         // WHEN / THEN
@@ -133,7 +133,7 @@ class BookingRequestControllerTest {
         );
 
         when(bookingRequestService.createBooking(
-                1L, "John Doe", "john@example.com", start, end))
+                1L, "John Doe", "john@example.com", start, end, null, false))
                 .thenThrow(new BookingValidationException("Overlap detected"));
 
         // WHEN / THEN
@@ -162,7 +162,7 @@ class BookingRequestControllerTest {
         );
 
         when(bookingRequestService.createBooking(
-                1L, "John Doe", "john@example.com", start, end))
+                1L, "John Doe", "john@example.com", start, end, null, false))
                 .thenThrow(new AdSpaceNotAvailableException("Ad space is not available"));
 
         // WHEN / THEN
@@ -229,6 +229,27 @@ class BookingRequestControllerTest {
         verify(bookingRequestService).approveBooking(10L);
     }
 
+    @Test
+    @DisplayName("""
+        GIVEN an existing APPROVED booking ID
+        WHEN cancelBooking is called
+        THEN the service is invoked and the cancelled booking is returned
+    """)
+    void cancelBooking_returnsCancelledBooking() {
+        // GIVEN
+        BookingRequest booking = sampleBooking();
+        booking.approve();
+        booking.cancel();
+        when(bookingRequestService.cancelBooking(10L)).thenReturn(booking);
+
+        // WHEN
+        BookingRequest result = bookingRequestController.cancelBooking(10L);
+
+        // THEN
+        assertSame(booking, result);
+        verify(bookingRequestService).cancelBooking(10L);
+    }
+
     @Test
     @DisplayName("""
         GIVEN a non-existent booking ID
@@ -1,16 +1,22 @@
 package com.bookingsystem.service;
 
 import com.bookingsystem.exception.AdSpaceNotFoundException;
+import com.bookingsystem.exception.AdSpaceVersionMismatchException;
 import com.bookingsystem.model.AdSpace;
 import com.bookingsystem.model.AdSpaceStatus;
 import com.bookingsystem.model.AdSpaceType;
+import com.bookingsystem.repository.AdSpaceBulkRepository;
 import com.bookingsystem.repository.AdSpaceRepository;
+import com.bookingsystem.service.catalog.CatalogSearchEngine;
+import com.bookingsystem.service.lookup.EntityMultiLoader;
+import com.bookingsystem.service.projection.FieldProjection;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
-import org.mockito.InjectMocks;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
 import org.springframework.dao.DataIntegrityViolationException;
 import org.springframework.data.domain.Sort;
 
@@ -27,9 +33,26 @@ class AdSpaceServiceTest {
     @Mock
     private AdSpaceRepository adSpaceRepository;
 
-    @InjectMocks
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private CatalogSearchEngine catalogSearch;
+
+    @Mock
+    private EntityMultiLoader multiLoader;
+
+    @Mock
+    private FieldProjection fieldProjection;
+
     private AdSpaceService adSpaceService;
 
+    @BeforeEach
+    void setUp() {
+        adSpaceService = new AdSpaceService(
+                adSpaceRepository, eventPublisher, multiLoader, fieldProjection, catalogSearch, 3);
+    }
+
     private AdSpace sampleAdSpace() {
         return new AdSpace(
                 "Sample Billboard",
@@ -205,7 +228,7 @@ class AdSpaceServiceTest {
         when(adSpaceRepository.save(any(AdSpace.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // WHEN
-        AdSpace result = adSpaceService.updateAdSpace(1L, newName, null, null, null, null);
+        AdSpace result = adSpaceService.updateAdSpace(1L, null, newName, null, null, null, null);
 
         // THEN
         assertEquals(newName, result.getName());
@@ -233,7 +256,7 @@ class AdSpaceServiceTest {
         when(adSpaceRepository.save(any(AdSpace.class))).thenAnswer(invocation -> invocation.getArgument(0));
 
         // WHEN
-        AdSpace result = adSpaceService.updateAdSpace(1L, newName, newType, newCity, newAddress, newPrice);
+        AdSpace result = adSpaceService.updateAdSpace(1L, null, newName, newType, newCity, newAddress, newPrice);
 
         // THEN
         assertEquals(newName, result.getName());
@@ -256,10 +279,172 @@ class AdSpaceServiceTest {
 
         // WHEN / THEN
         assertThrows(AdSpaceNotFoundException.class, 
-                () -> adSpaceService.updateAdSpace(99L, "New Name", null, null, null, null));
+                () -> adSpaceService.updateAdSpace(99L, null, "New Name", null, null, null, null));
+        verify(adSpaceRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN an ad space at version 0
+        WHEN updateAdSpace is called expecting version 2
+        THEN AdSpaceVersionMismatchException is thrown and nothing is saved
+    """)
+    void updateAdSpace_staleVersion_throwsException() {
+        // GIVEN
+        when(adSpaceRepository.findById(1L)).thenReturn(Optional.of(sampleAdSpace()));
+
+        // WHEN / THEN
+        assertThrows(AdSpaceVersionMismatchException.class,
+                () -> adSpaceService.updateAdSpace(1L, 2L, "New Name", null, null, null, null));
         verify(adSpaceRepository, never()).save(any());
     }
 
+    @Test
+    @DisplayName("""
+        GIVEN an existing ad space
+        WHEN changeCapacity is called with a value below 1
+        THEN IllegalArgumentException is thrown and nothing is saved
+    """)
+    void changeCapacity_belowOne_throwsException() {
+        // GIVEN
+        when(adSpaceRepository.findById(1L)).thenReturn(Optional.of(sampleAdSpace()));
+
+        // WHEN / THEN
+        assertThrows(IllegalArgumentException.class,
+                () -> adSpaceService.changeCapacity(1L, null, 0));
+        verify(adSpaceRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN an AVAILABLE ad space
+        WHEN markForMaintenance is called
+        THEN the row returned by the conditional update is returned without a lookup
+    """)
+    void markForMaintenance_usesConditionalUpdate() {
+        // GIVEN
+        AdSpace updated = sampleAdSpace();
+        updated.markMaintenance();
+        when(adSpaceRepository.changeStatus(1L, AdSpaceStatus.MAINTENANCE)).thenReturn(Optional.of(updated));
+
+        // WHEN
+        AdSpace result = adSpaceService.markForMaintenance(1L);
+
+        // THEN
+        assertEquals(AdSpaceStatus.MAINTENANCE, result.getStatus());
+        verify(adSpaceRepository, never()).findById(any());
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN an ad space that is already AVAILABLE
+        WHEN markAsAvailable is called
+        THEN no row changes and the current ad space is looked up and returned
+    """)
+    void markAsAvailable_alreadyAvailable_returnsCurrent() {
+        // GIVEN
+        AdSpace current = sampleAdSpace();
+        when(adSpaceRepository.changeStatus(1L, AdSpaceStatus.AVAILABLE)).thenReturn(Optional.empty());
+        when(adSpaceRepository.findById(1L)).thenReturn(Optional.of(current));
+
+        // WHEN
+        AdSpace result = adSpaceService.markAsAvailable(1L);
+
+        // THEN
+        assertSame(current, result);
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN a non-existent ad space id
+        WHEN markAsAvailable is called
+        THEN AdSpaceNotFoundException is thrown
+    """)
+    void markAsAvailable_notFound_throwsException() {
+        // GIVEN
+        when(adSpaceRepository.changeStatus(99L, AdSpaceStatus.AVAILABLE)).thenReturn(Optional.empty());
+        when(adSpaceRepository.findById(99L)).thenReturn(Optional.empty());
+
+        // WHEN / THEN
+        assertThrows(AdSpaceNotFoundException.class, () -> adSpaceService.markAsAvailable(99L));
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN a city filter
+        WHEN bulkChangeStatus is called
+        THEN one bulk update runs and a single change event lists every changed id
+    """)
+    void bulkChangeStatus_publishesOneEventForAllChangedIds() {
+        // GIVEN
+        AdSpaceBulkRepository.Filter filter = new AdSpaceBulkRepository.Filter("Cluj", null, null);
+        when(adSpaceRepository.bulkChangeStatus(filter, AdSpaceStatus.MAINTENANCE)).thenReturn(List.of(3L, 8L));
+
+        // WHEN
+        List<Long> changed = adSpaceService.bulkChangeStatus(filter, AdSpaceStatus.MAINTENANCE);
+
+        // THEN
+        assertEquals(List.of(3L, 8L), changed);
+        verify(eventPublisher).publishEvent(new AdSpacesChangedEvent(List.of(3L, 8L)));
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN an empty filter
+        WHEN a bulk operation is called
+        THEN IllegalArgumentException is thrown and nothing is updated
+    """)
+    void bulkOperations_requireAFilter() {
+        // GIVEN
+        AdSpaceBulkRepository.Filter empty = new AdSpaceBulkRepository.Filter(" ", null, List.of());
+
+        // WHEN / THEN
+        assertThrows(IllegalArgumentException.class,
+                () -> adSpaceService.bulkChangeStatus(empty, AdSpaceStatus.MAINTENANCE));
+        assertThrows(IllegalArgumentException.class,
+                () -> adSpaceService.bulkAdjustPrice(empty, AdSpaceBulkRepository.PriceAdjustment.PERCENTAGE, BigDecimal.TEN));
+        verifyNoInteractions(adSpaceRepository, eventPublisher);
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN a price adjustment that would make prices zero or negative
+        WHEN bulkAdjustPrice is called
+        THEN IllegalArgumentException is thrown
+    """)
+    void bulkAdjustPrice_rejectsNonPositiveResults() {
+        // GIVEN
+        AdSpaceBulkRepository.Filter billboards = new AdSpaceBulkRepository.Filter(null, AdSpaceType.BILLBOARD, null);
+
+        // WHEN / THEN
+        assertThrows(IllegalArgumentException.class, () -> adSpaceService.bulkAdjustPrice(
+                billboards, AdSpaceBulkRepository.PriceAdjustment.ABSOLUTE, BigDecimal.ZERO));
+        assertThrows(IllegalArgumentException.class, () -> adSpaceService.bulkAdjustPrice(
+                billboards, AdSpaceBulkRepository.PriceAdjustment.PERCENTAGE, new BigDecimal("-100")));
+        verifyNoInteractions(adSpaceRepository);
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN an absolute price beyond the price column, or more ids than allowed
+        WHEN a bulk operation is called
+        THEN IllegalArgumentException is thrown and nothing is updated
+    """)
+    void bulkOperations_rejectOutOfRangeInput() {
+        // GIVEN
+        AdSpaceBulkRepository.Filter billboards = new AdSpaceBulkRepository.Filter(null, AdSpaceType.BILLBOARD, null);
+        AdSpaceBulkRepository.Filter tooManyIds = new AdSpaceBulkRepository.Filter(null, null, List.of(1L, 2L, 3L, 4L));
+
+        // WHEN / THEN
+        assertThrows(IllegalArgumentException.class, () -> adSpaceService.bulkAdjustPrice(
+                billboards, AdSpaceBulkRepository.PriceAdjustment.ABSOLUTE, new BigDecimal("100000000")));
+        assertThrows(IllegalArgumentException.class, () -> adSpaceService.bulkAdjustPrice(
+                billboards, AdSpaceBulkRepository.PriceAdjustment.ABSOLUTE, new BigDecimal("0.001")));
+        assertThrows(IllegalArgumentException.class,
+                () -> adSpaceService.bulkChangeStatus(tooManyIds, AdSpaceStatus.MAINTENANCE));
+        verifyNoInteractions(adSpaceRepository);
+    }
+
     @Test
     @DisplayName("""
         GIVEN an existing ad space with no dependencies
@@ -7,16 +7,28 @@ import com.bookingsystem.exception.BookingValidationException;
 import com.bookingsystem.model.*;
 import com.bookingsystem.repository.AdSpaceRepository;
 import com.bookingsystem.repository.BookingRequestRepository;
+import com.bookingsystem.service.hold.HoldService;
+import com.bookingsystem.service.lookup.EntityMultiLoader;
+import com.bookingsystem.service.occupancy.OccupancyIndex;
+import com.bookingsystem.service.projection.FieldProjection;
+import com.bookingsystem.service.waitlist.WaitlistService;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.DisplayName;
 import org.junit.jupiter.api.Test;
 import org.junit.jupiter.api.extension.ExtendWith;
 import org.mockito.ArgumentCaptor;
-import org.mockito.InjectMocks;
+import org.mockito.InOrder;
 import org.mockito.Mock;
 import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
 
 import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
 import java.time.LocalDate;
+import java.time.LocalDateTime;
+import java.time.ZoneOffset;
 import java.util.Collections;
 import java.util.List;
 import java.util.Optional;
@@ -33,11 +45,43 @@ class BookingRequestServiceTest {
     @Mock
     private AdSpaceRepository adSpaceRepository;
 
-    @InjectMocks
+    @Mock
+    private HoldService holdService;
+
+    @Mock
+    private WaitlistService waitlistService;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    @Mock
+    private EntityMultiLoader multiLoader;
+
+    @Mock
+    private FieldProjection fieldProjection;
+
+    private OccupancyIndex occupancyIndex;
+
     private BookingRequestService bookingRequestService;
 
+    @BeforeEach
+    void setUp() {
+        occupancyIndex = new OccupancyIndex(bookingRequestRepository);
+        bookingRequestService = new BookingRequestService(
+                bookingRequestRepository,
+                adSpaceRepository,
+                occupancyIndex,
+                holdService,
+                waitlistService,
+                Clock.fixed(Instant.parse("2026-03-01T12:00:00Z"), ZoneOffset.UTC),
+                eventPublisher,
+                multiLoader,
+                fieldProjection
+        );
+    }
+
     private AdSpace availableAdSpaceWithPrice(BigDecimal pricePerDay) {
-        return new AdSpace(
+        AdSpace adSpace = new AdSpace(
                 "Test Space",
                 AdSpaceType.BILLBOARD,
                 "Bucharest",
@@ -45,6 +89,8 @@ class BookingRequestServiceTest {
                 pricePerDay,
                 AdSpaceStatus.AVAILABLE
         );
+        ReflectionTestUtils.setField(adSpace, "id", 1L);
+        return adSpace;
     }
 
     @Test
@@ -135,6 +181,221 @@ class BookingRequestServiceTest {
         );
     }
 
+    @Test
+    @DisplayName("""
+        GIVEN an ad space with capacity 2 and one APPROVED booking overlapping the requested period
+        WHEN createBooking is invoked
+        THEN the booking is accepted because a slot is still free
+    """)
+    void createBooking_allowsOverlap_whenCapacityNotReached() {
+        // GIVEN
+        AdSpace adSpace = availableAdSpaceWithPrice(new BigDecimal("100.00"));
+        adSpace.changeCapacity(2);
+        when(adSpaceRepository.findById(1L)).thenReturn(Optional.of(adSpace));
+
+        LocalDate start = LocalDate.now().plusDays(1);
+        LocalDate end = start.plusDays(8);
+
+        BookingRequest existing = new BookingRequest(
+                adSpace,
+                "Existing",
+                "existing@example.com",
+                start.plusDays(1),
+                end.plusDays(1),
+                new BigDecimal("900.00")
+        );
+
+        when(bookingRequestRepository.findByAdSpaceIdAndStatus(1L, BookingStatus.APPROVED))
+                .thenReturn(List.of(existing));
+        when(bookingRequestRepository.save(any(BookingRequest.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        // WHEN
+        BookingRequest result = bookingRequestService.createBooking(
+                1L,
+                "John Doe",
+                "john@example.com",
+                start,
+                end
+        );
+
+        // THEN
+        assertEquals(BookingStatus.PENDING, result.getStatus());
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN an ad space with capacity 2 whose two APPROVED bookings share a single day with the requested period
+        WHEN createBooking is invoked
+        THEN BookingValidationException is thrown because that day is full
+    """)
+    void createBooking_throwsBookingValidationException_whenCapacityReachedOnAnyDay() {
+        // GIVEN
+        AdSpace adSpace = availableAdSpaceWithPrice(new BigDecimal("100.00"));
+        adSpace.changeCapacity(2);
+        when(adSpaceRepository.findById(1L)).thenReturn(Optional.of(adSpace));
+
+        LocalDate start = LocalDate.now().plusDays(10);
+        LocalDate end = start.plusDays(10);
+
+        BookingRequest endsOnStart = new BookingRequest(
+                adSpace, "A", "a@example.com", start.minusDays(7), start, new BigDecimal("700.00"));
+        BookingRequest coversStart = new BookingRequest(
+                adSpace, "B", "b@example.com", start.minusDays(3), start.plusDays(5), new BigDecimal("800.00"));
+
+        when(bookingRequestRepository.findByAdSpaceIdAndStatus(1L, BookingStatus.APPROVED))
+                .thenReturn(List.of(endsOnStart, coversStart));
+
+        // WHEN / THEN
+        assertThrows(
+                BookingValidationException.class,
+                () -> bookingRequestService.createBooking(
+                        1L,
+                        "John Doe",
+                        "john@example.com",
+                        start,
+                        end
+                )
+        );
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN a capacity 1 ad space whose only slot is taken by the advertiser's own hold
+        WHEN createBooking is invoked with that hold id
+        THEN the hold's slot is used and the hold is consumed after saving
+    """)
+    void createBooking_usesOwnHold_andConsumesIt() {
+        // GIVEN
+        AdSpace adSpace = availableAdSpaceWithPrice(new BigDecimal("100.00"));
+        when(adSpaceRepository.findById(1L)).thenReturn(Optional.of(adSpace));
+        when(bookingRequestRepository.findByAdSpaceIdAndStatus(1L, BookingStatus.APPROVED))
+                .thenReturn(Collections.emptyList());
+
+        LocalDate start = LocalDate.now().plusDays(10);
+        LocalDate end = start.plusDays(7);
+        DateHold hold = new DateHold(1L, "john@example.com", start, end, Instant.now().plusSeconds(600), LocalDateTime.now());
+        assertTrue(occupancyIndex.tryHold(hold, 1));
+
+        when(holdService.requireHoldFor(hold.getId(), 1L, "john@example.com", start, end)).thenReturn(hold);
+        when(bookingRequestRepository.save(any(BookingRequest.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        // WHEN
+        BookingRequest result = bookingRequestService.createBooking(
+                1L,
+                "John Doe",
+                "john@example.com",
+                start,
+                end,
+                hold.getId(),
+                false
+        );
+
+        // THEN
+        assertEquals(BookingStatus.PENDING, result.getStatus());
+        verify(holdService).consumeHold(hold.getId());
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN a hold placed on another node and an approved booking taking the only slot
+        WHEN createBooking is invoked with that hold id
+        THEN the hold is not subtracted from this node's occupancy and the booking is rejected
+    """)
+    void createBooking_withHoldFromOtherNode_doesNotFreeASlot() {
+        // GIVEN
+        AdSpace adSpace = availableAdSpaceWithPrice(new BigDecimal("100.00"));
+        when(adSpaceRepository.findById(1L)).thenReturn(Optional.of(adSpace));
+
+        LocalDate start = LocalDate.now().plusDays(10);
+        LocalDate end = start.plusDays(7);
+        BookingRequest existing = new BookingRequest(
+                adSpace, "Existing", "existing@example.com", start, end, new BigDecimal("700.00"));
+        when(bookingRequestRepository.findByAdSpaceIdAndStatus(1L, BookingStatus.APPROVED))
+                .thenReturn(List.of(existing));
+
+        DateHold hold = new DateHold(1L, "john@example.com", start, end, Instant.now().plusSeconds(600), LocalDateTime.now());
+        when(holdService.requireHoldFor(hold.getId(), 1L, "john@example.com", start, end)).thenReturn(hold);
+
+        // WHEN / THEN
+        assertThrows(
+                BookingValidationException.class,
+                () -> bookingRequestService.createBooking(
+                        1L, "John Doe", "john@example.com", start, end, hold.getId(), false)
+        );
+        verify(bookingRequestRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN a capacity 1 ad space whose slot is held by another advertiser
+        WHEN createBooking is invoked without a hold
+        THEN BookingValidationException is thrown
+    """)
+    void createBooking_throwsBookingValidationException_whenPeriodHeldByOthers() {
+        // GIVEN
+        AdSpace adSpace = availableAdSpaceWithPrice(new BigDecimal("100.00"));
+        when(adSpaceRepository.findById(1L)).thenReturn(Optional.of(adSpace));
+        when(bookingRequestRepository.findByAdSpaceIdAndStatus(1L, BookingStatus.APPROVED))
+                .thenReturn(Collections.emptyList());
+
+        LocalDate start = LocalDate.now().plusDays(10);
+        LocalDate end = start.plusDays(7);
+        occupancyIndex.tryHold(
+                new DateHold(1L, "other@example.com", start, end, Instant.now().plusSeconds(600), LocalDateTime.now()), 1);
+
+        // WHEN / THEN
+        assertThrows(
+                BookingValidationException.class,
+                () -> bookingRequestService.createBooking(
+                        1L,
+                        "John Doe",
+                        "john@example.com",
+                        start.plusDays(1),
+                        end.plusDays(1)
+                )
+        );
+        verify(bookingRequestRepository, never()).save(any());
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN a fully booked period and a request that opts into the waitlist
+        WHEN createBooking is invoked
+        THEN the booking is saved as WAITLISTED and queued instead of rejected
+    """)
+    void createBooking_waitlistsRequest_whenFullAndJoinWaitlist() {
+        // GIVEN
+        AdSpace adSpace = availableAdSpaceWithPrice(new BigDecimal("100.00"));
+        when(adSpaceRepository.findById(1L)).thenReturn(Optional.of(adSpace));
+
+        LocalDate start = LocalDate.now().plusDays(10);
+        LocalDate end = start.plusDays(7);
+        BookingRequest existing = new BookingRequest(
+                adSpace, "Existing", "existing@example.com", start, end, new BigDecimal("700.00"));
+
+        when(bookingRequestRepository.findByAdSpaceIdAndStatus(1L, BookingStatus.APPROVED))
+                .thenReturn(List.of(existing));
+        when(bookingRequestRepository.save(any(BookingRequest.class)))
+                .thenAnswer(invocation -> invocation.getArgument(0));
+
+        // WHEN
+        BookingRequest result = bookingRequestService.createBooking(
+                1L,
+                "John Doe",
+                "john@example.com",
+                start,
+                end,
+                null,
+                true
+        );
+
+        // THEN
+        assertEquals(BookingStatus.WAITLISTED, result.getStatus());
+        verify(bookingRequestRepository).save(result);
+    }
+
     @Test
     @DisplayName("""
         GIVEN a valid booking request and AVAILABLE ad space with a known price per day
@@ -299,6 +560,34 @@ class BookingRequestServiceTest {
         verify(bookingRequestRepository).findById(5L);
     }
 
+    @Test
+    @DisplayName("""
+        GIVEN a booking that only exists in an archived partition
+        WHEN getBookingById is invoked
+        THEN it is found through the archive
+    """)
+    void getBookingById_fallsBackToArchive() {
+        // GIVEN
+        AdSpace adSpace = availableAdSpaceWithPrice(new BigDecimal("100.00"));
+        BookingRequest archived = new BookingRequest(
+                adSpace,
+                "John Doe",
+                "john@example.com",
+                LocalDate.now().plusDays(10),
+                LocalDate.now().plusDays(20),
+                new BigDecimal("1000.00")
+        );
+
+        when(bookingRequestRepository.findById(5L)).thenReturn(Optional.empty());
+        when(bookingRequestRepository.findArchivedById(5L)).thenReturn(Optional.of(archived));
+
+        // WHEN
+        BookingRequest result = bookingRequestService.getBookingById(5L);
+
+        // THEN
+        assertSame(archived, result);
+    }
+
     @Test
     @DisplayName("""
         GIVEN no booking with the requested ID exists
@@ -308,6 +597,7 @@ class BookingRequestServiceTest {
     void getBookingById_throwsBookingNotFound_whenMissing() {
         // GIVEN
         when(bookingRequestRepository.findById(99L)).thenReturn(Optional.empty());
+        when(bookingRequestRepository.findArchivedById(99L)).thenReturn(Optional.empty());
 
         // WHEN / THEN
         assertThrows(
@@ -334,20 +624,123 @@ class BookingRequestServiceTest {
                 new BigDecimal("1000.00")
         );
 
-        when(bookingRequestRepository.findById(5L)).thenReturn(Optional.of(pendingBooking));
-        when(bookingRequestRepository.findByAdSpaceIdAndStatus(adSpace.getId(), BookingStatus.APPROVED))
-                .thenReturn(Collections.emptyList());
-        when(bookingRequestRepository.save(any(BookingRequest.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
+        pendingBooking.approve(); // state as returned by the conditional UPDATE
+
+        when(bookingRequestRepository.transition(5L, BookingStatus.PENDING, BookingStatus.APPROVED))
+                .thenReturn(Optional.of(pendingBooking));
+
+        // WHEN
+        BookingRequest result = bookingRequestService.approveBooking(5L);
+
+        // THEN
+        assertEquals(BookingStatus.APPROVED, result.getStatus());
+        verify(adSpaceRepository).changeStatus(1L, AdSpaceStatus.BOOKED);
+        verify(bookingRequestRepository, never()).findById(any());
+        verify(bookingRequestRepository, never()).save(any(BookingRequest.class));
+        verify(eventPublisher).publishEvent(new BookingChangedEvent(pendingBooking));
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN a PENDING booking on an ad space with capacity 3 and no other APPROVED bookings
+        WHEN approveBooking is invoked
+        THEN the booking is approved but the ad space stays AVAILABLE for the remaining slots
+    """)
+    void approveBooking_keepsAdSpaceAvailable_whenSlotsRemain() {
+        // GIVEN
+        AdSpace adSpace = availableAdSpaceWithPrice(new BigDecimal("100.00"));
+        adSpace.changeCapacity(3);
+        BookingRequest pendingBooking = new BookingRequest(
+                adSpace,
+                "John Doe",
+                "john@example.com",
+                LocalDate.now().plusDays(10),
+                LocalDate.now().plusDays(20),
+                new BigDecimal("1000.00")
+        );
+
+        pendingBooking.approve();
+
+        when(bookingRequestRepository.transition(5L, BookingStatus.PENDING, BookingStatus.APPROVED))
+                .thenReturn(Optional.of(pendingBooking));
 
         // WHEN
         BookingRequest result = bookingRequestService.approveBooking(5L);
 
         // THEN
         assertEquals(BookingStatus.APPROVED, result.getStatus());
-        assertEquals(AdSpaceStatus.BOOKED, adSpace.getStatus());
-        verify(adSpaceRepository).save(adSpace);
-        verify(bookingRequestRepository).save(pendingBooking);
+        verify(adSpaceRepository, never()).changeStatus(any(), any());
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN a PENDING booking on an ad space that keeps free slots after approval
+        WHEN approveBooking is invoked
+        THEN the booking summary of the space is refreshed and its change is published
+    """)
+    void approveBooking_refreshesBookingSummary_andPublishesChangedSpace() {
+        // GIVEN
+        AdSpace adSpace = availableAdSpaceWithPrice(new BigDecimal("100.00"));
+        adSpace.changeCapacity(3);
+        BookingRequest pendingBooking = new BookingRequest(
+                adSpace,
+                "John Doe",
+                "john@example.com",
+                LocalDate.now().plusDays(10),
+                LocalDate.now().plusDays(20),
+                new BigDecimal("1000.00")
+        );
+
+        pendingBooking.approve();
+
+        when(bookingRequestRepository.transition(5L, BookingStatus.PENDING, BookingStatus.APPROVED))
+                .thenReturn(Optional.of(pendingBooking));
+        when(adSpaceRepository.refreshBookingSummary(eq(1L), any(LocalDate.class))).thenReturn(true);
+
+        // WHEN
+        bookingRequestService.approveBooking(5L);
+
+        // THEN
+        verify(adSpaceRepository).refreshBookingSummary(1L, LocalDate.of(2026, 3, 1));
+        verify(eventPublisher).publishEvent(new AdSpacesChangedEvent(List.of(1L)));
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN a capacity-1 ad space whose slot was taken by an approval on another node
+        WHEN approveBooking is invoked on a node whose occupancy index doesn't know of it
+        THEN the ad space row is locked, the database count refuses the approval
+    """)
+    void approveBooking_checksCapacityInDatabaseUnderLock() {
+        // GIVEN
+        AdSpace adSpace = availableAdSpaceWithPrice(new BigDecimal("100.00"));
+        LocalDate start = LocalDate.now().plusDays(10);
+        LocalDate end = LocalDate.now().plusDays(20);
+        BookingRequest approving = new BookingRequest(
+                adSpace,
+                "John Doe",
+                "john@example.com",
+                start,
+                end,
+                new BigDecimal("1000.00")
+        );
+        ReflectionTestUtils.setField(approving, "id", 5L);
+        approving.approve(); // as returned by the conditional UPDATE
+
+        when(bookingRequestRepository.transition(5L, BookingStatus.PENDING, BookingStatus.APPROVED))
+                .thenReturn(Optional.of(approving));
+        when(bookingRequestRepository.peakApprovedOccupancy(1L, 5L, start, end)).thenReturn(1);
+
+        // WHEN / THEN
+        assertThrows(
+                BookingValidationException.class,
+                () -> bookingRequestService.approveBooking(5L)
+        );
+        InOrder order = inOrder(adSpaceRepository, bookingRequestRepository);
+        order.verify(adSpaceRepository).lockById(1L);
+        order.verify(bookingRequestRepository).peakApprovedOccupancy(1L, 5L, start, end);
+        verify(bookingRequestRepository, never()).findByAdSpaceIdAndStatus(any(), any());
+        verify(adSpaceRepository, never()).changeStatus(any(), any());
     }
 
     @Test
@@ -369,13 +762,16 @@ class BookingRequestServiceTest {
         );
         approvedBooking.approve(); // status = APPROVED
 
+        when(bookingRequestRepository.transition(5L, BookingStatus.PENDING, BookingStatus.APPROVED))
+                .thenReturn(Optional.empty());
         when(bookingRequestRepository.findById(5L)).thenReturn(Optional.of(approvedBooking));
 
         // WHEN / THEN
-        assertThrows(
+        BookingValidationException ex = assertThrows(
                 BookingValidationException.class,
                 () -> bookingRequestService.approveBooking(5L)
         );
+        assertTrue(ex.getMessage().contains("Current status: APPROVED"));
     }
 
     @Test
@@ -399,33 +795,27 @@ class BookingRequestServiceTest {
                 end,
                 new BigDecimal("1000.00")
         );
+        pendingBooking.approve();
 
-        BookingRequest existingApproved = new BookingRequest(
-                adSpace,
-                "Existing",
-                "existing@example.com",
-                start.plusDays(2),
-                end.plusDays(2),
-                new BigDecimal("900.00")
-        );
-        existingApproved.approve();
-
-        when(bookingRequestRepository.findById(5L)).thenReturn(Optional.of(pendingBooking));
-        when(bookingRequestRepository.findByAdSpaceIdAndStatus(adSpace.getId(), BookingStatus.APPROVED))
-                .thenReturn(List.of(existingApproved));
+        when(bookingRequestRepository.transition(5L, BookingStatus.PENDING, BookingStatus.APPROVED))
+                .thenReturn(Optional.of(pendingBooking));
+        // An overlapping approval that another node committed
+        when(bookingRequestRepository.peakApprovedOccupancy(eq(1L), any(), eq(start), eq(end)))
+                .thenReturn(1);
 
         // WHEN / THEN
         assertThrows(
                 BookingValidationException.class,
                 () -> bookingRequestService.approveBooking(5L)
         );
+        verify(adSpaceRepository, never()).changeStatus(any(), any());
     }
 
     @Test
     @DisplayName("""
         GIVEN an existing PENDING booking
         WHEN rejectBooking is invoked
-        THEN the booking status is changed to REJECTED and saved
+        THEN the booking status is changed to REJECTED by a single conditional update
     """)
     void rejectBooking_rejectsPendingBooking() {
         // GIVEN
@@ -439,16 +829,17 @@ class BookingRequestServiceTest {
                 new BigDecimal("1000.00")
         );
 
-        when(bookingRequestRepository.findById(5L)).thenReturn(Optional.of(pendingBooking));
-        when(bookingRequestRepository.save(any(BookingRequest.class)))
-                .thenAnswer(invocation -> invocation.getArgument(0));
+        pendingBooking.reject(); // state as returned by the conditional UPDATE
+
+        when(bookingRequestRepository.transition(5L, BookingStatus.PENDING, BookingStatus.REJECTED))
+                .thenReturn(Optional.of(pendingBooking));
 
         // WHEN
         BookingRequest result = bookingRequestService.rejectBooking(5L);
 
         // THEN
         assertEquals(BookingStatus.REJECTED, result.getStatus());
-        verify(bookingRequestRepository).save(pendingBooking);
+        verify(bookingRequestRepository, never()).findById(any());
     }
 
     @Test
@@ -470,6 +861,8 @@ class BookingRequestServiceTest {
         );
         booking.reject(); // status = REJECTED
 
+        when(bookingRequestRepository.transition(5L, BookingStatus.PENDING, BookingStatus.REJECTED))
+                .thenReturn(Optional.empty());
         when(bookingRequestRepository.findById(5L)).thenReturn(Optional.of(booking));
 
         // WHEN / THEN
@@ -487,6 +880,8 @@ class BookingRequestServiceTest {
     """)
     void rejectBooking_throwsBookingNotFound_whenMissing() {
         // GIVEN
+        when(bookingRequestRepository.transition(99L, BookingStatus.PENDING, BookingStatus.REJECTED))
+                .thenReturn(Optional.empty());
         when(bookingRequestRepository.findById(99L)).thenReturn(Optional.empty());
 
         // WHEN / THEN
@@ -496,6 +891,138 @@ class BookingRequestServiceTest {
         );
     }
 
+    @Test
+    @DisplayName("""
+        GIVEN an APPROVED booking
+        WHEN cancelBooking is invoked
+        THEN it is CANCELLED, its slot is released and the waitlist is asked to promote into the freed period
+    """)
+    void cancelBooking_releasesSlotAndPromotesWaitlist() {
+        // GIVEN
+        AdSpace adSpace = availableAdSpaceWithPrice(new BigDecimal("100.00"));
+        LocalDate start = LocalDate.now().plusDays(10);
+        LocalDate end = LocalDate.now().plusDays(20);
+        BookingRequest approved = new BookingRequest(
+                adSpace, "John Doe", "john@example.com", start, end, new BigDecimal("1000.00"));
+        approved.approve();
+
+        when(bookingRequestRepository.findByAdSpaceIdAndStatus(1L, BookingStatus.APPROVED))
+                .thenReturn(List.of(approved));
+        assertEquals(1, occupancyIndex.peakOccupancy(1L, start, end));
+
+        when(bookingRequestRepository.transition(5L, BookingStatus.APPROVED, BookingStatus.CANCELLED))
+                .thenAnswer(invocation -> {
+                    approved.cancel();
+                    return Optional.of(approved);
+                });
+
+        // WHEN
+        BookingRequest result = bookingRequestService.cancelBooking(5L);
+
+        // THEN
+        assertEquals(BookingStatus.CANCELLED, result.getStatus());
+        assertEquals(0, occupancyIndex.peakOccupancy(1L, start, end));
+        verify(waitlistService).promoteNext(adSpace, start, end);
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN an APPROVED booking whose cancellation commits
+        WHEN promoting from the waitlist afterwards fails
+        THEN the failure is logged and the cancelled booking is still returned
+    """)
+    void cancelBooking_keepsCommittedCancellation_whenPromotionFails() {
+        // GIVEN
+        AdSpace adSpace = availableAdSpaceWithPrice(new BigDecimal("100.00"));
+        LocalDate start = LocalDate.now().plusDays(10);
+        LocalDate end = LocalDate.now().plusDays(20);
+        BookingRequest approved = new BookingRequest(
+                adSpace, "John Doe", "john@example.com", start, end, new BigDecimal("1000.00"));
+        approved.approve();
+
+        when(bookingRequestRepository.transition(5L, BookingStatus.APPROVED, BookingStatus.CANCELLED))
+                .thenAnswer(invocation -> {
+                    approved.cancel();
+                    return Optional.of(approved);
+                });
+        when(waitlistService.promoteNext(adSpace, start, end))
+                .thenThrow(new IllegalStateException("promotion failed"));
+
+        // WHEN
+        BookingRequest result = bookingRequestService.cancelBooking(5L);
+
+        // THEN
+        assertEquals(BookingStatus.CANCELLED, result.getStatus());
+        verify(eventPublisher).publishEvent(new BookingChangedEvent(approved));
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN an APPROVED booking that ended before today
+        WHEN cancelBooking is invoked
+        THEN BookingValidationException is thrown and nothing about the cancellation is applied
+    """)
+    void cancelBooking_throwsValidation_whenBookingAlreadyEnded() {
+        // GIVEN (the service clock is at 2026-03-01)
+        AdSpace adSpace = availableAdSpaceWithPrice(new BigDecimal("100.00"));
+        BookingRequest ended = new BookingRequest(
+                adSpace,
+                "John Doe",
+                "john@example.com",
+                LocalDate.now().plusDays(10),
+                LocalDate.now().plusDays(20),
+                new BigDecimal("1000.00")
+        );
+        // The constructor only accepts future dates.
+        ReflectionTestUtils.setField(ended, "startDate", LocalDate.of(2026, 2, 10));
+        ReflectionTestUtils.setField(ended, "endDate", LocalDate.of(2026, 2, 20));
+        ended.approve();
+
+        when(bookingRequestRepository.transition(5L, BookingStatus.APPROVED, BookingStatus.CANCELLED))
+                .thenAnswer(invocation -> {
+                    ended.cancel();
+                    return Optional.of(ended);
+                });
+
+        // WHEN / THEN
+        BookingValidationException ex = assertThrows(
+                BookingValidationException.class,
+                () -> bookingRequestService.cancelBooking(5L)
+        );
+        assertTrue(ex.getMessage().contains("2026-02-20"));
+        verify(bookingRequestRepository, never()).applyBookingStats(any(), any(), anyInt());
+        verifyNoInteractions(waitlistService, eventPublisher);
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN a booking that is not APPROVED
+        WHEN cancelBooking is invoked
+        THEN BookingValidationException is thrown
+    """)
+    void cancelBooking_throwsValidation_whenNotApproved() {
+        // GIVEN
+        AdSpace adSpace = availableAdSpaceWithPrice(new BigDecimal("100.00"));
+        BookingRequest pending = new BookingRequest(
+                adSpace,
+                "John Doe",
+                "john@example.com",
+                LocalDate.now().plusDays(10),
+                LocalDate.now().plusDays(20),
+                new BigDecimal("1000.00")
+        );
+
+        when(bookingRequestRepository.transition(5L, BookingStatus.APPROVED, BookingStatus.CANCELLED))
+                .thenReturn(Optional.empty());
+        when(bookingRequestRepository.findById(5L)).thenReturn(Optional.of(pending));
+
+        // WHEN / THEN
+        assertThrows(
+                BookingValidationException.class,
+                () -> bookingRequestService.cancelBooking(5L)
+        );
+    }
+
     @Test
     @DisplayName("""
         GIVEN no status filter
@@ -0,0 +1,64 @@
+package com.bookingsystem.service.analytics;
+
+import com.bookingsystem.model.AdSpaceType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.YearMonth;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class RevenueQueryTest {
+
+    @Test
+    @DisplayName("""
+        GIVEN request parameters in mixed case with a dimension list
+        WHEN the query is parsed
+        THEN months, type and dimensions are recognised, in dimension order
+    """)
+    void parse_readsAllParameters() {
+        // WHEN
+        RevenueQuery query = RevenueQuery.parse("2026-01", "2026-06", " Berlin ", "billboard", "month, City");
+
+        // THEN
+        assertEquals(YearMonth.of(2026, 1), query.from());
+        assertEquals(YearMonth.of(2026, 6), query.to());
+        assertEquals("Berlin", query.city());
+        assertEquals(AdSpaceType.BILLBOARD, query.type());
+        assertEquals(List.of(RevenueQuery.Dimension.CITY, RevenueQuery.Dimension.MONTH),
+                List.copyOf(query.groupBy()));
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN no optional parameters
+        WHEN the query is parsed
+        THEN it covers every city and type as one total
+    """)
+    void parse_defaultsToSingleTotal() {
+        // WHEN
+        RevenueQuery query = RevenueQuery.parse("2026-01", "2026-01", null, "", null);
+
+        // THEN
+        assertNull(query.city());
+        assertNull(query.type());
+        assertEquals(Set.of(), query.groupBy());
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN a missing, reversed, too long or malformed month range, or an unknown dimension
+        WHEN the query is parsed
+        THEN IllegalArgumentException is thrown
+    """)
+    void parse_rejectsInvalidParameters() {
+        assertThrows(IllegalArgumentException.class, () -> RevenueQuery.parse(null, "2026-01", null, null, null));
+        assertThrows(IllegalArgumentException.class, () -> RevenueQuery.parse("2026-02", "2026-01", null, null, null));
+        assertThrows(IllegalArgumentException.class, () -> RevenueQuery.parse("2016-01", "2026-01", null, null, null));
+        assertThrows(IllegalArgumentException.class, () -> RevenueQuery.parse("2026-1", "2026-02", null, null, null));
+        assertThrows(IllegalArgumentException.class, () -> RevenueQuery.parse("2026-01", "2026-02", null, null, "week"));
+        assertThrows(IllegalArgumentException.class, () -> RevenueQuery.parse("2026-01", "2026-02", null, "kiosk", null));
+    }
+}
@@ -0,0 +1,153 @@
+package com.bookingsystem.service.archive;
+
+import com.bookingsystem.model.BookingStatus;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Set;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ColumnarArchiveTest {
+
+    private static final LocalDate BASE = LocalDate.of(2024, 1, 1);
+
+    @TempDir
+    Path dir;
+
+    @Test
+    @DisplayName("""
+        GIVEN bookings written across several blocks
+        WHEN the file is read back
+        THEN every column round-trips, including shared dictionary strings
+    """)
+    void roundTripsAllColumns() throws IOException {
+        Path file = dir.resolve("bookings.bka");
+        List<ArchivedBooking> written = bookings(10);
+        writeAll(file, 4, written);
+
+        try (ColumnarArchiveReader reader = ColumnarArchiveReader.open(file)) {
+            List<ArchivedBooking> read = new ArrayList<>();
+            reader.scan(ArchiveQuery.all(), read::add);
+
+            assertEquals(10, reader.rowCount());
+            assertEquals(written, read);
+            assertEquals(BASE.plusDays(9 + 3), reader.latestEndDate().orElseThrow());
+        }
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN an archive file
+        WHEN it is scanned with an ad space, start date range and status filter
+        THEN only matching bookings are returned
+    """)
+    void scanAppliesFilters() throws IOException {
+        Path file = dir.resolve("bookings.bka");
+        writeAll(file, 3, bookings(12));
+
+        try (ColumnarArchiveReader reader = ColumnarArchiveReader.open(file)) {
+            List<ArchivedBooking> read = new ArrayList<>();
+            reader.scan(new ArchiveQuery(1L, BASE.plusDays(2), BASE.plusDays(8), Set.of(BookingStatus.CANCELLED)),
+                    read::add);
+
+            assertEquals(List.of(4L, 8L), read.stream().map(ArchivedBooking::id).toList());
+        }
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN an archive file
+        WHEN bookings are looked up by id
+        THEN archived ids are found and unknown ids are absent
+    """)
+    void findsById() throws IOException {
+        Path file = dir.resolve("bookings.bka");
+        writeAll(file, 4, bookings(10));
+
+        try (ColumnarArchiveReader reader = ColumnarArchiveReader.open(file)) {
+            ArchivedBooking found = reader.findById(6).orElseThrow();
+
+            assertEquals("Advertiser 2", found.advertiserName());
+            assertEquals(BASE.plusDays(5), found.startDate());
+            assertTrue(reader.findById(42).isEmpty());
+        }
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN an archive whose last block was cut short
+        WHEN it is read and appended to again
+        THEN the partial block is ignored and then replaced by the new rows
+    """)
+    void toleratesTruncatedTail() throws IOException {
+        Path file = dir.resolve("bookings.bka");
+        List<ArchivedBooking> all = bookings(8);
+        writeAll(file, 4, all);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.WRITE)) {
+            channel.truncate(channel.size() - 5);
+        }
+
+        try (ColumnarArchiveReader reader = ColumnarArchiveReader.open(file)) {
+            assertEquals(4, reader.rowCount());
+        }
+
+        writeAll(file, 4, all.subList(4, 8));
+        try (ColumnarArchiveReader reader = ColumnarArchiveReader.open(file)) {
+            List<ArchivedBooking> read = new ArrayList<>();
+            reader.scan(ArchiveQuery.all(), read::add);
+            assertEquals(all, read);
+        }
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN a file that is not a booking archive
+        WHEN it is opened
+        THEN it is refused
+    """)
+    void rejectsForeignFile() throws IOException {
+        Path file = dir.resolve("other.bin");
+        Files.writeString(file, "definitely not an archive");
+
+        assertThrows(IOException.class, () -> ColumnarArchiveReader.open(file));
+    }
+
+    private static void writeAll(Path file, int blockRows, List<ArchivedBooking> bookings) throws IOException {
+        try (ColumnarArchiveWriter writer = ColumnarArchiveWriter.open(file, blockRows)) {
+            for (ArchivedBooking booking : bookings) {
+                writer.append(booking);
+            }
+        }
+    }
+
+    /**
+     * Booking {@code i} (id {@code i + 1}) starts on day {@code i}, runs three days, is on
+     * ad space {@code i % 2}, and alternates APPROVED / CANCELLED every two rows.
+     */
+    private static List<ArchivedBooking> bookings(int count) {
+        List<ArchivedBooking> bookings = new ArrayList<>();
+        for (int i = 0; i < count; i++) {
+            bookings.add(new ArchivedBooking(
+                    i + 1,
+                    i % 2,
+                    "Advertiser " + (i % 3),
+                    "ads" + (i % 3) + "@example.com",
+                    BASE.plusDays(i),
+                    BASE.plusDays(i + 3),
+                    i % 4 < 2 ? BookingStatus.APPROVED : BookingStatus.CANCELLED,
+                    10_000L + i
+            ));
+        }
+        return bookings;
+    }
+}
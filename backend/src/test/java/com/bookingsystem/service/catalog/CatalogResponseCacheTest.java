@@ -0,0 +1,136 @@
+package com.bookingsystem.service.catalog;
+
+import com.bookingsystem.service.AdSpacesChangedEvent;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import tools.jackson.databind.json.JsonMapper;
+
+import java.io.ByteArrayInputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.time.Instant;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogResponseCacheTest {
+
+    private final Clock clock = Clock.fixed(Instant.parse("2025-06-01T10:00:00Z"), ZoneOffset.UTC);
+
+    private CatalogResponseCache cache(Duration maxAge, int maxEntries) {
+        return new CatalogResponseCache(JsonMapper.builder().build(), clock, maxAge, maxEntries, true);
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN a query that was already answered
+        WHEN the same key is requested again with no change in between
+        THEN the cached bytes are returned without loading again
+    """)
+    void repeatedQuery_isServedFromCache() throws IOException {
+        // GIVEN
+        CatalogResponseCache cache = cache(Duration.ofMinutes(1), 10);
+        AtomicInteger loads = new AtomicInteger();
+        CatalogResponseCache.Body first = cache.get("||name|asc", () -> {
+            loads.incrementAndGet();
+            return List.of("a", "b");
+        });
+
+        // WHEN
+        CatalogResponseCache.Body second = cache.get("||name|asc", () -> {
+            loads.incrementAndGet();
+            return List.of("changed");
+        });
+
+        // THEN
+        assertSame(first, second);
+        assertEquals(1, loads.get());
+        assertEquals("[\"a\",\"b\"]", new String(second.json(), StandardCharsets.UTF_8));
+        try (GZIPInputStream in = new GZIPInputStream(new ByteArrayInputStream(second.gzipped()))) {
+            assertArrayEquals(second.json(), in.readAllBytes());
+        }
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN a cached query
+        WHEN an ad space change is published
+        THEN the next request loads and encodes the list again
+    """)
+    void adSpaceChange_invalidatesEntries() {
+        // GIVEN
+        CatalogResponseCache cache = cache(Duration.ofMinutes(1), 10);
+        cache.get("key", () -> List.of("old"));
+
+        // WHEN
+        cache.onAdSpacesChanged(AdSpacesChangedEvent.deleted(1L));
+        CatalogResponseCache.Body body = cache.get("key", () -> List.of("new"));
+
+        // THEN
+        assertEquals("[\"new\"]", new String(body.json(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN a load that is still running when an ad space changes
+        WHEN the load finishes and the key is requested again
+        THEN the result of the racing load is not served
+    """)
+    void loadRacingAChange_isNotServedAfterwards() {
+        // GIVEN
+        CatalogResponseCache cache = cache(Duration.ofMinutes(1), 10);
+        cache.get("key", () -> {
+            cache.evictAll();
+            return List.of("maybe stale");
+        });
+
+        // WHEN
+        CatalogResponseCache.Body body = cache.get("key", () -> List.of("fresh"));
+
+        // THEN
+        assertEquals("[\"fresh\"]", new String(body.json(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN a full cache
+        WHEN a new key is requested twice
+        THEN it is answered both times but never cached
+    """)
+    void fullCache_doesNotTakeNewKeys() {
+        // GIVEN
+        CatalogResponseCache cache = cache(Duration.ofMinutes(1), 1);
+        cache.get("first", () -> List.of("1"));
+        AtomicInteger loads = new AtomicInteger();
+
+        // WHEN
+        cache.get("second", () -> List.of(loads.incrementAndGet()));
+        CatalogResponseCache.Body body = cache.get("second", () -> List.of(loads.incrementAndGet()));
+
+        // THEN
+        assertEquals(2, loads.get());
+        assertEquals("[2]", new String(body.json(), StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN various Accept headers
+        WHEN servesJson is asked
+        THEN JSON-compatible requests use the cache and binary format requests don't
+    """)
+    void servesJson_followsAcceptHeader() {
+        // WHEN / THEN
+        assertTrue(CatalogResponseCache.servesJson(null));
+        assertTrue(CatalogResponseCache.servesJson("*/*"));
+        assertTrue(CatalogResponseCache.servesJson("application/json, text/plain, */*"));
+        assertFalse(CatalogResponseCache.servesJson("application/cbor"));
+        assertFalse(CatalogResponseCache.servesJson("application/x-jackson-smile, */*;q=0.1"));
+        assertFalse(CatalogResponseCache.servesJson("text/html"));
+        assertFalse(CatalogResponseCache.servesJson("not a media type"));
+    }
+}
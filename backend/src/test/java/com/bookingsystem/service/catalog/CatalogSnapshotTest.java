@@ -0,0 +1,113 @@
+package com.bookingsystem.service.catalog;
+
+import com.bookingsystem.model.AdSpace;
+import com.bookingsystem.model.AdSpaceStatus;
+import com.bookingsystem.model.AdSpaceType;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.util.ArrayList;
+import java.util.Comparator;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class CatalogSnapshotTest {
+
+    private static final String[] CITIES = {"Bucharest", "Cluj-Napoca", "Iasi", "Bucharest Sector 3"};
+
+    private static AdSpace adSpace(long id, String name, AdSpaceType type, String city, String price, AdSpaceStatus status) {
+        AdSpace adSpace = new AdSpace(name, type, city, "Street " + id, new BigDecimal(price), status);
+        ReflectionTestUtils.setField(adSpace, "id", id);
+        return adSpace;
+    }
+
+    /** 200 spaces, so bitmaps span several words. Every fifth one is in maintenance. */
+    private static List<AdSpace> catalog() {
+        AdSpaceType[] types = AdSpaceType.values();
+        List<AdSpace> adSpaces = new ArrayList<>();
+        for (long id = 1; id <= 200; id++) {
+            adSpaces.add(adSpace(id,
+                    "Space " + (1000 - id),
+                    types[(int) (id % types.length)],
+                    CITIES[(int) (id % CITIES.length)],
+                    (100 + id * 7 % 300) + ".25",
+                    id % 5 == 0 ? AdSpaceStatus.MAINTENANCE : AdSpaceStatus.AVAILABLE));
+        }
+        return adSpaces;
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN a snapshot of 200 ad spaces
+        WHEN searching by type and a lower-case city fragment sorted by price descending
+        THEN exactly the matching AVAILABLE spaces come back in price order
+    """)
+    void search_filtersAndSorts() {
+        // GIVEN
+        List<AdSpace> catalog = catalog();
+        CatalogSnapshot snapshot = CatalogSnapshot.of(catalog);
+
+        // WHEN
+        List<AdSpace> result = snapshot.search(AdSpaceStatus.AVAILABLE, "bucharest", AdSpaceType.BILLBOARD,
+                "pricePerDay", false);
+
+        // THEN
+        List<AdSpace> expected = catalog.stream()
+                .filter(a -> a.getStatus() == AdSpaceStatus.AVAILABLE)
+                .filter(a -> a.getType() == AdSpaceType.BILLBOARD)
+                .filter(a -> a.getCity().toLowerCase().contains("bucharest"))
+                .sorted(Comparator.comparing(AdSpace::getPricePerDay).thenComparing(AdSpace::getId).reversed())
+                .toList();
+        assertFalse(expected.isEmpty());
+        assertEquals(expected, result);
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN a snapshot with no filters requested
+        WHEN searching sorted by name ascending
+        THEN every AVAILABLE space comes back in name order
+    """)
+    void search_withoutFilters_returnsAllAvailableByName() {
+        // GIVEN
+        List<AdSpace> catalog = catalog();
+        CatalogSnapshot snapshot = CatalogSnapshot.of(catalog);
+
+        // WHEN
+        List<AdSpace> result = snapshot.search(AdSpaceStatus.AVAILABLE, null, null, "name", true);
+
+        // THEN
+        assertEquals(160, result.size());
+        for (int i = 1; i < result.size(); i++) {
+            assertTrue(result.get(i - 1).getName().compareTo(result.get(i).getName()) <= 0);
+        }
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN a snapshot
+        WHEN a new version is built with one space changed, one added and one removed
+        THEN the new version reflects all three and the old one is unchanged
+    """)
+    void with_buildsNewVersionAndLeavesOldOneAlone() {
+        // GIVEN
+        CatalogSnapshot before = CatalogSnapshot.of(List.of(
+                adSpace(1, "Alpha", AdSpaceType.BILLBOARD, "Iasi", "100.00", AdSpaceStatus.AVAILABLE),
+                adSpace(2, "Beta", AdSpaceType.BILLBOARD, "Iasi", "200.00", AdSpaceStatus.AVAILABLE)));
+
+        // WHEN
+        CatalogSnapshot after = before.with(
+                List.of(adSpace(1, "Alpha", AdSpaceType.BILLBOARD, "Iasi", "300.00", AdSpaceStatus.AVAILABLE),
+                        adSpace(3, "Gamma", AdSpaceType.BILLBOARD, "Iasi", "50.00", AdSpaceStatus.AVAILABLE)),
+                List.of(2L));
+
+        // THEN
+        assertEquals(List.of(3L, 1L), after.search(AdSpaceStatus.AVAILABLE, null, null, "pricePerDay", true)
+                .stream().map(AdSpace::getId).toList());
+        assertEquals(List.of(1L, 2L), before.search(AdSpaceStatus.AVAILABLE, null, null, "pricePerDay", true)
+                .stream().map(AdSpace::getId).toList());
+    }
+}
@@ -0,0 +1,136 @@
+package com.bookingsystem.service.conflict;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.aop.framework.ProxyFactory;
+import org.springframework.aop.support.DefaultPointcutAdvisor;
+import org.springframework.aop.support.annotation.AnnotationMatchingPointcut;
+import org.springframework.beans.factory.support.StaticListableBeanFactory;
+import org.springframework.orm.ObjectOptimisticLockingFailureException;
+
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ConflictRetryInterceptorTest {
+
+    static class AdminOperations {
+        final AtomicInteger calls = new AtomicInteger();
+        int conflictsBeforeSuccess;
+
+        @RetryOnConflict(maxAttempts = 3, backoffMillis = 0)
+        public String rename() {
+            if (calls.incrementAndGet() <= conflictsBeforeSuccess) {
+                throw new ObjectOptimisticLockingFailureException("com.bookingsystem.model.AdSpace", 7L);
+            }
+            return "renamed";
+        }
+
+        @RetryOnConflict(maxAttempts = 1)
+        public String edit() {
+            calls.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException("com.bookingsystem.model.AdSpace", 7L);
+        }
+
+        public String unannotated() {
+            calls.incrementAndGet();
+            throw new ObjectOptimisticLockingFailureException("com.bookingsystem.model.AdSpace", 7L);
+        }
+    }
+
+    private SimpleMeterRegistry meterRegistry;
+    private ContentionMetrics contentionMetrics;
+    private AdminOperations target;
+    private AdminOperations proxy;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        contentionMetrics = new ContentionMetrics(meterRegistry);
+
+        StaticListableBeanFactory beanFactory = new StaticListableBeanFactory();
+        beanFactory.addBean("contentionMetrics", contentionMetrics);
+
+        target = new AdminOperations();
+        ProxyFactory factory = new ProxyFactory(target);
+        factory.setProxyTargetClass(true);
+        factory.addAdvisor(new DefaultPointcutAdvisor(
+                AnnotationMatchingPointcut.forMethodAnnotation(RetryOnConflict.class),
+                new ConflictRetryInterceptor(beanFactory.getBeanProvider(ContentionMetrics.class))));
+        proxy = (AdminOperations) factory.getProxy();
+    }
+
+    private double conflicts(String outcome) {
+        var counter = meterRegistry.find(ContentionMetrics.CONFLICTS).tag("outcome", outcome).counter();
+        return counter == null ? 0 : counter.count();
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN an operation that loses an optimistic lock race once
+        WHEN it is called through the proxy
+        THEN it is retried and succeeds, and the conflict is counted as retried
+    """)
+    void invoke_retriesAfterConflict() {
+        // GIVEN
+        target.conflictsBeforeSuccess = 1;
+
+        // WHEN
+        String result = proxy.rename();
+
+        // THEN
+        assertEquals("renamed", result);
+        assertEquals(2, target.calls.get());
+        assertEquals(1, conflicts("retried"));
+        assertEquals(0, conflicts("exhausted"));
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN an operation that keeps conflicting
+        WHEN all attempts are used up
+        THEN the conflict is rethrown and the row shows up as hot
+    """)
+    void invoke_rethrowsWhenAttemptsExhausted() {
+        // GIVEN
+        target.conflictsBeforeSuccess = Integer.MAX_VALUE;
+
+        // WHEN / THEN
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> proxy.rename());
+        assertEquals(3, target.calls.get());
+        assertEquals(2, conflicts("retried"));
+        assertEquals(1, conflicts("exhausted"));
+
+        ContentionMetrics.HotRow hottest = contentionMetrics.hottestRows(1).getFirst();
+        assertEquals("AdSpace", hottest.entity());
+        assertEquals("7", hottest.id());
+        assertEquals(3, hottest.conflicts());
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN a user edit annotated with a single attempt
+        WHEN it loses an optimistic lock race
+        THEN the conflict is rethrown at once and counted as exhausted
+    """)
+    void invoke_withSingleAttempt_recordsConflictWithoutRetrying() {
+        // WHEN / THEN
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> proxy.edit());
+        assertEquals(1, target.calls.get());
+        assertEquals(0, conflicts("retried"));
+        assertEquals(1, conflicts("exhausted"));
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN a method without @RetryOnConflict
+        WHEN it fails with a conflict
+        THEN it is not retried
+    """)
+    void invoke_doesNotRetryUnannotatedMethods() {
+        assertThrows(ObjectOptimisticLockingFailureException.class, () -> proxy.unannotated());
+        assertEquals(1, target.calls.get());
+    }
+}
@@ -0,0 +1,124 @@
+package com.bookingsystem.service.demand;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class SketchesTest {
+
+    private static final LocalDate MONDAY = LocalDate.of(2026, 3, 2);
+
+    @Test
+    @DisplayName("""
+        GIVEN a count-min sketch fed with many skewed keys
+        WHEN counts are estimated
+        THEN no key is undercounted and overcounts stay within the error bound
+    """)
+    void countMin_neverUndercounts() {
+        // GIVEN
+        CountMinSketch sketch = new CountMinSketch(2048, 4);
+        long[] truth = new long[5_000];
+        Random random = new Random(42);
+        long total = 0;
+        for (int i = 0; i < 200_000; i++) {
+            int key = (int) Math.min(truth.length - 1, Math.abs(random.nextGaussian()) * 500);
+            sketch.add(key, 1);
+            truth[key]++;
+            total++;
+        }
+
+        // WHEN / THEN
+        long bound = (long) Math.ceil(Math.E * total / 2048);
+        int beyondBound = 0;
+        for (int key = 0; key < truth.length; key++) {
+            long estimate = sketch.estimate(key);
+            assertTrue(estimate >= truth[key]);
+            if (estimate - truth[key] > bound) {
+                beyondBound++;
+            }
+        }
+        assertTrue(beyondBound <= truth.length / 50, beyondBound + " keys beyond the error bound");
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN two count-min sketches, one serialized and read back
+        WHEN they are merged
+        THEN estimates are the sum of both
+    """)
+    void countMin_mergesAfterRoundTrip() {
+        // GIVEN
+        CountMinSketch first = new CountMinSketch(64, 3);
+        CountMinSketch second = new CountMinSketch(64, 3);
+        first.add(7, 3);
+        second.add(7, 2);
+        second.add(8, 1);
+
+        // WHEN
+        CountMinSketch merged = CountMinSketch.fromBytes(first.toBytes());
+        merged.merge(second);
+
+        // THEN
+        assertEquals(5, merged.estimate(7));
+        assertTrue(merged.estimate(8) >= 1);
+        assertThrows(IllegalArgumentException.class, () -> merged.merge(new CountMinSketch(32, 3)));
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN HyperLogLogs fed with overlapping sets of distinct values, some repeated
+        WHEN cardinality is estimated, alone and united
+        THEN estimates are within a few standard errors of the true count
+    """)
+    void hyperLogLog_estimatesDistinctValues() {
+        // GIVEN
+        HyperLogLog first = new HyperLogLog(12);
+        HyperLogLog second = new HyperLogLog(12);
+        for (int i = 0; i < 60_000; i++) {
+            first.add("advertiser-" + i + "@example.com");
+            first.add("advertiser-" + i + "@example.com");
+        }
+        for (int i = 40_000; i < 100_000; i++) {
+            second.add("advertiser-" + i + "@example.com");
+        }
+
+        // WHEN
+        long alone = first.estimate();
+        first.merge(second);
+        long united = first.estimate();
+
+        // THEN (standard error at precision 12 is about 1.6%)
+        assertEquals(60_000, alone, 60_000 * 0.05);
+        assertEquals(100_000, united, 100_000 * 0.05);
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN a request whose booked period spans three ISO weeks, and a few advertisers
+        WHEN it is recorded
+        THEN each touched week counts it once and advertisers are counted case-insensitively
+    """)
+    void sketches_recordRequestPerTouchedWeek() {
+        // GIVEN
+        Sketches sketches = new Sketches(1024, 4, 10);
+
+        // WHEN
+        sketches.recordRequest(1L, "a@example.com", MONDAY.plusDays(3), MONDAY.plusDays(15));
+        sketches.recordRequest(1L, "A@Example.com ", MONDAY, MONDAY.plusDays(7));
+        sketches.recordRejection(1L, MONDAY, MONDAY.plusDays(7));
+
+        // THEN
+        assertEquals(2, sketches.requests.estimate(Sketches.cell(1L, MONDAY)));
+        assertEquals(2, sketches.requests.estimate(Sketches.cell(1L, MONDAY.plusWeeks(1))));
+        assertEquals(1, sketches.requests.estimate(Sketches.cell(1L, MONDAY.plusWeeks(2))));
+        assertEquals(0, sketches.requests.estimate(Sketches.cell(1L, MONDAY.plusWeeks(3))));
+        assertEquals(1, sketches.rejections.estimate(Sketches.cell(1L, MONDAY.plusWeeks(1))));
+        assertEquals(1, sketches.advertisers.get(1L).estimate());
+        assertEquals("2026-W10", DemandSketches.format(MONDAY));
+        assertEquals(MONDAY, DemandSketches.parseWeek("from", "2026-W10"));
+    }
+}
@@ -0,0 +1,157 @@
+package com.bookingsystem.service.events;
+
+import com.bookingsystem.model.AdSpace;
+import com.bookingsystem.model.AdSpaceStatus;
+import com.bookingsystem.model.AdSpaceType;
+import com.bookingsystem.model.BookingRequest;
+import com.bookingsystem.service.AdSpacesChangedEvent;
+import com.bookingsystem.service.BookingChangedEvent;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Duration;
+import java.time.LocalDate;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class ChangeEventHubTest {
+
+    private ChangeEventHub hub;
+    private AdSpace adSpace;
+
+    @BeforeEach
+    void setUp() {
+        hub = new ChangeEventHub(3, 16, Duration.ofMinutes(1), Duration.ofSeconds(15));
+        adSpace = new AdSpace("Test Space", AdSpaceType.BILLBOARD, "Bucharest", "Test Street 1",
+                new BigDecimal("100.00"), AdSpaceStatus.AVAILABLE);
+        ReflectionTestUtils.setField(adSpace, "id", 1L);
+    }
+
+    @AfterEach
+    void tearDown() {
+        hub.shutdown();
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN bookings created, approved and rejected and ad spaces updated or deleted
+        WHEN the change events are published
+        THEN each is named after what happened and carries the committed state
+    """)
+    void namesEventsAfterChange() {
+        // GIVEN
+        BookingRequest booking = booking(7L);
+
+        // WHEN
+        hub.onBookingChanged(BookingChangedEvent.created(booking));
+        booking.approve();
+        hub.onBookingChanged(new BookingChangedEvent(booking));
+        hub.onAdSpacesChanged(AdSpacesChangedEvent.saved(adSpace));
+
+        // THEN
+        List<ChangeEventHub.ChangeEvent> events = hub.missedSince(hub.eventId(0));
+        assertEquals(List.of("booking.created", "booking.approved", "ad-space.updated"),
+                events.stream().map(ChangeEventHub.ChangeEvent::name).toList());
+        assertEquals(7L, ((BookingView) events.get(0).data()).id());
+        assertSame(adSpace, events.get(2).data());
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN a booking created on the waitlist and later promoted back to PENDING
+        WHEN both change events are published
+        THEN the promotion is sent as booking.promoted, not as a second booking.created
+    """)
+    void namesPromotionApartFromCreation() {
+        // GIVEN
+        BookingRequest booking = booking(7L);
+        booking.moveToWaitlist();
+
+        // WHEN
+        hub.onBookingChanged(BookingChangedEvent.created(booking));
+        booking.promoteFromWaitlist();
+        hub.onBookingChanged(new BookingChangedEvent(booking));
+
+        // THEN
+        assertEquals(List.of("booking.created", "booking.promoted"),
+                hub.missedSince(hub.eventId(0)).stream().map(ChangeEventHub.ChangeEvent::name).toList());
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN a client that saw some events
+        WHEN it resumes with its Last-Event-ID
+        THEN only the later events are replayed
+    """)
+    void resume_replaysOnlyLaterEvents() {
+        // GIVEN
+        hub.onAdSpacesChanged(AdSpacesChangedEvent.deleted(1L));
+        hub.onAdSpacesChanged(AdSpacesChangedEvent.deleted(2L));
+        hub.onAdSpacesChanged(new AdSpacesChangedEvent(List.of(3L, 4L)));
+
+        // WHEN
+        List<ChangeEventHub.ChangeEvent> missed = hub.missedSince(hub.eventId(1));
+
+        // THEN
+        assertEquals(List.of(2L, 3L), missed.stream().map(ChangeEventHub.ChangeEvent::seq).toList());
+        assertEquals(Map.of("ids", List.of(3L, 4L)), missed.get(1).data());
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN a client further behind than the replay buffer, or from before a restart
+        WHEN it resumes
+        THEN the missed events can't be replayed and it has to resync
+    """)
+    void resume_beyondReplayBuffer_requiresResync() {
+        // GIVEN
+        for (long id = 1; id <= 5; id++) {
+            hub.onAdSpacesChanged(AdSpacesChangedEvent.deleted(id));
+        }
+
+        // THEN
+        assertNull(hub.missedSince(hub.eventId(1)));
+        assertNotNull(hub.missedSince(hub.eventId(2)));
+        assertNull(hub.missedSince("otherepoch-4"));
+        assertNull(hub.missedSince("garbage"));
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN changes committed on another node, then lost invalidation messages
+        WHEN the invalidation bus delivers them to the hub
+        THEN the changed ids are sent, and clients from before the loss have to resync
+    """)
+    void relaysChangesFromOtherNodes() {
+        // GIVEN
+        hub.evictBookings(1L, List.of(7L, 8L));
+        hub.evictAdSpaces(List.of(2L));
+
+        // THEN
+        List<ChangeEventHub.ChangeEvent> events = hub.missedSince(hub.eventId(0));
+        assertEquals(List.of("bookings.changed", "ad-spaces.changed"),
+                events.stream().map(ChangeEventHub.ChangeEvent::name).toList());
+        assertEquals(Map.of("adSpaceId", 1L, "ids", List.of(7L, 8L)), events.get(0).data());
+
+        // WHEN
+        hub.evictAll();
+        hub.evictAdSpaces(List.of(3L));
+
+        // THEN
+        assertNull(hub.missedSince(hub.eventId(2)));
+        assertEquals(1, hub.missedSince(hub.eventId(3)).size());
+    }
+
+    private BookingRequest booking(Long id) {
+        BookingRequest booking = new BookingRequest(adSpace, "John Doe", "john@example.com",
+                LocalDate.now().plusDays(10), LocalDate.now().plusDays(20), new BigDecimal("1000.00"));
+        ReflectionTestUtils.setField(booking, "id", id);
+        return booking;
+    }
+}
@@ -0,0 +1,77 @@
+package com.bookingsystem.service.hold;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class HashedTimingWheelTest {
+
+    @Test
+    @DisplayName("""
+        GIVEN items scheduled at different deadlines
+        WHEN the wheel is advanced step by step
+        THEN each item expires on the first advance at or after its deadline
+    """)
+    void advance_expiresItemsAtTheirDeadline() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(100, 8, 0);
+        wheel.schedule("a", 250);
+        wheel.schedule("b", 400);
+
+        assertEquals(List.of(), wheel.advance(200));
+        assertEquals(List.of("a"), wheel.advance(300));
+        assertEquals(List.of("b"), wheel.advance(400));
+        assertEquals(0, wheel.size());
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN an item due more than one full rotation ahead
+        WHEN the wheel passes its bucket before the deadline
+        THEN the item is kept until its own rotation comes around
+    """)
+    void advance_keepsItemsDueInLaterRotations() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(100, 4, 0);
+        wheel.schedule("later", 900); // tick 9, same bucket as tick 1 and 5
+
+        assertEquals(List.of(), wheel.advance(500));
+        assertEquals(List.of(), wheel.advance(800));
+        assertEquals(List.of("later"), wheel.advance(900));
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN a cancelled item
+        WHEN the wheel is advanced past its deadline
+        THEN the item is not returned as expired
+    """)
+    void cancel_preventsExpiry() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(100, 8, 0);
+        HashedTimingWheel.Timeout<String> timeout = wheel.schedule("a", 300);
+
+        assertTrue(wheel.cancel(timeout));
+        assertFalse(wheel.cancel(timeout));
+        assertEquals(List.of(), wheel.advance(1_000));
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN a scheduler pause longer than a full rotation
+        WHEN the wheel catches up in one advance
+        THEN everything that became due expires and later items survive
+    """)
+    void advance_catchesUpAfterLongPause() {
+        HashedTimingWheel<String> wheel = new HashedTimingWheel<>(100, 4, 0);
+        wheel.schedule("a", 200);
+        wheel.schedule("b", 700);
+        wheel.schedule("c", 5_000);
+
+        List<String> expired = wheel.advance(2_000);
+
+        assertEquals(2, expired.size());
+        assertTrue(expired.containsAll(List.of("a", "b")));
+        assertEquals(1, wheel.size());
+    }
+}
@@ -0,0 +1,164 @@
+package com.bookingsystem.service.idempotency;
+
+import com.bookingsystem.exception.IdempotencyKeyReuseException;
+import com.bookingsystem.repository.IdempotencyRecordRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.nio.charset.StandardCharsets;
+import java.time.Clock;
+import java.time.Duration;
+import java.util.Optional;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class IdempotencyServiceTest {
+
+    @Mock
+    private IdempotencyRecordRepository repository;
+
+    private IdempotencyService idempotencyService;
+
+    @BeforeEach
+    void setUp() {
+        idempotencyService = new IdempotencyService(
+                repository,
+                Clock.systemUTC(),
+                Duration.ofHours(24),
+                Duration.ofSeconds(5),
+                100
+        );
+    }
+
+    private static StoredResponse created(String body) {
+        return new StoredResponse(201, "application/json", body.getBytes(StandardCharsets.UTF_8));
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN a request that succeeded under an idempotency key
+        WHEN the same key and body are sent again
+        THEN the original response is replayed without running the action again
+    """)
+    void execute_replaysStoredResponse_onRetry() throws Exception {
+        // GIVEN
+        when(repository.findById("key-1")).thenReturn(Optional.empty());
+        when(repository.claim(eq("key-1"), eq("hash"), any())).thenReturn(1);
+        AtomicInteger runs = new AtomicInteger();
+
+        // WHEN
+        IdempotencyService.Execution first = idempotencyService.execute("key-1", "hash", () -> {
+            runs.incrementAndGet();
+            return created("{\"id\":1}");
+        });
+        IdempotencyService.Execution retry = idempotencyService.execute("key-1", "hash", () -> {
+            runs.incrementAndGet();
+            return created("{\"id\":2}");
+        });
+
+        // THEN
+        assertEquals(1, runs.get());
+        assertFalse(first.replayed());
+        assertTrue(retry.replayed());
+        assertArrayEquals(first.response().body(), retry.response().body());
+        verify(repository).complete(eq("key-1"), eq(201), eq("application/json"), any(), any());
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN a key that was used for one request body
+        WHEN it is sent with a different body
+        THEN IdempotencyKeyReuseException is thrown
+    """)
+    void execute_rejectsKeyReuseWithDifferentBody() throws Exception {
+        // GIVEN
+        when(repository.findById("key-1")).thenReturn(Optional.empty());
+        when(repository.claim(eq("key-1"), eq("hash-a"), any())).thenReturn(1);
+        idempotencyService.execute("key-1", "hash-a", () -> created("{}"));
+
+        // WHEN / THEN
+        assertThrows(
+                IdempotencyKeyReuseException.class,
+                () -> idempotencyService.execute("key-1", "hash-b", () -> created("{}"))
+        );
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN an attempt that ended with an error response
+        WHEN the claim is settled
+        THEN nothing is stored and the claim is released so a retry runs again
+    """)
+    void execute_doesNotStoreFailedResponses() throws Exception {
+        // GIVEN
+        when(repository.findById("key-1")).thenReturn(Optional.empty());
+        when(repository.claim(eq("key-1"), eq("hash"), any())).thenReturn(1);
+
+        // WHEN
+        IdempotencyService.Execution failed = idempotencyService.execute("key-1", "hash",
+                () -> new StoredResponse(400, "application/json", new byte[0]));
+        IdempotencyService.Execution retried = idempotencyService.execute("key-1", "hash", () -> created("{}"));
+
+        // THEN
+        assertEquals(400, failed.response().status());
+        assertEquals(201, retried.response().status());
+        assertFalse(retried.replayed());
+        verify(repository).releaseClaim("key-1");
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN two concurrent requests with the same key
+        WHEN the second arrives while the first is still running
+        THEN it waits for the first and replays its response instead of running again
+    """)
+    void execute_concurrentDuplicateWaitsForInFlightExecution() throws Exception {
+        // GIVEN
+        when(repository.findById("key-1")).thenReturn(Optional.empty());
+        when(repository.claim(eq("key-1"), eq("hash"), any())).thenReturn(1);
+        CountDownLatch started = new CountDownLatch(1);
+        CountDownLatch release = new CountDownLatch(1);
+        AtomicInteger runs = new AtomicInteger();
+
+        ExecutorService executor = Executors.newFixedThreadPool(2);
+        try {
+            Future<IdempotencyService.Execution> first = executor.submit(() ->
+                    idempotencyService.execute("key-1", "hash", () -> {
+                        runs.incrementAndGet();
+                        started.countDown();
+                        release.await(5, TimeUnit.SECONDS);
+                        return created("{\"id\":1}");
+                    }));
+            assertTrue(started.await(5, TimeUnit.SECONDS));
+
+            Future<IdempotencyService.Execution> second = executor.submit(() ->
+                    idempotencyService.execute("key-1", "hash", () -> {
+                        runs.incrementAndGet();
+                        return created("{\"id\":2}");
+                    }));
+
+            // WHEN
+            release.countDown();
+
+            // THEN
+            assertFalse(first.get(5, TimeUnit.SECONDS).replayed());
+            assertTrue(second.get(5, TimeUnit.SECONDS).replayed());
+            assertEquals(1, runs.get());
+        } finally {
+            executor.shutdownNow();
+        }
+    }
+}
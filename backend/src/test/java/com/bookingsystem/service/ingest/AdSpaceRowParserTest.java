@@ -0,0 +1,129 @@
+package com.bookingsystem.service.ingest;
+
+import com.bookingsystem.model.AdSpace;
+import com.bookingsystem.model.AdSpaceStatus;
+import com.bookingsystem.model.AdSpaceType;
+import jakarta.validation.Validation;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.math.BigDecimal;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdSpaceRowParserTest {
+
+    private final AdSpaceRowParser parser =
+            new AdSpaceRowParser(Validation.buildDefaultValidatorFactory().getValidator());
+
+    @Test
+    @DisplayName("""
+        GIVEN a CSV line with quoted fields containing commas and doubled quotes
+        WHEN it is split
+        THEN quoting is removed and the embedded characters are kept
+    """)
+    void splitCsv_handlesQuotedFields() throws Exception {
+        List<String> fields = AdSpaceRowParser.splitCsv("\"Mall, Entrance \"\"A\"\"\",MALL_DISPLAY,Cluj,,220.00");
+
+        assertEquals(List.of("Mall, Entrance \"A\"", "MALL_DISPLAY", "Cluj", "", "220.00"), fields);
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN a CSV line with an unterminated quote
+        WHEN it is split
+        THEN the row is rejected
+    """)
+    void splitCsv_rejectsUnterminatedQuote() {
+        assertThrows(AdSpaceRowParser.RowRejectedException.class,
+                () -> AdSpaceRowParser.splitCsv("\"Broken,BILLBOARD"));
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN a CSV record whose quoted field spans two lines
+        WHEN its lines are read
+        THEN the first line is seen to continue and the joined record keeps the line break
+    """)
+    void splitCsv_handlesLineBreaksInQuotedFields() throws Exception {
+        String first = "\"Mall Entrance,BILLBOARD";
+        assertTrue(AdSpaceRowParser.continuesOnNextLine(first));
+
+        String record = first + "\nLevel 2\",MALL_DISPLAY,Cluj,,220.00";
+        assertFalse(AdSpaceRowParser.continuesOnNextLine(record));
+        assertEquals(List.of("Mall Entrance,BILLBOARD\nLevel 2", "MALL_DISPLAY", "Cluj", "", "220.00"),
+                AdSpaceRowParser.splitCsv(record));
+        assertFalse(AdSpaceRowParser.continuesOnNextLine("Screen 5\" wide,BILLBOARD"));
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN a CSV header in any column order without the optional capacity column
+        WHEN a row is read with it
+        THEN fields are mapped by name and capacity is absent
+    """)
+    void csvRow_mapsColumnsByName() throws Exception {
+        Map<String, Integer> header = AdSpaceRowParser.csvHeader(
+                List.of("city", "name", "type", "address", "pricePerDay"));
+
+        AdSpaceRow row = AdSpaceRowParser.csvRow(header,
+                List.of("Brasov", "Suburban Billboard", "BILLBOARD", "DN1 Km 150", "90.00"));
+
+        assertEquals(new AdSpaceRow("Suburban Billboard", "BILLBOARD", "Brasov", "DN1 Km 150", "90.00", null), row);
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN a CSV header with an unknown or missing column
+        WHEN it is parsed
+        THEN it is rejected
+    """)
+    void csvHeader_rejectsUnknownAndMissingColumns() {
+        assertThrows(AdSpaceRowParser.RowRejectedException.class,
+                () -> AdSpaceRowParser.csvHeader(List.of("name", "type", "city", "address", "price")));
+        assertThrows(AdSpaceRowParser.RowRejectedException.class,
+                () -> AdSpaceRowParser.csvHeader(List.of("name", "type", "city", "address")));
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN a complete row
+        WHEN it is converted
+        THEN an AVAILABLE ad space with the given values is built
+    """)
+    void toAdSpace_buildsAvailableAdSpace() throws Exception {
+        AdSpace adSpace = parser.toAdSpace(
+                new AdSpaceRow(" Old Town Bus Stop ", "bus_stop", "Bucharest", "Strada Lipscani 23", "75.00", "2"));
+
+        assertEquals("Old Town Bus Stop", adSpace.getName());
+        assertEquals(AdSpaceType.BUS_STOP, adSpace.getType());
+        assertEquals(new BigDecimal("75.00"), adSpace.getPricePerDay());
+        assertEquals(AdSpaceStatus.AVAILABLE, adSpace.getStatus());
+        assertEquals(2, adSpace.getCapacity());
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN rows breaking the entity constraints
+        WHEN they are converted
+        THEN each is rejected with the constraint's message
+    """)
+    void toAdSpace_appliesEntityConstraints() {
+        AdSpaceRowParser.RowRejectedException blankName = assertThrows(AdSpaceRowParser.RowRejectedException.class,
+                () -> parser.toAdSpace(new AdSpaceRow(" ", "BILLBOARD", "Cluj", "Street 1", "10", null)));
+        assertEquals("Ad space name is required", blankName.getMessage());
+
+        AdSpaceRowParser.RowRejectedException freePrice = assertThrows(AdSpaceRowParser.RowRejectedException.class,
+                () -> parser.toAdSpace(new AdSpaceRow("Name", "BILLBOARD", "Cluj", "Street 1", "0", null)));
+        assertEquals("Price must be greater than 0", freePrice.getMessage());
+
+        assertThrows(AdSpaceRowParser.RowRejectedException.class,
+                () -> parser.toAdSpace(new AdSpaceRow("Name", "BALLOON", "Cluj", "Street 1", "10", null)));
+        assertThrows(AdSpaceRowParser.RowRejectedException.class,
+                () -> parser.toAdSpace(new AdSpaceRow("Name", "BILLBOARD", "Cluj", "Street 1", "ten", null)));
+        assertThrows(AdSpaceRowParser.RowRejectedException.class,
+                () -> parser.toAdSpace(new AdSpaceRow("Name", "BILLBOARD", "Cluj", "Street 1", "10", "0")));
+    }
+}
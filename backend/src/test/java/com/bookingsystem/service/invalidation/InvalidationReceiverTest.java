@@ -0,0 +1,147 @@
+package com.bookingsystem.service.invalidation;
+
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class InvalidationReceiverTest {
+
+    static class RecordingCache implements LocalCache {
+        final List<String> calls = new ArrayList<>();
+
+        @Override
+        public void evictAdSpaces(Collection<Long> adSpaceIds) {
+            calls.add("adSpaces " + adSpaceIds);
+        }
+
+        @Override
+        public void evictBookings(Long adSpaceId, Collection<Long> bookingIds) {
+            calls.add("bookings " + adSpaceId + " " + bookingIds);
+        }
+
+        @Override
+        public void evictAll() {
+            calls.add("all");
+        }
+    }
+
+    private SimpleMeterRegistry meterRegistry;
+    private RecordingCache cache;
+    private InvalidationReceiver receiver;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        cache = new RecordingCache();
+        receiver = new InvalidationReceiver("self", List.of(cache), meterRegistry, () -> 0L, 300_000);
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN messages from another node with consecutive sequence numbers
+        WHEN they are received
+        THEN each evicts exactly the listed entries
+    """)
+    void inOrderMessages_evictListedEntries() {
+        // WHEN
+        receiver.accept(message("other", 1, InvalidationMessage.Kind.AD_SPACES, null, List.of(3L, 4L)));
+        receiver.accept(message("other", 2, InvalidationMessage.Kind.BOOKINGS, 3L, List.of(10L)));
+
+        // THEN
+        assertEquals(List.of("adSpaces [3, 4]", "bookings 3 [10]"), cache.calls);
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN a sender whose sequence number skips ahead
+        WHEN the message is received
+        THEN all local caches are flushed and the resync is counted
+    """)
+    void gap_flushesEverything() {
+        // GIVEN
+        receiver.accept(message("other", 1, InvalidationMessage.Kind.AD_SPACES, null, List.of(3L)));
+
+        // WHEN
+        receiver.accept(message("other", 3, InvalidationMessage.Kind.AD_SPACES, null, List.of(4L)));
+
+        // THEN
+        assertEquals(List.of("adSpaces [3]", "all"), cache.calls);
+        assertEquals(1.0, meterRegistry.counter(InvalidationReceiver.RESYNCS, "reason", "gap").count());
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN a sender whose last message never arrived
+        WHEN its heartbeat reports a higher sequence number
+        THEN all local caches are flushed; a matching heartbeat changes nothing
+    """)
+    void heartbeatAhead_flushesEverything() {
+        // GIVEN
+        receiver.accept(message("other", 1, InvalidationMessage.Kind.AD_SPACES, null, List.of(3L)));
+        receiver.accept(message("other", 1, InvalidationMessage.Kind.HEARTBEAT, null, List.of()));
+
+        // WHEN
+        receiver.accept(message("other", 2, InvalidationMessage.Kind.HEARTBEAT, null, List.of()));
+
+        // THEN
+        assertEquals(List.of("adSpaces [3]", "all"), cache.calls);
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN messages sent by this node
+        WHEN they come back over the channel
+        THEN they are ignored
+    """)
+    void ownMessages_areIgnored() {
+        receiver.accept(message("self", 1, InvalidationMessage.Kind.AD_SPACES, null, List.of(3L)));
+        receiver.accept(message("self", 5, InvalidationMessage.Kind.AD_SPACES, null, List.of(3L)));
+
+        assertTrue(cache.calls.isEmpty());
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN a payload that cannot be parsed
+        WHEN it is received
+        THEN local caches are flushed rather than trusting it
+    """)
+    void malformedPayload_flushesEverything() {
+        receiver.accept("not|a message");
+
+        assertEquals(List.of("all"), cache.calls);
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN more ids than fit in one NOTIFY payload
+        WHEN they are chunked and encoded
+        THEN every chunk stays under the limit and decodes back to the same ids
+    """)
+    void chunking_keepsPayloadsUnderLimit() {
+        List<Long> ids = new ArrayList<>();
+        for (long id = Long.MAX_VALUE - 2_000; id < Long.MAX_VALUE; id++) {
+            ids.add(id);
+        }
+
+        List<Long> decoded = new ArrayList<>();
+        for (List<Long> chunk : InvalidationMessage.chunk(ids)) {
+            String payload = message("node", 1, InvalidationMessage.Kind.AD_SPACES, null, chunk);
+            assertTrue(payload.length() < InvalidationMessage.MAX_PAYLOAD);
+            decoded.addAll(InvalidationMessage.decode(payload).ids());
+        }
+
+        assertEquals(ids, decoded);
+    }
+
+    private static String message(String node, long seq, InvalidationMessage.Kind kind, Long adSpaceId, List<Long> ids) {
+        return new InvalidationMessage(node, seq, kind, adSpaceId, ids).encode();
+    }
+}
@@ -0,0 +1,147 @@
+package com.bookingsystem.service.lifecycle;
+
+import com.bookingsystem.model.BookingRequest;
+import com.bookingsystem.repository.AdSpaceRepository;
+import com.bookingsystem.repository.BookingRequestRepository;
+import com.bookingsystem.service.AdSpacesChangedEvent;
+import com.bookingsystem.service.BookingChangedEvent;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.springframework.context.ApplicationEventPublisher;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.stream.Stream;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class LifecycleReconcilerTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 1);
+
+    @Mock
+    private BookingRequestRepository bookingRequestRepository;
+
+    @Mock
+    private AdSpaceRepository adSpaceRepository;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private LifecycleReconciler reconciler;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        Clock clock = Clock.fixed(Instant.parse("2026-03-01T00:05:00Z"), ZoneOffset.UTC);
+        reconciler = new LifecycleReconciler(
+                bookingRequestRepository,
+                adSpaceRepository,
+                meterRegistry,
+                eventPublisher,
+                clock,
+                2
+        );
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN more stale rows than fit into one batch
+        WHEN reconcile runs
+        THEN each step repeats its batch until a short batch comes back
+    """)
+    void reconcile_repeatsBatchesUntilShortBatch() {
+        // GIVEN
+        when(bookingRequestRepository.expireStalePending(TODAY, 2)).thenReturn(expired(2), expired(2), expired(1));
+        when(adSpaceRepository.releaseIdleBookedSpaces(TODAY, 2)).thenReturn(List.of());
+        when(adSpaceRepository.occupyFullyBookedSpaces(TODAY, 2)).thenReturn(List.of(4L, 9L), List.of());
+
+        // WHEN
+        reconciler.reconcile();
+
+        // THEN
+        verify(bookingRequestRepository, times(3)).expireStalePending(TODAY, 2);
+        verify(adSpaceRepository, times(1)).releaseIdleBookedSpaces(TODAY, 2);
+        verify(adSpaceRepository, times(2)).occupyFullyBookedSpaces(TODAY, 2);
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN a reconciliation run
+        WHEN it completes
+        THEN per-batch timings and changed row counts are recorded per step
+    """)
+    void reconcile_recordsBatchMetrics() {
+        // GIVEN
+        when(bookingRequestRepository.expireStalePending(TODAY, 2)).thenReturn(expired(2), expired(1));
+        when(adSpaceRepository.releaseIdleBookedSpaces(TODAY, 2)).thenReturn(List.of(3L));
+        when(adSpaceRepository.occupyFullyBookedSpaces(TODAY, 2)).thenReturn(List.of());
+
+        // WHEN
+        reconciler.reconcile();
+
+        // THEN
+        assertEquals(2, meterRegistry.get("booking.lifecycle.batch").tag("step", "expire-pending").timer().count());
+        assertEquals(3.0, meterRegistry.get("booking.lifecycle.rows").tag("step", "expire-pending").counter().count());
+        assertEquals(1.0, meterRegistry.get("booking.lifecycle.rows").tag("step", "release-ad-spaces").counter().count());
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN ad spaces whose status no longer matches their bookings
+        WHEN reconcile moves them
+        THEN every non-empty batch is published as one AdSpacesChangedEvent
+    """)
+    void reconcile_publishesChangedAdSpaces() {
+        // GIVEN
+        when(bookingRequestRepository.expireStalePending(TODAY, 2)).thenReturn(List.of());
+        when(adSpaceRepository.releaseIdleBookedSpaces(TODAY, 2)).thenReturn(List.of(3L));
+        when(adSpaceRepository.occupyFullyBookedSpaces(TODAY, 2)).thenReturn(List.of(4L, 9L), List.of());
+
+        // WHEN
+        reconciler.reconcile();
+
+        // THEN
+        verify(eventPublisher).publishEvent(new AdSpacesChangedEvent(List.of(3L)));
+        verify(eventPublisher).publishEvent(new AdSpacesChangedEvent(List.of(4L, 9L)));
+        verifyNoMoreInteractions(eventPublisher);
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN stale pending requests
+        WHEN reconcile expires them
+        THEN each expired request is published as a BookingChangedEvent
+    """)
+    void reconcile_publishesExpiredBookings() {
+        // GIVEN
+        List<BookingRequest> expired = expired(2);
+        when(bookingRequestRepository.expireStalePending(TODAY, 2)).thenReturn(expired, List.of());
+        when(adSpaceRepository.releaseIdleBookedSpaces(TODAY, 2)).thenReturn(List.of());
+        when(adSpaceRepository.occupyFullyBookedSpaces(TODAY, 2)).thenReturn(List.of());
+
+        // WHEN
+        reconciler.reconcile();
+
+        // THEN
+        verify(eventPublisher).publishEvent(new BookingChangedEvent(expired.get(0)));
+        verify(eventPublisher).publishEvent(new BookingChangedEvent(expired.get(1)));
+        verifyNoMoreInteractions(eventPublisher);
+    }
+
+    private static List<BookingRequest> expired(int count) {
+        return Stream.generate(() -> mock(BookingRequest.class)).limit(count).toList();
+    }
+}
@@ -0,0 +1,99 @@
+package com.bookingsystem.service.lookup;
+
+import jakarta.persistence.EntityManager;
+import org.hibernate.MultiIdentifierLoadAccess;
+import org.hibernate.Session;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.util.Arrays;
+import java.util.List;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.ArgumentMatchers.anyBoolean;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class EntityMultiLoaderTest {
+
+    @Mock
+    private EntityManager entityManager;
+
+    @Mock
+    private Session session;
+
+    @Mock
+    private MultiIdentifierLoadAccess<String> loadAccess;
+
+    private EntityMultiLoader loader;
+
+    @BeforeEach
+    void setUp() {
+        loader = new EntityMultiLoader(entityManager, 3);
+    }
+
+    private void stubMultiLoad(List<Long> ids, List<String> result) {
+        when(entityManager.unwrap(Session.class)).thenReturn(session);
+        when(session.byMultipleIds(String.class)).thenReturn(loadAccess);
+        when(loadAccess.enableSessionCheck(anyBoolean())).thenReturn(loadAccess);
+        when(loadAccess.enableOrderedReturn(anyBoolean())).thenReturn(loadAccess);
+        when(loadAccess.multiLoad(ids)).thenReturn(result);
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN ids where one does not exist and one is repeated
+        WHEN load is called
+        THEN the found entities come back once each in request order and the unknown id is reported missing
+    """)
+    void load_preservesOrderAndReportsMissing() {
+        // GIVEN
+        stubMultiLoad(List.of(3L, 1L, 2L), Arrays.asList("three", null, "two"));
+
+        // WHEN
+        MultiGet<String> result = loader.load(String.class, List.of(3L, 1L, 3L, 2L), null);
+
+        // THEN
+        assertEquals(List.of("three", "two"), result.items());
+        assertEquals(List.of(1L), result.missing());
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN an id missing from the table but present in the fallback
+        WHEN load is called
+        THEN the fallback is asked only for that id and its entity keeps its position
+    """)
+    void load_fillsGapsFromFallback() {
+        // GIVEN
+        stubMultiLoad(List.of(1L, 2L, 3L), Arrays.asList("one", null, null));
+
+        // WHEN
+        MultiGet<String> result = loader.load(String.class, List.of(1L, 2L, 3L), notFound -> {
+            assertEquals(List.of(2L, 3L), notFound);
+            return Map.of(2L, "archived two");
+        });
+
+        // THEN
+        assertEquals(List.of("one", "archived two"), result.items());
+        assertEquals(List.of(3L), result.missing());
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN more distinct ids than the configured maximum
+        WHEN load is called
+        THEN an IllegalArgumentException is thrown without querying
+    """)
+    void load_rejectsTooManyIds() {
+        // WHEN / THEN
+        assertThrows(IllegalArgumentException.class,
+                () -> loader.load(String.class, List.of(1L, 2L, 3L, 4L), null));
+        verifyNoInteractions(entityManager);
+    }
+}
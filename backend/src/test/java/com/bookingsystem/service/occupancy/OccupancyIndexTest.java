@@ -0,0 +1,107 @@
+package com.bookingsystem.service.occupancy;
+
+import com.bookingsystem.model.AdSpace;
+import com.bookingsystem.model.AdSpaceStatus;
+import com.bookingsystem.model.AdSpaceType;
+import com.bookingsystem.model.BookingRequest;
+import com.bookingsystem.model.BookingStatus;
+import com.bookingsystem.repository.BookingRequestRepository;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.LocalDate;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class OccupancyIndexTest {
+
+    private static final LocalDate START = LocalDate.of(2026, 6, 1);
+    private static final LocalDate END = LocalDate.of(2026, 6, 10);
+
+    @Mock
+    private BookingRequestRepository bookingRequestRepository;
+
+    private OccupancyIndex occupancyIndex;
+
+    @BeforeEach
+    void setUp() {
+        occupancyIndex = new OccupancyIndex(bookingRequestRepository);
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN a space whose tree isn't loaded and whose cancellation already committed
+        WHEN release runs after commit and the tree is loaded later
+        THEN the cancelled booking isn't subtracted a second time
+    """)
+    void release_leavesUnloadedTreeAlone() {
+        // GIVEN
+        when(bookingRequestRepository.findByAdSpaceIdAndStatus(1L, BookingStatus.APPROVED))
+                .thenReturn(List.of());
+
+        // WHEN
+        occupancyIndex.release(1L, START, END);
+
+        // THEN
+        assertEquals(0, occupancyIndex.peakOccupancy(1L, START, END));
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN a space whose tree isn't loaded and whose approval already committed
+        WHEN reserve runs after commit and the tree is loaded later
+        THEN the approval counts once
+    """)
+    void reserve_leavesUnloadedTreeAlone() {
+        // GIVEN
+        when(bookingRequestRepository.findByAdSpaceIdAndStatus(1L, BookingStatus.APPROVED))
+                .thenReturn(List.of(approvedBooking()));
+
+        // WHEN
+        occupancyIndex.reserve(1L, START, END);
+
+        // THEN
+        assertEquals(1, occupancyIndex.peakOccupancy(1L, START, END));
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN a loaded tree
+        WHEN approvals and cancellations are reserved and released
+        THEN the tree follows them without reloading
+    """)
+    void reserveAndRelease_updateLoadedTree() {
+        // GIVEN
+        when(bookingRequestRepository.findByAdSpaceIdAndStatus(1L, BookingStatus.APPROVED))
+                .thenReturn(List.of());
+        assertEquals(0, occupancyIndex.peakOccupancy(1L, START, END));
+
+        // WHEN
+        occupancyIndex.reserve(1L, START, END);
+        occupancyIndex.reserve(1L, START.plusDays(5), END.plusDays(5));
+        occupancyIndex.release(1L, START, END);
+
+        // THEN
+        assertEquals(1, occupancyIndex.peakOccupancy(1L, START, END.plusDays(5)));
+        verify(bookingRequestRepository, times(1)).findByAdSpaceIdAndStatus(1L, BookingStatus.APPROVED);
+    }
+
+    private static BookingRequest approvedBooking() {
+        AdSpace adSpace = new AdSpace("Space", AdSpaceType.BILLBOARD, "Bucharest", "Street 1",
+                new BigDecimal("100.00"), AdSpaceStatus.AVAILABLE);
+        ReflectionTestUtils.setField(adSpace, "id", 1L);
+        BookingRequest booking = new BookingRequest(adSpace, "John Doe", "john@example.com",
+                START, END, new BigDecimal("900.00"));
+        booking.approve();
+        return booking;
+    }
+}
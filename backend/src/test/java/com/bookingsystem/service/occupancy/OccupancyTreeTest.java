@@ -0,0 +1,74 @@
+package com.bookingsystem.service.occupancy;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class OccupancyTreeTest {
+
+    private static final LocalDate BASE = LocalDate.of(2026, 1, 1);
+
+    @Test
+    @DisplayName("""
+        GIVEN an empty tree
+        WHEN max is queried for any range
+        THEN zero is returned
+    """)
+    void max_isZero_whenEmpty() {
+        OccupancyTree tree = new OccupancyTree();
+
+        assertEquals(0, tree.max(BASE, BASE.plusDays(30)));
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN two ranges that touch on a single shared day
+        WHEN max is queried
+        THEN the shared day counts both, matching the inclusive overlap rule
+    """)
+    void max_countsSharedBoundaryDay() {
+        OccupancyTree tree = new OccupancyTree();
+        tree.add(BASE, BASE.plusDays(7), 1);
+        tree.add(BASE.plusDays(7), BASE.plusDays(14), 1);
+
+        assertEquals(2, tree.max(BASE, BASE.plusDays(14)));
+        assertEquals(2, tree.max(BASE.plusDays(7), BASE.plusDays(7)));
+        assertEquals(1, tree.max(BASE, BASE.plusDays(6)));
+        assertEquals(1, tree.max(BASE.plusDays(8), BASE.plusDays(20)));
+        assertEquals(0, tree.max(BASE.plusDays(15), BASE.plusDays(20)));
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN a range that was added and then removed
+        WHEN max is queried
+        THEN the occupancy is back to zero
+    """)
+    void add_negativeDeltaReleasesRange() {
+        OccupancyTree tree = new OccupancyTree();
+        tree.add(BASE, BASE.plusDays(10), 1);
+        tree.add(BASE.plusDays(5), BASE.plusDays(15), 1);
+        tree.add(BASE, BASE.plusDays(10), -1);
+
+        assertEquals(1, tree.max(BASE, BASE.plusDays(15)));
+        assertEquals(0, tree.max(BASE, BASE.plusDays(4)));
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN a date before 1970
+        WHEN it is added to the tree
+        THEN IllegalArgumentException is thrown
+    """)
+    void add_rejectsDatesOutsideDomain() {
+        OccupancyTree tree = new OccupancyTree();
+
+        assertThrows(
+                IllegalArgumentException.class,
+                () -> tree.add(LocalDate.of(1969, 12, 1), BASE, 1)
+        );
+    }
+}
@@ -0,0 +1,36 @@
+package com.bookingsystem.service.partition;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class BookingPartitionMaintainerTest {
+
+    @Test
+    @DisplayName("""
+        GIVEN quarterly partition names
+        WHEN their quarter start is derived
+        THEN it is the first day of that quarter
+    """)
+    void quarterStart_parsesQuarterPartitions() {
+        assertEquals(Optional.of(LocalDate.of(2025, 1, 1)),
+                BookingPartitionMaintainer.quarterStart("booking_request_2025_q1"));
+        assertEquals(Optional.of(LocalDate.of(2025, 10, 1)),
+                BookingPartitionMaintainer.quarterStart("booking_request_2025_q4"));
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN the default partition or an unrelated name
+        WHEN the quarter start is derived
+        THEN nothing is returned, so the partition is never archived
+    """)
+    void quarterStart_ignoresOtherPartitions() {
+        assertEquals(Optional.empty(), BookingPartitionMaintainer.quarterStart("booking_request_default"));
+        assertEquals(Optional.empty(), BookingPartitionMaintainer.quarterStart("booking_request_2025_q5"));
+    }
+}
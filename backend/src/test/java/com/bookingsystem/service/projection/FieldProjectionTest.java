@@ -0,0 +1,49 @@
+package com.bookingsystem.service.projection;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class FieldProjectionTest {
+
+    @Test
+    @DisplayName("""
+        GIVEN a fields parameter with spaces, a repeated field and an empty entry
+        WHEN parse is called
+        THEN the known fields come back once each in the order given
+    """)
+    void parse_keepsOrderAndDropsDuplicates() {
+        // WHEN
+        List<String> fields = FieldProjection.parse(" name, id,,name ,pricePerDay", FieldProjection.AD_SPACE_FIELDS);
+
+        // THEN
+        assertEquals(List.of("name", "id", "pricePerDay"), fields);
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN a field the API does not expose
+        WHEN parse is called
+        THEN an IllegalArgumentException names the field
+    """)
+    void parse_rejectsUnknownField() {
+        // WHEN / THEN
+        IllegalArgumentException ex = assertThrows(IllegalArgumentException.class,
+                () -> FieldProjection.parse("id,adSpace", FieldProjection.BOOKING_FIELDS));
+        assertTrue(ex.getMessage().contains("'adSpace'"));
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN a fields parameter with no field names
+        WHEN parse is called
+        THEN an IllegalArgumentException is thrown
+    """)
+    void parse_rejectsEmptyList() {
+        // WHEN / THEN
+        assertThrows(IllegalArgumentException.class, () -> FieldProjection.parse(" , ", FieldProjection.AD_SPACE_FIELDS));
+    }
+}
@@ -0,0 +1,147 @@
+package com.bookingsystem.service.routing;
+
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import javax.sql.DataSource;
+import java.sql.Connection;
+import java.sql.SQLException;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+class ReplicaRoutingDataSourceTest {
+
+    private DataSource primary;
+    private DataSource replicaA;
+    private DataSource replicaB;
+    private ReplicaRoutingDataSource routing;
+
+    @BeforeEach
+    void setUp() throws SQLException {
+        primary = dataSource();
+        replicaA = dataSource();
+        replicaB = dataSource();
+        routing = new ReplicaRoutingDataSource(primary, List.of(replicaA, replicaB));
+    }
+
+    @AfterEach
+    void tearDown() {
+        ReadYourWrites.unbind();
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN two replicas and no client session
+        WHEN read-only connections are used
+        THEN they alternate between the replicas and never touch the primary
+    """)
+    void readOnly_roundRobinsReplicas() throws SQLException {
+        // WHEN
+        use(true);
+        use(true);
+        use(true);
+
+        // THEN
+        verify(replicaA, times(2)).getConnection();
+        verify(replicaB, times(1)).getConnection();
+        verify(primary, never()).getConnection();
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN a client session that has not written recently
+        WHEN it writes and then reads in the same request
+        THEN both use the primary and the write is reported once
+    """)
+    void write_pinsSessionToPrimary() throws SQLException {
+        // GIVEN
+        AtomicInteger reported = new AtomicInteger();
+        ReadYourWrites.bind(new ReadYourWrites.Session(false, reported::incrementAndGet));
+
+        // WHEN
+        use(false);
+        use(true);
+        use(false);
+
+        // THEN
+        verify(primary, times(3)).getConnection();
+        verifyNoInteractions(replicaA, replicaB);
+        assertEquals(1, reported.get());
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN a client session inside its read-your-writes window
+        WHEN it reads
+        THEN the primary is used without counting as a write
+    """)
+    void pinnedSession_readsFromPrimary() throws SQLException {
+        // GIVEN
+        AtomicInteger reported = new AtomicInteger();
+        ReadYourWrites.bind(new ReadYourWrites.Session(true, reported::incrementAndGet));
+
+        // WHEN
+        use(true);
+
+        // THEN
+        verify(primary).getConnection();
+        verifyNoInteractions(replicaA, replicaB);
+        assertEquals(0, reported.get());
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN no client session
+        WHEN a read-only connection is used inside ReadYourWrites.onPrimary
+        THEN the primary is used, and reads after it go back to the replicas
+    """)
+    void onPrimary_readsFromPrimary() throws SQLException {
+        // WHEN
+        ReadYourWrites.onPrimary(() -> {
+            try {
+                use(true);
+            } catch (SQLException ex) {
+                throw new IllegalStateException(ex);
+            }
+            return null;
+        });
+        use(true);
+
+        // THEN
+        verify(primary).getConnection();
+        verify(replicaA).getConnection();
+        verifyNoInteractions(replicaB);
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN no replicas
+        WHEN the routing data source is created
+        THEN it is refused
+    """)
+    void requiresReplica() {
+        assertThrows(IllegalArgumentException.class, () -> new ReplicaRoutingDataSource(primary, List.of()));
+    }
+
+    /**
+     * Does what the transaction manager does: marks the lazy connection, then runs a
+     * statement, which is when the physical connection is taken.
+     */
+    private void use(boolean readOnly) throws SQLException {
+        try (Connection connection = routing.getConnection()) {
+            connection.setReadOnly(readOnly);
+            connection.createStatement();
+        }
+    }
+
+    private static DataSource dataSource() throws SQLException {
+        DataSource dataSource = mock(DataSource.class);
+        when(dataSource.getConnection()).thenAnswer(invocation -> mock(Connection.class));
+        return dataSource;
+    }
+}
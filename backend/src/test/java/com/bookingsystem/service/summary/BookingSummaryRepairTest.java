@@ -0,0 +1,82 @@
+package com.bookingsystem.service.summary;
+
+import com.bookingsystem.repository.AdSpaceRepository;
+import io.micrometer.core.instrument.simple.SimpleMeterRegistry;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class BookingSummaryRepairTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 1);
+
+    @Mock
+    private AdSpaceRepository adSpaceRepository;
+
+    private SimpleMeterRegistry meterRegistry;
+
+    private BookingSummaryRepair repair;
+
+    @BeforeEach
+    void setUp() {
+        meterRegistry = new SimpleMeterRegistry();
+        Clock clock = Clock.fixed(Instant.parse("2026-03-01T00:15:00Z"), ZoneOffset.UTC);
+        repair = new BookingSummaryRepair(adSpaceRepository, meterRegistry, clock, 2);
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN ad spaces spread over several batches
+        WHEN repair runs
+        THEN each id range is refreshed once, in order, and drifted rows are counted
+    """)
+    void repair_walksIdRangesInBatches() {
+        // GIVEN
+        when(adSpaceRepository.findBatchEnd(0, 2)).thenReturn(7L);
+        when(adSpaceRepository.findBatchEnd(7, 2)).thenReturn(12L);
+        when(adSpaceRepository.findBatchEnd(12, 2)).thenReturn(null);
+        when(adSpaceRepository.refreshBookingSummaries(1, 7, TODAY)).thenReturn(1);
+        when(adSpaceRepository.refreshBookingSummaries(8, 12, TODAY)).thenReturn(0);
+
+        // WHEN
+        int repaired = repair.repair();
+
+        // THEN
+        assertEquals(1, repaired);
+        var inOrder = inOrder(adSpaceRepository);
+        inOrder.verify(adSpaceRepository).refreshBookingSummaries(1, 7, TODAY);
+        inOrder.verify(adSpaceRepository).refreshBookingSummaries(8, 12, TODAY);
+        assertEquals(1.0, meterRegistry.get("booking.summary.repaired").counter().count());
+        assertEquals(2, meterRegistry.get("booking.summary.repair.batch").timer().count());
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN no ad spaces
+        WHEN repair runs
+        THEN nothing is refreshed
+    """)
+    void repair_doesNothing_whenThereAreNoAdSpaces() {
+        // GIVEN
+        when(adSpaceRepository.findBatchEnd(0, 2)).thenReturn(null);
+
+        // WHEN
+        int repaired = repair.repair();
+
+        // THEN
+        assertEquals(0, repaired);
+        verify(adSpaceRepository, never()).refreshBookingSummaries(anyLong(), anyLong(), any());
+    }
+}
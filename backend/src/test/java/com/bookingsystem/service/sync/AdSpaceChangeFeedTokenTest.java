@@ -0,0 +1,50 @@
+package com.bookingsystem.service.sync;
+
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+class AdSpaceChangeFeedTokenTest {
+
+    @Test
+    @DisplayName("""
+        GIVEN a change position
+        WHEN it is encoded and decoded again
+        THEN the same position comes back
+    """)
+    void token_roundTrips() {
+        // GIVEN
+        AdSpaceChangeFeed.Position position = new AdSpaceChangeFeed.Position(48_213_977L, Long.MAX_VALUE);
+
+        // WHEN
+        AdSpaceChangeFeed.Position decoded = AdSpaceChangeFeed.Position.decode(position.encode());
+
+        // THEN
+        assertEquals(position, decoded);
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN no token
+        WHEN it is decoded
+        THEN the feed starts from the beginning
+    """)
+    void missingToken_startsFromBeginning() {
+        // WHEN / THEN
+        assertEquals(new AdSpaceChangeFeed.Position(0, 0), AdSpaceChangeFeed.Position.decode(null));
+        assertEquals(new AdSpaceChangeFeed.Position(0, 0), AdSpaceChangeFeed.Position.decode(" "));
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN a token that was not produced by the feed
+        WHEN it is decoded
+        THEN an IllegalArgumentException is thrown
+    """)
+    void malformedToken_isRejected() {
+        // WHEN / THEN
+        assertThrows(IllegalArgumentException.class, () -> AdSpaceChangeFeed.Position.decode("not-a-token!"));
+        assertThrows(IllegalArgumentException.class, () -> AdSpaceChangeFeed.Position.decode("MTIz"));
+    }
+}
@@ -0,0 +1,116 @@
+package com.bookingsystem.service.waitlist;
+
+import com.bookingsystem.model.AdSpace;
+import com.bookingsystem.model.AdSpaceStatus;
+import com.bookingsystem.model.AdSpaceType;
+import com.bookingsystem.model.BookingRequest;
+import com.bookingsystem.model.BookingStatus;
+import com.bookingsystem.repository.BookingRequestRepository;
+import com.bookingsystem.service.BookingChangedEvent;
+import com.bookingsystem.service.occupancy.OccupancyIndex;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.DisplayName;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.extension.ExtendWith;
+import org.mockito.Mock;
+import org.mockito.junit.jupiter.MockitoExtension;
+import org.springframework.context.ApplicationEventPublisher;
+import org.springframework.test.util.ReflectionTestUtils;
+
+import java.math.BigDecimal;
+import java.time.Clock;
+import java.time.Instant;
+import java.time.LocalDate;
+import java.time.ZoneOffset;
+import java.util.List;
+import java.util.Optional;
+
+import static org.junit.jupiter.api.Assertions.*;
+import static org.mockito.Mockito.*;
+
+@ExtendWith(MockitoExtension.class)
+class WaitlistServiceTest {
+
+    private static final LocalDate TODAY = LocalDate.of(2026, 3, 1);
+
+    @Mock
+    private BookingRequestRepository bookingRequestRepository;
+
+    @Mock
+    private OccupancyIndex occupancyIndex;
+
+    @Mock
+    private ApplicationEventPublisher eventPublisher;
+
+    private AdSpace adSpace;
+
+    @BeforeEach
+    void setUp() {
+        adSpace = new AdSpace("Test Space", AdSpaceType.BILLBOARD, "Bucharest", "Test Street 1",
+                new BigDecimal("100.00"), AdSpaceStatus.AVAILABLE);
+        ReflectionTestUtils.setField(adSpace, "id", 1L);
+    }
+
+    private WaitlistService service(WaitlistPolicy policy) {
+        Clock clock = Clock.fixed(Instant.parse("2026-03-01T08:00:00Z"), ZoneOffset.UTC);
+        return new WaitlistService(bookingRequestRepository, occupancyIndex, clock, policy, 10, eventPublisher);
+    }
+
+    private BookingRequest waitlisted(long id, LocalDate start, LocalDate end) {
+        BookingRequest booking = new BookingRequest(
+                adSpace, "Waiter " + id, "waiter" + id + "@example.com", start, end, new BigDecimal("700.00"));
+        ReflectionTestUtils.setField(booking, "id", id);
+        booking.moveToWaitlist();
+        return booking;
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN ranked waiters in the freed window, the first of which still doesn't fit
+        WHEN promoteNext is called
+        THEN only the window is queried, the first waiter that fits is promoted and its change is published
+    """)
+    void promoteNext_promotesFirstFittingCandidate() {
+        // GIVEN
+        LocalDate start = TODAY.plusDays(10);
+        LocalDate end = TODAY.plusDays(20);
+        BookingRequest tooLong = waitlisted(7L, start, end.plusDays(30));
+        BookingRequest fits = waitlisted(8L, start, end);
+        when(bookingRequestRepository.lockWaitlistCandidates(1L, start, end, TODAY, true, 10))
+                .thenReturn(List.of(tooLong, fits));
+        when(occupancyIndex.peakOccupancy(1L, start, end.plusDays(30))).thenReturn(1);
+        when(occupancyIndex.peakOccupancy(1L, start, end)).thenReturn(0);
+        when(bookingRequestRepository.save(fits)).thenReturn(fits);
+
+        // WHEN
+        Optional<BookingRequest> promoted = service(WaitlistPolicy.PRICE).promoteNext(adSpace, start, end);
+
+        // THEN
+        assertEquals(Optional.of(fits), promoted);
+        assertEquals(BookingStatus.PENDING, fits.getStatus());
+        assertEquals(BookingStatus.WAITLISTED, tooLong.getStatus());
+        verify(eventPublisher).publishEvent(new BookingChangedEvent(fits));
+    }
+
+    @Test
+    @DisplayName("""
+        GIVEN no waiter in the freed window that is free to lock
+        WHEN promoteNext is called
+        THEN nothing is promoted or published
+    """)
+    void promoteNext_withoutCandidates_promotesNothing() {
+        // GIVEN
+        LocalDate start = TODAY.plusDays(10);
+        LocalDate end = TODAY.plusDays(20);
+        when(bookingRequestRepository.lockWaitlistCandidates(1L, start, end, TODAY, false, 10))
+                .thenReturn(List.of());
+
+        // WHEN
+        Optional<BookingRequest> promoted = service(WaitlistPolicy.FIFO).promoteNext(adSpace, start, end);
+
+        // THEN
+        assertTrue(promoted.isEmpty());
+        verify(bookingRequestRepository, never()).save(any());
+        verifyNoInteractions(eventPublisher);
+    }
+}
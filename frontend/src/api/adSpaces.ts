@@ -21,10 +21,13 @@ export async function fetchAdSpaces(params?: {
 export async function updateAdSpace(
   id: number,
   updates: { name: string },
+  version?: number,
 ): Promise<AdSpace> {
+  const headers: Record<string, string> = { 'Content-Type': 'application/json' };
+  if (version !== undefined) headers['If-Match'] = `"${version}"`;
   const response = await fetch(`/api/v1/ad-spaces/${id}`, {
     method: 'PATCH',
-    headers: { 'Content-Type': 'application/json' },
+    headers,
     body: JSON.stringify(updates),
   });
   if (!response.ok) {
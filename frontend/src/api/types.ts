@@ -10,9 +10,10 @@ export interface AdSpace {
   address: string;
   pricePerDay: number;
   status: AdSpaceStatus;
+  version: number;
 }
 
-export type BookingStatus = 'PENDING' | 'APPROVED' | 'REJECTED' | string;
+export type BookingStatus = 'PENDING' | 'APPROVED' | 'REJECTED' | 'WAITLISTED' | 'CANCELLED' | 'EXPIRED' | string;
 
 export interface BookingRequest {
   id: number;
@@ -100,7 +100,8 @@ const createAdSpacesStore: StateCreator<AdSpacesState> = (set, get) => ({
     updates: Partial<Pick<AdSpace, 'name' | 'city' | 'address' | 'pricePerDay' | 'type'>>,
   ) => {
     try {
-      const updated = await apiUpdateAdSpace(id, { name: updates.name! });
+      const current = get().adSpaces.find((space: AdSpace) => space.id === id);
+      const updated = await apiUpdateAdSpace(id, { name: updates.name! }, current?.version);
       set((state: AdSpacesState) => ({
         adSpaces: state.adSpaces.map((space: AdSpace) =>
           space.id === id ? updated : space,
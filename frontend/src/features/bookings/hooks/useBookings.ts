@@ -44,6 +44,9 @@ export function useBookings() {
     { value: 'PENDING', label: 'Pending' },
     { value: 'APPROVED', label: 'Approved' },
     { value: 'REJECTED', label: 'Rejected' },
+    { value: 'WAITLISTED', label: 'Waitlisted' },
+    { value: 'CANCELLED', label: 'Cancelled' },
+    { value: 'EXPIRED', label: 'Expired' },
   ];
 
   return {
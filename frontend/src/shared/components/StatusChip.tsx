@@ -13,6 +13,9 @@ const statusConfig: Record<
   PENDING: { label: 'Pending', color: 'warning' },
   APPROVED: { label: 'Approved', color: 'success' },
   REJECTED: { label: 'Rejected', color: 'error' },
+  EXPIRED: { label: 'Expired', color: 'default' },
+  WAITLISTED: { label: 'Waitlisted', color: 'default' },
+  CANCELLED: { label: 'Cancelled', color: 'default' },
 };
 
 export function StatusChip({ status }: StatusChipProps) {